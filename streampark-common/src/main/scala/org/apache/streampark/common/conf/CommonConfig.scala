@@ -71,6 +71,24 @@ object CommonConfig {
     classType = classOf[JavaLong],
     description = "instantiating connection timeout for DockerHttpClient")
 
+  val DOCKER_IMAGE_BUILDER: InternalOption = InternalOption(
+    key = "streampark.docker.image-builder",
+    defaultValue = "docker",
+    classType = classOf[String],
+    description = "builder of flink-k8s application images, docker: build and push images by the docker daemon, oci: build layered OCI images and push them to the register directly")
+
+  val DOCKER_OCI_PLATFORM: InternalOption = InternalOption(
+    key = "streampark.docker.oci.platform",
+    defaultValue = "linux/amd64",
+    classType = classOf[String],
+    description = "platform of the base image picked from a multi-platform image by the oci image builder")
+
+  val DOCKER_OCI_INSECURE_REGISTERS: InternalOption = InternalOption(
+    key = "streampark.docker.oci.insecure-registers",
+    defaultValue = "",
+    classType = classOf[String],
+    description = "comma separated docker registers accessed by plain http by the oci image builder, localhost is always insecure")
+
   val MAVEN_SETTINGS_PATH: InternalOption = InternalOption(
     key = "streampark.maven.settings",
     defaultValue = null,
@@ -95,6 +113,54 @@ object CommonConfig {
     classType = classOf[String],
     description = "maven repository used for built-in compilation")
 
+  val MAVEN_RESOLVE_PARALLELISM: InternalOption = InternalOption(
+    key = "streampark.maven.resolve.parallelism",
+    defaultValue = 4,
+    classType = classOf[JavaInt],
+    description = "number of threads for resolving and downloading the maven artifacts in parallel")
+
+  val BUILD_PIPELINE_CONCURRENCY: InternalOption = InternalOption(
+    key = "streampark.build.concurrency.pipeline",
+    defaultValue = 8,
+    classType = classOf[JavaInt],
+    description = "max number of the build pipelines running at the same time, the others are queued")
+
+  val BUILD_MAVEN_CONCURRENCY: InternalOption = InternalOption(
+    key = "streampark.build.concurrency.maven",
+    defaultValue = 2,
+    classType = classOf[JavaInt],
+    description = "max number of the maven resolutions running at the same time")
+
+  val BUILD_SHADE_CONCURRENCY: InternalOption = InternalOption(
+    key = "streampark.build.concurrency.shade",
+    defaultValue = Math.max(1, Runtime.getRuntime.availableProcessors / 2),
+    classType = classOf[JavaInt],
+    description = "max number of the cpu bound packaging tasks running at the same time, like building fat-jars and image layers")
+
+  val BUILD_DOCKER_CONCURRENCY: InternalOption = InternalOption(
+    key = "streampark.build.concurrency.docker",
+    defaultValue = 2,
+    classType = classOf[JavaInt],
+    description = "max number of the docker image pulling, building and pushing tasks running at the same time")
+
+  val SHIMS_CLASSLOADER_MAX_SIZE: InternalOption = InternalOption(
+    key = "streampark.shims.classloader.max-size",
+    defaultValue = 8,
+    classType = classOf[JavaInt],
+    description = "max number of the cached flink shims classloaders, the idle ones beyond it are closed")
+
+  val SHIMS_CLASSLOADER_IDLE_TIMEOUT_MIN: InternalOption = InternalOption(
+    key = "streampark.shims.classloader.idle-timeout-min",
+    defaultValue = 30,
+    classType = classOf[JavaInt],
+    description = "the flink shims classloaders unused for longer than it are closed")
+
+  val FLINK_WARM_UP_ENABLED: InternalOption = InternalOption(
+    key = "streampark.flink.warm-up.enabled",
+    defaultValue = true,
+    classType = classOf[java.lang.Boolean],
+    description = "whether to warm up the flink shims classloader and the flink clients of each flink version at startup and after a flink home is registered")
+
   val KERBEROS_TTL: InternalOption = InternalOption(
     key = "security.kerberos.ttl",
     defaultValue = "2h",
@@ -157,6 +157,8 @@ object ConfigConst {
 
   val KEY_KAFKA_START_FROM_TIMESTAMP = "timestamp"
 
+  val KEY_KAFKA_TRANSACTIONAL_ID_PREFIX = "transactional.id.prefix"
+
 
   val KEY_ALIAS = "alias"
 
@@ -53,6 +53,42 @@ object K8sFlinkConfig {
     classType = classOf[java.lang.Integer],
     description = "retained tracking time for SILENT state flink tasks")
 
+  val jobStatusTrackEventDriven: InternalOption = InternalOption(
+    key = "streampark.flink-k8s.tracking.event-driven.job-status",
+    defaultValue = false,
+    classType = classOf[java.lang.Boolean],
+    description = "whether to track flink-k8s job status driven by kubernetes watch events, the polling would only run as reconciliation")
+
+  val jobStatusTrackReconcileIntervalSec: InternalOption = InternalOption(
+    key = "streampark.flink-k8s.tracking.reconcile-interval-sec.job-status",
+    defaultValue = 60L,
+    classType = classOf[java.lang.Long],
+    description = "interval seconds between two flink-k8s job status reconciliation task when event-driven tracking is enabled")
+
+  val trackSnapshotIntervalSec: InternalOption = InternalOption(
+    key = "streampark.flink-k8s.tracking.snapshot.interval-sec",
+    defaultValue = 60L,
+    classType = classOf[java.lang.Long],
+    description = "interval seconds between two snapshots of the flink-k8s tracking state, which is used to warm up the tracking after restart, the snapshot is disabled when less than or equal to 0")
+
+  val trackSnapshotPath: InternalOption = InternalOption(
+    key = "streampark.flink-k8s.tracking.snapshot.path",
+    defaultValue = "",
+    classType = classOf[java.lang.String],
+    description = "file path of the flink-k8s tracking state snapshot, default is under the local workspace")
+
+  val logMaxBytes: InternalOption = InternalOption(
+    key = "streampark.flink-k8s.log.max-bytes",
+    defaultValue = 50L * 1024 * 1024,
+    classType = classOf[java.lang.Long],
+    description = "max bytes of the flink-k8s job log kept by the console, only the latest part of the log is kept when it exceeds")
+
+  val logTailLines: InternalOption = InternalOption(
+    key = "streampark.flink-k8s.log.tail-lines",
+    defaultValue = 0,
+    classType = classOf[java.lang.Integer],
+    description = "only fetch the last lines of the flink-k8s job log from kubernetes, fetch the whole log when less than or equal to 0")
+
   /**
    * kubernetes default namespace
    */
@@ -43,6 +43,21 @@ object Workspace {
    */
   lazy val MAVEN_LOCAL_PATH = s"$localWorkspace/mvnrepo"
 
+  /**
+   * dirPath of the index of the resolved maven artifacts
+   */
+  lazy val MAVEN_RESOLUTION_INDEX_PATH = s"$localWorkspace/mvnrepo_index"
+
+  /**
+   * dirPath of the cached fat-jars built by the packer
+   */
+  lazy val FAT_JAR_CACHE_LOCAL_PATH = s"$localWorkspace/fatjar_cache"
+
+  /**
+   * dirPath of the content-addressed blobs of the images built by the oci image builder
+   */
+  lazy val OCI_BLOB_LOCAL_PATH = s"$localWorkspace/oci_blobs"
+
   /**
    * local sourceCode path.(for git...)
    */
@@ -58,6 +73,11 @@ object Workspace {
    */
   lazy val PROJECT_BUILD_LOG_PATH = s"$LOG_LOCAL_PATH/build_logs"
 
+  /**
+   * snapshot file of the flink-k8s tracking state.
+   */
+  lazy val FLINK_K8S_TRACKING_SNAPSHOT = s"$localWorkspace/flink_k8s_tracking.snapshot"
+
   /**
    * project archives path
    */
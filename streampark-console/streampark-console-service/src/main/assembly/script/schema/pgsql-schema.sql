@@ -21,6 +21,7 @@
 
 drop table if exists "public"."t_user";
 drop table if exists "public"."t_member";
+drop table if exists "public"."t_console_instance";
 drop table if exists "public"."t_setting";
 drop table if exists "public"."t_role";
 drop table if exists "public"."t_role_menu";
@@ -656,6 +657,22 @@ create index "un_role_menu_inx" on "public"."t_role_menu" using btree (
 );
 
 
+-- ----------------------------
+-- table structure for t_console_instance
+-- ----------------------------
+create table "public"."t_console_instance" (
+  "instance_id" varchar(128) collate "pg_catalog"."default" not null,
+  "host" varchar(255) collate "pg_catalog"."default",
+  "heartbeat_time" timestamp(6) not null default timezone('UTC-8'::text, (now())::timestamp(0) without time zone),
+  "create_time" timestamp(6) not null default timezone('UTC-8'::text, (now())::timestamp(0) without time zone)
+)
+;
+comment on column "public"."t_console_instance"."instance_id" is 'console instance id';
+comment on column "public"."t_console_instance"."host" is 'console host';
+comment on column "public"."t_console_instance"."heartbeat_time" is 'last heartbeat time';
+comment on column "public"."t_console_instance"."create_time" is 'create time';
+alter table "public"."t_console_instance" add constraint "t_console_instance_pkey" primary key ("instance_id");
+
 -- ----------------------------
 -- table structure for t_setting
 -- ----------------------------
@@ -341,5 +341,18 @@ create table `t_variable` (
 
 drop table if exists `t_flame_graph`;
 
+-- ----------------------------
+-- Table structure for t_console_instance
+-- ----------------------------
+drop table if exists `t_console_instance`;
+create table `t_console_instance` (
+  `instance_id` varchar(128) collate utf8mb4_general_ci not null comment 'console instance id',
+  `host` varchar(255) collate utf8mb4_general_ci default null comment 'console host',
+  `heartbeat_time` datetime not null default current_timestamp comment 'last heartbeat time',
+  `create_time` datetime not null default current_timestamp comment 'create time',
+  primary key (`instance_id`) using btree
+) engine=innodb default charset=utf8mb4 collate=utf8mb4_general_ci;
+
+
 set foreign_key_checks = 1;
 
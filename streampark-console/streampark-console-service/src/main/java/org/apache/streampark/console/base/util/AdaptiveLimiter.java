@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.console.base.util;
+
+import org.apache.streampark.common.util.AssertUtils;
+
+/**
+ * A concurrency limit which adapts to the back-pressure of the target: the limit grows by one
+ * after each successful operation up to the max limit, and is halved after each failed one,
+ * down to a single in-flight operation.
+ */
+public final class AdaptiveLimiter {
+
+    private final int maxLimit;
+
+    private int limit;
+
+    private int inFlight;
+
+    public AdaptiveLimiter(int maxLimit) {
+        AssertUtils.state(maxLimit > 0, "the max limit must be positive");
+        this.maxLimit = maxLimit;
+        this.limit = maxLimit;
+    }
+
+    /**
+     * acquire a permit without blocking.
+     *
+     * @return false if the in-flight operations already reach the current limit.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight < limit) {
+            inFlight++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * release the permit of an operation and adjust the limit by its result.
+     */
+    public synchronized void release(boolean success) {
+        AssertUtils.state(inFlight > 0, "release without acquire");
+        inFlight--;
+        limit = success ? Math.min(maxLimit, limit + 1) : Math.max(1, limit / 2);
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+}
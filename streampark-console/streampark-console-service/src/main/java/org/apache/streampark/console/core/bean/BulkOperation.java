@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.console.core.bean;
+
+import org.apache.streampark.console.core.enums.BulkAction;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+
+import java.util.List;
+
+@Data
+public class BulkOperation {
+
+    @NotEmpty(message = "{required}")
+    private List<Long> appIds;
+
+    @NotNull(message = "{required}")
+    private BulkAction action;
+
+    /**
+     * stop with a savepoint, and start from the latest savepoint
+     */
+    private Boolean savePointed = false;
+
+    /**
+     * send max watermark before stopping
+     */
+    private Boolean drain = false;
+
+    private Boolean allowNonRestored = false;
+
+    /**
+     * the applications of the same target (yarn queue, cluster or kubernetes namespace) operated at the same time,
+     * the configured streampark.bulk.parallelism-per-target if not set
+     */
+    private Integer parallelism;
+
+}
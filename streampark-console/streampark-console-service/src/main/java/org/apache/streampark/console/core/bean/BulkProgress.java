@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.console.core.bean;
+
+import org.apache.streampark.console.core.enums.BulkAction;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Progress of a bulk operation, it is pushed to the websocket "/websocket/{batchId}" on each change of the applications.
+ */
+@Data
+@Accessors(chain = true)
+public class BulkProgress {
+
+    private String batchId;
+
+    private BulkAction action;
+
+    private Date createTime;
+
+    private Date endTime;
+
+    private boolean aborted;
+
+    private List<AppProgress> apps;
+
+    public boolean isFinished() {
+        return endTime != null;
+    }
+
+    public long count(State state) {
+        return apps.stream().filter(app -> app.getState() == state).count();
+    }
+
+    public enum State {
+        PENDING, RUNNING, SUCCESS, FAILED, SKIPPED
+    }
+
+    @Data
+    @Accessors(chain = true)
+    public static class AppProgress {
+
+        private Long appId;
+
+        private String jobName;
+
+        /**
+         * the yarn queue, the cluster or the kubernetes namespace the application is deployed to
+         */
+        private String target;
+
+        private volatile State state = State.PENDING;
+
+        private String message;
+
+        private Date startTime;
+
+        private Date endTime;
+    }
+
+}
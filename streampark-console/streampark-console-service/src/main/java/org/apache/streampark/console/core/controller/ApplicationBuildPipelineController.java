@@ -27,6 +27,7 @@ import org.apache.streampark.console.core.entity.Application;
 import org.apache.streampark.console.core.service.AppBuildPipeService;
 import org.apache.streampark.console.core.service.ApplicationService;
 import org.apache.streampark.console.core.service.FlinkSqlService;
+import org.apache.streampark.flink.packer.BuildScheduler;
 import org.apache.streampark.flink.packer.pipeline.DockerResolvedSnapshot;
 import org.apache.streampark.flink.packer.pipeline.PipelineType;
 
@@ -112,7 +113,8 @@ public class ApplicationBuildPipelineController {
      * Get application building pipeline progress detail.
      *
      * @param appId application id
-     * @return "pipeline" -> pipeline details, "docker" -> docker resolved snapshot
+     * @return "pipeline" -> pipeline details, "docker" -> docker resolved snapshot,
+     * "scheduler" -> running and queued tasks of the build resources
      */
     @ApiAccess
     @PostMapping("/detail")
@@ -126,6 +128,7 @@ public class ApplicationBuildPipelineController {
             DockerResolvedSnapshot dockerProgress = appBuildPipeService.getDockerProgressDetailSnapshot(appId);
             details.put("docker", AppBuildDockerResolvedDetail.of(dockerProgress));
         }
+        details.put("scheduler", BuildScheduler.snapshotAsJava());
         return RestResponse.success(details);
     }
 
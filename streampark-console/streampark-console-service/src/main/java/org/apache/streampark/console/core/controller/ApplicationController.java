@@ -27,6 +27,7 @@ import org.apache.streampark.console.base.exception.InternalException;
 import org.apache.streampark.console.base.util.MoreFutures;
 import org.apache.streampark.console.core.annotation.ApiAccess;
 import org.apache.streampark.console.core.bean.AppControl;
+import org.apache.streampark.console.core.bean.BulkOperation;
 import org.apache.streampark.console.core.entity.Application;
 import org.apache.streampark.console.core.entity.ApplicationBackUp;
 import org.apache.streampark.console.core.entity.ApplicationLog;
@@ -35,6 +36,7 @@ import org.apache.streampark.console.core.service.AppBuildPipeService;
 import org.apache.streampark.console.core.service.ApplicationBackUpService;
 import org.apache.streampark.console.core.service.ApplicationLogService;
 import org.apache.streampark.console.core.service.ApplicationService;
+import org.apache.streampark.console.core.service.BulkOperationService;
 import org.apache.streampark.console.core.service.LoggerService;
 import org.apache.streampark.flink.packer.pipeline.PipelineStatus;
 
@@ -44,6 +46,7 @@ import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiImplicitParams;
 import io.swagger.annotations.ApiOperation;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.shiro.authz.annotation.Logical;
 import org.apache.shiro.authz.annotation.RequiresPermissions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.validation.annotation.Validated;
@@ -54,6 +57,8 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 import springfox.documentation.annotations.ApiIgnore;
 
+import javax.validation.Valid;
+
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
@@ -76,6 +81,9 @@ public class ApplicationController {
     @Autowired
     private ApplicationBackUpService backUpService;
 
+    @Autowired
+    private BulkOperationService bulkOperationService;
+
     @Autowired
     private ApplicationLogService applicationLogService;
 
@@ -220,6 +228,41 @@ public class ApplicationController {
         return RestResponse.success();
     }
 
+    @ApiAccess
+    @ApiOperation(value = "Start, stop or restart applications in bulk", tags = ApiDocConstant.FLINK_APP_OP_TAG, consumes = "application/x-www-form-urlencoded")
+    @ApiImplicitParams({
+        @ApiImplicitParam(name = "appIds", value = "app ids, separated by comma", required = true, paramType = "query", dataTypeClass = String.class),
+        @ApiImplicitParam(name = "action", value = "START, STOP or RESTART", required = true, paramType = "query", dataTypeClass = String.class),
+        @ApiImplicitParam(name = "savePointed", value = "stop with savepoint and start from the latest savepoint", paramType = "query", dataTypeClass = Boolean.class, defaultValue = "false"),
+        @ApiImplicitParam(name = "drain", value = "send max watermark before stopping", paramType = "query", dataTypeClass = Boolean.class, defaultValue = "false"),
+        @ApiImplicitParam(name = "allowNonRestored", value = "ignore savepoint then cannot be restored", paramType = "query", dataTypeClass = Boolean.class, defaultValue = "false"),
+        @ApiImplicitParam(name = "parallelism", value = "apps operated at the same time per yarn queue, cluster or kubernetes namespace", paramType = "query", dataTypeClass = Integer.class)})
+    @PostMapping(value = "bulk", consumes = "application/x-www-form-urlencoded")
+    @RequiresPermissions(value = {"app:start", "app:cancel"}, logical = Logical.AND)
+    public RestResponse bulk(@ApiIgnore @Valid BulkOperation operation) {
+        return RestResponse.success(bulkOperationService.submit(operation));
+    }
+
+    @ApiAccess
+    @PostMapping("bulk/progress")
+    @RequiresPermissions("app:view")
+    public RestResponse bulkProgress(@RequestParam String batchId) {
+        return RestResponse.success(bulkOperationService.getProgress(batchId));
+    }
+
+    @PostMapping("bulk/list")
+    @RequiresPermissions("app:view")
+    public RestResponse bulkList() {
+        return RestResponse.success(bulkOperationService.list());
+    }
+
+    @PostMapping("bulk/abort")
+    @RequiresPermissions(value = {"app:start", "app:cancel"}, logical = Logical.AND)
+    public RestResponse bulkAbort(@RequestParam String batchId) {
+        bulkOperationService.abort(batchId);
+        return RestResponse.success();
+    }
+
     @PostMapping("yarn")
     public RestResponse yarn() {
         return RestResponse.success(YarnUtils.getRMWebAppProxyURL());
@@ -30,7 +30,9 @@ import org.apache.streampark.common.util.AssertUtils;
 import org.apache.streampark.common.util.SystemPropertyUtils;
 import org.apache.streampark.console.base.util.WebUtils;
 import org.apache.streampark.console.core.entity.FlinkEnv;
+import org.apache.streampark.console.core.service.FlinkEnvService;
 import org.apache.streampark.console.core.service.SettingService;
+import org.apache.streampark.console.core.task.FlinkWarmUpTask;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -62,6 +64,12 @@ public class EnvInitializer implements ApplicationRunner {
     @Autowired
     private SettingService settingService;
 
+    @Autowired
+    private FlinkEnvService flinkEnvService;
+
+    @Autowired
+    private FlinkWarmUpTask flinkWarmUpTask;
+
     private final Map<StorageType, Boolean> initialized = new ConcurrentHashMap<>(2);
 
     private final FileFilter fileFilter = p -> !".gitkeep".equals(p.getName());
@@ -87,6 +95,8 @@ public class EnvInitializer implements ApplicationRunner {
         overrideSystemProp(ConfigConst.KEY_HADOOP_USER_NAME(), hadoopUserName);
         // initialize local file system resources
         storageInitialize(LFS);
+        // warm up the flink clients of the registered flink envs in background
+        flinkWarmUpTask.warmUp(flinkEnvService.list());
     }
 
     private void initInternalConfig(Environment springEnv) {
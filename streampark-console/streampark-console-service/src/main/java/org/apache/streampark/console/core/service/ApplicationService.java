@@ -57,6 +57,11 @@ public interface ApplicationService extends IService<Application> {
 
     void cancel(Application app) throws Exception;
 
+    /**
+     * whether the submission or the cancellation of the application is still in flight
+     */
+    boolean isInFlight(Long appId);
+
     void updateTracking(Application application);
 
     void clean(Application app);
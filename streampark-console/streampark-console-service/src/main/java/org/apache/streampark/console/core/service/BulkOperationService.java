@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.console.core.service;
+
+import org.apache.streampark.console.core.bean.BulkOperation;
+import org.apache.streampark.console.core.bean.BulkProgress;
+
+import java.util.List;
+
+public interface BulkOperationService {
+
+    /**
+     * start the bulk operation in background
+     *
+     * @param operation
+     * @return the progress of the operation, with the batchId to query or subscribe it
+     */
+    BulkProgress submit(BulkOperation operation);
+
+    BulkProgress getProgress(String batchId);
+
+    /**
+     * the running and the recently finished bulk operations
+     */
+    List<BulkProgress> list();
+
+    /**
+     * skip the pending applications of the operation, the running ones are left to finish
+     */
+    void abort(String batchId);
+
+}
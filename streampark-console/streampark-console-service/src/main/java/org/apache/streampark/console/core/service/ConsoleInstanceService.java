@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.console.core.service;
+
+import org.apache.streampark.console.core.entity.ConsoleInstance;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+
+import java.util.List;
+
+public interface ConsoleInstanceService extends IService<ConsoleInstance> {
+
+    /**
+     * register the console instance or renew its lease.
+     *
+     * @param instanceId instance id
+     * @param host       host of the instance
+     */
+    void heartbeat(String instanceId, String host);
+
+    /**
+     * get the ids of the instances whose lease has not expired, sorted by id.
+     *
+     * @param leaseTimeout lease timeout in milliseconds
+     */
+    List<String> getLiveInstanceIds(long leaseTimeout);
+
+    /**
+     * remove the instances whose lease has expired.
+     *
+     * @param leaseTimeout lease timeout in milliseconds
+     */
+    void removeExpired(long leaseTimeout);
+}
@@ -88,8 +88,10 @@ import org.apache.streampark.flink.kubernetes.K8sFlinkTrackMonitor;
 import org.apache.streampark.flink.kubernetes.helper.KubernetesDeploymentHelper;
 import org.apache.streampark.flink.kubernetes.model.FlinkMetricCV;
 import org.apache.streampark.flink.kubernetes.model.TrackId;
+import org.apache.streampark.flink.packer.WorkspaceIndex;
 import org.apache.streampark.flink.packer.pipeline.BuildResult;
 import org.apache.streampark.flink.packer.pipeline.DockerImageBuildResponse;
+import org.apache.streampark.flink.packer.pipeline.FlinkBuildResult;
 import org.apache.streampark.flink.packer.pipeline.ShadedBuildResponse;
 import org.apache.streampark.flink.submit.FlinkSubmitter;
 import org.apache.streampark.flink.submit.bean.CancelRequest;
@@ -1263,6 +1265,11 @@ public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Appli
 
     }
 
+    @Override
+    public boolean isInFlight(Long appId) {
+        return startFutureMap.containsKey(appId) || cancelFutureMap.containsKey(appId);
+    }
+
     @Override
     public String checkSavepointPath(Application appParam) throws Exception {
         String savepointPath = appParam.getSavePoint();
@@ -1421,6 +1428,13 @@ public class ApplicationServiceImpl extends ServiceImpl<ApplicationMapper, Appli
         AssertUtils.state(buildPipeline != null);
 
         BuildResult buildResult = buildPipeline.getBuildResult();
+        if (buildResult instanceof FlinkBuildResult && ExecutionMode.isKubernetesMode(application.getExecutionMode())) {
+            String workspacePath = ((FlinkBuildResult) buildResult).workspacePath();
+            if (workspacePath != null) {
+                // the build workspace is used by the submission, keep it from being collected by the packer gc
+                WorkspaceIndex.local().touch(new File(workspacePath));
+            }
+        }
         if (ExecutionMode.YARN_APPLICATION.equals(executionMode)) {
             buildResult = new ShadedBuildResponse(null, flinkUserJar, true);
         } else {
@@ -0,0 +1,414 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.console.core.service.impl;
+
+import org.apache.streampark.common.conf.ConfigConst;
+import org.apache.streampark.common.enums.ExecutionMode;
+import org.apache.streampark.common.util.AssertUtils;
+import org.apache.streampark.common.util.ThreadUtils;
+import org.apache.streampark.console.base.exception.ApiAlertException;
+import org.apache.streampark.console.base.util.AdaptiveLimiter;
+import org.apache.streampark.console.base.util.JacksonUtils;
+import org.apache.streampark.console.core.bean.BulkOperation;
+import org.apache.streampark.console.core.bean.BulkProgress;
+import org.apache.streampark.console.core.bean.BulkProgress.AppProgress;
+import org.apache.streampark.console.core.bean.BulkProgress.State;
+import org.apache.streampark.console.core.entity.Application;
+import org.apache.streampark.console.core.enums.FlinkAppState;
+import org.apache.streampark.console.core.service.ApplicationService;
+import org.apache.streampark.console.core.service.BulkOperationService;
+import org.apache.streampark.console.core.websocket.WebSocketEndpoint;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.shiro.SecurityUtils;
+import org.apache.shiro.subject.Subject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Run the start, stop and restart of many applications as one bulk operation.
+ *
+ * <p>The applications are grouped by their target (the yarn queue, the session cluster or the kubernetes
+ * namespace), each target runs at most the configured parallelism at the same time and halves it after a
+ * failed operation, so that a busy yarn resource manager or kubernetes api server is not flooded. An
+ * operation holds its slot until its submission or cancellation is finished, and all operations share
+ * the same bounded executor. The check of the flink env and the cluster connection is done once per batch.
+ */
+@Slf4j
+@Service
+public class BulkOperationServiceImpl implements BulkOperationService {
+
+    private static final int MAX_BATCHES = 50;
+
+    private static final long POLL_INTERVAL_MS = 1000;
+
+    @Value("${streampark.bulk.parallelism-per-target:4}")
+    private Integer parallelismPerTarget;
+
+    @Value("${streampark.bulk.max-concurrency:16}")
+    private Integer maxConcurrency;
+
+    @Value("${streampark.bulk.operation-timeout-min:15}")
+    private Integer operationTimeoutMin;
+
+    @Autowired
+    private ApplicationService applicationService;
+
+    private final Map<String, Batch> batches = new ConcurrentHashMap<>();
+
+    private final ExecutorService dispatcher = Executors.newCachedThreadPool(
+        ThreadUtils.threadFactory("streampark-bulk-dispatcher"));
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void initExecutor() {
+        executor = new ThreadPoolExecutor(
+            maxConcurrency,
+            maxConcurrency,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            ThreadUtils.threadFactory("streampark-bulk-executor"));
+    }
+
+    @Override
+    public BulkProgress submit(BulkOperation operation) {
+        int parallelism = operation.getParallelism() == null ? parallelismPerTarget : operation.getParallelism();
+        AssertUtils.state(parallelism > 0, "the parallelism of the bulk operation must be positive");
+
+        List<AppProgress> apps = new ArrayList<>();
+        Map<String, Target> targets = new LinkedHashMap<>();
+        Set<Long> appIds = new LinkedHashSet<>(operation.getAppIds());
+        for (Long appId : appIds) {
+            AppProgress app = new AppProgress().setAppId(appId);
+            apps.add(app);
+            Application application = applicationService.getById(appId);
+            if (application == null) {
+                app.setState(State.SKIPPED).setMessage("the application does not exist");
+                continue;
+            }
+            app.setJobName(application.getJobName()).setTarget(getTarget(application));
+            targets.computeIfAbsent(app.getTarget(), t -> new Target(parallelism)).pending.add(app);
+        }
+
+        BulkProgress progress = new BulkProgress()
+            .setBatchId(UUID.randomUUID().toString())
+            .setAction(operation.getAction())
+            .setCreateTime(new Date())
+            .setApps(apps);
+        Batch batch = new Batch(progress, operation, targets, SecurityUtils.getSubject());
+        evictFinished();
+        batches.put(progress.getBatchId(), batch);
+        log.info("bulk operation {} submitted, action: {}, applications: {}, targets: {}",
+            progress.getBatchId(), operation.getAction(), apps.size(), targets.keySet());
+        dispatcher.execute(() -> dispatch(batch));
+        return progress;
+    }
+
+    @Override
+    public BulkProgress getProgress(String batchId) {
+        return getBatch(batchId).progress;
+    }
+
+    @Override
+    public List<BulkProgress> list() {
+        return batches.values().stream()
+            .map(batch -> batch.progress)
+            .sorted(Comparator.comparing(BulkProgress::getCreateTime).reversed())
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public void abort(String batchId) {
+        Batch batch = getBatch(batchId);
+        synchronized (batch) {
+            batch.progress.setAborted(true);
+            batch.notifyAll();
+        }
+    }
+
+    private Batch getBatch(String batchId) {
+        Batch batch = batches.get(batchId);
+        if (batch == null) {
+            throw new ApiAlertException(String.format("the bulk operation %s does not exist", batchId));
+        }
+        return batch;
+    }
+
+    /**
+     * hand the pending applications of each target to the executor as long as the target has free slots,
+     * until all the applications are finished.
+     */
+    private void dispatch(Batch batch) {
+        try {
+            synchronized (batch) {
+                while (batch.running > 0 || batch.hasPending()) {
+                    if (batch.progress.isAborted()) {
+                        batch.skipPending();
+                    }
+                    for (Target target : batch.targets.values()) {
+                        while (!target.pending.isEmpty() && target.limiter.tryAcquire()) {
+                            AppProgress app = target.pending.poll();
+                            batch.running++;
+                            executor.execute(batch.subject.associateWith(() -> run(batch, target, app)));
+                        }
+                    }
+                    batch.wait(POLL_INTERVAL_MS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("bulk operation {} interrupted", batch.progress.getBatchId());
+        } finally {
+            batch.progress.setEndTime(new Date());
+            log.info("bulk operation {} finished, success: {}, failed: {}, skipped: {}",
+                batch.progress.getBatchId(),
+                batch.progress.count(State.SUCCESS),
+                batch.progress.count(State.FAILED),
+                batch.progress.count(State.SKIPPED));
+            push(batch, batch.progress);
+        }
+    }
+
+    private void run(Batch batch, Target target, AppProgress app) {
+        try {
+            app.setState(State.RUNNING).setStartTime(new Date());
+            push(batch, app);
+            app.setState(execute(batch, app));
+        } catch (Exception e) {
+            log.warn("bulk operation {} failed on application {}: {}",
+                batch.progress.getBatchId(), app.getAppId(), e.getMessage());
+            app.setState(State.FAILED).setMessage(e.getMessage());
+        } finally {
+            app.setEndTime(new Date());
+            // the slot is released before the dispatcher is woken up to hand it over, and the application
+            // is pushed before the dispatcher may finish the batch, so it never arrives after the final push.
+            target.limiter.release(app.getState() != State.FAILED);
+            push(batch, app);
+            synchronized (batch) {
+                batch.running--;
+                batch.notifyAll();
+            }
+        }
+    }
+
+    private State execute(Batch batch, AppProgress app) throws Exception {
+        BulkOperation operation = batch.operation;
+        Application application = applicationService.getById(app.getAppId());
+        switch (operation.getAction()) {
+            case START:
+                if (application.isRunning() || applicationService.isInFlight(app.getAppId())) {
+                    app.setMessage("the application is already running");
+                    return State.SKIPPED;
+                }
+                start(batch, application);
+                break;
+            case STOP:
+                if (!application.isRunning()) {
+                    app.setMessage("the application is not running");
+                    return State.SKIPPED;
+                }
+                stop(batch, application);
+                break;
+            case RESTART:
+                if (application.isRunning()) {
+                    stop(batch, application);
+                }
+                start(batch, application);
+                break;
+            default:
+                throw new UnsupportedOperationException("Unsupported bulk action " + operation.getAction());
+        }
+        return State.SUCCESS;
+    }
+
+    private void start(Batch batch, Application application) throws Exception {
+        // the applications of the same flink env and cluster share the check
+        String envKey = getEnvKey(application);
+        if (batch.checkedEnvs.add(envKey)) {
+            boolean checked = false;
+            try {
+                checked = applicationService.checkEnv(application);
+            } finally {
+                if (!checked) {
+                    batch.checkedEnvs.remove(envKey);
+                }
+            }
+            if (!checked) {
+                throw new ApiAlertException("[StreamPark] can no found flink version");
+            }
+        }
+        BulkOperation operation = batch.operation;
+        Application appParam = new Application();
+        appParam.setId(application.getId());
+        appParam.setSavePointed(operation.getSavePointed());
+        appParam.setAllowNonRestored(operation.getAllowNonRestored());
+        applicationService.starting(appParam);
+        applicationService.start(appParam, false);
+        awaitFinished(application.getId(), "start");
+    }
+
+    private void stop(Batch batch, Application application) throws Exception {
+        BulkOperation operation = batch.operation;
+        Application appParam = new Application();
+        appParam.setId(application.getId());
+        appParam.setSavePointed(operation.getSavePointed());
+        appParam.setDrain(operation.getDrain());
+        applicationService.cancel(appParam);
+        awaitFinished(application.getId(), "stop");
+    }
+
+    /**
+     * wait until the submission or the cancellation is finished, the slot of the target is held until then.
+     */
+    private void awaitFinished(Long appId, String action) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(operationTimeoutMin);
+        while (applicationService.isInFlight(appId)) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new ApiAlertException(String.format("%s the application timeout after %d minutes", action, operationTimeoutMin));
+            }
+            Thread.sleep(POLL_INTERVAL_MS);
+        }
+        Application application = applicationService.getById(appId);
+        if (FlinkAppState.FAILED.getValue() == application.getState()) {
+            throw new ApiAlertException(String.format("%s the application failed, please check the operation logs", action));
+        }
+    }
+
+    private String getTarget(Application application) {
+        ExecutionMode mode = application.getExecutionModeEnum();
+        if (ExecutionMode.isKubernetesMode(mode)) {
+            return "kubernetes:" + application.getK8sNamespace();
+        }
+        if (ExecutionMode.YARN_SESSION.equals(mode) || ExecutionMode.isRemoteMode(mode)) {
+            return "cluster:" + application.getFlinkClusterId();
+        }
+        if (ExecutionMode.isYarnMode(mode)) {
+            Object queue = application.getHotParamsMap().get(ConfigConst.KEY_YARN_APP_QUEUE());
+            return "yarn:" + (queue == null ? "default" : queue);
+        }
+        return mode.getName();
+    }
+
+    private String getEnvKey(Application application) {
+        return String.format("%s:%s:%s:%s",
+            application.getVersionId(),
+            application.getStorageType(),
+            application.getExecutionMode(),
+            application.getFlinkClusterId());
+    }
+
+    /**
+     * the progress of a batch is pushed to one websocket session from many executor threads,
+     * the session does not allow concurrent sends, so the pushes of a batch are serialized.
+     * a failed push must never fail the operation itself.
+     */
+    private void push(Batch batch, Object progress) {
+        synchronized (batch.pushLock) {
+            try {
+                WebSocketEndpoint.writeMessage(batch.progress.getBatchId(), JacksonUtils.write(progress));
+            } catch (Exception e) {
+                log.warn("push the progress of bulk operation {} failed: {}", batch.progress.getBatchId(), e.getMessage());
+            }
+        }
+    }
+
+    private void evictFinished() {
+        if (batches.size() < MAX_BATCHES) {
+            return;
+        }
+        batches.values().stream()
+            .filter(batch -> batch.progress.isFinished())
+            .sorted(Comparator.comparing(batch -> batch.progress.getCreateTime()))
+            .limit(batches.size() - MAX_BATCHES + 1)
+            .forEach(batch -> batches.remove(batch.progress.getBatchId()));
+    }
+
+    private static final class Target {
+
+        private final Queue<AppProgress> pending = new LinkedList<>();
+
+        private final AdaptiveLimiter limiter;
+
+        private Target(int parallelism) {
+            this.limiter = new AdaptiveLimiter(parallelism);
+        }
+    }
+
+    private static final class Batch {
+
+        private final BulkProgress progress;
+
+        private final BulkOperation operation;
+
+        private final Map<String, Target> targets;
+
+        /**
+         * the user who submitted the operation, the applications are operated as this user
+         */
+        private final Subject subject;
+
+        private final Set<String> checkedEnvs = ConcurrentHashMap.newKeySet();
+
+        private final Object pushLock = new Object();
+
+        private int running;
+
+        private Batch(BulkProgress progress, BulkOperation operation, Map<String, Target> targets, Subject subject) {
+            this.progress = progress;
+            this.operation = operation;
+            this.targets = targets;
+            this.subject = subject;
+        }
+
+        private boolean hasPending() {
+            return targets.values().stream().anyMatch(target -> !target.pending.isEmpty());
+        }
+
+        private void skipPending() {
+            targets.values().forEach(target -> {
+                target.pending.forEach(app -> app.setState(State.SKIPPED).setMessage("the bulk operation is aborted"));
+                target.pending.clear();
+            });
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.console.core.service.impl;
+
+import org.apache.streampark.console.core.entity.ConsoleInstance;
+import org.apache.streampark.console.core.mapper.ConsoleInstanceMapper;
+import org.apache.streampark.console.core.service.ConsoleInstanceService;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@Transactional(propagation = Propagation.SUPPORTS, readOnly = true, rollbackFor = Exception.class)
+public class ConsoleInstanceServiceImpl extends ServiceImpl<ConsoleInstanceMapper, ConsoleInstance>
+    implements ConsoleInstanceService {
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void heartbeat(String instanceId, String host) {
+        if (baseMapper.renew(instanceId, host) == 0) {
+            baseMapper.register(instanceId, host);
+        }
+    }
+
+    @Override
+    public List<String> getLiveInstanceIds(long leaseTimeout) {
+        LambdaQueryWrapper<ConsoleInstance> queryWrapper = new LambdaQueryWrapper<ConsoleInstance>()
+            .select(ConsoleInstance::getInstanceId)
+            .ge(ConsoleInstance::getHeartbeatTime, leaseStartTime(leaseTimeout))
+            .orderByAsc(ConsoleInstance::getInstanceId);
+        return list(queryWrapper).stream()
+            .map(ConsoleInstance::getInstanceId)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void removeExpired(long leaseTimeout) {
+        LambdaQueryWrapper<ConsoleInstance> queryWrapper = new LambdaQueryWrapper<ConsoleInstance>()
+            .lt(ConsoleInstance::getHeartbeatTime, leaseStartTime(leaseTimeout));
+        remove(queryWrapper);
+    }
+
+    /**
+     * the earliest heartbeat time of a live lease, based on the database time.
+     */
+    private Date leaseStartTime(long leaseTimeout) {
+        return new Date(baseMapper.currentTime().getTime() - leaseTimeout);
+    }
+}
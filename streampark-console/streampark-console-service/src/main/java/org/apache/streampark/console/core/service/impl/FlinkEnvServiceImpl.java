@@ -21,10 +21,12 @@ import org.apache.streampark.console.core.entity.FlinkEnv;
 import org.apache.streampark.console.core.mapper.FlinkEnvMapper;
 import org.apache.streampark.console.core.service.FlinkEnvService;
 import org.apache.streampark.console.core.task.FlinkTrackingTask;
+import org.apache.streampark.console.core.task.FlinkWarmUpTask;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,6 +39,9 @@ import java.util.Date;
 @Transactional(propagation = Propagation.SUPPORTS, readOnly = true, rollbackFor = Exception.class)
 public class FlinkEnvServiceImpl extends ServiceImpl<FlinkEnvMapper, FlinkEnv> implements FlinkEnvService {
 
+    @Autowired
+    private FlinkWarmUpTask flinkWarmUpTask;
+
     /**
      * two places will be checked:
      * 1) name cannot be repeated
@@ -60,7 +65,11 @@ public class FlinkEnvServiceImpl extends ServiceImpl<FlinkEnvMapper, FlinkEnv> i
         version.setCreateTime(new Date());
         version.doSetFlinkConf();
         version.doSetVersion();
-        return save(version);
+        boolean saved = save(version);
+        if (saved) {
+            flinkWarmUpTask.warmUp(version);
+        }
+        return saved;
     }
 
     @Override
@@ -75,6 +84,7 @@ public class FlinkEnvServiceImpl extends ServiceImpl<FlinkEnvMapper, FlinkEnv> i
             flinkEnv.setFlinkHome(version.getFlinkHome());
             flinkEnv.doSetFlinkConf();
             flinkEnv.doSetVersion();
+            flinkWarmUpTask.warmUp(flinkEnv);
         }
         updateById(flinkEnv);
         FlinkTrackingTask.getFlinkEnvMap().put(flinkEnv.getId(), flinkEnv);
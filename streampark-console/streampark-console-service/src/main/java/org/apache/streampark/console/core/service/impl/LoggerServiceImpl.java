@@ -26,6 +26,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.File;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
@@ -36,11 +37,19 @@ import java.util.concurrent.CompletionStage;
 @Slf4j
 public class LoggerServiceImpl implements LoggerService {
 
+    /**
+     * the log view polls the log every 3 seconds, the fetched log file is reused
+     * within the interval and fetched from kubernetes again once it is older.
+     */
+    private static final long LOG_REFRESH_INTERVAL_MS = 3000L;
+
     @Autowired
     private LogClientService logClient;
 
     /**
-     * view log
+     * view log, the log is fetched from kubernetes when viewing the first page or
+     * when the fetched log file is older than the refresh interval, otherwise the
+     * following pages are read from the fetched log file.
      *
      * @param skipLineNum skip line number
      * @param limit       limit
@@ -48,20 +57,24 @@ public class LoggerServiceImpl implements LoggerService {
      */
     @Override
     public CompletionStage<String> queryLog(String nameSpace, String jobName, String jobId, int skipLineNum, int limit) {
-        return CompletableFuture.supplyAsync(() -> jobDeploymentsWatch(nameSpace, jobName, jobId)
-        ).exceptionally(e -> {
-            try {
-                return String.format("%s/%s_err.log", WebUtils.getAppTempDir(), jobId);
-            } catch (Exception ex) {
-                log.error("Generate log path exception:{}", ex.getMessage());
-                return null;
-            }
-        }).thenApply(path -> logClient.rollViewLog(String.valueOf(path), skipLineNum, limit));
+        return jobDeploymentsWatch(nameSpace, jobName, jobId, skipLineNum)
+            .exceptionally(e -> {
+                try {
+                    return String.format("%s/%s_err.log", WebUtils.getAppTempDir(), jobId);
+                } catch (Exception ex) {
+                    log.error("Generate log path exception:{}", ex.getMessage());
+                    return null;
+                }
+            }).thenApply(path -> logClient.rollViewLog(String.valueOf(path), skipLineNum, limit));
     }
 
-    private String jobDeploymentsWatch(String nameSpace, String jobName, String jobId) {
-        return KubernetesDeploymentHelper.watchDeploymentLog(nameSpace, jobName, jobId);
+    private CompletableFuture<String> jobDeploymentsWatch(String nameSpace, String jobName, String jobId, int skipLineNum) {
+        String path = KubernetesDeploymentHelper.getJobLog(jobId);
+        File logFile = new File(path);
+        if (skipLineNum > 0 && logFile.exists()
+            && System.currentTimeMillis() - logFile.lastModified() < LOG_REFRESH_INTERVAL_MS) {
+            return CompletableFuture.completedFuture(path);
+        }
+        return KubernetesDeploymentHelper.watchDeploymentLogAsync(nameSpace, jobName, jobId);
     }
 }
-
-
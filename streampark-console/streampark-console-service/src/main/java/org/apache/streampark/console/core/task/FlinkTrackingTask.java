@@ -138,6 +138,9 @@ public class FlinkTrackingTask {
     @Autowired
     private CheckpointProcessor checkpointProcessor;
 
+    @Autowired
+    private TrackingShardManager trackingShardManager;
+
     private static final Map<Long, FlinkEnv> FLINK_ENV_MAP = new ConcurrentHashMap<>(0);
 
     private static final Map<Long, FlinkCluster> FLINK_CLUSTER_MAP = new ConcurrentHashMap<>(0);
@@ -167,7 +170,9 @@ public class FlinkTrackingTask {
 
     @PostConstruct
     public void initialization() {
-        getAllApplications().forEach((app) -> TRACKING_MAP.put(app.getId(), app));
+        getAllApplications().stream()
+            .filter(app -> trackingShardManager.isOwner(app.getId()))
+            .forEach((app) -> TRACKING_MAP.put(app.getId(), app));
     }
 
     @PreDestroy
@@ -563,6 +568,33 @@ public class FlinkTrackingTask {
         TRACKING_MAP.forEach((k, v) -> persistent(v));
     }
 
+    /**
+     * <p><strong>Hand over the applications whose shard has moved when sharding is enabled</strong></p></br>
+     * <p>The applications no longer owned by this instance are released, except the ones still being operated,
+     * and the tracking applications owned by this instance (including the ones started from other instances) are loaded
+     * from the database. The new owner picks up an application at its next run, so the handover may take up to one heartbeat.
+     * The released applications are not persisted, since the instances rebuild their rings at different times and the new
+     * owner may have already updated the record, the new owner gets the latest state from the cluster instead.</p>
+     */
+    @Scheduled(fixedDelayString = "${streampark.tracking.sharding.heartbeat-interval:10000}")
+    public void rebalance() {
+        if (!trackingShardManager.isEnabled()) {
+            return;
+        }
+        TRACKING_MAP.values().stream()
+            .filter(app -> !OPTIONING.containsKey(app.getId()) && !trackingShardManager.isOwner(app.getId()))
+            .forEach(app -> {
+                log.info("flinkTrackingTask release app to other console instance,appId:{}", app.getId());
+                TRACKING_MAP.remove(app.getId());
+            });
+        getAllApplications().stream()
+            .filter(app -> trackingShardManager.isOwner(app.getId()) && !TRACKING_MAP.containsKey(app.getId()))
+            .forEach(app -> {
+                log.info("flinkTrackingTask take over app from other console instance,appId:{}", app.getId());
+                TRACKING_MAP.put(app.getId(), app);
+            });
+    }
+
     /**
      * set current option state
      */
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.console.core.task;
+
+import org.apache.streampark.common.conf.CommonConfig;
+import org.apache.streampark.common.conf.InternalConfigHolder;
+import org.apache.streampark.common.util.ThreadUtils;
+import org.apache.streampark.console.core.entity.FlinkEnv;
+import org.apache.streampark.flink.submit.FlinkSubmitter;
+import org.apache.streampark.flink.submit.bean.WarmUpRequest;
+import org.apache.streampark.flink.submit.bean.WarmUpResponse;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm up the flink shims classloader and the flink clients of the flink envs in background, at the startup
+ * and after a flink home is registered, so that the first submission does not pay for them.
+ */
+@Slf4j
+@Component
+public class FlinkWarmUpTask {
+
+    private final ExecutorService executor = new ThreadPoolExecutor(
+        1,
+        1,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(),
+        ThreadUtils.threadFactory("streampark-flink-warm-up")
+    );
+
+    public void warmUp(Collection<FlinkEnv> flinkEnvs) {
+        flinkEnvs.forEach(this::warmUp);
+    }
+
+    public void warmUp(FlinkEnv flinkEnv) {
+        Boolean enabled = InternalConfigHolder.get(CommonConfig.FLINK_WARM_UP_ENABLED());
+        if (!enabled) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                long start = System.currentTimeMillis();
+                WarmUpResponse response = FlinkSubmitter.warmUp(new WarmUpRequest(flinkEnv.getFlinkVersion()));
+                log.info("flink warm up finished, flinkName: {}, flinkHome: {}, cost: {} ms, steps: {}",
+                    flinkEnv.getFlinkName(),
+                    flinkEnv.getFlinkHome(),
+                    System.currentTimeMillis() - start,
+                    response.stepCosts());
+            } catch (Exception e) {
+                log.warn("flink warm up failed, flinkName: {}, flinkHome: {}, error: {}",
+                    flinkEnv.getFlinkName(), flinkEnv.getFlinkHome(), e.getMessage());
+            }
+        });
+    }
+
+}
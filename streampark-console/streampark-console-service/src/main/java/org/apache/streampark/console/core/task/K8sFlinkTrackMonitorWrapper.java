@@ -31,11 +31,15 @@ import org.apache.streampark.flink.kubernetes.model.TrackId;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.commons.collections.CollectionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
 
 import javax.annotation.Nonnull;
 
@@ -43,6 +47,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import scala.Enumeration;
+import scala.collection.JavaConverters;
 
 /**
  * Flink K8s Tracking Monitor Wrapper.
@@ -67,6 +72,14 @@ public class K8sFlinkTrackMonitorWrapper {
     @Autowired
     private ApplicationService applicationService;
 
+    @Autowired
+    private TrackingShardManager trackingShardManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private K8sFlinkTrackMonitor trackMonitor;
+
     /**
      * Register FlinkTrackMonitor bean for tracking flink job on kubernetes.
      */
@@ -75,6 +88,8 @@ public class K8sFlinkTrackMonitorWrapper {
         // lazy start tracking monitor
         K8sFlinkTrackMonitor trackMonitor = K8sFlinkTrackMonitorFactory.createInstance(FlinkTrackConfig.fromConfigHub(), true);
         initK8sFlinkTrackMonitor(trackMonitor);
+        registerEventMetrics(trackMonitor);
+        this.trackMonitor = trackMonitor;
 
         /* Dev scaffold: watch flink k8s tracking cache,
            see org.apache.streampark.flink.kubernetes.helper.TrackMonitorDebugHelper for items.
@@ -95,6 +110,40 @@ public class K8sFlinkTrackMonitorWrapper {
         k8sApp.forEach(trackMonitor::trackingJob);
     }
 
+    /**
+     * Publish the depth of each change event dispatch lane and the dropped change events.
+     */
+    private void registerEventMetrics(@Nonnull K8sFlinkTrackMonitor trackMonitor) {
+        int laneNum = trackMonitor.getEventLaneDepths().length;
+        for (int i = 0; i < laneNum; i++) {
+            final int lane = i;
+            Gauge.builder("streampark.k8s.event.lane.depth", trackMonitor, monitor -> monitor.getEventLaneDepths()[lane])
+                .description("pending async change events of the flink-k8s dispatch lane")
+                .tag("lane", String.valueOf(lane))
+                .register(meterRegistry);
+        }
+        FunctionCounter.builder("streampark.k8s.event.dropped", trackMonitor, K8sFlinkTrackMonitor::getDroppedEventCount)
+            .description("async change events dropped due to a full flink-k8s dispatch lane")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Hand over the flink-k8s jobs whose shard has moved when sharding is enabled:
+     * release the jobs no longer owned by this instance, and track the owned ones from db.
+     */
+    @Scheduled(fixedDelayString = "${streampark.tracking.sharding.heartbeat-interval:10000}")
+    public void rebalance() {
+        if (!trackingShardManager.isEnabled() || trackMonitor == null) {
+            return;
+        }
+        JavaConverters.setAsJavaSetConverter(trackMonitor.getAllTrackingIds()).asJava().stream()
+            .filter(trackId -> !trackingShardManager.isOwner(trackId.appId()))
+            .forEach(trackMonitor::releaseJob);
+        getK8sTrackingApplicationFromDB().stream()
+            .filter(trackId -> !trackMonitor.isInTracking(trackId))
+            .forEach(trackMonitor::trackingJob);
+    }
+
     /**
      * get flink-k8s job tracking application from db.
      */
@@ -118,6 +167,7 @@ public class K8sFlinkTrackMonitorWrapper {
         // filter out the application that should be tracking
         return k8sApplication.stream()
             .filter(app -> !FlinkJobState.isEndState(toK8sFlinkJobState(app.getFlinkAppStateEnum())))
+            .filter(app -> trackingShardManager.isOwner(app.getId()))
             .map(Bridge::toTrackId)
             .collect(Collectors.toList());
     }
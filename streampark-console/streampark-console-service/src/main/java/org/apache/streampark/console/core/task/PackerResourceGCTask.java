@@ -31,10 +31,16 @@ public class PackerResourceGCTask {
     @Value("${streampark.packer-gc.max-resource-expired-hours:120}")
     public Integer maxResourceIntervalHours;
 
-    @Scheduled(cron = "${streampark.packer-gc.exec-cron:0 0 0/6 * * ?}")
+    @Value("${streampark.packer-gc.max-workspace-size-gb:0}")
+    public Integer maxWorkspaceSizeGb;
+
+    /**
+     * each run only collects a small slice of the build workspaces, so it runs frequently.
+     */
+    @Scheduled(cron = "${streampark.packer-gc.exec-cron:0 0/10 * * * ?}")
     public void collectGarbage() {
-        log.info("[streampark-packer] Starting Packer Resource GC Task.");
-        PackerResourceGC.startGc(maxResourceIntervalHours);
+        log.debug("[streampark-packer] Starting Packer Resource GC Task.");
+        PackerResourceGC.startGc(maxResourceIntervalHours, maxWorkspaceSizeGb * 1024L * 1024L * 1024L);
     }
 
 }
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.console.core.task;
+
+import org.apache.streampark.flink.proxy.FlinkShimsProxy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Publish the metaspace, classes and references of the cached flink shims classloaders per flink version.
+ */
+@Slf4j
+@Component
+public class ShimsClassLoaderMetricsTask {
+
+    private final MultiGauge metaspace;
+
+    private final MultiGauge classes;
+
+    private final MultiGauge refs;
+
+    @Autowired
+    public ShimsClassLoaderMetricsTask(MeterRegistry registry) {
+        this.metaspace = MultiGauge.builder("streampark.shims.classloader.metaspace")
+            .description("estimated metaspace used by the flink shims classloader")
+            .baseUnit("bytes")
+            .register(registry);
+        this.classes = MultiGauge.builder("streampark.shims.classloader.classes")
+            .description("classes defined by the flink shims classloader")
+            .register(registry);
+        this.refs = MultiGauge.builder("streampark.shims.classloader.refs")
+            .description("callers using the flink shims classloader")
+            .register(registry);
+    }
+
+    @Scheduled(fixedDelay = 60 * 1000)
+    public void publish() {
+        List<Map<String, Object>> metrics = FlinkShimsProxy.classLoaderMetrics();
+        metaspace.register(rows(metrics, "metaspaceBytes"), true);
+        classes.register(rows(metrics, "classes"), true);
+        refs.register(rows(metrics, "refs"), true);
+    }
+
+    private List<MultiGauge.Row<?>> rows(List<Map<String, Object>> metrics, String field) {
+        Function<Map<String, Object>, MultiGauge.Row<?>> toRow = metric -> MultiGauge.Row.of(
+            Tags.of(
+                "cache", String.valueOf(metric.get("cache")),
+                "version", String.valueOf(metric.get("version")),
+                "flinkHome", String.valueOf(metric.get("flinkHome"))),
+            ((Number) metric.get(field)).doubleValue());
+        return metrics.stream().map(toRow).collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.console.core.task;
+
+import org.apache.streampark.console.base.util.ConsistentHashRing;
+import org.apache.streampark.console.core.service.ConsoleInstanceService;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * <pre>
+ * Split the tracked applications across the live console instances.
+ * Every instance renews its lease in t_console_instance by heartbeat, and builds the same
+ * consistent hash ring from the live instances, an application is tracked by the instance
+ * which its id is mapped to on the ring, so no leader is required to assign the shards.
+ * When an instance joins or leaves, the ring is rebuilt at the next heartbeat and the
+ * tracking tasks hand over the moved applications.
+ * </pre>
+ */
+@Slf4j
+@Component
+public class TrackingShardManager {
+
+    private static final int VIRTUAL_NODES = 128;
+
+    @Value("${streampark.tracking.sharding.enabled:false}")
+    private boolean enabled;
+
+    @Value("${streampark.tracking.sharding.lease-timeout:30000}")
+    private long leaseTimeout;
+
+    @Value("${server.port:10000}")
+    private int serverPort;
+
+    @Autowired
+    private ConsoleInstanceService consoleInstanceService;
+
+    private String host;
+
+    private String instanceId;
+
+    private volatile List<String> liveInstances = Collections.emptyList();
+
+    private volatile ConsistentHashRing ring = new ConsistentHashRing(Collections.emptyList(), VIRTUAL_NODES);
+
+    @PostConstruct
+    public void initialization() {
+        if (enabled) {
+            host = getLocalHost();
+            instanceId = String.format("%s:%d-%s", host, serverPort, UUID.randomUUID().toString().substring(0, 8));
+            log.info("trackingShardManager register console instance: {}", instanceId);
+            heartbeat();
+        }
+    }
+
+    @PreDestroy
+    public void ending() {
+        if (enabled) {
+            log.info("trackingShardManager unregister console instance: {}", instanceId);
+            consoleInstanceService.removeById(instanceId);
+        }
+    }
+
+    /**
+     * renew the lease of the current instance, and rebuild the ring from the live instances.
+     */
+    @Scheduled(fixedDelayString = "${streampark.tracking.sharding.heartbeat-interval:10000}")
+    public void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            consoleInstanceService.heartbeat(instanceId, host);
+            consoleInstanceService.removeExpired(leaseTimeout);
+            List<String> instances = consoleInstanceService.getLiveInstanceIds(leaseTimeout);
+            if (!instances.contains(instanceId)) {
+                instances.add(instanceId);
+            }
+            if (!instances.equals(liveInstances)) {
+                log.info("trackingShardManager live console instances changed: {}", instances);
+                liveInstances = instances;
+                ring = new ConsistentHashRing(instances, VIRTUAL_NODES);
+            }
+        } catch (Exception e) {
+            // keep the previous ring, the other instances will take over the shards of this
+            // instance when its lease expires.
+            log.error("trackingShardManager heartbeat failed, instance: {}", instanceId, e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Determine whether the application is tracked by the current instance,
+     * always true when sharding is disabled or the ring has not been built yet.
+     */
+    public boolean isOwner(Long appId) {
+        if (!enabled || ring.isEmpty()) {
+            return true;
+        }
+        return instanceId.equals(ring.getNode(String.valueOf(appId)));
+    }
+
+    private static String getLocalHost() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+}
@@ -312,6 +312,16 @@ create table if not exists `t_role_menu` (
   unique (`role_id`,`menu_id`)
 );
 
+-- ----------------------------
+-- Table structure for t_console_instance
+-- ----------------------------
+create table if not exists `t_console_instance` (
+  `instance_id` varchar(128) primary key not null comment 'console instance id',
+  `host` varchar(255) default null comment 'console host',
+  `heartbeat_time` datetime not null default current_timestamp comment 'last heartbeat time',
+  `create_time` datetime not null default current_timestamp comment 'create time'
+);
+
 -- ----------------------------
 -- Table structure for t_setting
 -- ----------------------------
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.console.base.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link AdaptiveLimiter}
+ */
+class AdaptiveLimiterTest {
+
+    @Test
+    void testAcquireUpToLimit() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(2);
+        Assertions.assertTrue(limiter.tryAcquire());
+        Assertions.assertTrue(limiter.tryAcquire());
+        Assertions.assertFalse(limiter.tryAcquire());
+        limiter.release(true);
+        Assertions.assertTrue(limiter.tryAcquire());
+        Assertions.assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void testAdaptToFailures() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(8);
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(limiter.tryAcquire());
+        }
+        limiter.release(false);
+        Assertions.assertEquals(4, limiter.getLimit());
+        limiter.release(false);
+        Assertions.assertEquals(2, limiter.getLimit());
+        // the two operations still in flight hold the whole limit
+        Assertions.assertFalse(limiter.tryAcquire());
+        limiter.release(false);
+        limiter.release(false);
+        Assertions.assertEquals(1, limiter.getLimit());
+
+        Assertions.assertTrue(limiter.tryAcquire());
+        limiter.release(true);
+        Assertions.assertEquals(2, limiter.getLimit());
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertTrue(limiter.tryAcquire());
+            limiter.release(true);
+        }
+        Assertions.assertEquals(8, limiter.getLimit());
+    }
+
+}
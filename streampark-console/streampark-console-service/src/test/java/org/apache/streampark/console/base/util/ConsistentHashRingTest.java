@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.console.base.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Test for {@link ConsistentHashRing}
+ */
+class ConsistentHashRingTest {
+
+    @Test
+    void testEmptyRing() {
+        ConsistentHashRing ring = new ConsistentHashRing(Collections.emptyList(), 16);
+        Assertions.assertTrue(ring.isEmpty());
+        Assertions.assertNull(ring.getNode("100000"));
+    }
+
+    @Test
+    void testBalance() {
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("a", "b", "c"), 128);
+        Map<String, Integer> counts = new HashMap<>();
+        for (long appId = 100000; appId < 103000; appId++) {
+            counts.merge(ring.getNode(String.valueOf(appId)), 1, Integer::sum);
+        }
+        Assertions.assertEquals(3, counts.size());
+        counts.values().forEach(count -> Assertions.assertTrue(count > 700, "unbalanced shards: " + counts));
+    }
+
+    @Test
+    void testRebalanceOnlyMovesKeysOfChangedNode() {
+        ConsistentHashRing before = new ConsistentHashRing(Arrays.asList("a", "b", "c"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(Arrays.asList("a", "b", "c", "d"), 128);
+        for (long appId = 100000; appId < 103000; appId++) {
+            String key = String.valueOf(appId);
+            String node = after.getNode(key);
+            if (!"d".equals(node)) {
+                Assertions.assertEquals(before.getNode(key), node);
+            }
+        }
+    }
+}
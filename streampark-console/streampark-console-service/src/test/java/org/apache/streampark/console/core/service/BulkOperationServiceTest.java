@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.console.core.service;
+
+import static org.mockito.ArgumentMatchers.any;
+
+import org.apache.streampark.common.enums.ExecutionMode;
+import org.apache.streampark.console.core.bean.BulkOperation;
+import org.apache.streampark.console.core.bean.BulkProgress;
+import org.apache.streampark.console.core.bean.BulkProgress.AppProgress;
+import org.apache.streampark.console.core.bean.BulkProgress.State;
+import org.apache.streampark.console.core.entity.Application;
+import org.apache.streampark.console.core.enums.BulkAction;
+import org.apache.streampark.console.core.enums.FlinkAppState;
+import org.apache.streampark.console.core.service.impl.BulkOperationServiceImpl;
+
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.util.ThreadContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Test for {@link BulkOperationServiceImpl} with a mocked {@link ApplicationService}
+ */
+class BulkOperationServiceTest {
+
+    private static final long TIMEOUT_MS = 10_000;
+
+    private final Map<Long, Application> applications = new ConcurrentHashMap<>();
+
+    private ApplicationService applicationService;
+
+    private BulkOperationServiceImpl bulkOperationService;
+
+    @BeforeEach
+    void setUp() {
+        applicationService = Mockito.mock(ApplicationService.class);
+        Mockito.when(applicationService.getById(any())).thenAnswer(invocation -> applications.get((Long) invocation.getArgument(0)));
+
+        bulkOperationService = new BulkOperationServiceImpl();
+        ReflectionTestUtils.setField(bulkOperationService, "applicationService", applicationService);
+        ReflectionTestUtils.setField(bulkOperationService, "parallelismPerTarget", 4);
+        ReflectionTestUtils.setField(bulkOperationService, "maxConcurrency", 16);
+        ReflectionTestUtils.setField(bulkOperationService, "operationTimeoutMin", 1);
+        bulkOperationService.initExecutor();
+
+        // the operations run as the subject of the submitting user
+        Subject subject = Mockito.mock(Subject.class);
+        Mockito.when(subject.associateWith(any(Runnable.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ThreadContext.bind(subject);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadContext.unbindSubject();
+    }
+
+    /**
+     * Test whether the applications are grouped by their yarn queue, cluster or kubernetes namespace
+     */
+    @Test
+    void testGroupByTarget() throws Exception {
+        addKubernetesApp(1L, "ns-a");
+        addKubernetesApp(2L, "ns-a");
+        addKubernetesApp(3L, "ns-b");
+        Application remote = addApp(4L, ExecutionMode.REMOTE);
+        remote.setFlinkClusterId(10L);
+
+        BulkProgress progress = submit(1, 1L, 2L, 3L, 4L, 5L);
+        Map<Long, AppProgress> apps = awaitFinished(progress);
+        Assertions.assertEquals("kubernetes:ns-a", apps.get(1L).getTarget());
+        Assertions.assertEquals("kubernetes:ns-a", apps.get(2L).getTarget());
+        Assertions.assertEquals("kubernetes:ns-b", apps.get(3L).getTarget());
+        Assertions.assertEquals("cluster:10", apps.get(4L).getTarget());
+        Assertions.assertEquals(State.SKIPPED, apps.get(5L).getState());
+        Assertions.assertEquals(4, progress.count(State.SUCCESS));
+        Mockito.verify(applicationService, Mockito.times(4)).cancel(any());
+    }
+
+    /**
+     * Test whether each target runs at most the parallelism of the operation at the same time
+     */
+    @Test
+    void testParallelismPerTarget() throws Exception {
+        Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> maxRunning = new ConcurrentHashMap<>();
+        for (long id = 1; id <= 6; id++) {
+            addKubernetesApp(id, "ns-a");
+            addKubernetesApp(id + 100, "ns-b");
+        }
+        Mockito.doAnswer(invocation -> {
+            String namespace = applications.get(((Application) invocation.getArgument(0)).getId()).getK8sNamespace();
+            int current = running.computeIfAbsent(namespace, n -> new AtomicInteger()).incrementAndGet();
+            maxRunning.computeIfAbsent(namespace, n -> new AtomicInteger()).accumulateAndGet(current, Math::max);
+            Thread.sleep(100);
+            running.get(namespace).decrementAndGet();
+            return null;
+        }).when(applicationService).cancel(any());
+
+        BulkProgress progress = submit(2, 1L, 2L, 3L, 4L, 5L, 6L, 101L, 102L, 103L, 104L, 105L, 106L);
+        awaitFinished(progress);
+        Assertions.assertEquals(12, progress.count(State.SUCCESS));
+        Assertions.assertEquals(2, maxRunning.get("ns-a").get());
+        Assertions.assertEquals(2, maxRunning.get("ns-b").get());
+    }
+
+    /**
+     * Test whether the pending applications are skipped after the operation is aborted
+     */
+    @Test
+    void testAbortSkipsPending() throws Exception {
+        addKubernetesApp(1L, "ns-a");
+        addKubernetesApp(2L, "ns-a");
+        addKubernetesApp(3L, "ns-a");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch aborted = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            started.countDown();
+            aborted.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            return null;
+        }).when(applicationService).cancel(any());
+
+        BulkProgress progress = submit(1, 1L, 2L, 3L);
+        Assertions.assertTrue(started.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        bulkOperationService.abort(progress.getBatchId());
+        aborted.countDown();
+
+        Map<Long, AppProgress> apps = awaitFinished(progress);
+        Assertions.assertTrue(progress.isAborted());
+        Assertions.assertEquals(State.SUCCESS, apps.get(1L).getState());
+        Assertions.assertEquals(State.SKIPPED, apps.get(2L).getState());
+        Assertions.assertEquals(State.SKIPPED, apps.get(3L).getState());
+        Mockito.verify(applicationService, Mockito.times(1)).cancel(any());
+    }
+
+    /**
+     * Test whether the operation finishes, i.e. no operation is counted as running, when all the applications fail
+     */
+    @Test
+    void testFinishAfterFailures() throws Exception {
+        for (long id = 1; id <= 5; id++) {
+            addKubernetesApp(id, "ns-a");
+        }
+        Mockito.doThrow(new IllegalStateException("cancel failed")).when(applicationService).cancel(any());
+
+        BulkProgress progress = submit(4, 1L, 2L, 3L, 4L, 5L);
+        Map<Long, AppProgress> apps = awaitFinished(progress);
+        Assertions.assertEquals(5, progress.count(State.FAILED));
+        apps.values().forEach(app -> {
+            Assertions.assertEquals("cancel failed", app.getMessage());
+            Assertions.assertNotNull(app.getEndTime());
+        });
+        Map<?, ?> batches = (Map<?, ?>) ReflectionTestUtils.getField(bulkOperationService, "batches");
+        Assertions.assertEquals(0, ReflectionTestUtils.getField(batches.get(progress.getBatchId()), "running"));
+    }
+
+    private Application addKubernetesApp(Long id, String namespace) {
+        Application application = addApp(id, ExecutionMode.KUBERNETES_NATIVE_APPLICATION);
+        application.setK8sNamespace(namespace);
+        return application;
+    }
+
+    private Application addApp(Long id, ExecutionMode mode) {
+        Application application = new Application();
+        application.setId(id);
+        application.setJobName("bulk-test-" + id);
+        application.setExecutionMode(mode.getMode());
+        application.setState(FlinkAppState.RUNNING.getValue());
+        applications.put(id, application);
+        return application;
+    }
+
+    private BulkProgress submit(int parallelism, Long... appIds) {
+        BulkOperation operation = new BulkOperation();
+        operation.setAppIds(Arrays.asList(appIds));
+        operation.setAction(BulkAction.STOP);
+        operation.setParallelism(parallelism);
+        return bulkOperationService.submit(operation);
+    }
+
+    private Map<Long, AppProgress> awaitFinished(BulkProgress progress) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!progress.isFinished()) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "the bulk operation is not finished in time");
+            Thread.sleep(50);
+        }
+        return progress.getApps().stream().collect(Collectors.toMap(AppProgress::getAppId, app -> app));
+    }
+
+}
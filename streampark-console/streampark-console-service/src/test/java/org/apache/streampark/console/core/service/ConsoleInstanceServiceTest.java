@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.console.core.service;
+
+import org.apache.streampark.console.StreamParkConsoleBootstrap;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * org.apache.streampark.console.core.service.ConsoleInstanceServiceTest
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = StreamParkConsoleBootstrap.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ConsoleInstanceServiceTest {
+
+    @Autowired
+    private ConsoleInstanceService consoleInstanceService;
+
+    /**
+     * Test whether the lease is registered, renewed and expired with the database time
+     */
+    @Test
+    void testHeartbeatLease() throws InterruptedException {
+        String instanceId = "console-instance-test";
+        consoleInstanceService.heartbeat(instanceId, "host-1");
+        consoleInstanceService.heartbeat(instanceId, "host-2");
+        Assertions.assertEquals("host-2", consoleInstanceService.getById(instanceId).getHost());
+        Assertions.assertTrue(consoleInstanceService.getLiveInstanceIds(60_000L).contains(instanceId));
+
+        Thread.sleep(50);
+        Assertions.assertFalse(consoleInstanceService.getLiveInstanceIds(10L).contains(instanceId));
+        consoleInstanceService.removeExpired(10L);
+        Assertions.assertNull(consoleInstanceService.getById(instanceId));
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streampark.flink.connector.bulk
+
+import org.apache.streampark.common.util.Logger
+import org.apache.streampark.flink.connector.conf.AdaptiveBulkConfigOption
+import org.apache.flink.metrics.{Counter, Gauge, MetricGroup}
+
+import java.util.Properties
+import java.util.concurrent.ConcurrentHashMap
+
+object AdaptiveBulkController {
+
+  val GAUGE_BULK_BATCH_SIZE = "bulkBatchSize"
+  val GAUGE_BULK_LATENCY = "bulkLatencyMs"
+  val COUNTER_BULK_FLUSH_TIMES = "totalBulkFlushTimes"
+  val COUNTER_BULK_REJECTED_ITEMS = "totalBulkRejectedItems"
+  val COUNTER_BULK_DECREASE_TIMES = "totalBulkDecreaseTimes"
+
+  /**
+   * build the controller from the `bulk.adaptive.*` parameters under the given prefix,
+   * return None when the adaptive bulk is not enabled.
+   */
+  def apply(prefix: String, properties: Properties): Option[AdaptiveBulkController] = {
+    val option = AdaptiveBulkConfigOption(prefix, properties)
+    if (option.enable.get()) {
+      Some(new AdaptiveBulkController(
+        option.minActions.get(),
+        option.maxActions.get(),
+        option.targetLatency.get(),
+        option.increaseStep.get(),
+        option.decreaseFactor.get()
+      ))
+    } else None
+  }
+
+}
+
+/**
+ * AIMD(additive-increase/multiplicative-decrease) control of the bulk size.
+ * After every bulk, the batch size grows by `increaseStep` while the bulk is fast and accepted,
+ * and is cut by `decreaseFactor` as soon as the bulk latency exceeds `targetLatency` or any item is rejected (429),
+ * always kept within [minActions, maxActions].
+ *
+ * The sink feeds the controller from the listener of its bulk processor: [[beforeBulk]] and [[afterBulk]]
+ * see every bulk, including the ones triggered by the bulk processor itself (flush interval, size, checkpoint),
+ * so the actions waiting in the bulk processor are always known, and [[bind]] hands over the flush of the bulk processor.
+ */
+class AdaptiveBulkController(val minActions: Int,
+                             val maxActions: Int,
+                             val targetLatency: Long,
+                             val increaseStep: Int,
+                             val decreaseFactor: Double) extends Serializable with Logger {
+
+  require(minActions > 0 && maxActions >= minActions, "[StreamPark] AdaptiveBulk: bulk.adaptive.min.actions must be positive and not greater than bulk.adaptive.max.actions")
+  require(decreaseFactor > 0 && decreaseFactor < 1, "[StreamPark] AdaptiveBulk: bulk.adaptive.decrease.factor must be in (0, 1)")
+
+  @volatile private[this] var batchSize: Int = minActions
+
+  @volatile private[this] var lastLatency: Long = 0L
+
+  /**
+   * actions added to the bulk processor and not yet taken by a bulk,
+   * guarded by `this`, because bulks can be executed by the flush scheduler of the bulk processor.
+   */
+  @transient private[this] var pending: Long = 0L
+
+  /**
+   * start time of the bulks in flight, keyed by the execution id of the bulk processor.
+   */
+  @transient private[this] lazy val inflight = new ConcurrentHashMap[java.lang.Long, java.lang.Long]()
+
+  @transient private[this] var flushFunc: () => Unit = _
+
+  @transient private[this] var flushTimes: Counter = _
+  @transient private[this] var rejectedItems: Counter = _
+  @transient private[this] var decreaseTimes: Counter = _
+
+  def registerMetrics(metricGroup: MetricGroup): Unit = {
+    metricGroup.gauge[Int, Gauge[Int]](AdaptiveBulkController.GAUGE_BULK_BATCH_SIZE, new Gauge[Int] {
+      override def getValue: Int = batchSize
+    })
+    metricGroup.gauge[Long, Gauge[Long]](AdaptiveBulkController.GAUGE_BULK_LATENCY, new Gauge[Long] {
+      override def getValue: Long = lastLatency
+    })
+    flushTimes = metricGroup.counter(AdaptiveBulkController.COUNTER_BULK_FLUSH_TIMES)
+    rejectedItems = metricGroup.counter(AdaptiveBulkController.COUNTER_BULK_REJECTED_ITEMS)
+    decreaseTimes = metricGroup.counter(AdaptiveBulkController.COUNTER_BULK_DECREASE_TIMES)
+  }
+
+  def currentBatchSize: Int = batchSize
+
+  /**
+   * bind the bulk processor of the sink, called once the sink has built it.
+   *
+   * @param metricGroup metric group of the sink
+   * @param flush       flush the bulk processor
+   */
+  def bind(metricGroup: MetricGroup)(flush: () => Unit): Unit = {
+    registerMetrics(metricGroup)
+    flushFunc = flush
+  }
+
+  /**
+   * add a request by `addFunc`, and flush the bulk processor once the actions waiting in it reach the batch size.
+   */
+  def add(addFunc: => Unit): Unit = {
+    addFunc
+    val full = this.synchronized {
+      pending += 1
+      pending >= batchSize
+    }
+    if (full && flushFunc != null) {
+      flushFunc()
+    }
+  }
+
+  /**
+   * a bulk of `actions` is about to be executed by the bulk processor.
+   */
+  def beforeBulk(executionId: Long, actions: Int): Unit = {
+    this.synchronized {
+      // the requests retried by the failure handler are added behind the controller
+      pending = math.max(0L, pending - actions)
+    }
+    inflight.put(executionId, System.currentTimeMillis())
+  }
+
+  /**
+   * a bulk is completed, `rejected` is the number of items rejected (429) by the cluster,
+   * and a failed bulk (e.g. the whole request timed out or was rejected) counts as rejected as well.
+   */
+  def afterBulk(executionId: Long, actions: Int, rejected: Int, failed: Boolean): Unit = {
+    val start = inflight.remove(executionId)
+    val latency = if (start == null) 0L else System.currentTimeMillis() - start
+    if (rejected > 0 && rejectedItems != null) {
+      rejectedItems.inc(rejected)
+    }
+    onBulk(actions, latency, if (failed) math.max(rejected, 1) else rejected)
+  }
+
+  /**
+   * feed back the latency of a completed bulk and adjust the batch size of the next one.
+   */
+  private[bulk] def onBulk(actions: Int, latency: Long, rejected: Int): Unit = {
+    lastLatency = latency
+    if (flushTimes != null) {
+      flushTimes.inc()
+    }
+    if (rejected > 0 || latency > targetLatency) {
+      val size = math.max(minActions, (batchSize * decreaseFactor).toInt)
+      if (size != batchSize) {
+        logInfo(s"AdaptiveBulk: decrease batch size $batchSize -> $size, bulk actions: $actions, latency: $latency ms, rejected: $rejected")
+      }
+      batchSize = size
+      if (decreaseTimes != null) {
+        decreaseTimes.inc()
+      }
+    } else if (actions >= batchSize) {
+      // only a full batch proves the cluster keeps up with the current size
+      batchSize = math.min(maxActions, batchSize + increaseStep)
+    }
+  }
+
+}
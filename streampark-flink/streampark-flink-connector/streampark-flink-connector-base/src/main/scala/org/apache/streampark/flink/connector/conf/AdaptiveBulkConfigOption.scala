@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streampark.flink.connector.conf
+
+import org.apache.streampark.common.conf.ConfigOption
+
+import java.util.Properties
+
+object AdaptiveBulkConfigOption {
+  def apply(prefixStr: String, properties: Properties = new Properties): AdaptiveBulkConfigOption = new AdaptiveBulkConfigOption(prefixStr, properties)
+}
+
+class AdaptiveBulkConfigOption(prefixStr: String, properties: Properties) extends Serializable {
+
+  implicit val (prefix, prop) = (prefixStr, properties)
+
+  val enable: ConfigOption[Boolean] = ConfigOption(
+    key = "bulk.adaptive.enable",
+    required = false,
+    defaultValue = false,
+    classType = classOf[Boolean]
+  )
+
+  val minActions: ConfigOption[Int] = ConfigOption(
+    key = "bulk.adaptive.min.actions",
+    required = false,
+    defaultValue = 100,
+    classType = classOf[Int]
+  )
+
+  val maxActions: ConfigOption[Int] = ConfigOption(
+    key = "bulk.adaptive.max.actions",
+    required = false,
+    defaultValue = 5000,
+    classType = classOf[Int]
+  )
+
+  val targetLatency: ConfigOption[Long] = ConfigOption(
+    key = "bulk.adaptive.target.latency.ms",
+    required = false,
+    defaultValue = 1000L,
+    classType = classOf[Long]
+  )
+
+  val increaseStep: ConfigOption[Int] = ConfigOption(
+    key = "bulk.adaptive.increase.step",
+    required = false,
+    defaultValue = 100,
+    classType = classOf[Int]
+  )
+
+  val decreaseFactor: ConfigOption[Double] = ConfigOption(
+    key = "bulk.adaptive.decrease.factor",
+    required = false,
+    defaultValue = 0.5,
+    classType = classOf[Double]
+  )
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.connector.conf
+
+import org.apache.streampark.common.conf.ConfigOption
+
+import java.util.Properties
+
+object LookupConfigOption {
+  def apply(properties: Properties = new Properties): LookupConfigOption = new LookupConfigOption(properties)
+}
+
+class LookupConfigOption(properties: Properties) {
+
+  implicit val prop: Properties = properties
+
+  val cacheMaxRows: ConfigOption[Int] = ConfigOption(
+    key = "lookup.cache.max.rows",
+    required = false,
+    defaultValue = 10000,
+    classType = classOf[Int]
+  )
+
+  val cacheTtl: ConfigOption[Long] = ConfigOption(
+    key = "lookup.cache.ttl.ms",
+    required = false,
+    defaultValue = 60000L,
+    classType = classOf[Long]
+  )
+
+  val cacheMissing: ConfigOption[Boolean] = ConfigOption(
+    key = "lookup.cache.missing",
+    required = false,
+    defaultValue = true,
+    classType = classOf[Boolean]
+  )
+
+  val batchSize: ConfigOption[Int] = ConfigOption(
+    key = "lookup.batch.size",
+    required = false,
+    defaultValue = 100,
+    classType = classOf[Int]
+  )
+
+  val batchWait: ConfigOption[Long] = ConfigOption(
+    key = "lookup.batch.wait.ms",
+    required = false,
+    defaultValue = 5L,
+    classType = classOf[Long]
+  )
+
+  val threadNum: ConfigOption[Int] = ConfigOption(
+    key = "lookup.thread.num",
+    required = false,
+    defaultValue = 10,
+    classType = classOf[Int]
+  )
+
+}
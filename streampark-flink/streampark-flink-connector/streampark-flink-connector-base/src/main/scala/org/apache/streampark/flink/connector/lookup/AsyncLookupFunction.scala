@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.connector.lookup
+
+import org.apache.streampark.common.util.{Logger, ThreadUtils}
+import org.apache.streampark.flink.connector.conf.LookupConfigOption
+import org.apache.flink.api.common.typeinfo.TypeInformation
+import org.apache.flink.configuration.Configuration
+import org.apache.flink.metrics.{Counter, Gauge}
+import org.apache.flink.streaming.api.scala.async.{ResultFuture, RichAsyncFunction}
+
+import java.util.Properties
+import java.util.concurrent._
+import java.util.function.BiConsumer
+import scala.collection.mutable.ArrayBuffer
+import scala.util.{Failure, Success, Try}
+
+object AsyncLookupFunction {
+
+  val COUNTER_CACHE_HIT = "lookupCacheHit"
+  val COUNTER_CACHE_MISS = "lookupCacheMiss"
+  val COUNTER_COALESCED = "lookupCoalesced"
+  val COUNTER_BATCH = "lookupBatch"
+  val GAUGE_CACHE_SIZE = "lookupCacheSize"
+
+}
+
+/**
+ * Async dimension lookup based on a pluggable [[LookupClient]]:
+ * 1) the values are cached in an LRU cache with the expire time in the operator (`lookup.cache.*`),
+ * 2) concurrent lookups of the same key share one request to the store,
+ * 3) the missed keys are collected into batches (`lookup.batch.size`, `lookup.batch.wait.ms`) and
+ * looked up by the client in the thread pool (`lookup.thread.num`).
+ *
+ * @param client     client of the dimension store
+ * @param keyFunc    get the lookup key from the input
+ * @param resultFunc join the input and the value found by the key, None if the key is not found
+ * @param prop       lookup parameters
+ */
+class AsyncLookupFunction[T: TypeInformation, K, V, R: TypeInformation](client: LookupClient[K, V],
+                                                                         keyFunc: T => K,
+                                                                         resultFunc: (T, Option[V]) => R,
+                                                                         prop: Properties) extends RichAsyncFunction[T, R] with Logger {
+
+  @transient private[this] var cache: LookupCache[K, Option[V]] = _
+  @transient private[this] var cacheMissing: Boolean = _
+  @transient private[this] var batchSize: Int = _
+  @transient private[this] var batchWait: Long = _
+
+  @transient private[this] var inFlight: ConcurrentHashMap[K, CompletableFuture[Option[V]]] = _
+  @transient private[this] var queue: LinkedBlockingQueue[K] = _
+  @transient private[this] var executorService: ExecutorService = _
+  @transient private[this] var dispatcher: Thread = _
+  @volatile private[this] var running = false
+
+  @transient private[this] var cacheHit: Counter = _
+  @transient private[this] var cacheMiss: Counter = _
+  @transient private[this] var coalesced: Counter = _
+  @transient private[this] var batches: Counter = _
+
+  override def open(parameters: Configuration): Unit = {
+    super.open(parameters)
+    val option = LookupConfigOption(prop)
+    cacheMissing = option.cacheMissing.get()
+    batchSize = math.max(1, option.batchSize.get())
+    batchWait = option.batchWait.get()
+    option.cacheMaxRows.get() match {
+      case rows if rows > 0 => cache = new LookupCache[K, Option[V]](rows, option.cacheTtl.get())
+      case _ =>
+    }
+
+    val metricGroup = getRuntimeContext.getMetricGroup
+    cacheHit = metricGroup.counter(AsyncLookupFunction.COUNTER_CACHE_HIT)
+    cacheMiss = metricGroup.counter(AsyncLookupFunction.COUNTER_CACHE_MISS)
+    coalesced = metricGroup.counter(AsyncLookupFunction.COUNTER_COALESCED)
+    batches = metricGroup.counter(AsyncLookupFunction.COUNTER_BATCH)
+    metricGroup.gauge[Int, Gauge[Int]](AsyncLookupFunction.GAUGE_CACHE_SIZE, new Gauge[Int] {
+      override def getValue: Int = if (cache == null) 0 else cache.size
+    })
+
+    client.open()
+    inFlight = new ConcurrentHashMap[K, CompletableFuture[Option[V]]]()
+    queue = new LinkedBlockingQueue[K]()
+    executorService = Executors.newFixedThreadPool(option.threadNum.get(), ThreadUtils.threadFactory("AsyncLookup-executor"))
+    running = true
+    dispatcher = ThreadUtils.threadFactory("AsyncLookup-dispatcher").newThread(new Runnable {
+      override def run(): Unit = dispatch()
+    })
+    dispatcher.start()
+  }
+
+  override def asyncInvoke(input: T, resultFuture: ResultFuture[R]): Unit = {
+    val key = keyFunc(input)
+    val cached = if (cache == null) None else cache.get(key)
+    cached match {
+      case Some(value) =>
+        cacheHit.inc()
+        resultFuture.complete(List(resultFunc(input, value)))
+      case _ =>
+        cacheMiss.inc()
+        request(key).whenComplete(new BiConsumer[Option[V], Throwable] {
+          override def accept(value: Option[V], e: Throwable): Unit = e match {
+            case null => resultFuture.complete(List(resultFunc(input, value)))
+            case _ => resultFuture.completeExceptionally(e)
+          }
+        })
+    }
+  }
+
+  /**
+   * fail the element instead of retrying it on the same result future, the request in flight may still
+   * complete later, its result is then ignored by the async operator and only fills the cache.
+   */
+  override def timeout(input: T, resultFuture: ResultFuture[R]): Unit = {
+    logWarn(s"AsyncLookup request timeout, key: ${keyFunc(input)}")
+    resultFuture.completeExceptionally(new TimeoutException(s"AsyncLookup request timeout, key: ${keyFunc(input)}"))
+  }
+
+  override def close(): Unit = {
+    super.close()
+    running = false
+    if (dispatcher != null) {
+      dispatcher.interrupt()
+    }
+    if (executorService != null && !executorService.isShutdown) {
+      executorService.shutdown()
+    }
+    client.close()
+  }
+
+  /**
+   * join the request in flight of the same key, or put the key into the queue of the next batch.
+   */
+  private[this] def request(key: K): CompletableFuture[Option[V]] = {
+    val future = new CompletableFuture[Option[V]]()
+    inFlight.putIfAbsent(key, future) match {
+      case null =>
+        queue.put(key)
+        future
+      case exists =>
+        coalesced.inc()
+        exists
+    }
+  }
+
+  private[this] def dispatch(): Unit = {
+    while (running) {
+      try {
+        queue.poll(100, TimeUnit.MILLISECONDS) match {
+          case null =>
+          case first =>
+            val keys = ArrayBuffer[K](first)
+            val deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchWait)
+            var remaining = deadline - System.nanoTime()
+            while (keys.length < batchSize && remaining > 0) {
+              queue.poll(remaining, TimeUnit.NANOSECONDS) match {
+                case null =>
+                case key => keys += key
+              }
+              remaining = deadline - System.nanoTime()
+            }
+            executorService.execute(new Runnable {
+              override def run(): Unit = lookup(keys)
+            })
+        }
+      } catch {
+        case _: InterruptedException => running = false
+        case e: RejectedExecutionException if !running => logWarn(s"AsyncLookup dispatcher stopped, ${e.getMessage}")
+      }
+    }
+  }
+
+  private[this] def lookup(keys: Seq[K]): Unit = {
+    batches.inc()
+    Try(client.lookup(keys)) match {
+      case Success(result) =>
+        keys.foreach(key => {
+          val value = result.get(key)
+          if (cache != null && (value.isDefined || cacheMissing)) {
+            cache.put(key, value)
+          }
+          inFlight.remove(key).complete(value)
+        })
+      case Failure(e) =>
+        logError(s"AsyncLookup batch lookup error, batch size: ${keys.length}, ${e.getMessage}")
+        keys.foreach(key => inFlight.remove(key).completeExceptionally(e))
+    }
+  }
+
+}
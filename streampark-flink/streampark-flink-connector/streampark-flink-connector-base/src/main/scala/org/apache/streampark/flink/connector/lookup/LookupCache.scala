@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.connector.lookup
+
+import java.util.{LinkedHashMap => JavaLinkedHashMap, Map => JavaMap}
+
+/**
+ * LRU cache with the expire time, entries are evicted when the cache is full or expired after `ttl` ms.
+ */
+class LookupCache[K, V](maxRows: Int, ttl: Long) {
+
+  require(maxRows > 0, "[StreamPark] LookupCache maxRows must be positive")
+
+  private[this] val cache = new JavaLinkedHashMap[K, (V, Long)](16, 0.75f, true) {
+    override def removeEldestEntry(eldest: JavaMap.Entry[K, (V, Long)]): Boolean = size() > maxRows
+  }
+
+  def get(key: K): Option[V] = cache.synchronized {
+    cache.get(key) match {
+      case null => None
+      case (_, expireAt) if expireAt < System.currentTimeMillis() =>
+        cache.remove(key)
+        None
+      case (value, _) => Some(value)
+    }
+  }
+
+  def put(key: K, value: V): Unit = cache.synchronized {
+    cache.put(key, value -> (System.currentTimeMillis() + ttl))
+  }
+
+  def size: Int = cache.synchronized(cache.size())
+
+}
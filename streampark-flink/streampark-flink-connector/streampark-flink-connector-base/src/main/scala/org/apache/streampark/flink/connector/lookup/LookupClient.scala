@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.connector.lookup
+
+/**
+ * Client of the dimension store used by [[AsyncLookupFunction]].
+ * The function calls `lookup` from several threads at the same time, so the implementation must be thread-safe.
+ *
+ * @tparam K type of the lookup key
+ * @tparam V type of the value found by the key
+ */
+trait LookupClient[K, V] extends Serializable {
+
+  def open(): Unit
+
+  /**
+   * look up a batch of keys with a single request when the store supports it,
+   * the keys which are not found should be absent from the returned map.
+   */
+  def lookup(keys: Seq[K]): Map[K, V]
+
+  def close(): Unit
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.connector.lookup
+
+import org.apache.flink.api.common.typeinfo.TypeInformation
+import org.apache.flink.streaming.api.scala.{AsyncDataStream, DataStream}
+
+import java.util.Properties
+import java.util.concurrent.TimeUnit
+import scala.annotation.meta.param
+
+object LookupRequest {
+
+  def apply[T: TypeInformation](@(transient@param) stream: DataStream[T], property: Properties = new Properties()): LookupRequest[T] = new LookupRequest[T](stream, property)
+
+}
+
+/**
+ * dimension join of the stream by the async lookup, e.g.
+ * {{{
+ *   LookupRequest(stream, prop).requestOrdered(new RedisLookupClient(jedisConfig), x => x.userId, (x, user) => ...)
+ * }}}
+ */
+class LookupRequest[T: TypeInformation](@(transient@param) private val stream: DataStream[T], property: Properties = new Properties()) {
+
+  def requestOrdered[K, V, R: TypeInformation](client: LookupClient[K, V], keyFunc: T => K, resultFunc: (T, Option[V]) => R, timeout: Long = 1000, capacity: Int = 100): DataStream[R] = {
+    val async = new AsyncLookupFunction[T, K, V, R](client, keyFunc, resultFunc, property)
+    AsyncDataStream.orderedWait(stream, async, timeout, TimeUnit.MILLISECONDS, capacity)
+  }
+
+  def requestUnordered[K, V, R: TypeInformation](client: LookupClient[K, V], keyFunc: T => K, resultFunc: (T, Option[V]) => R, timeout: Long = 1000, capacity: Int = 100): DataStream[R] = {
+    val async = new AsyncLookupFunction[T, K, V, R](client, keyFunc, resultFunc, property)
+    AsyncDataStream.unorderedWait(stream, async, timeout, TimeUnit.MILLISECONDS, capacity)
+  }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.streampark.flink.connector.metrics
+
+import org.apache.flink.api.common.functions.RichFunction
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup
+import org.apache.flink.metrics.{Counter, Gauge, Histogram, MetricGroup}
+import org.apache.flink.runtime.metrics.DescriptiveStatisticsHistogram
+
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.{AtomicInteger, LongAdder}
+import scala.util.Try
+
+object SinkMetrics {
+
+  val METRIC_GROUP = "streampark"
+
+  val COUNTER_RECORDS_IN = "recordsIn"
+  val COUNTER_RECORDS_OUT = "recordsOut"
+  val COUNTER_BYTES_OUT = "bytesOut"
+  val COUNTER_FLUSH_FAILED = "flushFailed"
+  val COUNTER_RETRIES = "retries"
+  val COUNTER_FAILOVERS = "failovers"
+  val COUNTER_FAILOVER_RECORDS = "failoverRecords"
+  val HISTOGRAM_BATCH_SIZE = "batchSize"
+  val HISTOGRAM_FLUSH_LATENCY = "flushLatencyMs"
+  val GAUGE_IN_FLIGHT_REQUESTS = "inFlightRequests"
+  val GAUGE_QUEUE_DEPTH = "queueDepth"
+
+  val HISTOGRAM_WINDOW_SIZE = 1024
+
+  /**
+   * metrics of the sink function, registered under the group `streampark.<connector>` of the runtime context.
+   * OutputFormat wrappers invoke the sink function without a runtime context, then the metrics are not reported.
+   */
+  def apply(function: RichFunction, connector: String): SinkMetrics = {
+    val metricGroup = Try(function.getRuntimeContext.getMetricGroup).getOrElse(new UnregisteredMetricsGroup)
+    apply(metricGroup, connector)
+  }
+
+  def apply(metricGroup: MetricGroup, connector: String): SinkMetrics = {
+    new SinkMetrics(metricGroup.addGroup(METRIC_GROUP).addGroup(connector))
+  }
+
+}
+
+/**
+ * Common connector-side metrics of the streampark sinks:
+ * records in/out, bytes out, batch size and flush latency histograms, in-flight requests, retries, failovers and queue depth.
+ * The async sinks update the metrics from the writer and callback threads, so all the counters are thread-safe.
+ */
+class SinkMetrics(metricGroup: MetricGroup) {
+
+  import SinkMetrics._
+
+  private[this] val inFlight = new AtomicInteger(0)
+
+  val recordsIn: Counter = metricGroup.counter(COUNTER_RECORDS_IN, new ConcurrentCounter)
+  val recordsOut: Counter = metricGroup.counter(COUNTER_RECORDS_OUT, new ConcurrentCounter)
+  val bytesOut: Counter = metricGroup.counter(COUNTER_BYTES_OUT, new ConcurrentCounter)
+  val flushFailed: Counter = metricGroup.counter(COUNTER_FLUSH_FAILED, new ConcurrentCounter)
+  val retries: Counter = metricGroup.counter(COUNTER_RETRIES, new ConcurrentCounter)
+  val failovers: Counter = metricGroup.counter(COUNTER_FAILOVERS, new ConcurrentCounter)
+  val failoverRecords: Counter = metricGroup.counter(COUNTER_FAILOVER_RECORDS, new ConcurrentCounter)
+  val batchSize: Histogram = metricGroup.histogram(HISTOGRAM_BATCH_SIZE, new DescriptiveStatisticsHistogram(HISTOGRAM_WINDOW_SIZE))
+  val flushLatency: Histogram = metricGroup.histogram(HISTOGRAM_FLUSH_LATENCY, new DescriptiveStatisticsHistogram(HISTOGRAM_WINDOW_SIZE))
+
+  metricGroup.gauge[Int, Gauge[Int]](GAUGE_IN_FLIGHT_REQUESTS, new Gauge[Int] {
+    override def getValue: Int = inFlight.get()
+  })
+
+  def recordIn(): Unit = recordsIn.inc()
+
+  /**
+   * register the depth of the request queue of the async writer.
+   */
+  def queueDepth(depth: => Int): Unit = {
+    metricGroup.gauge[Int, Gauge[Int]](GAUGE_QUEUE_DEPTH, new Gauge[Int] {
+      override def getValue: Int = depth
+    })
+  }
+
+  /**
+   * a request is sent, return the start time which must be passed to [[endRequest]].
+   */
+  def beginRequest(): Long = {
+    inFlight.incrementAndGet()
+    System.nanoTime()
+  }
+
+  /**
+   * the request started at `start` is completed.
+   *
+   * @param records number of records in the request
+   * @param bytes   size of the request body
+   */
+  def endRequest(start: Long, records: Int, bytes: Long, success: Boolean): Unit = {
+    inFlight.decrementAndGet()
+    if (success) {
+      recordsOut.inc(records)
+      bytesOut.inc(bytes)
+      batchSize.update(records)
+      flushLatency.update(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+    } else {
+      flushFailed.inc()
+    }
+  }
+
+  /**
+   * run a synchronous flush of `records` records, and measure it as one request.
+   */
+  def flush[R](records: Int, bytes: Long = 0L)(func: => R): R = {
+    val start = beginRequest()
+    var success = false
+    try {
+      val result = func
+      success = true
+      result
+    } finally {
+      endRequest(start, records, bytes, success)
+    }
+  }
+
+  /**
+   * the records are written one by one without batching, only count them, the batch size and
+   * the flush latency are left to the batching sinks.
+   */
+  def recordOut(records: Int, bytes: Long = 0L): Unit = {
+    recordsOut.inc(records)
+    bytesOut.inc(bytes)
+  }
+
+  def retry(): Unit = retries.inc()
+
+  def failover(records: Int): Unit = {
+    failovers.inc()
+    failoverRecords.inc(records)
+  }
+
+}
+
+private[metrics] class ConcurrentCounter extends Counter {
+
+  private[this] val count = new LongAdder
+
+  override def inc(): Unit = count.increment()
+
+  override def inc(n: Long): Unit = count.add(n)
+
+  override def dec(): Unit = count.decrement()
+
+  override def dec(n: Long): Unit = count.add(-n)
+
+  override def getCount: Long = count.sum()
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.connector.benchmark;
+
+import org.apache.streampark.flink.connector.metrics.SinkMetrics;
+
+import org.apache.flink.metrics.HistogramStatistics;
+
+/**
+ * Helpers shared by the sink benchmarks.
+ */
+public final class BenchmarkUtils {
+
+    private BenchmarkUtils() {
+    }
+
+    /**
+     * wait until the async sink has flushed `expected` records, the failed requests are retried by the sink,
+     * but no record is expected to be written to the failover storage.
+     */
+    public static void awaitRecordsOut(SinkMetrics sinkMetrics, long expected) {
+        while (sinkMetrics.recordsOut().getCount() < expected) {
+            if (sinkMetrics.failoverRecords().getCount() > 0) {
+                throw new IllegalStateException("[StreamPark] benchmark sink failed after retries");
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * JMH can only report the counters, so the latency percentiles of the flushes are printed after the trial.
+     */
+    public static void printFlushLatency(String sink, SinkMetrics sinkMetrics) {
+        HistogramStatistics statistics = sinkMetrics.flushLatency().getStatistics();
+        System.out.printf(
+            "%n%s flush latency(ms): count=%d, mean=%.2f, p50=%.2f, p99=%.2f, max=%d, bytesOut=%d, retries=%d%n",
+            sink,
+            sinkMetrics.flushLatency().getCount(),
+            statistics.getMean(),
+            statistics.getQuantile(0.5),
+            statistics.getQuantile(0.99),
+            statistics.getMax(),
+            sinkMetrics.bytesOut().getCount(),
+            sinkMetrics.retries().getCount());
+    }
+}
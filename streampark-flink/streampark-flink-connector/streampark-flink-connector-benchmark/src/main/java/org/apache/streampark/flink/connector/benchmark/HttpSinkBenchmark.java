@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.connector.benchmark;
+
+import org.apache.streampark.flink.connector.conf.ThresholdConf;
+import org.apache.streampark.flink.connector.failover.SinkRequest;
+import org.apache.streampark.flink.connector.http.internal.HttpSinkWriter;
+import org.apache.streampark.flink.connector.metrics.SinkMetrics;
+
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests sent by the async http writer to an in-process http server, one request per record as the http sink does,
+ * every invocation waits until all its requests are answered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class HttpSinkBenchmark {
+
+    private static final int RECORDS = 1000;
+
+    @Param({"2", "8"})
+    public int numWriters;
+
+    private EmbeddedHttpServer server;
+    private SinkMetrics sinkMetrics;
+    private HttpSinkWriter writer;
+    private String[] records;
+    private long sent;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        server = new EmbeddedHttpServer("");
+        Properties properties = new Properties();
+        properties.setProperty("http.sink.threshold.numWriters", String.valueOf(numWriters));
+        sinkMetrics = SinkMetrics.apply(new UnregisteredMetricsGroup(), "http");
+        scala.collection.immutable.Map<String, String> header = scala.collection.immutable.Map$.MODULE$.empty();
+        writer = new HttpSinkWriter(new ThresholdConf("http.sink", properties), header, sinkMetrics);
+        records = new String[RECORDS];
+        for (int i = 0; i < RECORDS; i++) {
+            records[i] = "POST///" + server.url() + "/orders?id=" + i + "&name=name-" + i;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void sink(ThroughputCounters counters) {
+        for (String record : records) {
+            writer.write(new SinkRequest(Collections.singletonList(record), 0));
+            counters.bytes += record.length();
+        }
+        sent += RECORDS;
+        BenchmarkUtils.awaitRecordsOut(sinkMetrics, sent);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkUtils.printFlushLatency("Http", sinkMetrics);
+        writer.close();
+        server.close();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.connector.benchmark;
+
+import org.apache.streampark.flink.connector.function.TransformFunction;
+import org.apache.streampark.flink.connector.jdbc.internal.JdbcSinkFunction;
+
+import org.apache.flink.configuration.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The jdbc sink writing to an in-memory H2 database, single statement vs batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class JdbcSinkBenchmark {
+
+    private static final int RECORDS = 10000;
+
+    private static final String JDBC_URL = "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1";
+
+    @Param({"1", "1000"})
+    public int batchSize;
+
+    private Connection connection;
+    private JdbcSinkFunction<Integer> sinkFunction;
+    private int id;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        connection = DriverManager.getConnection(JDBC_URL, "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(String.format(
+                "create table if not exists %s(id int, name varchar(64), amount decimal(10, 2), create_time timestamp)",
+                SinkRecords.TABLE));
+        }
+        Properties properties = new Properties();
+        properties.setProperty("alias", "benchmark-" + batchSize);
+        properties.setProperty("driverClassName", "org.h2.Driver");
+        properties.setProperty("jdbcUrl", JDBC_URL);
+        properties.setProperty("username", "sa");
+        properties.setProperty("password", "");
+        properties.setProperty("batch.size", String.valueOf(batchSize));
+        sinkFunction = new JdbcSinkFunction<>(properties, (TransformFunction<Integer, String>) SinkRecords::insert);
+        sinkFunction.open(new Configuration());
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("truncate table " + SinkRecords.TABLE);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void sink() throws Exception {
+        for (int i = 0; i < RECORDS; i++) {
+            sinkFunction.invoke(id++, null);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        sinkFunction.close();
+        connection.close();
+    }
+}
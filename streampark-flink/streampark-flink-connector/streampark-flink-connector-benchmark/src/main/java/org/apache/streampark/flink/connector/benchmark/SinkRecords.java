@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.connector.benchmark;
+
+/**
+ * Records written by the sink benchmarks.
+ */
+public final class SinkRecords {
+
+    public static final String TABLE = "benchmark_orders";
+
+    private SinkRecords() {
+    }
+
+    public static String insert(int id) {
+        return String.format(
+            "insert into %s(id,name,amount,create_time) values (%d,'name-%d',%d.25,'2022-10-01 12:00:00')",
+            TABLE, id, id, id % 1000);
+    }
+
+    public static String csv(int id) {
+        return String.format("%d,name-%d,%d.25,2022-10-01 12:00:00", id, id, id % 1000);
+    }
+
+    public static String json(int id) {
+        return String.format(
+            "{\"id\":%d,\"name\":\"name-%d\",\"amount\":%d.25,\"create_time\":\"2022-10-01 12:00:00\"}",
+            id, id, id % 1000);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.connector.doris.internal;
+
+import org.apache.streampark.connector.doris.conf.DorisConfig;
+import org.apache.streampark.flink.connector.benchmark.SinkRecords;
+import org.apache.streampark.flink.connector.benchmark.ThroughputCounters;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Joining the buffered rows into the body of a Doris stream load.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DorisJoinRowsBenchmark {
+
+    @Param({"csv", "json"})
+    public String format;
+
+    @Param({"1000", "10000"})
+    public int rowCount;
+
+    private DorisStreamLoader loader;
+    private List<byte[]> rows;
+    private int totalBytes;
+
+    @Setup
+    public void setup() {
+        Properties properties = new Properties();
+        properties.setProperty("doris.sink.load_url", "127.0.0.1:8030");
+        properties.setProperty("doris.sink.user", "root");
+        properties.setProperty("doris.sink.password", "");
+        properties.setProperty("doris.sink.loadFormat", format);
+        properties.setProperty("doris.sink.properties.row_delimiter", "\n");
+        loader = new DorisStreamLoader(new DorisConfig(properties));
+        rows = new ArrayList<>(rowCount);
+        totalBytes = 0;
+        for (int i = 0; i < rowCount; i++) {
+            String row = DorisConfig.CSV().equals(format) ? SinkRecords.csv(i) : SinkRecords.json(i);
+            byte[] bytes = row.getBytes(StandardCharsets.UTF_8);
+            rows.add(bytes);
+            totalBytes += bytes.length;
+        }
+    }
+
+    @Benchmark
+    public byte[] joinRows(ThroughputCounters counters) {
+        byte[] body = loader.joinRows(rows, totalBytes);
+        counters.bytes += body.length;
+        return body;
+    }
+}
@@ -25,6 +25,7 @@ import org.apache.streampark.flink.connector.clickhouse.internal
 import org.apache.streampark.flink.connector.clickhouse.util.ClickhouseConvertUtils.convert
 import org.apache.streampark.flink.connector.failover.{FailoverChecker, SinkBuffer}
 import org.apache.streampark.flink.connector.function.TransformFunction
+import org.apache.streampark.flink.connector.metrics.SinkMetrics
 import org.apache.flink.configuration.Configuration
 import org.apache.flink.streaming.api.functions.sink.RichSinkFunction
 
@@ -58,15 +59,17 @@ class AsyncClickHouseSinkFunction[T](apiType: ApiType = ApiType.scala, propertie
   @transient var sinkBuffer: SinkBuffer = _
   @transient var clickHouseWriter: ClickHouseSinkWriter = _
   @transient var failoverChecker: FailoverChecker = _
+  @transient var sinkMetrics: SinkMetrics = _
   @volatile var isClosed: Boolean = false
 
   override def open(config: Configuration): Unit = {
+    sinkMetrics = SinkMetrics(this, "clickhouse")
     if (!Lock.initialized) {
       Lock.lock.synchronized {
         if (!Lock.initialized) {
           Lock.initialized = true
           clickHouseConf = new ClickHouseHttpConfig(properties)
-          clickHouseWriter = internal.ClickHouseSinkWriter(clickHouseConf)
+          clickHouseWriter = internal.ClickHouseSinkWriter(clickHouseConf, sinkMetrics)
           failoverChecker = FailoverChecker(clickHouseConf.delayTime)
           sinkBuffer = SinkBuffer(clickHouseWriter, clickHouseConf.delayTime, clickHouseConf.bufferSize)
           failoverChecker.addSinkBuffer(sinkBuffer)
@@ -85,6 +88,7 @@ class AsyncClickHouseSinkFunction[T](apiType: ApiType = ApiType.scala, propertie
       }
     }
 
+    sinkMetrics.recordIn()
     Try(sinkBuffer.put(sql)) match {
       case Failure(e) =>
         logError(s"""Error while sending data to Clickhouse, record = $sql,error:$e""")
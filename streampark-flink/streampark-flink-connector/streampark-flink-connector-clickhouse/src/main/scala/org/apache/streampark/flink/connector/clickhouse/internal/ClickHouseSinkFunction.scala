@@ -23,6 +23,7 @@ import org.apache.streampark.common.util.{JdbcUtils, Logger}
 import org.apache.streampark.flink.connector.clickhouse.conf.ClickHouseJdbcConfig
 import org.apache.streampark.flink.connector.clickhouse.util.ClickhouseConvertUtils.convert
 import org.apache.streampark.flink.connector.function.TransformFunction
+import org.apache.streampark.flink.connector.metrics.SinkMetrics
 import org.apache.flink.configuration.Configuration
 import org.apache.flink.streaming.api.functions.sink.{RichSinkFunction, SinkFunction}
 import ru.yandex.clickhouse.ClickHouseDataSource
@@ -46,6 +47,7 @@ class ClickHouseSinkFunction[T](apiType: ApiType = ApiType.scala, config: Proper
   private val flushInterval = clickHouseConf.flushInterval
   private val sqlValues = new util.ArrayList[String](batchSize)
   private var insertSqlPrefixes: String = _
+  @transient private var sinkMetrics: SinkMetrics = _
 
   private[this] var scalaSqlFunc: T => String = _
   private[this] var javaSqlFunc: TransformFunction[T, String] = _
@@ -66,6 +68,7 @@ class ClickHouseSinkFunction[T](apiType: ApiType = ApiType.scala, config: Proper
 
 
   override def open(parameters: Configuration): Unit = {
+    sinkMetrics = SinkMetrics(this, "clickhouse")
     val user: String = clickHouseConf.user
     val driver: String = clickHouseConf.driverClassName
     val properties = new ClickHouseProperties()
@@ -106,10 +109,11 @@ class ClickHouseSinkFunction[T](apiType: ApiType = ApiType.scala, config: Proper
         case ApiType.scala => scalaSqlFunc(value)
       }
     }
+    sinkMetrics.recordIn()
 
     batchSize match {
       case 1 =>
-        Try(connection.prepareStatement(sql).executeUpdate)
+        Try(sinkMetrics.flush(1, sql.length)(connection.prepareStatement(sql).executeUpdate))
           .recover{ case e =>
             logError(s"ClickHouseSink invoke error: $e")
             throw e
@@ -143,7 +147,7 @@ class ClickHouseSinkFunction[T](apiType: ApiType = ApiType.scala, config: Proper
         val valuesStr: String = sqlValues.mkString(",")
         val sql = s"$insertSqlPrefixes $valuesStr"
         //clickhouse batch insert  return num always 1
-        val insertNum: Int = connection.prepareStatement(sql).executeUpdate()
+        val insertNum: Int = sinkMetrics.flush(sqlValues.size(), sql.length)(connection.prepareStatement(sql).executeUpdate())
         logInfo(s"ClickHouseSink batch  successful, execute size : ${insertNum}")
         timestamp = System.currentTimeMillis()
       } finally {
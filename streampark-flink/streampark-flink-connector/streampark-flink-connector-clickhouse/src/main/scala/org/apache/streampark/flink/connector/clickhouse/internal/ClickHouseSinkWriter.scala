@@ -21,13 +21,14 @@ import org.apache.streampark.common.util.{Logger, ThreadUtils}
 import org.apache.streampark.flink.connector.clickhouse.conf.ClickHouseHttpConfig
 import org.apache.streampark.flink.connector.clickhouse.internal
 import org.apache.streampark.flink.connector.failover.{SinkRequest, SinkWriter}
+import org.apache.streampark.flink.connector.metrics.SinkMetrics
 import org.asynchttpclient.{AsyncHttpClient, DefaultAsyncHttpClientConfig, Dsl}
 
 import java.util.concurrent._
 import scala.collection.mutable.ListBuffer
 import scala.collection.JavaConversions._
 
-case class ClickHouseSinkWriter(clickHouseConfig: ClickHouseHttpConfig) extends SinkWriter with Logger {
+case class ClickHouseSinkWriter(clickHouseConfig: ClickHouseHttpConfig, sinkMetrics: SinkMetrics) extends SinkWriter with Logger {
   private val callbackServiceFactory = ThreadUtils.threadFactory("ClickHouse-writer-callback-executor")
   private val threadFactory: ThreadFactory = ThreadUtils.threadFactory("ClickHouse-writer")
 
@@ -42,6 +43,8 @@ case class ClickHouseSinkWriter(clickHouseConfig: ClickHouseHttpConfig) extends
 
   var tasks: ListBuffer[ClickHouseWriterTask] = ListBuffer[ClickHouseWriterTask]()
   var recordQueue: BlockingQueue[SinkRequest] = new LinkedBlockingQueue[SinkRequest](clickHouseConfig.queueCapacity)
+  sinkMetrics.queueDepth(recordQueue.size())
+
   var asyncHttpClient: AsyncHttpClient = Dsl.asyncHttpClient(
     new DefaultAsyncHttpClientConfig.Builder()
       .setRequestTimeout(clickHouseConfig.sinkOption.requestTimeout.get())
@@ -53,7 +56,7 @@ case class ClickHouseSinkWriter(clickHouseConfig: ClickHouseHttpConfig) extends
   var service: ExecutorService = Executors.newFixedThreadPool(clickHouseConfig.numWriters, threadFactory)
 
   for (i <- 0 until clickHouseConfig.numWriters) {
-    val task = internal.ClickHouseWriterTask(i, clickHouseConfig, asyncHttpClient, recordQueue, callbackService)
+    val task = internal.ClickHouseWriterTask(i, clickHouseConfig, asyncHttpClient, recordQueue, callbackService, sinkMetrics)
     tasks.add(task)
     service.submit(task)
   }
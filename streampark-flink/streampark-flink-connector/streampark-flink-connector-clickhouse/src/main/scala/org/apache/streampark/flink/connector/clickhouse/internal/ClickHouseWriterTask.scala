@@ -20,6 +20,7 @@ package org.apache.streampark.flink.connector.clickhouse.internal
 import org.apache.streampark.common.util.Logger
 import org.apache.streampark.flink.connector.clickhouse.conf.ClickHouseHttpConfig
 import org.apache.streampark.flink.connector.failover.{FailoverWriter, SinkRequest}
+import org.apache.streampark.flink.connector.metrics.SinkMetrics
 import io.netty.handler.codec.http.{HttpHeaderNames, HttpHeaders}
 import org.asynchttpclient.{AsyncHttpClient, ListenableFuture, Request, Response}
 
@@ -31,7 +32,8 @@ case class ClickHouseWriterTask(id: Int,
                                 clickHouseConf: ClickHouseHttpConfig,
                                 asyncHttpClient: AsyncHttpClient,
                                 queue: BlockingQueue[SinkRequest],
-                                callbackService: ExecutorService) extends Runnable with AutoCloseable with Logger {
+                                callbackService: ExecutorService,
+                                sinkMetrics: SinkMetrics) extends Runnable with AutoCloseable with Logger {
 
   @volatile var isWorking = false
 
@@ -57,8 +59,9 @@ case class ClickHouseWriterTask(id: Int,
   def send(sinkRequest: SinkRequest): Unit = {
     val request = buildRequest(sinkRequest)
     logDebug(s"Ready to load data to ${sinkRequest.table}, size: ${sinkRequest.size}")
+    val start = sinkMetrics.beginRequest()
     val whenResponse = asyncHttpClient.executeRequest(request)
-    val callback = respCallback(whenResponse, sinkRequest)
+    val callback = respCallback(whenResponse, sinkRequest, start)
     whenResponse.addListener(callback, callbackService)
   }
 
@@ -75,16 +78,19 @@ case class ClickHouseWriterTask(id: Int,
     builder.build
   }
 
-  def respCallback(whenResponse: ListenableFuture[Response], sinkRequest: SinkRequest): Runnable = new Runnable {
+  def respCallback(whenResponse: ListenableFuture[Response], sinkRequest: SinkRequest, start: Long): Runnable = new Runnable {
     override def run(): Unit = {
       Try(whenResponse.get()).getOrElse(null) match {
         case null =>
+          sinkMetrics.endRequest(start, sinkRequest.size, 0L, success = false)
           logError(s"""Error ClickHouseSink executing callback, params = $clickHouseConf,can not get Response. """)
           handleFailedResponse(null, sinkRequest)
         case resp if resp.getStatusCode != 200 =>
+          sinkMetrics.endRequest(start, sinkRequest.size, 0L, success = false)
           logError(s"Error ClickHouseSink executing callback, params = ${clickHouseConf}, StatusCode = ${resp.getStatusCode} ")
           handleFailedResponse(resp, sinkRequest)
         case _ =>
+          sinkMetrics.endRequest(start, sinkRequest.size, sinkRequest.sqlStatement.length, success = true)
       }
     }
   }
@@ -99,9 +105,11 @@ case class ClickHouseWriterTask(id: Int,
     if (sinkRequest.attemptCounter > clickHouseConf.maxRetries) {
       logWarn(s"""Failed to send data to ClickHouse, cause: limit of attempts is exceeded. ClickHouse response = $response. Ready to flush data to ${clickHouseConf.storageType}""")
       failoverWriter.write(sinkRequest)
+      sinkMetrics.failover(sinkRequest.size)
       logInfo(s"failover Successful, StorageType = ${clickHouseConf.storageType}, size = ${sinkRequest.size}")
     } else {
       sinkRequest.incrementCounter()
+      sinkMetrics.retry()
       logWarn(s"Next attempt to send data to ClickHouse, table = ${sinkRequest.table}, buffer size = ${sinkRequest.size}, current attempt num = ${sinkRequest.attemptCounter}, max attempt num = ${clickHouseConf.maxRetries}, response = $response")
       queue.put(sinkRequest)
     }
@@ -24,6 +24,7 @@ import org.apache.streampark.flink.connector.doris.bean.RespContent;
 import org.apache.streampark.flink.connector.doris.util.DorisDelimiterParser;
 
 import org.apache.commons.codec.binary.Base64;
+import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.HttpHeaders;
 import org.apache.http.client.methods.CloseableHttpResponse;
@@ -191,7 +192,8 @@ public class DorisStreamLoader implements Serializable {
         }
     }
 
-    private byte[] joinRows(List<byte[]> rows, int totalBytes) {
+    @VisibleForTesting
+    byte[] joinRows(List<byte[]> rows, int totalBytes) {
         if (DorisConfig.CSV().equalsIgnoreCase(dorisConfig.loadFormat())) {
             byte[] lineDelimiter = DorisDelimiterParser.parse(dorisConfig.rowDelimiter()).getBytes(StandardCharsets.UTF_8);
             ByteBuffer bos = ByteBuffer.allocate(totalBytes + rows.size() * lineDelimiter.length);
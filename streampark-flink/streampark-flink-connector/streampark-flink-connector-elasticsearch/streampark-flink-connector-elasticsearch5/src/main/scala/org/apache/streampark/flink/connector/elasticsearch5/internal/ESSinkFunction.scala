@@ -20,7 +20,9 @@ package org.apache.streampark.flink.connector.elasticsearch5.internal
 import org.apache.streampark.common.enums.ApiType
 import org.apache.streampark.common.enums.ApiType.ApiType
 import org.apache.streampark.common.util.Logger
+import org.apache.streampark.flink.connector.bulk.AdaptiveBulkController
 import org.apache.streampark.flink.connector.function.TransformFunction
+import org.apache.streampark.flink.connector.metrics.SinkMetrics
 import org.apache.flink.api.common.functions.RuntimeContext
 import org.apache.flink.streaming.connectors.elasticsearch.{ElasticsearchSinkFunction, RequestIndexer}
 import org.elasticsearch.action.ActionRequest
@@ -34,6 +36,8 @@ class ESSinkFunction[T](apiType: ApiType = ApiType.scala) extends ElasticsearchS
 
   private[this] var scalaFunc: T => ActionRequest = _
   private[this] var javaFunc: TransformFunction[T, ActionRequest] = _
+  private[this] var bulkController: AdaptiveBulkController = _
+  @transient private[this] var sinkMetrics: SinkMetrics = _
 
   //for Scala
   def this(scalaFunc: T => ActionRequest) = {
@@ -52,8 +56,23 @@ class ESSinkFunction[T](apiType: ApiType = ApiType.scala) extends ElasticsearchS
     case ApiType.scala => scalaFunc(element)
   }
 
+  def setBulkController(controller: AdaptiveBulkController): Unit = {
+    this.bulkController = controller
+  }
+
   override def process(element: T, runtimeContext: RuntimeContext, requestIndexer: RequestIndexer): Unit = {
-    val request: ActionRequest = createIndexRequest(element)
+    if (sinkMetrics == null) {
+      sinkMetrics = SinkMetrics(runtimeContext.getMetricGroup, "elasticsearch")
+    }
+    sinkMetrics.recordIn()
+    val request = createIndexRequest(element)
+    bulkController match {
+      case null => addRequest(request, requestIndexer)
+      case controller => controller.add(addRequest(request, requestIndexer))
+    }
+  }
+
+  private[this] def addRequest(request: ActionRequest, requestIndexer: RequestIndexer): Unit = {
     request match {
       case indexRequest if indexRequest.isInstanceOf[IndexRequest] => requestIndexer.add(indexRequest.asInstanceOf[IndexRequest])
       case deleteRequest if deleteRequest.isInstanceOf[DeleteRequest] => requestIndexer.add(deleteRequest.asInstanceOf[DeleteRequest])
@@ -18,19 +18,21 @@
 package org.apache.streampark.flink.connector.elasticsearch5.sink
 
 import org.apache.streampark.common.util.{Logger, Utils}
-import org.apache.streampark.flink.connector.elasticsearch5.conf.ESConfig
-import org.apache.streampark.flink.connector.elasticsearch5.internal.ESSinkFunction
+import org.apache.streampark.flink.connector.bulk.AdaptiveBulkController
+import org.apache.streampark.flink.connector.elasticsearch5.conf.{ESConfig, ESSinkConfigOption}
+import org.apache.streampark.flink.connector.elasticsearch5.internal.{AdaptiveElasticsearchSink, ESSinkFunction}
 import org.apache.streampark.flink.connector.function.TransformFunction
 import org.apache.streampark.flink.connector.sink.Sink
 import org.apache.streampark.flink.core.scala.StreamingContext
 import org.apache.flink.streaming.api.datastream.{DataStreamSink, DataStream => JavaDataStream}
 import org.apache.flink.streaming.api.scala.DataStream
 import org.apache.flink.streaming.connectors.elasticsearch.ActionRequestFailureHandler
+import org.apache.flink.streaming.connectors.elasticsearch.ElasticsearchSinkBase.CONFIG_KEY_BULK_FLUSH_MAX_ACTIONS
 import org.apache.flink.streaming.connectors.elasticsearch.util.RetryRejectedExecutionFailureHandler
 import org.apache.flink.streaming.connectors.elasticsearch5.ElasticsearchSink
 import org.elasticsearch.action.ActionRequest
 
-import java.util.{Properties, Map => JavaMap}
+import java.util.{HashMap => JavaHashMap, Properties, Map => JavaMap}
 import scala.annotation.meta.param
 import scala.collection.JavaConversions._
 
@@ -69,7 +71,7 @@ class ES5Sink(@(transient@param) ctx: StreamingContext,
                          f: TransformFunction[T, ActionRequest]): DataStreamSink[T] = {
     require(stream != null, () => s"sink Stream must not null")
     require(f != null, () => s"es pocess element func  must not null")
-    val esSink: ElasticsearchSink[T] = new ElasticsearchSink(userConfig, config.host, new ESSinkFunction(f), failureHandler)
+    val esSink: ElasticsearchSink[T] = buildESSink(userConfig, failureHandler, new ESSinkFunction(f))
     if (config.disableFlushOnCheckpoint) {
       esSink.disableFlushOnCheckpoint()
     }
@@ -84,7 +86,7 @@ class ES5Sink(@(transient@param) ctx: StreamingContext,
   DataStreamSink[T] = {
     require(stream != null, () => s"sink Stream must not null")
     require(f != null, () => s"es pocess element fun  must not null")
-    val esSink: ElasticsearchSink[T] = new ElasticsearchSink(userConfig, config.host, new ESSinkFunction(f), failureHandler)
+    val esSink: ElasticsearchSink[T] = buildESSink(userConfig, failureHandler, new ESSinkFunction(f))
     if (config.disableFlushOnCheckpoint) {
       esSink.disableFlushOnCheckpoint()
     }
@@ -92,6 +94,20 @@ class ES5Sink(@(transient@param) ctx: StreamingContext,
     afterSink(sink, parallelism, name, uid)
   }
 
+  private def buildESSink[T](userConfig: JavaMap[String, String],
+                             failureHandler: ActionRequestFailureHandler,
+                             sinkFunc: ESSinkFunction[T]): ElasticsearchSink[T] = {
+    AdaptiveBulkController(ESSinkConfigOption.ES_SINK_PREFIX, prop) match {
+      case Some(controller) =>
+        sinkFunc.setBulkController(controller)
+        // the adaptive batch size triggers the bulk itself, bulk.flush.max.actions is only the upper bound
+        val bulkConfig = new JavaHashMap[String, String](userConfig)
+        bulkConfig.put(CONFIG_KEY_BULK_FLUSH_MAX_ACTIONS, controller.maxActions.toString)
+        new AdaptiveElasticsearchSink(bulkConfig, config.host, sinkFunc, failureHandler, controller)
+      case None =>
+        new ElasticsearchSink(userConfig, config.host, sinkFunc, failureHandler)
+    }
+  }
 
   /**
    *
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.connector.elasticsearch6.internal
+
+import org.apache.streampark.common.util.Logger
+import org.apache.flink.streaming.connectors.elasticsearch.ElasticsearchSinkBase.{BulkFlushBackoffPolicy, FlushBackoffType}
+import org.apache.flink.streaming.connectors.elasticsearch.{ElasticsearchApiCallBridge, RequestIndexer}
+import org.apache.flink.streaming.connectors.elasticsearch6.RestClientFactory
+import org.apache.http.HttpHost
+import org.elasticsearch.action.ActionListener
+import org.elasticsearch.action.bulk.{BackoffPolicy, BulkItemResponse, BulkProcessor, BulkRequest, BulkResponse}
+import org.elasticsearch.client.{RestClient, RestHighLevelClient}
+import org.elasticsearch.common.unit.TimeValue
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.function.BiConsumer
+import java.util.{List => JavaList, Map => JavaMap}
+
+/**
+ * the same call bridge as the one of flink elasticsearch6 sink, whose constructor is not accessible,
+ * so that [[AdaptiveElasticsearchSink]] can be built on [[org.apache.flink.streaming.connectors.elasticsearch.ElasticsearchSinkBase]].
+ */
+class RestApiCallBridge(httpHosts: JavaList[HttpHost], restClientFactory: RestClientFactory)
+  extends ElasticsearchApiCallBridge[RestHighLevelClient] with Logger {
+
+  require(httpHosts != null && !httpHosts.isEmpty, "[StreamPark] Elasticsearch6: httpHosts must not be empty")
+  require(restClientFactory != null, "[StreamPark] Elasticsearch6: restClientFactory must not be null")
+
+  override def createClient(clientConfig: JavaMap[String, String]): RestHighLevelClient = {
+    val builder = RestClient.builder(httpHosts.toArray(new Array[HttpHost](httpHosts.size())): _*)
+    restClientFactory.configureRestClientBuilder(builder)
+    new RestHighLevelClient(builder)
+  }
+
+  override def createBulkProcessorBuilder(client: RestHighLevelClient, listener: BulkProcessor.Listener): BulkProcessor.Builder = {
+    BulkProcessor.builder(new BiConsumer[BulkRequest, ActionListener[BulkResponse]] {
+      override def accept(request: BulkRequest, bulkListener: ActionListener[BulkResponse]): Unit = {
+        client.bulkAsync(request, bulkListener)
+      }
+    }, listener)
+  }
+
+  override def extractFailureCauseFromBulkItemResponse(bulkItemResponse: BulkItemResponse): Throwable = {
+    if (bulkItemResponse.isFailed) bulkItemResponse.getFailure.getCause else null
+  }
+
+  override def configureBulkProcessorBackoff(builder: BulkProcessor.Builder, flushBackoffPolicy: BulkFlushBackoffPolicy): Unit = {
+    val backoffPolicy = flushBackoffPolicy match {
+      case null => BackoffPolicy.noBackoff()
+      case policy if policy.getBackoffType == FlushBackoffType.CONSTANT =>
+        BackoffPolicy.constantBackoff(new TimeValue(policy.getDelayMillis), policy.getMaxRetryCount)
+      case policy =>
+        BackoffPolicy.exponentialBackoff(new TimeValue(policy.getDelayMillis), policy.getMaxRetryCount)
+    }
+    builder.setBackoffPolicy(backoffPolicy)
+  }
+
+  override def createBulkProcessorIndexer(bulkProcessor: BulkProcessor,
+                                          flushOnCheckpoint: Boolean,
+                                          numPendingRequestsRef: AtomicLong): RequestIndexer = {
+    new BulkProcessorIndexer(bulkProcessor, flushOnCheckpoint, numPendingRequestsRef)
+  }
+
+  override def verifyClientConnection(client: RestHighLevelClient): Unit = {
+    logInfo(s"Pinging Elasticsearch cluster via hosts $httpHosts ...")
+    if (!client.ping()) {
+      throw new RuntimeException("There are no reachable Elasticsearch nodes!")
+    }
+    logInfo("Elasticsearch RestHighLevelClient is connected")
+  }
+
+}
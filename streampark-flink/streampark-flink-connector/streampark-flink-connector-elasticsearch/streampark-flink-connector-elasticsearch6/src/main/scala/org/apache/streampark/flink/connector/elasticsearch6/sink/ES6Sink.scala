@@ -19,26 +19,38 @@ package org.apache.streampark.flink.connector.elasticsearch6.sink
 
 import org.apache.streampark.common.util.{Logger, Utils}
 import org.apache.streampark.flink.connector.elasticsearch6.bean.RestClientFactoryImpl
-import org.apache.streampark.flink.connector.elasticsearch6.conf.ES6Config
-import org.apache.streampark.flink.connector.elasticsearch6.internal.ESSinkFunction
+import org.apache.streampark.flink.connector.bulk.AdaptiveBulkController
+import org.apache.streampark.flink.connector.elasticsearch6.conf.{ES6Config, ESSinkConfigOption}
+import org.apache.streampark.flink.connector.elasticsearch6.internal.{AdaptiveElasticsearchSink, ESSinkFunction}
 import org.apache.streampark.flink.connector.function.TransformFunction
 import org.apache.streampark.flink.connector.sink.Sink
 import org.apache.streampark.flink.core.scala.StreamingContext
 import org.apache.flink.streaming.api.datastream.{DataStreamSink, DataStream => JavaDataStream}
 import org.apache.flink.streaming.api.scala.DataStream
-import org.apache.flink.streaming.connectors.elasticsearch.ActionRequestFailureHandler
+import org.apache.flink.streaming.connectors.elasticsearch.{ActionRequestFailureHandler, ElasticsearchSinkBase}
 import org.apache.flink.streaming.connectors.elasticsearch.ElasticsearchSinkBase._
 import org.apache.flink.streaming.connectors.elasticsearch.util.RetryRejectedExecutionFailureHandler
 import org.apache.flink.streaming.connectors.elasticsearch6.{ElasticsearchSink, RestClientFactory}
 import org.elasticsearch.action.ActionRequest
+import org.elasticsearch.client.RestHighLevelClient
 
-import java.util.Properties
+import java.util.{HashMap => JavaHashMap, Properties}
 import scala.annotation.meta.param
 import scala.collection.JavaConversions._
 
 
 object ES6Sink {
 
+  private val BULK_CONFIG_KEYS = Set(
+    CONFIG_KEY_BULK_FLUSH_MAX_ACTIONS,
+    CONFIG_KEY_BULK_FLUSH_MAX_SIZE_MB,
+    CONFIG_KEY_BULK_FLUSH_INTERVAL_MS,
+    CONFIG_KEY_BULK_FLUSH_BACKOFF_ENABLE,
+    CONFIG_KEY_BULK_FLUSH_BACKOFF_TYPE,
+    CONFIG_KEY_BULK_FLUSH_BACKOFF_RETRIES,
+    CONFIG_KEY_BULK_FLUSH_BACKOFF_DELAY
+  )
+
   def apply(@(transient@param)
             property: Properties = new Properties(),
             parallelism: Int = 0,
@@ -73,7 +85,7 @@ class ES6Sink(@(transient@param) ctx: StreamingContext,
 
     val sinkFunc: ESSinkFunction[T] = new ESSinkFunction(f)
 
-    val esSink: ElasticsearchSink[T] = buildESSink(restClientFactory, failureHandler, sinkFunc)
+    val esSink: ElasticsearchSinkBase[T, RestHighLevelClient] = buildESSink(restClientFactory, failureHandler, sinkFunc)
     if (config.disableFlushOnCheckpoint) {
       esSink.disableFlushOnCheckpoint()
     }
@@ -90,7 +102,7 @@ class ES6Sink(@(transient@param) ctx: StreamingContext,
 
     val sinkFunc: ESSinkFunction[T] = new ESSinkFunction(f)
 
-    val esSink: ElasticsearchSink[T] = buildESSink(restClientFactory, failureHandler, sinkFunc)
+    val esSink: ElasticsearchSinkBase[T, RestHighLevelClient] = buildESSink(restClientFactory, failureHandler, sinkFunc)
     if (config.disableFlushOnCheckpoint) {
       esSink.disableFlushOnCheckpoint()
     }
@@ -98,53 +110,49 @@ class ES6Sink(@(transient@param) ctx: StreamingContext,
     afterSink(sink, parallelism, name, uid)
   }
 
-  private def buildESSink[T](restClientFactory: Option[RestClientFactory], failureHandler: ActionRequestFailureHandler, sinkFunc: ESSinkFunction[T]): ElasticsearchSink[T] = {
-    val sinkBuilder = new ElasticsearchSink.Builder[T](config.host, sinkFunc)
-    // failureHandler
-    sinkBuilder.setFailureHandler(failureHandler)
-
+  private def buildESSink[T](restClientFactory: Option[RestClientFactory], failureHandler: ActionRequestFailureHandler, sinkFunc: ESSinkFunction[T]): ElasticsearchSinkBase[T, RestHighLevelClient] = {
     //restClientFactory
-    restClientFactory match {
-      case Some(factory) =>
-        sinkBuilder.setRestClientFactory(factory)
+    val clientFactory = restClientFactory.getOrElse(new RestClientFactoryImpl(config))
+    AdaptiveBulkController(ESSinkConfigOption.ES_SINK_PREFIX, prop) match {
+      case Some(controller) =>
+        sinkFunc.setBulkController(controller)
+        val userConfig = new JavaHashMap[String, String]()
+        config.sinkOption.getInternalConfig()
+          .filterKeys(key => ES6Sink.BULK_CONFIG_KEYS.contains(key))
+          .foreach(x => userConfig.put(x._1, x._2))
+        // the adaptive batch size triggers the bulk itself, bulk.flush.max.actions is only the upper bound
+        userConfig.put(CONFIG_KEY_BULK_FLUSH_MAX_ACTIONS, controller.maxActions.toString)
+        new AdaptiveElasticsearchSink(userConfig, config.host, clientFactory, sinkFunc, failureHandler, controller)
       case None =>
-        sinkBuilder.setRestClientFactory(new RestClientFactoryImpl(config))
+        val sinkBuilder = new ElasticsearchSink.Builder[T](config.host, sinkFunc)
+        // failureHandler
+        sinkBuilder.setFailureHandler(failureHandler)
+        sinkBuilder.setRestClientFactory(clientFactory)
+
+        def doConfig(param: (String, String)): Unit = param match {
+          // parameter of sink.es.bulk.flush.max.actions
+          case (CONFIG_KEY_BULK_FLUSH_MAX_ACTIONS, v) => sinkBuilder.setBulkFlushMaxActions(v.toInt)
+          // parameter of sink.es.bulk.flush.max.size.mb
+          case (CONFIG_KEY_BULK_FLUSH_MAX_SIZE_MB, v) => sinkBuilder.setBulkFlushMaxSizeMb(v.toInt)
+          // parameter of sink.es.bulk.flush.interval.ms
+          case (CONFIG_KEY_BULK_FLUSH_INTERVAL_MS, v) => sinkBuilder.setBulkFlushInterval(v.toInt)
+          // parameter of sink.es.bulk.flush.backoff.enable
+          case (CONFIG_KEY_BULK_FLUSH_BACKOFF_ENABLE, v) => sinkBuilder.setBulkFlushBackoff(v.toBoolean)
+          // parameter of sink.es.bulk.flush.backoff.type value of [ CONSTANT or EXPONENTIAL ]
+          case (CONFIG_KEY_BULK_FLUSH_BACKOFF_TYPE, v) => sinkBuilder.setBulkFlushBackoffType(FlushBackoffType.valueOf(v))
+          // parameter of sink.es.bulk.flush.backoff.retries
+          case (CONFIG_KEY_BULK_FLUSH_BACKOFF_RETRIES, v) => sinkBuilder.setBulkFlushBackoffRetries(v.toInt)
+          // parameter of sink.es.bulk.flush.backoff.delay
+          case (CONFIG_KEY_BULK_FLUSH_BACKOFF_DELAY, v) => sinkBuilder.setBulkFlushBackoffDelay(v.toLong)
+          // other...
+          case _ =>
+        }
+        //set value from properties
+        config.sinkOption.getInternalConfig().foreach(doConfig)
+        sinkBuilder.build()
     }
-
-    def doConfig(param: (String, String)): Unit = param match {
-      // parameter of sink.es.bulk.flush.max.actions
-      case (CONFIG_KEY_BULK_FLUSH_MAX_ACTIONS, v) => sinkBuilder.setBulkFlushMaxActions(v.toInt)
-      // parameter of sink.es.bulk.flush.max.size.mb
-      case (CONFIG_KEY_BULK_FLUSH_MAX_SIZE_MB, v) => sinkBuilder.setBulkFlushMaxSizeMb(v.toInt)
-      // parameter of sink.es.bulk.flush.interval.ms
-      case (CONFIG_KEY_BULK_FLUSH_INTERVAL_MS, v) => sinkBuilder.setBulkFlushInterval(v.toInt)
-      // parameter of sink.es.bulk.flush.backoff.enable
-      case (CONFIG_KEY_BULK_FLUSH_BACKOFF_ENABLE, v) => sinkBuilder.setBulkFlushBackoff(v.toBoolean)
-      // parameter of sink.es.bulk.flush.backoff.type value of [ CONSTANT or EXPONENTIAL ]
-      case (CONFIG_KEY_BULK_FLUSH_BACKOFF_TYPE, v) => sinkBuilder.setBulkFlushBackoffType(FlushBackoffType.valueOf(v))
-      // parameter of sink.es.bulk.flush.backoff.retries
-      case (CONFIG_KEY_BULK_FLUSH_BACKOFF_RETRIES, v) => sinkBuilder.setBulkFlushBackoffRetries(v.toInt)
-      // parameter of sink.es.bulk.flush.backoff.delay
-      case (CONFIG_KEY_BULK_FLUSH_BACKOFF_DELAY, v) => sinkBuilder.setBulkFlushBackoffDelay(v.toLong)
-      // other...
-      case _ =>
-    }
-    //set value from properties
-    config.sinkOption.getInternalConfig().foreach(doConfig)
-    sinkBuilder.build()
   }
 
-
-  /**
-   *
-   * @param stream
-   * @param suffix
-   * @param restClientFactory
-   * @param failureHandler
-   * @param f
-   * @tparam T
-   * @return
-   */
   def sink[T](stream: DataStream[T],
               restClientFactory: Option[RestClientFactory] = None,
               failureHandler: ActionRequestFailureHandler = new RetryRejectedExecutionFailureHandler)
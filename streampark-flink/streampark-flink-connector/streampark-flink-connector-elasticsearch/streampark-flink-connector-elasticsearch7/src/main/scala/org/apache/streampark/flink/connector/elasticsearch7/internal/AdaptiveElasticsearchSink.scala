@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.connector.elasticsearch7.internal
+
+import org.apache.streampark.flink.connector.bulk.AdaptiveBulkController
+import org.apache.flink.streaming.connectors.elasticsearch.{ActionRequestFailureHandler, ElasticsearchSinkBase, ElasticsearchSinkFunction}
+import org.apache.flink.streaming.connectors.elasticsearch7.RestClientFactory
+import org.apache.http.HttpHost
+import org.elasticsearch.action.bulk.{BulkProcessor, BulkRequest, BulkResponse}
+import org.elasticsearch.client.RestHighLevelClient
+import org.elasticsearch.rest.RestStatus
+
+import java.util.{List => JavaList, Map => JavaMap}
+
+/**
+ * elasticsearch sink whose bulks are sized by the [[AdaptiveBulkController]],
+ * the controller follows every bulk of the bulk processor through [[AdaptiveBulkListener]].
+ */
+class AdaptiveElasticsearchSink[T](userConfig: JavaMap[String, String],
+                                   httpHosts: JavaList[HttpHost],
+                                   restClientFactory: RestClientFactory,
+                                   sinkFunction: ElasticsearchSinkFunction[T],
+                                   failureHandler: ActionRequestFailureHandler,
+                                   controller: AdaptiveBulkController)
+  extends ElasticsearchSinkBase[T, RestHighLevelClient](new RestApiCallBridge(httpHosts, restClientFactory), userConfig, sinkFunction, failureHandler) {
+
+  override protected def buildBulkProcessor(listener: BulkProcessor.Listener): BulkProcessor = {
+    val bulkProcessor = super.buildBulkProcessor(new AdaptiveBulkListener(controller, listener))
+    controller.bind(getRuntimeContext.getMetricGroup)(() => bulkProcessor.flush())
+    bulkProcessor
+  }
+
+}
+
+/**
+ * report the bulks and their item-level rejections(429) to the [[AdaptiveBulkController]], then delegate to the listener of the sink.
+ */
+class AdaptiveBulkListener(controller: AdaptiveBulkController, listener: BulkProcessor.Listener) extends BulkProcessor.Listener {
+
+  override def beforeBulk(executionId: Long, request: BulkRequest): Unit = {
+    listener.beforeBulk(executionId, request)
+    controller.beforeBulk(executionId, request.numberOfActions())
+  }
+
+  override def afterBulk(executionId: Long, request: BulkRequest, response: BulkResponse): Unit = {
+    listener.afterBulk(executionId, request, response)
+    val rejected = if (response.hasFailures) {
+      response.getItems.count(item => item.isFailed && item.status() == RestStatus.TOO_MANY_REQUESTS)
+    } else 0
+    controller.afterBulk(executionId, request.numberOfActions(), rejected, failed = false)
+  }
+
+  override def afterBulk(executionId: Long, request: BulkRequest, failure: Throwable): Unit = {
+    listener.afterBulk(executionId, request, failure)
+    controller.afterBulk(executionId, request.numberOfActions(), 0, failed = true)
+  }
+
+}
@@ -21,7 +21,9 @@ package org.apache.streampark.flink.connector.elasticsearch7.internal
 import org.apache.streampark.common.enums.ApiType
 import org.apache.streampark.common.enums.ApiType.ApiType
 import org.apache.streampark.common.util.Logger
+import org.apache.streampark.flink.connector.bulk.AdaptiveBulkController
 import org.apache.streampark.flink.connector.function.TransformFunction
+import org.apache.streampark.flink.connector.metrics.SinkMetrics
 import org.apache.flink.api.common.functions.RuntimeContext
 import org.apache.flink.streaming.connectors.elasticsearch.{ElasticsearchSinkFunction, RequestIndexer}
 import org.elasticsearch.action.ActionRequest
@@ -32,6 +34,8 @@ import org.elasticsearch.action.update.UpdateRequest
 class ESSinkFunction[T](apiType: ApiType = ApiType.scala) extends ElasticsearchSinkFunction[T] with Logger {
   private[this] var scalaFunc: (T => ActionRequest) with Serializable = _
   private[this] var javaFunc: TransformFunction[T, ActionRequest] = _
+  private[this] var bulkController: AdaptiveBulkController = _
+  @transient private[this] var sinkMetrics: SinkMetrics = _
 
   // for Scala
   def this(scalaFunc: T => ActionRequest) = {
@@ -52,8 +56,23 @@ class ESSinkFunction[T](apiType: ApiType = ApiType.scala) extends ElasticsearchS
     case ApiType.scala => scalaFunc(element)
   }
 
+  def setBulkController(controller: AdaptiveBulkController): Unit = {
+    this.bulkController = controller
+  }
+
   override def process(element: T, ctx: RuntimeContext, requestIndexer: RequestIndexer): Unit = {
+    if (sinkMetrics == null) {
+      sinkMetrics = SinkMetrics(ctx.getMetricGroup, "elasticsearch")
+    }
+    sinkMetrics.recordIn()
     val request = createIndexRequest(element)
+    bulkController match {
+      case null => addRequest(request, requestIndexer)
+      case controller => controller.add(addRequest(request, requestIndexer))
+    }
+  }
+
+  private[this] def addRequest(request: ActionRequest, requestIndexer: RequestIndexer): Unit = {
     request match {
       case indexRequest: IndexRequest => requestIndexer.add(indexRequest)
       case deleteRequest: DeleteRequest => requestIndexer.add(deleteRequest)
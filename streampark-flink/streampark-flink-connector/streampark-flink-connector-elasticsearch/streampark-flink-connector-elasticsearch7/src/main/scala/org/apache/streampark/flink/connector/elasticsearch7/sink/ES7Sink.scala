@@ -21,25 +21,38 @@ package org.apache.streampark.flink.connector.elasticsearch7.sink
 import org.apache.streampark.common.conf.ConfigConst._
 import org.apache.streampark.common.util.{ConfigUtils, Logger, Utils}
 import org.apache.streampark.flink.connector.elasticsearch7.bean.RestClientFactoryImpl
-import org.apache.streampark.flink.connector.elasticsearch7.conf.ES7Config
-import org.apache.streampark.flink.connector.elasticsearch7.internal.ESSinkFunction
+import org.apache.streampark.flink.connector.bulk.AdaptiveBulkController
+import org.apache.streampark.flink.connector.elasticsearch7.conf.{ES7Config, ES7SinkConfigOption}
+import org.apache.streampark.flink.connector.elasticsearch7.internal.{AdaptiveElasticsearchSink, ESSinkFunction}
 import org.apache.streampark.flink.connector.function.TransformFunction
 import org.apache.streampark.flink.connector.sink.Sink
 import org.apache.streampark.flink.core.scala.StreamingContext
 import org.apache.flink.streaming.api.datastream.{DataStreamSink, DataStream => JavaDataStream}
 import org.apache.flink.streaming.api.scala.DataStream
-import org.apache.flink.streaming.connectors.elasticsearch.ActionRequestFailureHandler
+import org.apache.flink.streaming.connectors.elasticsearch.{ActionRequestFailureHandler, ElasticsearchSinkBase}
 import org.apache.flink.streaming.connectors.elasticsearch.ElasticsearchSinkBase.{CONFIG_KEY_BULK_FLUSH_BACKOFF_DELAY, CONFIG_KEY_BULK_FLUSH_BACKOFF_ENABLE, CONFIG_KEY_BULK_FLUSH_BACKOFF_RETRIES, CONFIG_KEY_BULK_FLUSH_BACKOFF_TYPE, CONFIG_KEY_BULK_FLUSH_INTERVAL_MS, CONFIG_KEY_BULK_FLUSH_MAX_ACTIONS, CONFIG_KEY_BULK_FLUSH_MAX_SIZE_MB, FlushBackoffType}
 import org.apache.flink.streaming.connectors.elasticsearch.util.RetryRejectedExecutionFailureHandler
 import org.apache.flink.streaming.connectors.elasticsearch7.{ElasticsearchSink, RestClientFactory}
 import org.apache.http.HttpHost
 import org.elasticsearch.action.ActionRequest
+import org.elasticsearch.client.RestHighLevelClient
 
-import java.util.Properties
+import java.util.{HashMap => JavaHashMap, Properties}
 import scala.annotation.meta.param
 import scala.collection.JavaConversions._
 
 object ES7Sink {
+
+  private val BULK_CONFIG_KEYS = Set(
+    CONFIG_KEY_BULK_FLUSH_MAX_ACTIONS,
+    CONFIG_KEY_BULK_FLUSH_MAX_SIZE_MB,
+    CONFIG_KEY_BULK_FLUSH_INTERVAL_MS,
+    CONFIG_KEY_BULK_FLUSH_BACKOFF_ENABLE,
+    CONFIG_KEY_BULK_FLUSH_BACKOFF_TYPE,
+    CONFIG_KEY_BULK_FLUSH_BACKOFF_RETRIES,
+    CONFIG_KEY_BULK_FLUSH_BACKOFF_DELAY
+  )
+
   def apply(@(transient@param)
             property: Properties = new Properties(),
             parallelism: Int = 0,
@@ -71,7 +84,7 @@ class ES7Sink(@(transient@param) ctx: StreamingContext,
     require(stream != null, "sink Stream must not null")
     require(f != null, "es process element func must not null")
     val sinkFunc: ESSinkFunction[T] = new ESSinkFunction(f)
-    val esSink: ElasticsearchSink[T] = buildESSink(restClientFactory, failureHandler, sinkFunc)
+    val esSink: ElasticsearchSinkBase[T, RestHighLevelClient] = buildESSink(restClientFactory, failureHandler, sinkFunc)
     if (config.disableFlushOnCheckpoint) {
       esSink.disableFlushOnCheckpoint()
     }
@@ -86,7 +99,7 @@ class ES7Sink(@(transient@param) ctx: StreamingContext,
     require(stream != null, "sink Stream must not null")
     require(f != null, "es process element func must not null")
     val sinkFunc: ESSinkFunction[T] = new ESSinkFunction(f)
-    val esSink: ElasticsearchSink[T] = buildESSink(restClientFactory, failureHandler, sinkFunc)
+    val esSink: ElasticsearchSinkBase[T, RestHighLevelClient] = buildESSink(restClientFactory, failureHandler, sinkFunc)
     if (config.disableFlushOnCheckpoint) {
       esSink.disableFlushOnCheckpoint()
     }
@@ -96,37 +109,45 @@ class ES7Sink(@(transient@param) ctx: StreamingContext,
 
   private def buildESSink[T](restClientFactory: Option[RestClientFactory],
                              failureHandler: ActionRequestFailureHandler,
-                             sinkFunc: ESSinkFunction[T]): ElasticsearchSink[T] = {
-    val sinkBuilder = new ElasticsearchSink.Builder[T](config.host, sinkFunc)
-    sinkBuilder.setFailureHandler(failureHandler)
-    restClientFactory match {
-      case Some(factory) =>
-        sinkBuilder.setRestClientFactory(factory)
+                             sinkFunc: ESSinkFunction[T]): ElasticsearchSinkBase[T, RestHighLevelClient] = {
+    val clientFactory = restClientFactory.getOrElse(new RestClientFactoryImpl(config))
+    AdaptiveBulkController(ES7SinkConfigOption.ES_SINK_PREFIX, prop) match {
+      case Some(controller) =>
+        sinkFunc.setBulkController(controller)
+        val userConfig = new JavaHashMap[String, String]()
+        config.sinkOption.getInternalConfig()
+          .filterKeys(key => ES7Sink.BULK_CONFIG_KEYS.contains(key))
+          .foreach(x => userConfig.put(x._1, x._2))
+        // the adaptive batch size triggers the bulk itself, bulk.flush.max.actions is only the upper bound
+        userConfig.put(CONFIG_KEY_BULK_FLUSH_MAX_ACTIONS, controller.maxActions.toString)
+        new AdaptiveElasticsearchSink(userConfig, config.host, clientFactory, sinkFunc, failureHandler, controller)
       case None =>
-        sinkBuilder.setRestClientFactory(new RestClientFactoryImpl(config))
-    }
-
-    def doConfig(param: (String, String)): Unit = param match {
-      // parameter of sink.es.bulk.flush.max.actions
-      case (CONFIG_KEY_BULK_FLUSH_MAX_ACTIONS, v) => sinkBuilder.setBulkFlushMaxActions(v.toInt)
-      // parameter of sink.es.bulk.flush.max.size.mb
-      case (CONFIG_KEY_BULK_FLUSH_MAX_SIZE_MB, v) => sinkBuilder.setBulkFlushMaxSizeMb(v.toInt)
-      // parameter of sink.es.bulk.flush.interval.ms
-      case (CONFIG_KEY_BULK_FLUSH_INTERVAL_MS, v) => sinkBuilder.setBulkFlushInterval(v.toInt)
-      // parameter of sink.es.bulk.flush.backoff.enable
-      case (CONFIG_KEY_BULK_FLUSH_BACKOFF_ENABLE, v) => sinkBuilder.setBulkFlushBackoff(v.toBoolean)
-      // parameter of sink.es.bulk.flush.backoff.type value of [ CONSTANT or EXPONENTIAL ]
-      case (CONFIG_KEY_BULK_FLUSH_BACKOFF_TYPE, v) => sinkBuilder.setBulkFlushBackoffType(FlushBackoffType.valueOf(v))
-      // parameter of sink.es.bulk.flush.backoff.retries
-      case (CONFIG_KEY_BULK_FLUSH_BACKOFF_RETRIES, v) => sinkBuilder.setBulkFlushBackoffRetries(v.toInt)
-      // parameter of sink.es.bulk.flush.backoff.delay
-      case (CONFIG_KEY_BULK_FLUSH_BACKOFF_DELAY, v) => sinkBuilder.setBulkFlushBackoffDelay(v.toLong)
-      // other...
-      case _ =>
+        val sinkBuilder = new ElasticsearchSink.Builder[T](config.host, sinkFunc)
+        sinkBuilder.setFailureHandler(failureHandler)
+        sinkBuilder.setRestClientFactory(clientFactory)
+
+        def doConfig(param: (String, String)): Unit = param match {
+          // parameter of sink.es.bulk.flush.max.actions
+          case (CONFIG_KEY_BULK_FLUSH_MAX_ACTIONS, v) => sinkBuilder.setBulkFlushMaxActions(v.toInt)
+          // parameter of sink.es.bulk.flush.max.size.mb
+          case (CONFIG_KEY_BULK_FLUSH_MAX_SIZE_MB, v) => sinkBuilder.setBulkFlushMaxSizeMb(v.toInt)
+          // parameter of sink.es.bulk.flush.interval.ms
+          case (CONFIG_KEY_BULK_FLUSH_INTERVAL_MS, v) => sinkBuilder.setBulkFlushInterval(v.toInt)
+          // parameter of sink.es.bulk.flush.backoff.enable
+          case (CONFIG_KEY_BULK_FLUSH_BACKOFF_ENABLE, v) => sinkBuilder.setBulkFlushBackoff(v.toBoolean)
+          // parameter of sink.es.bulk.flush.backoff.type value of [ CONSTANT or EXPONENTIAL ]
+          case (CONFIG_KEY_BULK_FLUSH_BACKOFF_TYPE, v) => sinkBuilder.setBulkFlushBackoffType(FlushBackoffType.valueOf(v))
+          // parameter of sink.es.bulk.flush.backoff.retries
+          case (CONFIG_KEY_BULK_FLUSH_BACKOFF_RETRIES, v) => sinkBuilder.setBulkFlushBackoffRetries(v.toInt)
+          // parameter of sink.es.bulk.flush.backoff.delay
+          case (CONFIG_KEY_BULK_FLUSH_BACKOFF_DELAY, v) => sinkBuilder.setBulkFlushBackoffDelay(v.toLong)
+          // other...
+          case _ =>
+        }
+        // set value from properties
+        config.sinkOption.getInternalConfig().foreach(doConfig)
+        sinkBuilder.build()
     }
-    // set value from properties
-    config.sinkOption.getInternalConfig().foreach(doConfig)
-    sinkBuilder.build()
   }
 
   def sink[T](stream: DataStream[T],
@@ -22,6 +22,7 @@ import org.apache.streampark.common.enums.ApiType
 import org.apache.streampark.common.enums.ApiType.ApiType
 import org.apache.streampark.common.util.{HBaseClient, Logger}
 import org.apache.streampark.flink.connector.function.TransformFunction
+import org.apache.streampark.flink.connector.metrics.SinkMetrics
 import org.apache.flink.configuration.Configuration
 import org.apache.flink.streaming.api.functions.sink.{RichSinkFunction, SinkFunction}
 import org.apache.hadoop.hbase.TableName
@@ -72,8 +73,10 @@ class HBaseSinkFunction[T](apiType: ApiType = ApiType.scala, tabName: String, pr
 
 
   @transient private var service: ScheduledExecutorService = _
+  @transient private var sinkMetrics: SinkMetrics = _
 
   override def open(parameters: Configuration): Unit = {
+    sinkMetrics = SinkMetrics(this, "hbase")
     service = Executors.newSingleThreadScheduledExecutor()
     connection = HBaseClient(prop).connection
     val tableName = TableName.valueOf(tabName)
@@ -81,6 +84,7 @@ class HBaseSinkFunction[T](apiType: ApiType = ApiType.scala, tabName: String, pr
       .writeBufferSize(writeBufferSize)
       .listener(new BufferedMutator.ExceptionListener {
         override def onException(exception: RetriesExhaustedWithDetailsException, mutator: BufferedMutator): Unit = {
+          sinkMetrics.flushFailed.inc(exception.getNumExceptions)
           for (i <- 0.until(exception.getNumExceptions)) {
             logger.error(s"[StreamPark] HBaseSink Failed to sent put ${exception.getRow(i)},error:${exception.getLocalizedMessage}")
           }
@@ -91,6 +95,7 @@ class HBaseSinkFunction[T](apiType: ApiType = ApiType.scala, tabName: String, pr
   }
 
   override def invoke(value: T, context: SinkFunction.Context): Unit = {
+    sinkMetrics.recordIn()
     val list = apiType match {
       case ApiType.java => javaTransformFunc.transform(value)
       case ApiType.scala => scalaTransformFunc(value)
@@ -130,15 +135,17 @@ class HBaseSinkFunction[T](apiType: ApiType = ApiType.scala, tabName: String, pr
   private[this] def execBatch(): Unit = {
     if (offset.get() > 0) {
       val start = System.currentTimeMillis()
-      //put ...
-      mutator.mutate(putArray)
-      mutator.flush()
-      putArray.clear()
-      //mutation...
-      if (mutations.nonEmpty) {
-        table.batch(mutations, new Array[AnyRef](mutations.length))
-        logInfo(s"HBaseSink batchSize:${mutations.length} use ${System.currentTimeMillis() - start} MS")
-        mutations.clear()
+      sinkMetrics.flush(putArray.length + mutations.length) {
+        //put ...
+        mutator.mutate(putArray)
+        mutator.flush()
+        putArray.clear()
+        //mutation...
+        if (mutations.nonEmpty) {
+          table.batch(mutations, new Array[AnyRef](mutations.length))
+          logInfo(s"HBaseSink batchSize:${mutations.length} use ${System.currentTimeMillis() - start} MS")
+          mutations.clear()
+        }
       }
       offset.set(0L)
       timestamp = System.currentTimeMillis()
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.connector.hbase.lookup
+
+import org.apache.streampark.common.util.HBaseClient
+import org.apache.streampark.flink.connector.lookup.LookupClient
+import org.apache.hadoop.hbase.TableName
+import org.apache.hadoop.hbase.client.{Connection, Get, Result}
+import org.apache.hadoop.hbase.util.Bytes
+
+import java.util.Properties
+import scala.collection.JavaConversions._
+
+/**
+ * look up the rows by the row keys with a multi-get.
+ *
+ * @param getFunc build the Get of the row key, the columns to be read can be specified on it.
+ */
+class HBaseLookupClient(tableName: String,
+                        prop: Properties,
+                        getFunc: String => Get = rowKey => new Get(Bytes.toBytes(rowKey))) extends LookupClient[String, Result] {
+
+  @transient private[this] var connection: Connection = _
+
+  override def open(): Unit = {
+    connection = HBaseClient(prop).connection
+  }
+
+  override def lookup(keys: Seq[String]): Map[String, Result] = {
+    // Table is not thread-safe, but it's lightweight to get from the shared connection
+    val table = connection.getTable(TableName.valueOf(tableName))
+    try {
+      val results = table.get(keys.map(getFunc).toList)
+      keys.zip(results).filter(x => x._2 != null && !x._2.isEmpty).toMap
+    } finally {
+      table.close()
+    }
+  }
+
+  override def close(): Unit = {}
+
+}
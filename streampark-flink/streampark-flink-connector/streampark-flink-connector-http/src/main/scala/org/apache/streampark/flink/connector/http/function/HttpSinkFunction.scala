@@ -22,6 +22,7 @@ import org.apache.streampark.flink.connector.conf.ThresholdConf
 import org.apache.streampark.flink.connector.failover.{FailoverChecker, SinkBuffer}
 import org.apache.streampark.flink.connector.http.conf.HttpConfigOption
 import org.apache.streampark.flink.connector.http.internal.HttpSinkWriter
+import org.apache.streampark.flink.connector.metrics.SinkMetrics
 import org.apache.flink.configuration.Configuration
 import org.apache.flink.streaming.api.functions.sink.RichSinkFunction
 
@@ -43,6 +44,7 @@ class HttpSinkFunction(properties: mutable.Map[String, String],
   @transient var thresholdConf: ThresholdConf = _
   @transient var httpSinkWriter: HttpSinkWriter = _
   @transient var failoverChecker: FailoverChecker = _
+  @transient var sinkMetrics: SinkMetrics = _
   @volatile var isClosed: Boolean = false
 
   override def open(config: Configuration): Unit = {
@@ -58,7 +60,8 @@ class HttpSinkFunction(properties: mutable.Map[String, String],
         val table = thresholdConf.failoverTable
         require(table != null && table.nonEmpty, () => s"http async  insert failoverTable must not null")
 
-        httpSinkWriter = HttpSinkWriter(thresholdConf, header)
+        sinkMetrics = SinkMetrics(this, "http")
+        httpSinkWriter = HttpSinkWriter(thresholdConf, header, sinkMetrics)
         failoverChecker = FailoverChecker(thresholdConf.delayTime)
         sinkBuffer = SinkBuffer(httpSinkWriter, thresholdConf.delayTime, bufferSize)
         failoverChecker.addSinkBuffer(sinkBuffer)
@@ -69,6 +72,7 @@ class HttpSinkFunction(properties: mutable.Map[String, String],
   }
 
   override def invoke(url: String): Unit = {
+    sinkMetrics.recordIn()
     sinkBuffer.put(s"$method///$url")
   }
 
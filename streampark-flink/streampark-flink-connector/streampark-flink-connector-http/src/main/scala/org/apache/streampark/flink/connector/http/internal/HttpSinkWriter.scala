@@ -20,6 +20,7 @@ package org.apache.streampark.flink.connector.http.internal
 import org.apache.streampark.common.util.{Logger, ThreadUtils}
 import org.apache.streampark.flink.connector.conf.ThresholdConf
 import org.apache.streampark.flink.connector.failover.{SinkRequest, SinkWriter}
+import org.apache.streampark.flink.connector.metrics.SinkMetrics
 import org.asynchttpclient.{AsyncHttpClient, Dsl}
 
 import java.util.concurrent._
@@ -27,7 +28,7 @@ import scala.collection.mutable.ListBuffer
 import scala.collection.JavaConversions._
 
 
-case class HttpSinkWriter(thresholdConf: ThresholdConf, header: Map[String, String]) extends SinkWriter with Logger {
+case class HttpSinkWriter(thresholdConf: ThresholdConf, header: Map[String, String], sinkMetrics: SinkMetrics) extends SinkWriter with Logger {
   private val callbackServiceFactory = ThreadUtils.threadFactory("HttpSink-writer-callback-executor")
   private val threadFactory: ThreadFactory = ThreadUtils.threadFactory("HttpSink-writer")
 
@@ -42,12 +43,14 @@ case class HttpSinkWriter(thresholdConf: ThresholdConf, header: Map[String, Stri
 
   var tasks: ListBuffer[HttpWriterTask] = ListBuffer[HttpWriterTask]()
   var recordQueue: BlockingQueue[SinkRequest] = new LinkedBlockingQueue[SinkRequest](thresholdConf.queueCapacity)
+  sinkMetrics.queueDepth(recordQueue.size())
+
   var asyncHttpClient: AsyncHttpClient = Dsl.asyncHttpClient
 
   var service: ExecutorService = Executors.newFixedThreadPool(thresholdConf.numWriters, threadFactory)
 
   for (i <- 0 until thresholdConf.numWriters) {
-    val task = HttpWriterTask(i, thresholdConf, asyncHttpClient, header, recordQueue, callbackService)
+    val task = HttpWriterTask(i, thresholdConf, asyncHttpClient, header, recordQueue, callbackService, sinkMetrics)
     tasks.add(task)
     service.submit(task)
   }
@@ -20,6 +20,7 @@ package org.apache.streampark.flink.connector.http.internal
 import org.apache.streampark.common.util.{JsonUtils, Logger}
 import org.apache.streampark.flink.connector.conf.ThresholdConf
 import org.apache.streampark.flink.connector.failover.{FailoverWriter, SinkRequest}
+import org.apache.streampark.flink.connector.metrics.SinkMetrics
 import io.netty.handler.codec.http.HttpHeaders
 import org.apache.http.client.methods._
 import org.asynchttpclient.{AsyncHttpClient, ListenableFuture, Request, Response}
@@ -34,7 +35,8 @@ case class HttpWriterTask(id: Int,
                           asyncHttpClient: AsyncHttpClient,
                           header: Map[String, String],
                           queue: BlockingQueue[SinkRequest],
-                          callbackService: ExecutorService) extends Runnable with AutoCloseable with Logger {
+                          callbackService: ExecutorService,
+                          sinkMetrics: SinkMetrics) extends Runnable with AutoCloseable with Logger {
 
   @volatile var isWorking = false
 
@@ -96,8 +98,9 @@ case class HttpWriterTask(id: Int,
         val url = req.records.head
         val sinkRequest = SinkRequest(List(url), req.attemptCounter)
         val request = buildRequest(url)
+        val start = sinkMetrics.beginRequest()
         val whenResponse = asyncHttpClient.executeRequest(request)
-        val callback = respCallback(whenResponse, sinkRequest)
+        val callback = respCallback(whenResponse, sinkRequest, start)
         whenResponse.addListener(callback, callbackService)
         if (req.attemptCounter > 0) {
           logInfo(s"get retry url from queue,attemptCounter:${req.attemptCounter}")
@@ -112,16 +115,19 @@ case class HttpWriterTask(id: Int,
     logInfo(s"Task id = $id is finished")
   }
 
-  def respCallback(whenResponse: ListenableFuture[Response], sinkRequest: SinkRequest): Runnable = new Runnable {
+  def respCallback(whenResponse: ListenableFuture[Response], sinkRequest: SinkRequest, start: Long): Runnable = new Runnable {
     override def run(): Unit = {
       Try(whenResponse.get()).getOrElse(null) match {
         case null =>
+          sinkMetrics.endRequest(start, sinkRequest.size, 0L, success = false)
           logError(s"""Error HttpSink executing callback, params = $thresholdConf,can not get Response. """)
           handleFailedResponse(null, sinkRequest)
         case resp if resp.getStatusCode != 200 =>
+          sinkMetrics.endRequest(start, sinkRequest.size, 0L, success = false)
           logError(s"""Error HttpSink executing callback, params = $thresholdConf, StatusCode = ${resp.getStatusCode} """)
           handleFailedResponse(resp, sinkRequest)
         case _ =>
+          sinkMetrics.endRequest(start, sinkRequest.size, sinkRequest.records.head.length, success = true)
       }
     }
   }
@@ -135,9 +141,11 @@ case class HttpWriterTask(id: Int,
   def handleFailedResponse(response: Response, sinkRequest: SinkRequest): Unit = try {
     if (sinkRequest.attemptCounter >= thresholdConf.maxRetries) {
       failoverWriter.write(sinkRequest.copy(records = sinkRequest.records.map(_.replaceFirst("^[A-Z]+///", ""))))
+      sinkMetrics.failover(sinkRequest.size)
       logWarn(s"""Failed to send data to Http, Http response = $response. Ready to flush data to ${thresholdConf.storageType}""")
     } else {
       sinkRequest.incrementCounter()
+      sinkMetrics.retry()
       logWarn(s"Next attempt to send data to Http, table = ${sinkRequest.table}, buffer size = ${sinkRequest.size}, current attempt num = ${sinkRequest.attemptCounter}, max attempt num = ${thresholdConf.maxRetries}, response = $response")
       queue.put(sinkRequest)
     }
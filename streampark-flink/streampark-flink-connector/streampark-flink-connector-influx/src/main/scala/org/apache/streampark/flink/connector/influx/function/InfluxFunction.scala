@@ -21,6 +21,7 @@ import org.apache.streampark.common.conf.ConfigConst.{KEY_JDBC_PASSWORD, KEY_JDB
 import org.apache.streampark.common.enums.ApiType
 import org.apache.streampark.common.util.Logger
 import org.apache.streampark.flink.connector.influx.bean.InfluxEntity
+import org.apache.streampark.flink.connector.metrics.SinkMetrics
 import org.apache.flink.configuration.Configuration
 import org.apache.flink.streaming.api.functions.sink.RichSinkFunction
 import org.apache.flink.streaming.api.functions.sink.SinkFunction.Context
@@ -35,9 +36,11 @@ import scala.collection.JavaConversions._;
 class InfluxFunction[T](config: Properties)(implicit endpoint: InfluxEntity[T]) extends RichSinkFunction[T] with Logger {
 
   var influxDB: InfluxDB = _
+  @transient var sinkMetrics: SinkMetrics = _
 
   override def open(parameters: Configuration): Unit = {
     super.open(parameters)
+    sinkMetrics = SinkMetrics(this, "influx")
     val url = config.getOrElse(KEY_JDBC_URL, null)
     require(url != null)
     val username = config.getOrElse(KEY_JDBC_USER, null)
@@ -50,6 +53,7 @@ class InfluxFunction[T](config: Properties)(implicit endpoint: InfluxEntity[T])
   }
 
   override def invoke(value: T, context: Context): Unit = {
+    sinkMetrics.recordIn()
     val tag: JavaMap[String, String] = endpoint.apiType match {
       case ApiType.java => endpoint.javaTagFun.transform(value)
       case ApiType.scala => endpoint.scalaTagFun(value)
@@ -63,7 +67,9 @@ class InfluxFunction[T](config: Properties)(implicit endpoint: InfluxEntity[T])
       .tag(tag)
       .fields(fields)
       .build()
+    // points are buffered and flushed by the influxdb client, so only the handed over records are counted
     influxDB.write(endpoint.database, endpoint.retentionPolicy, point)
+    sinkMetrics.recordsOut.inc()
   }
 
   override def close(): Unit = if (influxDB != null) {
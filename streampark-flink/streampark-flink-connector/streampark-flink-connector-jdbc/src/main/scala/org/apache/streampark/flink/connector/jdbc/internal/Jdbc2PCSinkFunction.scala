@@ -22,6 +22,7 @@ import org.apache.streampark.common.enums.ApiType.ApiType
 import org.apache.streampark.common.util.{JdbcUtils, Logger}
 import org.apache.streampark.flink.connector.function.TransformFunction
 import org.apache.streampark.flink.connector.jdbc.bean.Transaction
+import org.apache.streampark.flink.connector.metrics.SinkMetrics
 import org.apache.flink.api.common.ExecutionConfig
 import org.apache.flink.api.common.typeutils.base.VoidSerializer
 import org.apache.flink.api.java.typeutils.runtime.kryo.KryoSerializer
@@ -45,6 +46,8 @@ class Jdbc2PCSinkFunction[T](apiType: ApiType = ApiType.scala, jdbc: Properties)
 
   private var scalaToSQLFn: T => String = _
   private var javaToSQLFunc: TransformFunction[T, String] = _
+  // commit may be called while restoring the state, before the function is opened
+  @transient private lazy val sinkMetrics: SinkMetrics = SinkMetrics(this, "jdbc")
 
   def this(jdbc: Properties, toSQLFn: T => String) {
     this(ApiType.scala, jdbc)
@@ -72,6 +75,7 @@ class Jdbc2PCSinkFunction[T](apiType: ApiType = ApiType.scala, jdbc: Properties)
     if (!sql.toUpperCase.trim.startsWith("INSERT")) {
       transaction.insertMode = false
     }
+    sinkMetrics.recordIn()
     transaction.invoked = true
     transaction + sql
   }
@@ -104,17 +108,19 @@ class Jdbc2PCSinkFunction[T](apiType: ApiType = ApiType.scala, jdbc: Properties)
       var connection: Connection = null
       var statement: Statement = null
       try {
-        connection = JdbcUtils.getConnection(jdbc)
-        connection.setAutoCommit(false)
-        statement = connection.createStatement()
-        if (transaction.insertMode) {
-          transaction.sql.foreach(statement.addBatch)
-          statement.executeBatch
-          statement.clearBatch()
-        } else {
-          transaction.sql.foreach(statement.executeUpdate)
+        sinkMetrics.flush(transaction.sql.size) {
+          connection = JdbcUtils.getConnection(jdbc)
+          connection.setAutoCommit(false)
+          statement = connection.createStatement()
+          if (transaction.insertMode) {
+            transaction.sql.foreach(statement.addBatch)
+            statement.executeBatch
+            statement.clearBatch()
+          } else {
+            transaction.sql.foreach(statement.executeUpdate)
+          }
+          connection.commit()
         }
-        connection.commit()
         // successful, clean state
         buffer -= transaction.transactionId
       } catch {
@@ -22,6 +22,7 @@ import org.apache.streampark.common.enums.ApiType
 import org.apache.streampark.common.enums.ApiType.ApiType
 import org.apache.streampark.common.util.{JdbcUtils, Logger}
 import org.apache.streampark.flink.connector.function.TransformFunction
+import org.apache.streampark.flink.connector.metrics.SinkMetrics
 import org.apache.flink.configuration.Configuration
 import org.apache.flink.streaming.api.functions.sink.{RichSinkFunction, SinkFunction}
 
@@ -36,6 +37,7 @@ class JdbcSinkFunction[T](apiType: ApiType = ApiType.scala, jdbc: Properties) ex
   private var javaToSQLFunc: TransformFunction[T, String] = _
   private val offset: AtomicLong = new AtomicLong(0L)
   private var timestamp: Long = 0L
+  @transient private var sinkMetrics: SinkMetrics = _
 
   private val batchSize = jdbc.remove(KEY_JDBC_INSERT_BATCH) match {
     case null => DEFAULT_JDBC_INSERT_BATCH
@@ -57,6 +59,7 @@ class JdbcSinkFunction[T](apiType: ApiType = ApiType.scala, jdbc: Properties) ex
   override def open(parameters: Configuration): Unit = {
     require(jdbc != null, "[StreamPark] JdbcSink jdbc can not be null")
     logInfo("JdbcSink Open....")
+    sinkMetrics = SinkMetrics(this, "jdbc")
     connection = JdbcUtils.getConnection(jdbc)
     connection.setAutoCommit(false)
     if (batchSize > 1) {
@@ -66,6 +69,7 @@ class JdbcSinkFunction[T](apiType: ApiType = ApiType.scala, jdbc: Properties) ex
 
   override def invoke(value: T, context: SinkFunction.Context): Unit = {
     require(connection != null)
+    sinkMetrics.recordIn()
     val sql = apiType match {
       case ApiType.scala => scalaToSQLFn(value)
       case ApiType.java => javaToSQLFunc.transform(value)
@@ -73,9 +77,11 @@ class JdbcSinkFunction[T](apiType: ApiType = ApiType.scala, jdbc: Properties) ex
     batchSize match {
       case 1 =>
         try {
-          statement = connection.prepareStatement(sql)
-          statement.asInstanceOf[PreparedStatement].executeUpdate
-          connection.commit()
+          sinkMetrics.flush(1, sql.length) {
+            statement = connection.prepareStatement(sql)
+            statement.asInstanceOf[PreparedStatement].executeUpdate
+            connection.commit()
+          }
         } catch {
           case e: Exception =>
             logError(s"JdbcSink invoke error:${sql}")
@@ -106,11 +112,14 @@ class JdbcSinkFunction[T](apiType: ApiType = ApiType.scala, jdbc: Properties) ex
 
   private[this] def execBatch(): Unit = {
     if (offset.get() > 0) {
-      offset.set(0L)
+      val records = offset.getAndSet(0L).toInt
       val start = System.currentTimeMillis()
-      val count = statement.executeBatch().sum
-      statement.clearBatch()
-      connection.commit()
+      val count = sinkMetrics.flush(records) {
+        val count = statement.executeBatch().sum
+        statement.clearBatch()
+        connection.commit()
+        count
+      }
       logInfo(s"JdbcSink batch $count use ${System.currentTimeMillis() - start} MS")
       timestamp = System.currentTimeMillis()
     }
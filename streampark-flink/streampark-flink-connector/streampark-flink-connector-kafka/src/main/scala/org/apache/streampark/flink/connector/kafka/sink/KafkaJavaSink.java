@@ -146,4 +146,29 @@ public class KafkaJavaSink<T> {
             this.partitioner
         );
     }
+
+    public DataStreamSink<T> sinkTo(DataStream<T> source) {
+        return this.sinkTo(source, this.topic);
+    }
+
+    /**
+     * write to kafka with the unified sink (FLIP-143)
+     */
+    public DataStreamSink<T> sinkTo(DataStream<T> source, String topic) {
+        this.topic(topic);
+        KafkaSink scalaSink = new KafkaSink(
+            this.context,
+            this.property,
+            this.parallelism,
+            this.name,
+            this.uid
+        );
+        return scalaSink.sinkTo(
+            new org.apache.flink.streaming.api.scala.DataStream<>(source),
+            this.alias,
+            this.topic,
+            this.serializer,
+            this.partitioner
+        );
+    }
 }
@@ -23,6 +23,8 @@ import org.apache.streampark.flink.connector.kafka.bean.KafkaEqualityPartitioner
 import org.apache.streampark.flink.connector.sink.Sink
 import org.apache.streampark.flink.core.scala.StreamingContext
 import org.apache.flink.api.common.serialization.{SerializationSchema, SimpleStringSchema}
+import org.apache.flink.connector.base.DeliveryGuarantee
+import org.apache.flink.connector.kafka.sink.{KafkaRecordSerializationSchema, KafkaSink => FlinkKafkaSink}
 import org.apache.flink.streaming.api.datastream.DataStreamSink
 import org.apache.flink.streaming.api.scala.DataStream
 import org.apache.flink.streaming.connectors.kafka.FlinkKafkaProducer
@@ -30,6 +32,8 @@ import org.apache.flink.streaming.connectors.kafka.FlinkKafkaProducer.{DEFAULT_K
 import org.apache.flink.streaming.connectors.kafka.internals.KeyedSerializationSchemaWrapper
 import org.apache.flink.streaming.connectors.kafka.partitioner.FlinkKafkaPartitioner
 
+import org.apache.kafka.clients.producer.ProducerConfig
+
 import java.util.{Optional, Properties}
 import scala.annotation.meta.param
 import scala.util.Try
@@ -40,6 +44,45 @@ object KafkaSink {
             parallelism: Int = 0,
             name: String = null,
             uid: String = null)(implicit ctx: StreamingContext): KafkaSink = new KafkaSink(ctx, property, parallelism, name, uid)
+
+  /**
+   * Build the unified kafka sink (FLIP-143), configured by the same `kafka.sink.*` parameters as the legacy producer.
+   * Under EXACTLY_ONCE the transactional producers are created on demand per checkpoint instead of a fixed pool,
+   * the transactional id prefix can be set with `transactional.id.prefix`, default is the topic name.
+   */
+  def getSink[T](ctx: StreamingContext,
+                 property: Properties = new Properties(),
+                 alias: String,
+                 topic: String,
+                 serializer: SerializationSchema[T],
+                 partitioner: FlinkKafkaPartitioner[T]): FlinkKafkaSink[T] = {
+    val prop = ConfigUtils.getKafkaSinkConf(ctx.parameter.toMap, topic, alias)
+    Utils.copyProperties(property, prop)
+    val topicId = prop.remove(ConfigConst.KEY_KAFKA_TOPIC).toString
+    val guarantee = Try(Some(prop.remove(ConfigConst.KEY_KAFKA_SEMANTIC).toString.toUpperCase)).getOrElse(None) match {
+      case None => DeliveryGuarantee.AT_LEAST_ONCE
+      case Some("AT_LEAST_ONCE") => DeliveryGuarantee.AT_LEAST_ONCE
+      case Some("EXACTLY_ONCE") => DeliveryGuarantee.EXACTLY_ONCE
+      case Some("NONE") => DeliveryGuarantee.NONE
+      case _ => throw new IllegalArgumentException("[StreamPark] kafka.sink semantic error,must be (AT_LEAST_ONCE|EXACTLY_ONCE|NONE) ")
+    }
+    val transactionalIdPrefix = Option(prop.remove(ConfigConst.KEY_KAFKA_TRANSACTIONAL_ID_PREFIX)).map(_.toString).getOrElse(topicId)
+
+    val schemaBuilder = KafkaRecordSerializationSchema.builder[T]()
+      .setTopic(topicId)
+      .setValueSerializationSchema(serializer)
+    if (partitioner != null) {
+      schemaBuilder.setPartitioner(partitioner)
+    }
+
+    FlinkKafkaSink.builder[T]()
+      .setBootstrapServers(prop.getProperty(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG))
+      .setKafkaProducerConfig(prop)
+      .setRecordSerializer(schemaBuilder.build())
+      .setDeliverGuarantee(guarantee)
+      .setTransactionalIdPrefix(transactionalIdPrefix)
+      .build()
+  }
 }
 
 class KafkaSink(@(transient@param) val ctx: StreamingContext,
@@ -102,6 +145,27 @@ class KafkaSink(@(transient@param) val ctx: StreamingContext,
     afterSink(sink, parallelism, name, uid)
   }
 
+  /**
+   * for scala, write to kafka with the unified sink (FLIP-143)
+   *
+   * @param stream
+   * @param alias
+   * @param topic
+   * @param serializer  serializer, if not specified, used <b>SimpleStringSchema<b>
+   * @param partitioner kafka partitioner, used <b>KafkaEqualityPartitioner</b> as default partitioner
+   * @tparam T
+   * @return
+   */
+  def sinkTo[T](stream: DataStream[T],
+                alias: String = "",
+                topic: String = "",
+                serializer: SerializationSchema[T] = new SimpleStringSchema().asInstanceOf[SerializationSchema[T]],
+                partitioner: FlinkKafkaPartitioner[T] = new KafkaEqualityPartitioner[T](ctx.getParallelism)): DataStreamSink[T] = {
+    val kafkaSink = KafkaSink.getSink[T](ctx, property, alias, topic, serializer, partitioner)
+    val sink = stream.sinkTo(kafkaSink)
+    afterSink(sink, parallelism, name, uid)
+  }
+
 }
 
 
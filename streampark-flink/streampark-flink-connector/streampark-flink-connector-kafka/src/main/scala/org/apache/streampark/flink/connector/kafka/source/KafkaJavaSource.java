@@ -88,4 +88,16 @@ public class KafkaJavaSource<T> {
         return context.getJavaEnv().addSource(consumer);
     }
 
+    public DataStreamSource<KafkaRecord<T>> getSplitDataStream() {
+        org.apache.flink.connector.kafka.source.KafkaSource<KafkaRecord<T>> source = KafkaSource.getSplitSource(
+            this.context,
+            this.property,
+            this.topics,
+            this.alias,
+            this.deserializer,
+            null);
+        WatermarkStrategy<KafkaRecord<T>> watermarkStrategy = this.strategy == null ? WatermarkStrategy.noWatermarks() : this.strategy;
+        return context.getJavaEnv().fromSource(source, watermarkStrategy, "KafkaSource" + this.alias);
+    }
+
 }
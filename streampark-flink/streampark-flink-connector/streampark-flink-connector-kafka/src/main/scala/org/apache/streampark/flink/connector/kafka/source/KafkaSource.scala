@@ -24,10 +24,15 @@ import org.apache.streampark.flink.core.scala.StreamingContext
 import org.apache.flink.api.common.eventtime.WatermarkStrategy
 import org.apache.flink.api.common.typeinfo.{BasicTypeInfo, TypeInformation}
 import org.apache.flink.api.java.typeutils.TypeExtractor.getForClass
+import org.apache.flink.connector.kafka.source.KafkaSourceOptions
+import org.apache.flink.connector.kafka.source.enumerator.initializer.OffsetsInitializer
+import org.apache.flink.connector.kafka.source.reader.deserializer.KafkaRecordDeserializationSchema
+import org.apache.flink.connector.kafka.source.{KafkaSource => FlinkKafkaSource}
 import org.apache.flink.streaming.api.scala.{DataStream, _}
 import org.apache.flink.streaming.connectors.kafka.internals.KafkaTopicPartition
 import org.apache.flink.streaming.connectors.kafka.{FlinkKafkaConsumer, KafkaDeserializationSchema}
-import org.apache.kafka.clients.consumer.{ConsumerConfig, ConsumerRecord}
+import org.apache.kafka.clients.consumer.{ConsumerConfig, ConsumerRecord, OffsetResetStrategy}
+import org.apache.kafka.common.TopicPartition
 
 import java.io
 import java.util.Properties
@@ -105,31 +110,9 @@ object KafkaSource {
       case (Some(t), _) => consumer.setStartFromTimestamp(t)
       // Specify the offset for each topic and partition
       case _ =>
-        val startFroms = (topicOpt, regexOpt) match {
-          case (Some(top), _) =>
-            topic match {
-              case null => startFrom.toList
-              case x: String => startFrom.filter(_.topic == x).toList
-              case x: Array[_] =>
-                val topics = if (topic == null) top.split(",|\\s+").toList else x.toList
-                startFrom.filter(s => topics.contains(s.topic)).toList
-              case x: List[_] =>
-                val topics = if (topic == null) top.split(",|\\s+").toList else x
-                startFrom.filter(s => topics.contains(s.topic)).toList
-              case _ => List.empty[StartFrom]
-            }
-          case (_, Some(reg)) =>
-            topic match {
-              case null => startFrom.filter(s => reg.r.findFirstIn(s.topic).nonEmpty).toList
-              case x: String => startFrom.filter(s => x.r.findFirstIn(s.topic).nonEmpty).toList
-              case _ => List.empty[StartFrom]
-            }
-          case _ => null
-        }
-
         //startOffsets...
         val startOffsets = new java.util.HashMap[KafkaTopicPartition, java.lang.Long]()
-        startFroms.filter(x => x != null && x.partitionOffset != null).foreach(start => {
+        getStartFroms(topic, topicOpt, regexOpt, startFrom).foreach(start => {
           start.partitionOffset.foreach(x => startOffsets.put(new KafkaTopicPartition(start.topic, x._1), x._2))
         })
 
@@ -140,6 +123,110 @@ object KafkaSource {
     consumer
   }
 
+  /**
+   * Build the split-based kafka source (FLIP-27), configured by the same `kafka.source.*` parameters as [[getSource]].
+   * Each kafka partition is a split with its own watermark generator, so watermarks are aligned per partition
+   * and idle partitions can be detected with `WatermarkStrategy.withIdleness`.
+   */
+  def getSplitSource[T: TypeInformation](ctx: StreamingContext,
+                                         property: Properties = new Properties(),
+                                         topic: io.Serializable,
+                                         alias: String,
+                                         deserializer: KafkaDeserializationSchema[T]
+                                        ): FlinkKafkaSource[KafkaRecord[T]] = {
+
+    val prop = ConfigUtils.getConf(ctx.parameter.toMap, KAFKA_SOURCE_PREFIX + alias)
+    Utils.copyProperties(property, prop)
+    require(prop != null && prop.nonEmpty && prop.exists(x => x._1 == KEY_KAFKA_TOPIC || x._1 == KEY_KAFKA_PATTERN))
+
+    //start.form parameter...
+    val timestamp = Try(Some(prop(s"$KEY_KAFKA_START_FROM.$KEY_KAFKA_START_FROM_TIMESTAMP").toLong)).getOrElse(None)
+    val startFrom = StartFrom.startForm(prop)
+    require(!(timestamp.nonEmpty && startFrom.nonEmpty), s"[StreamPark] start.form timestamp and offset cannot be defined at the same time")
+
+    //topic parameter
+    val topicOpt = Try(Some(prop.remove(KEY_KAFKA_TOPIC).toString)).getOrElse(None)
+    val regexOpt = Try(Some(prop.remove(KEY_KAFKA_PATTERN).toString)).getOrElse(None)
+
+    val builder = FlinkKafkaSource.builder[KafkaRecord[T]]()
+      .setDeserializer(KafkaRecordDeserializationSchema.of(new KafkaDeserializer[T](deserializer)))
+
+    (topicOpt, regexOpt) match {
+      case (Some(_), Some(_)) =>
+        throw new IllegalArgumentException("[StreamPark] topic and regex cannot be defined at the same time")
+      case (Some(top), _) =>
+        val topicList = topic match {
+          case null => top.split(",|\\s+").toList
+          case x: String => List(x)
+          case x: Array[String] => x.toList
+          case x: List[_] => x.map(_.toString)
+          case _ => throw new IllegalArgumentException("[StreamPark] topic type must be String(one topic) or List[String](more topic)")
+        }
+        builder.setTopics(topicList)
+      case (_, Some(reg)) =>
+        val pattern: Pattern = topic match {
+          case null => reg.r.pattern
+          case x: String => x.r.pattern
+          case _ => throw new IllegalArgumentException("[StreamPark] subscriptionPattern type must be String(regex)")
+        }
+        builder.setTopicPattern(pattern)
+      case _ =>
+    }
+
+    // keep the commit behavior of the legacy consumer: commit on checkpoint, otherwise rely on kafka autoCommit.
+    val autoCommit = prop.getOrElse(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "true").toBoolean
+    (ctx.getCheckpointConfig.isCheckpointingEnabled, autoCommit) match {
+      case (true, _) => prop.put(KafkaSourceOptions.COMMIT_OFFSETS_ON_CHECKPOINT.key(), "true")
+      case (_, false) => throw new IllegalArgumentException("[StreamPark] error:flink checkpoint was disable,and kafka autoCommit was false.you can enable checkpoint or enable kafka autoCommit...")
+      case _ => prop.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "true")
+    }
+    builder.setProperties(prop)
+
+    // partitions without a specified offset start from the committed group offset, then fall back to auto.offset.reset
+    val resetStrategy = Try(OffsetResetStrategy.valueOf(prop(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG).toUpperCase)).getOrElse(OffsetResetStrategy.LATEST)
+    val startOffsets = getStartFroms(topic, topicOpt, regexOpt, startFrom)
+      .flatMap(start => start.partitionOffset.map(x => new TopicPartition(start.topic, x._1) -> java.lang.Long.valueOf(x._2)))
+      .toMap
+
+    val initializer = (timestamp, startOffsets) match {
+      case (Some(t), _) => OffsetsInitializer.timestamp(t)
+      case (_, offsets) if offsets.nonEmpty => OffsetsInitializer.offsets(offsets, resetStrategy)
+      case _ => OffsetsInitializer.committedOffsets(resetStrategy)
+    }
+    builder.setStartingOffsets(initializer).build()
+  }
+
+  /**
+   * Specify the start offsets of the subscribed topics, filtered by the topic (or regex) actually consumed.
+   */
+  private[this] def getStartFroms(topic: io.Serializable,
+                                  topicOpt: Option[String],
+                                  regexOpt: Option[String],
+                                  startFrom: Array[StartFrom]): List[StartFrom] = {
+    val startFroms = (topicOpt, regexOpt) match {
+      case (Some(top), _) =>
+        topic match {
+          case null => startFrom.toList
+          case x: String => startFrom.filter(_.topic == x).toList
+          case x: Array[_] =>
+            val topics = if (topic == null) top.split(",|\\s+").toList else x.toList
+            startFrom.filter(s => topics.contains(s.topic)).toList
+          case x: List[_] =>
+            val topics = if (topic == null) top.split(",|\\s+").toList else x
+            startFrom.filter(s => topics.contains(s.topic)).toList
+          case _ => List.empty[StartFrom]
+        }
+      case (_, Some(reg)) =>
+        topic match {
+          case null => startFrom.filter(s => reg.r.findFirstIn(s.topic).nonEmpty).toList
+          case x: String => startFrom.filter(s => x.r.findFirstIn(s.topic).nonEmpty).toList
+          case _ => List.empty[StartFrom]
+        }
+      case _ => List.empty[StartFrom]
+    }
+    startFroms.filter(x => x != null && x.partitionOffset != null)
+  }
+
 }
 
 class KafkaSource(@(transient@param) private[this] val ctx: StreamingContext, property: Properties = new Properties()) {
@@ -172,6 +259,28 @@ class KafkaSource(@(transient@param) private[this] val ctx: StreamingContext, pr
     ctx.addSource(consumer)
   }
 
+  /**
+   * Get DStream stream from the split-based kafka source (FLIP-27).
+   * Unlike [[getDataStream]], the watermark strategy is applied per kafka partition inside the source,
+   * so a skewed or idle partition no longer holds back the watermark of the whole subtask.
+   *
+   * @param topic        a group of topics or a single topic
+   * @param alias        Aliases to distinguish different kafka connection instances
+   * @param deserializer DeserializationSchema
+   * @param strategy     Watermarks strategy, no watermarks if not specified
+   * @tparam T
+   */
+  def getSplitDataStream[T: TypeInformation](topic: java.io.Serializable = null,
+                                             alias: String = "",
+                                             deserializer: KafkaDeserializationSchema[T] = new KafkaStringDeserializationSchema().asInstanceOf[KafkaDeserializationSchema[T]],
+                                             strategy: WatermarkStrategy[KafkaRecord[T]] = null
+                                            ): DataStream[KafkaRecord[T]] = {
+
+    val source = KafkaSource.getSplitSource[T](this.ctx, property, topic, alias, deserializer)
+    val watermarkStrategy = if (strategy == null) WatermarkStrategy.noWatermarks[KafkaRecord[T]]() else strategy
+    ctx.fromSource(source, watermarkStrategy, s"KafkaSource$alias")
+  }
+
 }
 
 
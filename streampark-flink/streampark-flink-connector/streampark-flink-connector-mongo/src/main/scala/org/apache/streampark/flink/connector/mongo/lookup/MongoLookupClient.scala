@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.connector.mongo.lookup
+
+import com.mongodb.MongoClient
+import com.mongodb.client.MongoCollection
+import com.mongodb.client.model.Filters
+import org.apache.streampark.common.util.MongoConfig
+import org.apache.streampark.flink.connector.lookup.LookupClient
+import org.bson.Document
+
+import java.util.Properties
+import scala.collection.JavaConversions._
+
+/**
+ * look up the documents whose `field` is in the batch keys with a single `$in` query,
+ * the first document wins if several documents have the same key.
+ */
+class MongoLookupClient[K](collection: String, field: String, prop: Properties) extends LookupClient[K, Document] {
+
+  @transient private[this] var client: MongoClient = _
+  @transient private[this] var mongoCollection: MongoCollection[Document] = _
+
+  override def open(): Unit = {
+    client = MongoConfig.getClient(prop)
+    val db = MongoConfig.getProperty(prop, MongoConfig.database)
+    mongoCollection = client.getDatabase(db).getCollection(collection)
+  }
+
+  override def lookup(keys: Seq[K]): Map[K, Document] = {
+    val documents = mongoCollection.find(Filters.in(field, keys: _*)).toList
+    documents.reverse.map(doc => doc.get(field).asInstanceOf[K] -> doc).toMap
+  }
+
+  override def close(): Unit = if (client != null) client.close()
+
+}
@@ -22,21 +22,41 @@ import org.apache.commons.pool2.impl.GenericObjectPoolConfig
 import org.apache.flink.streaming.connectors.redis.common.config.{FlinkJedisConfigBase, FlinkJedisPoolConfig, FlinkJedisSentinelConfig}
 import org.apache.flink.streaming.connectors.redis.common.container.{RedisContainer => BahirRedisContainer}
 import org.apache.flink.streaming.connectors.redis.common.mapper.RedisCommand._
-import redis.clients.jedis.{Jedis, JedisPool, JedisSentinelPool}
+import redis.clients.jedis.util.Pool
+import redis.clients.jedis.{Jedis, JedisPool, JedisSentinelPool, Transaction}
 
-class RedisContainer(container: BahirRedisContainer) {
+import scala.collection.JavaConverters._
+import scala.collection.mutable
+
+class RedisContainer(container: BahirRedisContainer, pool: Pool[Jedis]) {
 
   def open(): Unit = {
     container.open()
   }
 
-  lazy val jedis: Jedis = {
-    val method = container.getClass.getDeclaredMethod("getInstance")
-    method.setAccessible(true)
-    method.invoke(container).asInstanceOf[Jedis]
+  /**
+   * borrow a connection from the shared pool for `func` only, so that the sinks sharing the pool
+   * never hold more connections than the ones in use.
+   */
+  def withJedis[R](func: Jedis => R): R = {
+    val jedis = pool.getResource
+    try func(jedis) finally jedis.close()
   }
 
-  def invoke[T](mapper: RedisMapper[T], input: T, transaction: Option[redis.clients.jedis.Transaction]): Unit = {
+  /**
+   * run `func` in a redis transaction (MULTI/EXEC) on a connection borrowed for it.
+   */
+  def transaction(func: Transaction => Unit): Unit = withJedis { jedis =>
+    val transaction = jedis.multi()
+    try {
+      func(transaction)
+      transaction.exec()
+    } finally {
+      transaction.close()
+    }
+  }
+
+  def invoke[T](mapper: RedisMapper[T], input: T, transaction: Option[Transaction]): Unit = {
     val key = mapper.getKeyFromData(input)
     val value = mapper.getValueFromData(input)
     mapper.getCommandDescription.getCommand match {
@@ -83,54 +103,104 @@ class RedisContainer(container: BahirRedisContainer) {
   def expire(key: String, ttl: Int): Unit = {
     ttl match {
       case Int.MaxValue =>
-      case _ => jedis.expire(key, ttl)
+      case _ => withJedis(_.expire(key, ttl))
     }
   }
 
-  def close(): Unit = {
-    container.close()
-  }
+  /**
+   * release the shared pool, the pool itself is closed by the last one using it.
+   */
+  def close(): Unit = RedisContainer.releasePool(pool)
 
 }
 
 object RedisContainer extends Logger {
 
+  private[this] class SharedPool(val key: String, val pool: Pool[Jedis]) {
+    var refs = 0
+  }
+
+  /**
+   * the pools shared by the sinks and the lookups of the same redis in the task manager, keyed by the config.
+   */
+  private[this] val sharedPools = mutable.Map[String, SharedPool]()
+
   def getContainer(jedisConfig: FlinkJedisConfigBase): RedisContainer = {
-    val genericObjectPoolConfig = new GenericObjectPoolConfig
-    genericObjectPoolConfig.setMaxIdle(jedisConfig.getMaxIdle)
-    genericObjectPoolConfig.setMaxTotal(jedisConfig.getMaxTotal)
-    genericObjectPoolConfig.setMinIdle(jedisConfig.getMinIdle)
+    val pool = acquirePool(jedisConfig)
     try {
-      val bahirRedisContainer = jedisConfig match {
-        case jedisPoolConfig: FlinkJedisPoolConfig =>
-          val jedisPool = new JedisPool(
-            genericObjectPoolConfig,
-            jedisPoolConfig.getHost,
-            jedisPoolConfig.getPort,
-            jedisPoolConfig.getConnectionTimeout,
-            jedisPoolConfig.getPassword,
-            jedisPoolConfig.getDatabase
-          )
-          new BahirRedisContainer(jedisPool)
-        case _ =>
-          val jedisSentinelConfig = jedisConfig.asInstanceOf[FlinkJedisSentinelConfig]
-          val jedisSentinelPool = new JedisSentinelPool(jedisSentinelConfig.getMasterName,
-            jedisSentinelConfig.getSentinels,
-            genericObjectPoolConfig,
-            jedisSentinelConfig.getSoTimeout,
-            jedisSentinelConfig.getPassword,
-            jedisSentinelConfig.getDatabase
-          )
-          new BahirRedisContainer(jedisSentinelPool)
+      val bahirRedisContainer = pool match {
+        case jedisPool: JedisPool => new BahirRedisContainer(jedisPool)
+        case jedisSentinelPool: JedisSentinelPool => new BahirRedisContainer(jedisSentinelPool)
       }
-      val redisContainer = new RedisContainer(bahirRedisContainer)
+      val redisContainer = new RedisContainer(bahirRedisContainer, pool)
       redisContainer.open()
       redisContainer
     } catch {
       case e: Exception =>
+        releasePool(pool)
         logError("RedisSink:Redis has not been properly initialized: ", e)
         throw e
     }
   }
 
+  /**
+   * get the pool of the redis shared in the task manager, it must be released by [[releasePool]].
+   */
+  def acquirePool(jedisConfig: FlinkJedisConfigBase): Pool[Jedis] = sharedPools.synchronized {
+    val key = poolKey(jedisConfig)
+    val shared = sharedPools.getOrElseUpdate(key, new SharedPool(key, createPool(jedisConfig)))
+    shared.refs += 1
+    shared.pool
+  }
+
+  def releasePool(pool: Pool[Jedis]): Unit = sharedPools.synchronized {
+    sharedPools.values.find(_.pool eq pool) match {
+      case Some(shared) =>
+        shared.refs -= 1
+        if (shared.refs <= 0) {
+          sharedPools.remove(shared.key)
+          pool.close()
+        }
+      case None => pool.close()
+    }
+  }
+
+  private[this] def poolKey(jedisConfig: FlinkJedisConfigBase): String = {
+    val common = s"${jedisConfig.getMaxTotal}|${jedisConfig.getMaxIdle}|${jedisConfig.getMinIdle}"
+    jedisConfig match {
+      case c: FlinkJedisPoolConfig =>
+        s"pool|${c.getHost}|${c.getPort}|${c.getDatabase}|${c.getPassword}|${c.getConnectionTimeout}|$common"
+      case c: FlinkJedisSentinelConfig =>
+        s"sentinel|${c.getMasterName}|${c.getSentinels.asScala.toSeq.sorted.mkString(",")}|${c.getDatabase}|${c.getPassword}|${c.getSoTimeout}|$common"
+      case c => s"${c.getClass.getName}@${System.identityHashCode(c)}"
+    }
+  }
+
+  private[this] def createPool(jedisConfig: FlinkJedisConfigBase): Pool[Jedis] = {
+    val genericObjectPoolConfig = new GenericObjectPoolConfig
+    genericObjectPoolConfig.setMaxIdle(jedisConfig.getMaxIdle)
+    genericObjectPoolConfig.setMaxTotal(jedisConfig.getMaxTotal)
+    genericObjectPoolConfig.setMinIdle(jedisConfig.getMinIdle)
+    jedisConfig match {
+      case jedisPoolConfig: FlinkJedisPoolConfig =>
+        new JedisPool(
+          genericObjectPoolConfig,
+          jedisPoolConfig.getHost,
+          jedisPoolConfig.getPort,
+          jedisPoolConfig.getConnectionTimeout,
+          jedisPoolConfig.getPassword,
+          jedisPoolConfig.getDatabase
+        )
+      case _ =>
+        val jedisSentinelConfig = jedisConfig.asInstanceOf[FlinkJedisSentinelConfig]
+        new JedisSentinelPool(jedisSentinelConfig.getMasterName,
+          jedisSentinelConfig.getSentinels,
+          genericObjectPoolConfig,
+          jedisSentinelConfig.getSoTimeout,
+          jedisSentinelConfig.getPassword,
+          jedisSentinelConfig.getDatabase
+        )
+    }
+  }
+
 }
@@ -18,6 +18,7 @@
 package org.apache.streampark.flink.connector.redis.internal
 
 import org.apache.streampark.common.util.Logger
+import org.apache.streampark.flink.connector.metrics.SinkMetrics
 import org.apache.streampark.flink.connector.redis.bean.{RedisContainer, RedisMapper, RedisTransaction}
 import org.apache.flink.api.common.ExecutionConfig
 import org.apache.flink.api.common.typeutils.base.VoidSerializer
@@ -29,6 +30,8 @@ import redis.clients.jedis.exceptions.JedisException
 class Redis2PCSinkFunction[T](jedisConfig: FlinkJedisConfigBase, mapper: RedisMapper[T], ttl: Int)
   extends TwoPhaseCommitSinkFunction[T, RedisTransaction[T], Void](new KryoSerializer[RedisTransaction[T]](classOf[RedisTransaction[T]], new ExecutionConfig), VoidSerializer.INSTANCE) with Logger {
 
+  // commit may be called while restoring the state, before the function is opened
+  @transient private lazy val sinkMetrics: SinkMetrics = SinkMetrics(this, "redis")
 
   override def beginTransaction(): RedisTransaction[T] = {
     logInfo("Redis2PCSink beginTransaction.")
@@ -38,6 +41,7 @@ class Redis2PCSinkFunction[T](jedisConfig: FlinkJedisConfigBase, mapper: RedisMa
   override def invoke(transaction: RedisTransaction[T], value: T, context: SinkFunction.Context): Unit = {
     transaction.invoked = true
     transaction + (mapper, value, ttl)
+    sinkMetrics.recordIn()
   }
 
   override def preCommit(transaction: RedisTransaction[T]): Unit = {
@@ -50,16 +54,20 @@ class Redis2PCSinkFunction[T](jedisConfig: FlinkJedisConfigBase, mapper: RedisMa
   override def commit(redisTransaction: RedisTransaction[T]): Unit = {
     if (redisTransaction.invoked && redisTransaction.mapper.nonEmpty) {
       try {
-        val redisContainer = RedisContainer.getContainer(jedisConfig)
-        val transaction = redisContainer.jedis.multi()
-        redisTransaction.mapper.foreach(x => {
-          redisContainer.invoke[T](x._1, x._2, Some(transaction))
-          val key = mapper.getKeyFromData(x._2)
-          transaction.expire(key, x._3)
-        })
-        transaction.exec()
-        transaction.close()
-        redisContainer.close()
+        sinkMetrics.flush(redisTransaction.mapper.size) {
+          val redisContainer = RedisContainer.getContainer(jedisConfig)
+          try {
+            redisContainer.transaction { transaction =>
+              redisTransaction.mapper.foreach(x => {
+                redisContainer.invoke[T](x._1, x._2, Some(transaction))
+                val key = mapper.getKeyFromData(x._2)
+                transaction.expire(key, x._3)
+              })
+            }
+          } finally {
+            redisContainer.close()
+          }
+        }
         redisTransaction.mapper.clear()
       } catch {
         case t: Exception =>
@@ -18,6 +18,7 @@
 package org.apache.streampark.flink.connector.redis.internal
 
 import org.apache.streampark.common.util.Logger
+import org.apache.streampark.flink.connector.metrics.SinkMetrics
 import org.apache.streampark.flink.connector.redis.bean.{RedisContainer, RedisMapper}
 import org.apache.flink.configuration.Configuration
 import org.apache.flink.streaming.api.functions.sink.SinkFunction
@@ -29,15 +30,19 @@ import java.io.IOException
 class RedisSinkFunction[T](jedisConfig: FlinkJedisConfigBase, mapper: RedisMapper[T], ttl: Int) extends BahirRedisSink[T](jedisConfig, mapper) with Logger {
 
   private[this] var redisContainer: RedisContainer = _
+  @transient private[this] var sinkMetrics: SinkMetrics = _
 
   @throws[Exception] override def open(parameters: Configuration): Unit = {
+    sinkMetrics = SinkMetrics(this, "redis")
     redisContainer = RedisContainer.getContainer(jedisConfig)
   }
 
   override def invoke(input: T, context: SinkFunction.Context): Unit = {
+    sinkMetrics.recordIn()
     redisContainer.invoke[T](mapper, input, None)
     val key = mapper.getKeyFromData(input)
     redisContainer.expire(key, ttl)
+    sinkMetrics.recordOut(1)
   }
 
   @throws[IOException] override def close(): Unit = if (redisContainer != null) redisContainer.close()
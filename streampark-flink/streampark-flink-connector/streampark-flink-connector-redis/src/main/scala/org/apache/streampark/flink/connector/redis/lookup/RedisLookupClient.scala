@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.connector.redis.lookup
+
+import org.apache.streampark.flink.connector.lookup.LookupClient
+import org.apache.streampark.flink.connector.redis.bean.RedisContainer
+import org.apache.flink.streaming.connectors.redis.common.config.FlinkJedisConfigBase
+import redis.clients.jedis.Jedis
+import redis.clients.jedis.util.Pool
+
+import scala.collection.JavaConversions._
+
+/**
+ * look up the string values by MGET, or by HMGET from the hash `hashKey` if it's given.
+ * the pool is shared with the redis sinks of the same redis in the task manager.
+ */
+class RedisLookupClient(jedisConfig: FlinkJedisConfigBase, hashKey: String = null) extends LookupClient[String, String] {
+
+  @transient private[this] var pool: Pool[Jedis] = _
+
+  override def open(): Unit = {
+    pool = RedisContainer.acquirePool(jedisConfig)
+  }
+
+  override def lookup(keys: Seq[String]): Map[String, String] = {
+    val jedis = pool.getResource
+    try {
+      val values = hashKey match {
+        case null => jedis.mget(keys: _*)
+        case _ => jedis.hmget(hashKey, keys: _*)
+      }
+      keys.zip(values).filter(_._2 != null).toMap
+    } finally {
+      jedis.close()
+    }
+  }
+
+  override def close(): Unit = if (pool != null) RedisContainer.releasePool(pool)
+
+}
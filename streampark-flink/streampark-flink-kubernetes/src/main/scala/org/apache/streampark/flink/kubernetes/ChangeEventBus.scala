@@ -17,23 +17,21 @@
 
 package org.apache.streampark.flink.kubernetes
 
-import com.google.common.eventbus.{AsyncEventBus, EventBus}
+import com.google.common.eventbus.EventBus
 
-import java.util.concurrent.{LinkedBlockingQueue, ThreadPoolExecutor, TimeUnit}
-
-class ChangeEventBus {
-
-  private val execPool = new ThreadPoolExecutor(
-    Runtime.getRuntime.availableProcessors * 10,
-    Runtime.getRuntime.availableProcessors * 20,
-    60L, TimeUnit.SECONDS, new LinkedBlockingQueue[Runnable](2048)
-  )
+/**
+ * Event bus of the flink-k8s change events.
+ * Async events are partitioned by job onto a fixed set of ordered lanes, see [[ChangeEventDispatcher]].
+ */
+class ChangeEventBus extends AutoCloseable {
 
-  private[kubernetes] val asyncEventBus = new AsyncEventBus("[StreamPark][flink-k8s]AsyncEventBus", execPool)
+  private[kubernetes] val asyncEventBus = new EventBus("[StreamPark][flink-k8s]AsyncEventBus")
 
   private[kubernetes] val syncEventBus = new EventBus("[StreamPark][flink-k8s]SyncEventBus")
 
-  def postAsync(event: AnyRef): Unit = asyncEventBus.post(event)
+  private[kubernetes] lazy val dispatcher = new ChangeEventDispatcher(asyncEventBus)
+
+  def postAsync(event: AnyRef): Unit = dispatcher.dispatch(event)
 
   def postSync(event: AnyRef): Unit = syncEventBus.post(event)
 
@@ -42,5 +40,16 @@ class ChangeEventBus {
     syncEventBus.register(listener)
   }
 
+  /**
+   * current number of pending async events of each lane.
+   */
+  def laneDepths: Array[Int] = dispatcher.laneDepths
+
+  /**
+   * total number of the async events that have been dropped due to a full lane.
+   */
+  def droppedCount: Long = dispatcher.droppedCount
+
+  override def close(): Unit = dispatcher.close()
 
 }
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.kubernetes
+
+import com.google.common.eventbus.EventBus
+import org.apache.streampark.common.util.Logger
+import org.apache.streampark.flink.kubernetes.event.{BuildInEvent, FlinkClusterMetricChangeEvent, FlinkJobCheckpointChangeEvent}
+
+import java.util
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.locks.ReentrantLock
+import javax.annotation.concurrent.ThreadSafe
+import scala.util.Try
+
+/**
+ * Dispatch the async change events to a small fixed set of single-threaded lanes.
+ *
+ * Events are partitioned by the appId of their TrackId, so that all events of
+ * the same job are delivered by the same thread in the posted order. Each lane
+ * is bounded, and the overflow is handled according to the event type:
+ *
+ *  - Coalescing events (cluster metrics, checkpoints) only keep the latest
+ *    not-yet-delivered event of the same job, and the oldest pending one is
+ *    dropped when the lane is full.
+ *  - Other events (job status, job state) are never dropped, the posting
+ *    thread is blocked until the lane has room (back-pressure), so is a
+ *    coalescing event when the full lane holds no coalescing event to drop.
+ *
+ * @param eventBus   the synchronous event bus that delivers the events to listeners
+ * @param laneNum    number of lanes
+ * @param laneCapacity capacity of each lane
+ */
+@ThreadSafe
+class ChangeEventDispatcher(eventBus: EventBus,
+                            laneNum: Int = ChangeEventDispatcher.DEFAULT_LANE_NUM,
+                            laneCapacity: Int = ChangeEventDispatcher.DEFAULT_LANE_CAPACITY) extends Logger with AutoCloseable {
+
+  require(laneNum > 0, "[StreamPark] ChangeEventDispatcher: laneNum must be greater than 0")
+  require(laneCapacity > 0, "[StreamPark] ChangeEventDispatcher: laneCapacity must be greater than 0")
+
+  private[this] val droppedCounter = new AtomicLong(0)
+
+  private[this] val lanes = Array.tabulate(laneNum)(new Lane(_))
+
+  lanes.foreach(_.start())
+
+  def dispatch(event: AnyRef): Unit = {
+    val partition = event match {
+      case e: BuildInEvent if e.trackId != null => e.trackId.appId.hashCode
+      case e => e.getClass.hashCode
+    }
+    lanes(Math.floorMod(partition, laneNum)).post(event)
+  }
+
+  /**
+   * current number of pending events of each lane.
+   */
+  def laneDepths: Array[Int] = lanes.map(_.depth)
+
+  /**
+   * total number of the events that have been dropped due to a full lane.
+   */
+  def droppedCount: Long = droppedCounter.get()
+
+  override def close(): Unit = lanes.foreach(_.interrupt())
+
+  /**
+   * a pending item of the lane, the coalesced events are referenced by key
+   * and resolved to the latest one when they are taken out from the lane.
+   */
+  private[this] sealed trait Pending
+
+  private[this] case class Plain(event: AnyRef) extends Pending
+
+  private[this] case class Coalesced(key: (Class[_], Long)) extends Pending
+
+  private[this] class Lane(index: Int) extends Thread(s"[StreamPark][flink-k8s]ChangeEventLane-$index") {
+
+    setDaemon(true)
+
+    private val lock = new ReentrantLock()
+
+    private val notEmpty = lock.newCondition()
+
+    private val notFull = lock.newCondition()
+
+    // the pending items and the latest coalesced events are guarded by the lock
+    private val queue = new util.ArrayDeque[Pending](laneCapacity)
+
+    private val latest = new util.HashMap[(Class[_], Long), AnyRef]()
+
+    def depth: Int = {
+      lock.lock()
+      try queue.size() finally lock.unlock()
+    }
+
+    def post(event: AnyRef): Unit = {
+      lock.lockInterruptibly()
+      try {
+        event match {
+          case e: BuildInEvent if e.trackId != null && ChangeEventDispatcher.isCoalescing(e) =>
+            val key: (Class[_], Long) = e.getClass -> e.trackId.appId
+            // the pending event of the same key has not been delivered yet, just replace it
+            if (latest.put(key, e) == null) {
+              while (queue.size() >= laneCapacity && !dropOldest()) {
+                // all pending events can not be dropped, wait for the lane to make progress
+                notFull.await()
+              }
+              enqueue(Coalesced(key))
+            }
+          case e =>
+            while (queue.size() >= laneCapacity) {
+              notFull.await()
+            }
+            enqueue(Plain(e))
+        }
+      } finally {
+        lock.unlock()
+      }
+    }
+
+    private def enqueue(pending: Pending): Unit = {
+      queue.addLast(pending)
+      notEmpty.signal()
+    }
+
+    /**
+     * drop the oldest coalesced event, return false if there is none. must be called with the lock held.
+     */
+    private def dropOldest(): Boolean = {
+      val iter = queue.iterator()
+      while (iter.hasNext) {
+        iter.next() match {
+          case Coalesced(key) =>
+            iter.remove()
+            latest.remove(key)
+            droppedCounter.incrementAndGet()
+            return true
+          case _ =>
+        }
+      }
+      false
+    }
+
+    private def take(): AnyRef = {
+      lock.lockInterruptibly()
+      try {
+        while (queue.isEmpty) {
+          notEmpty.await()
+        }
+        val event = queue.pollFirst() match {
+          case Plain(e) => e
+          case Coalesced(key) => latest.remove(key)
+        }
+        notFull.signal()
+        event
+      } finally {
+        lock.unlock()
+      }
+    }
+
+    override def run(): Unit = {
+      try {
+        while (!isInterrupted) {
+          val event = take()
+          if (event != null) {
+            Try(eventBus.post(event)).failed.foreach(e => logError(s"[flink-k8s] ChangeEventDispatcher fails to deliver event: $event", e))
+          }
+        }
+      } catch {
+        case _: InterruptedException => // the dispatcher is closed
+      }
+    }
+  }
+
+}
+
+object ChangeEventDispatcher {
+
+  val DEFAULT_LANE_NUM: Int = Math.max(2, Runtime.getRuntime.availableProcessors)
+
+  val DEFAULT_LANE_CAPACITY = 1024
+
+  /**
+   * whether only the latest event of the same job needs to be delivered.
+   */
+  def isCoalescing(event: BuildInEvent): Boolean = event match {
+    case _: FlinkClusterMetricChangeEvent | _: FlinkJobCheckpointChangeEvent => true
+    case _ => false
+  }
+
+}
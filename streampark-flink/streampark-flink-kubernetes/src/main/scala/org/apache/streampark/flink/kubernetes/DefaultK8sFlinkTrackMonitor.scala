@@ -43,16 +43,25 @@ class DefaultK8sFlinkTrackMonitor(conf: FlinkTrackConfig = FlinkTrackConfig.defa
   }
 
   // remote server tracking watcher
-  val k8sEventWatcher = new FlinkK8sEventWatcher()
   val jobStatusWatcher = new FlinkJobStatusWatcher(conf.jobStatusWatcherConf)
+  val k8sEventWatcher = new FlinkK8sEventWatcher(
+    if (conf.jobStatusWatcherConf.eventDriven) Some(jobStatusWatcher.notifyClusterChanged) else None
+  )
   val metricsWatcher = new FlinkMetricWatcher(conf.metricWatcherConf)
   val checkpointWatcher = new FlinkCheckpointWatcher(conf.metricWatcherConf)
 
   private[this] val allWatchers = Array[FlinkWatcher](k8sEventWatcher, jobStatusWatcher, metricsWatcher, checkpointWatcher)
 
+  // warm up the tracking state from the last snapshot
+  private[this] val snapshotter = new FlinkTrackSnapshotter(conf.snapshotConf)
+  snapshotter.restore()
+
   override def registerListener(listener: AnyRef): Unit = eventBus.registerListener(listener)
 
-  override def start(): Unit = allWatchers.foreach(_.start())
+  override def start(): Unit = {
+    allWatchers.foreach(_.start())
+    snapshotter.start()
+  }
 
   override def stop(): Unit = allWatchers.foreach(_.stop())
 
@@ -60,12 +69,15 @@ class DefaultK8sFlinkTrackMonitor(conf: FlinkTrackConfig = FlinkTrackConfig.defa
 
   override def close(): Unit = {
     allWatchers.foreach(_.close)
+    snapshotter.close()
     trackController.close()
+    eventBus.close()
   }
 
   def trackingJob(trackId: TrackId): Unit = {
     if (trackId.isLegal) {
       trackController.trackIds.set(trackId)
+      trackController.restoreJob(trackId)
     }
   }
 
@@ -73,6 +85,8 @@ class DefaultK8sFlinkTrackMonitor(conf: FlinkTrackConfig = FlinkTrackConfig.defa
     trackController.canceling.set(trackId)
   }
 
+  override def releaseJob(trackId: TrackId): Unit = trackController.release(trackId)
+
   override def isInTracking(trackId: TrackId): Boolean = trackController.isInTracking(trackId)
 
   override def getJobStatus(trackId: TrackId): Option[JobStatusCV] = Option(trackController.jobStatuses.get(trackId))
@@ -110,6 +124,10 @@ class DefaultK8sFlinkTrackMonitor(conf: FlinkTrackConfig = FlinkTrackConfig.defa
 
   @Nullable override def getRemoteRestUrl(trackId: TrackId): String = trackController.endpoints.get(trackId.toClusterKey)
 
+  override def getEventLaneDepths: Array[Int] = eventBus.laneDepths
+
+  override def getDroppedEventCount: Long = eventBus.droppedCount
+
   /**
    * Build-in Event Listener of K8sFlinkTrackMonitor.
    */
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.kubernetes
+
+import org.apache.hc.client5.http.async.methods.{SimpleHttpResponse, SimpleRequestBuilder}
+import org.apache.hc.client5.http.config.RequestConfig
+import org.apache.hc.client5.http.impl.async.{CloseableHttpAsyncClient, HttpAsyncClients}
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder
+import org.apache.hc.core5.concurrent.FutureCallback
+import org.apache.hc.core5.io.CloseMode
+import org.apache.hc.core5.util.{TimeValue, Timeout}
+import org.apache.streampark.common.util.Logger
+
+import java.io.{ByteArrayInputStream, IOException, InputStream}
+import java.util.concurrent.{Executor, ScheduledThreadPoolExecutor, ThreadFactory, TimeUnit, TimeoutException}
+import scala.concurrent.{ExecutionContext, Future, Promise}
+import scala.util.Try
+
+/**
+ * Shared asynchronous http client for requesting the flink rest api of the
+ * kubernetes-native clusters.
+ *
+ * The connections are pooled and kept alive per JobManager host, and the
+ * requests never block the caller thread: each request has a hard deadline
+ * after which the returned future fails with a TimeoutException.
+ *
+ * The response body is buffered in memory before it is parsed, the flink rest
+ * responses requested by the watchers are small json documents that the json4s
+ * parsers turn into a whole AST anyway.
+ */
+object FlinkRestClient extends Logger {
+
+  // max connections to a single flink JobManager
+  private val MAX_CONN_PER_ROUTE = 4
+  // max connections to all flink JobManagers
+  private val MAX_CONN_TOTAL = 512
+
+  private lazy val httpClient: CloseableHttpAsyncClient = {
+    val connManager = PoolingAsyncClientConnectionManagerBuilder.create()
+      .setMaxConnPerRoute(MAX_CONN_PER_ROUTE)
+      .setMaxConnTotal(MAX_CONN_TOTAL)
+      .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+      .build()
+    val client = HttpAsyncClients.custom()
+      .setConnectionManager(connManager)
+      .setDefaultRequestConfig(RequestConfig.custom()
+        .setConnectTimeout(Timeout.ofSeconds(KubernetesRetriever.FLINK_REST_AWAIT_TIMEOUT_SEC))
+        .setResponseTimeout(Timeout.ofSeconds(KubernetesRetriever.FLINK_CLIENT_TIMEOUT_SEC))
+        .build())
+      .evictIdleConnections(TimeValue.ofMinutes(1))
+      .build()
+    client.start()
+    sys.addShutdownHook(client.close(CloseMode.GRACEFUL))
+    client
+  }
+
+  private lazy val deadlineTimer: ScheduledThreadPoolExecutor = {
+    val timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory {
+      override def newThread(r: Runnable): Thread = {
+        val thread = new Thread(r, "[StreamPark][flink-k8s]FlinkRestClientTimer")
+        thread.setDaemon(true)
+        thread
+      }
+    })
+    timer.setRemoveOnCancelPolicy(true)
+    timer
+  }
+
+  // run the callbacks of the request future in the calling thread
+  private val callerThreadExecutor = ExecutionContext.fromExecutor(new Executor {
+    override def execute(command: Runnable): Unit = command.run()
+  })
+
+  /**
+   * Send a GET request to the flink rest api, and parse the response body by the given parser
+   * once the whole body has been received.
+   *
+   * @param url         request url
+   * @param deadlineSec the request would be cancelled when it's not completed within this deadline
+   * @param parser      parser of the buffered response body
+   */
+  def get[T](url: String, deadlineSec: Long = KubernetesRetriever.FLINK_CLIENT_TIMEOUT_SEC)(parser: InputStream => T): Future[T] = {
+    val promise = Promise[T]()
+    val request = SimpleRequestBuilder.get(url).build()
+    val future = httpClient.execute(request, new FutureCallback[SimpleHttpResponse] {
+      override def completed(response: SimpleHttpResponse): Unit = {
+        if (response.getCode >= 200 && response.getCode < 300) {
+          promise.tryComplete(Try(parser(new ByteArrayInputStream(Option(response.getBodyBytes).getOrElse(Array.empty[Byte])))))
+        } else {
+          promise.tryFailure(new IOException(s"[StreamPark] request flink rest api failed, url=$url, code=${response.getCode}"))
+        }
+      }
+
+      override def failed(ex: Exception): Unit = promise.tryFailure(ex)
+
+      override def cancelled(): Unit = {
+        promise.tryFailure(new TimeoutException(s"[StreamPark] request flink rest api timeout, url=$url, deadlineSec=$deadlineSec"))
+      }
+    })
+    val deadline = deadlineTimer.schedule(new Runnable {
+      override def run(): Unit = future.cancel(true)
+    }, deadlineSec, TimeUnit.SECONDS)
+    promise.future.onComplete(_ => deadline.cancel(false))(callerThreadExecutor)
+    promise.future
+  }
+
+}
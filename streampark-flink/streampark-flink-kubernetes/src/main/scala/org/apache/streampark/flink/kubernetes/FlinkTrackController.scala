@@ -22,6 +22,7 @@ import org.apache.streampark.common.util.Logger
 import org.apache.streampark.flink.kubernetes.model._
 
 import java.util.concurrent.TimeUnit
+import java.util.function.Predicate
 import scala.collection.JavaConversions._
 
 /**
@@ -46,6 +47,16 @@ class FlinkTrackController extends Logger with AutoCloseable {
   // cache for last each flink cluster metrics (such as a session cluster or a application cluster)
   lazy val flinkMetrics: MetricCache = MetricCache.build()
 
+  // cache for the last seen checkpoint of each flink job
+  lazy val checkpoints: CheckpointCache = CheckpointCache.build()
+
+  // cache for the job-manager configs of each flink cluster, see JmConfigCache for its invalidation
+  lazy val jmConfigs: JmConfigCache = JmConfigCache.build()
+
+  // job states restored from the snapshot, which are applied once the job is tracked again
+  private[this] lazy val restoredJobs: Cache[CacheKey, FlinkTrackSnapshot.JobEntry] =
+    Caffeine.newBuilder().expireAfterWrite(10, TimeUnit.MINUTES).build()
+
   override def close(): Unit = {
     jobStatuses.cleanUp()
     k8sDeploymentEvents.cleanUp()
@@ -72,10 +83,23 @@ class FlinkTrackController extends Logger with AutoCloseable {
       canceling.invalidate(trackId)
       jobStatuses.invalidate(trackId)
       flinkMetrics.invalidate(ClusterKey.of(trackId))
+      checkpoints.invalidate(trackId)
       IngressController.deleteIngress(trackId.clusterId, trackId.namespace)
     }
   }
 
+  /**
+   * drop the tracking state of the specified TrackId, but keep its ingress.
+   */
+  def release(trackId: TrackId): Unit = {
+    if (trackId.isLegal) {
+      trackIds.invalidate(trackId)
+      canceling.invalidate(trackId)
+      jobStatuses.invalidate(trackId)
+      checkpoints.invalidate(trackId)
+    }
+  }
+
   /**
    * collect all legal tracking ids, and covert to ClusterKey
    */
@@ -113,11 +137,70 @@ class FlinkTrackController extends Logger with AutoCloseable {
   def refreshClusterRestUrl(clusterKey: ClusterKey): Option[String] = {
     val restUrl = KubernetesRetriever.retrieveFlinkRestUrl(clusterKey)
     if (restUrl.nonEmpty) {
+      // a different endpoint means that the cluster has been redeployed
+      if (endpoints.get(clusterKey) != restUrl.get) {
+        jmConfigs.invalidate(clusterKey)
+      }
       endpoints.put(clusterKey, restUrl.get)
     }
     restUrl
   }
 
+  /**
+   * invalidate the cached rest url of flink cluster, together with the cluster metadata.
+   */
+  def invalidateClusterRestUrl(clusterKey: ClusterKey): Unit = {
+    endpoints.invalidate(clusterKey)
+    jmConfigs.invalidate(clusterKey)
+  }
+
+  /**
+   * take a snapshot of the cluster endpoints, metrics and the states of the tracking jobs.
+   */
+  def snapshot(): FlinkTrackSnapshot = {
+    val jmConfigMap = jmConfigs.asMap()
+    val metricMap = flinkMetrics.asMap()
+    val clusters = endpoints.asMap().map { case (clusterKey, restUrl) =>
+      FlinkTrackSnapshot.ClusterEntry(clusterKey, restUrl, jmConfigMap.get(clusterKey), metricMap.get(clusterKey))
+    }.toList
+    val jobs = collectAllTrackIds().toList.flatMap(trackId => {
+      Option(jobStatuses.get(trackId)).map(FlinkTrackSnapshot.JobEntry(trackId, _, Option(checkpoints.get(trackId))))
+    })
+    FlinkTrackSnapshot(System.currentTimeMillis, clusters, jobs)
+  }
+
+  /**
+   * restore the cluster endpoints and metrics from snapshot, the job states are kept
+   * aside and applied by [[restoreJob]] when the same job is tracked again.
+   */
+  def restore(snapshot: FlinkTrackSnapshot): Unit = {
+    snapshot.clusters.foreach(cluster => {
+      if (endpoints.get(cluster.clusterKey) == null) {
+        endpoints.put(cluster.clusterKey, cluster.restUrl)
+        cluster.jmConfig.foreach(jmConfigs.put(cluster.clusterKey, _))
+      }
+      cluster.metric.filter(_ => flinkMetrics.get(cluster.clusterKey) == null)
+        .foreach(flinkMetrics.put(cluster.clusterKey, _))
+    })
+    snapshot.jobs.foreach(job => restoredJobs.put(CacheKey(job.trackId.appId), job))
+  }
+
+  /**
+   * apply the job state restored from snapshot, only when the snapshot belongs to the same job.
+   */
+  def restoreJob(trackId: TrackId): Unit = {
+    val key = CacheKey(trackId.appId)
+    Option(restoredJobs.getIfPresent(key)).foreach(job => {
+      restoredJobs.invalidate(key)
+      val sameJob = job.trackId.toClusterKey == trackId.toClusterKey &&
+        (trackId.jobId == null || trackId.jobId == job.trackId.jobId)
+      if (sameJob && jobStatuses.get(trackId) == null) {
+        jobStatuses.put(trackId, job.jobStatus)
+        job.checkpoint.foreach(checkpoints.put(trackId, _))
+      }
+    })
+  }
+
 }
 
 //----cache----
@@ -188,6 +271,8 @@ class EndpointCache {
 
   def get(key: ClusterKey): String = cache.getIfPresent(key)
 
+  def asMap(): Map[ClusterKey, String] = cache.asMap().toMap
+
 }
 
 object EndpointCache {
@@ -236,3 +321,55 @@ object MetricCache {
   def build(): MetricCache = new MetricCache()
 
 }
+
+class CheckpointCache {
+
+  private[this] lazy val cache: Cache[CacheKey, CheckpointCV] = Caffeine.newBuilder().build()
+
+  def put(k: TrackId, v: CheckpointCV): Unit = cache.put(CacheKey(k.appId), v)
+
+  def get(k: TrackId): CheckpointCV = cache.getIfPresent(CacheKey(k.appId))
+
+  def invalidate(k: TrackId): Unit = cache.invalidate(CacheKey(k.appId))
+
+}
+
+object CheckpointCache {
+
+  def build(): CheckpointCache = new CheckpointCache()
+
+}
+
+/**
+ * The jm config of a cluster only changes when the cluster is redeployed, which may keep the same rest url.
+ * Besides the invalidation on the deployment events and on the failed requests, the entries expire in a short
+ * time, so that a missed redeployment is picked up within minutes.
+ */
+class JmConfigCache {
+
+  private[this] lazy val cache: Cache[ClusterKey, Map[String, String]] = Caffeine.newBuilder().expireAfterWrite(5, TimeUnit.MINUTES).build()
+
+  def put(k: ClusterKey, v: Map[String, String]): Unit = cache.put(k, v)
+
+  def get(key: ClusterKey): Map[String, String] = cache.getIfPresent(key)
+
+  def asMap(): Map[ClusterKey, Map[String, String]] = cache.asMap().toMap
+
+  def invalidate(key: ClusterKey): Unit = cache.invalidate(key)
+
+  /**
+   * invalidate the jm config of the cluster in every execute mode.
+   */
+  def invalidate(namespace: String, clusterId: String): Unit = {
+    cache.asMap().keySet().removeIf(new Predicate[ClusterKey] {
+      override def test(key: ClusterKey): Boolean = key.namespace == namespace && key.clusterId == clusterId
+    })
+  }
+
+}
+
+object JmConfigCache {
+
+  def build(): JmConfigCache = new JmConfigCache()
+
+}
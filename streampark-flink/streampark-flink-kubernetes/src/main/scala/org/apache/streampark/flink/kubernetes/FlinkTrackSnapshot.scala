@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.kubernetes
+
+import org.apache.streampark.common.util.{Logger, ThreadUtils}
+import org.apache.streampark.flink.kubernetes.enums.{FlinkJobState, FlinkK8sExecuteMode}
+import org.apache.streampark.flink.kubernetes.model.{CheckpointCV, ClusterKey, FlinkMetricCV, JobStatusCV, TrackId}
+import org.json4s.{DefaultFormats, JArray, JNothing, JNull, JObject, JValue}
+import org.json4s.JsonDSL._
+import org.json4s.jackson.JsonMethods.{compact, parse, render}
+
+import java.io.File
+import java.nio.charset.StandardCharsets
+import java.nio.file.{Files, StandardCopyOption}
+import java.util.concurrent.{Executors, ScheduledExecutorService, TimeUnit}
+import scala.util.{Failure, Success, Try}
+
+/**
+ * Snapshot of the derived state of [[FlinkTrackController]], which is used
+ * to warm up the tracking after restart instead of rediscovering the rest url
+ * of every flink cluster.
+ *
+ * The tracking identifiers are not part of the snapshot, they are still
+ * registered by the caller from its own source of truth.
+ */
+case class FlinkTrackSnapshot(time: Long,
+                              clusters: List[FlinkTrackSnapshot.ClusterEntry],
+                              jobs: List[FlinkTrackSnapshot.JobEntry])
+
+object FlinkTrackSnapshot extends Logger {
+
+  val VERSION = 1
+
+  // the snapshot older than this would be discarded
+  val MAX_AGE_MS: Long = TimeUnit.HOURS.toMillis(1)
+
+  case class ClusterEntry(clusterKey: ClusterKey,
+                          restUrl: String,
+                          jmConfig: Option[Map[String, String]],
+                          metric: Option[FlinkMetricCV])
+
+  case class JobEntry(trackId: TrackId, jobStatus: JobStatusCV, checkpoint: Option[CheckpointCV])
+
+  @transient
+  implicit lazy val formats: DefaultFormats.type = org.json4s.DefaultFormats
+
+  /**
+   * write the snapshot to file atomically.
+   */
+  def write(snapshot: FlinkTrackSnapshot, file: File): Unit = {
+    val json = ("version" -> VERSION) ~
+      ("time" -> snapshot.time) ~
+      ("clusters" -> snapshot.clusters.map(e =>
+        clusterKeyJson(e.clusterKey) ~
+          ("restUrl" -> e.restUrl) ~
+          ("jmConfig" -> e.jmConfig) ~
+          ("metric" -> e.metric.map(metricJson)))) ~
+      ("jobs" -> snapshot.jobs.map(e =>
+        ("trackId" -> trackIdJson(e.trackId)) ~
+          ("jobStatus" -> jobStatusJson(e.jobStatus)) ~
+          ("checkpoint" -> e.checkpoint.map(checkpointJson))))
+    Option(file.getParentFile).foreach(_.mkdirs())
+    val tmpFile = new File(file.getPath + ".tmp")
+    Files.write(tmpFile.toPath, compact(render(json)).getBytes(StandardCharsets.UTF_8))
+    Files.move(tmpFile.toPath, file.toPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE)
+  }
+
+  /**
+   * read the snapshot from file, the whole snapshot is discarded when it is
+   * out of date or in a different version, and the illegal entries are skipped.
+   */
+  def read(file: File): Option[FlinkTrackSnapshot] = {
+    if (!file.exists()) None else {
+      Try(parse(new String(Files.readAllBytes(file.toPath), StandardCharsets.UTF_8))) match {
+        case Success(json) =>
+          val version = (json \ "version").extractOpt[Int]
+          val time = (json \ "time").extractOpt[Long].getOrElse(0L)
+          if (!version.contains(VERSION) || System.currentTimeMillis - time > MAX_AGE_MS) {
+            logInfo(s"[flink-k8s] discard the out of date tracking snapshot, file=${file.getPath}")
+            None
+          } else {
+            val clusters = arrayOf(json \ "clusters").flatMap(x => Try {
+              val clusterKey = clusterKeyOf(x)
+              val restUrl = (x \ "restUrl").extract[String]
+              require(restUrl.startsWith("http://") || restUrl.startsWith("https://"), s"illegal rest url: $restUrl")
+              ClusterEntry(clusterKey, restUrl, (x \ "jmConfig").extractOpt[Map[String, String]], metricOf(x \ "metric"))
+            }.toOption)
+            val jobs = arrayOf(json \ "jobs").flatMap(x => Try {
+              val trackId = trackIdOf(x \ "trackId")
+              require(trackId.isLegal, s"illegal trackId: $trackId")
+              JobEntry(trackId, jobStatusOf(x \ "jobStatus"), checkpointOf(x \ "checkpoint"))
+            }.toOption)
+            Some(FlinkTrackSnapshot(time, clusters, jobs))
+          }
+        case Failure(e) =>
+          logWarn(s"[flink-k8s] failed to parse the tracking snapshot, file=${file.getPath}, error=${e.getMessage}")
+          None
+      }
+    }
+  }
+
+  private[this] def arrayOf(json: JValue): List[JValue] = json match {
+    case JArray(arr) => arr
+    case _ => List.empty
+  }
+
+  private[this] def clusterKeyJson(k: ClusterKey): JObject =
+    ("executeMode" -> k.executeMode.toString) ~ ("namespace" -> k.namespace) ~ ("clusterId" -> k.clusterId)
+
+  private[this] def clusterKeyOf(json: JValue): ClusterKey = ClusterKey(
+    FlinkK8sExecuteMode.withName((json \ "executeMode").extract[String]),
+    (json \ "namespace").extract[String],
+    (json \ "clusterId").extract[String])
+
+  private[this] def trackIdJson(t: TrackId): JObject =
+    clusterKeyJson(t.toClusterKey) ~ ("appId" -> t.appId) ~ ("jobId" -> Option(t.jobId))
+
+  private[this] def trackIdOf(json: JValue): TrackId = {
+    val clusterKey = clusterKeyOf(json)
+    TrackId(clusterKey.executeMode, clusterKey.namespace, clusterKey.clusterId,
+      (json \ "appId").extract[Long], (json \ "jobId").extractOpt[String].orNull)
+  }
+
+  private[this] def jobStatusJson(s: JobStatusCV): JObject =
+    ("jobState" -> s.jobState.toString) ~
+      ("jobId" -> Option(s.jobId)) ~
+      ("jobName" -> Option(s.jobName)) ~
+      ("jobStartTime" -> s.jobStartTime) ~
+      ("jobEndTime" -> s.jobEndTime) ~
+      ("duration" -> s.duration) ~
+      ("taskTotal" -> s.taskTotal) ~
+      ("pollEmitTime" -> s.pollEmitTime) ~
+      ("pollAckTime" -> s.pollAckTime)
+
+  private[this] def jobStatusOf(json: JValue): JobStatusCV = JobStatusCV(
+    jobState = FlinkJobState.withName((json \ "jobState").extract[String]),
+    jobId = (json \ "jobId").extractOpt[String].orNull,
+    jobName = (json \ "jobName").extractOpt[String].getOrElse(""),
+    jobStartTime = (json \ "jobStartTime").extractOpt[Long].getOrElse(-1),
+    jobEndTime = (json \ "jobEndTime").extractOpt[Long].getOrElse(-1),
+    duration = (json \ "duration").extractOpt[Long].getOrElse(0),
+    taskTotal = (json \ "taskTotal").extractOpt[Int].getOrElse(0),
+    pollEmitTime = (json \ "pollEmitTime").extract[Long],
+    pollAckTime = (json \ "pollAckTime").extract[Long])
+
+  private[this] def metricJson(m: FlinkMetricCV): JObject =
+    ("totalJmMemory" -> m.totalJmMemory.intValue) ~
+      ("totalTmMemory" -> m.totalTmMemory.intValue) ~
+      ("totalTm" -> m.totalTm.intValue) ~
+      ("totalSlot" -> m.totalSlot.intValue) ~
+      ("availableSlot" -> m.availableSlot.intValue) ~
+      ("runningJob" -> m.runningJob.intValue) ~
+      ("finishedJob" -> m.finishedJob.intValue) ~
+      ("cancelledJob" -> m.cancelledJob.intValue) ~
+      ("failedJob" -> m.failedJob.intValue) ~
+      ("pollAckTime" -> m.pollAckTime)
+
+  private[this] def metricOf(json: JValue): Option[FlinkMetricCV] = json match {
+    case JNothing | JNull => None
+    case x => Try(FlinkMetricCV(
+      (x \ "totalJmMemory").extract[Int],
+      (x \ "totalTmMemory").extract[Int],
+      (x \ "totalTm").extract[Int],
+      (x \ "totalSlot").extract[Int],
+      (x \ "availableSlot").extract[Int],
+      (x \ "runningJob").extract[Int],
+      (x \ "finishedJob").extract[Int],
+      (x \ "cancelledJob").extract[Int],
+      (x \ "failedJob").extract[Int],
+      (x \ "pollAckTime").extract[Long])).toOption
+  }
+
+  private[this] def checkpointJson(c: CheckpointCV): JObject =
+    ("id" -> c.id) ~
+      ("status" -> Option(c.status)) ~
+      ("externalPath" -> Option(c.externalPath)) ~
+      ("isSavepoint" -> c.isSavepoint) ~
+      ("checkpointType" -> Option(c.checkpointType)) ~
+      ("triggerTimestamp" -> c.triggerTimestamp)
+
+  private[this] def checkpointOf(json: JValue): Option[CheckpointCV] = json match {
+    case JNothing | JNull => None
+    case x => Try(CheckpointCV(
+      (x \ "id").extract[Long],
+      (x \ "status").extractOpt[String].orNull,
+      (x \ "externalPath").extractOpt[String].orNull,
+      (x \ "isSavepoint").extract[Boolean],
+      (x \ "checkpointType").extractOpt[String].orNull,
+      (x \ "triggerTimestamp").extract[Long])).toOption
+  }
+
+}
+
+/**
+ * Restore the [[FlinkTrackController]] from the snapshot at startup, write
+ * the snapshot periodically and on close.
+ */
+class FlinkTrackSnapshotter(conf: SnapshotConfig)(implicit val trackController: FlinkTrackController)
+  extends Logger with AutoCloseable {
+
+  private[this] lazy val file = new File(conf.path)
+
+  private[this] var timer: ScheduledExecutorService = _
+
+  def restore(): Unit = {
+    if (conf.enabled) {
+      Try(FlinkTrackSnapshot.read(file)) match {
+        case Success(Some(snapshot)) =>
+          trackController.restore(snapshot)
+          logInfo(s"[flink-k8s] restore tracking snapshot, clusters=${snapshot.clusters.size}, jobs=${snapshot.jobs.size}")
+        case Success(None) =>
+        case Failure(e) => logWarn(s"[flink-k8s] failed to restore tracking snapshot: ${e.getMessage}")
+      }
+    }
+  }
+
+  def start(): Unit = synchronized {
+    if (conf.enabled && timer == null) {
+      timer = Executors.newSingleThreadScheduledExecutor(ThreadUtils.threadFactory("streampark-flink-k8s-snapshot"))
+      timer.scheduleWithFixedDelay(new Runnable {
+        override def run(): Unit = write()
+      }, conf.intervalSec, conf.intervalSec, TimeUnit.SECONDS)
+    }
+  }
+
+  def write(): Unit = {
+    Try(FlinkTrackSnapshot.write(trackController.snapshot(), file)).failed.foreach(e =>
+      logWarn(s"[flink-k8s] failed to write tracking snapshot: ${e.getMessage}"))
+  }
+
+  override def close(): Unit = synchronized {
+    if (timer != null) {
+      timer.shutdownNow()
+      timer = null
+    }
+    if (conf.enabled) {
+      write()
+    }
+  }
+
+}
@@ -104,6 +104,13 @@ object IngressController extends Logger {
   }
 
   private[this] def determineThePodSurvivalStatus(name: String, nameSpace: String): Boolean = {
+    KubernetesInformerCache.getDeployment(nameSpace, name) match {
+      case Some(deployment) => deployment.isEmpty
+      case None => requestPodSurvivalStatus(name, nameSpace)
+    }
+  }
+
+  private[this] def requestPodSurvivalStatus(name: String, nameSpace: String): Boolean = {
     tryWithResource(KubernetesRetriever.newK8sClient()) { client =>
       Try {
         client.apps()
@@ -138,7 +145,17 @@ object IngressController extends Logger {
     }
   }
 
+  /**
+   * the informer only watches the ingresses labeled by flink native kubernetes, the ingresses
+   * created from the user templates may not carry the label, so any cache miss falls back to
+   * request the api server.
+   */
   def determineIfIngressExists(nameSpace: String, clusterId: String): Boolean = {
+    KubernetesInformerCache.getIngress(nameSpace, clusterId).flatten.isDefined ||
+      requestIngressExists(nameSpace, clusterId)
+  }
+
+  private[this] def requestIngressExists(nameSpace: String, clusterId: String): Boolean = {
     tryWithResource(KubernetesRetriever.newK8sClient()) { client =>
       Try {
         client.extensions.ingresses
@@ -74,6 +74,15 @@ trait K8sFlinkTrackMonitor extends Logger with AutoCloseable {
    */
   def unTrackingJob(trackId: TrackId): Unit
 
+  /**
+   * stop tracking the specified flink job on this monitor only, without
+   * touching the job itself or its kubernetes resources, so that another
+   * monitor instance can take it over.
+   *
+   * @param trackId identifier of flink job
+   */
+  def releaseJob(trackId: TrackId): Unit
+
   /**
    * check whether the specified flink job is in tracking.
    *
@@ -128,6 +137,16 @@ trait K8sFlinkTrackMonitor extends Logger with AutoCloseable {
    */
   @Nullable def getRemoteRestUrl(trackId: TrackId): String
 
+  /**
+   * current number of pending async change events of each dispatch lane.
+   */
+  def getEventLaneDepths: Array[Int]
+
+  /**
+   * total number of the async change events dropped due to a full dispatch lane.
+   */
+  def getDroppedEventCount: Long
+
 }
 
 /**
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.kubernetes
+
+import org.apache.streampark.common.util.Logger
+import io.fabric8.kubernetes.api.model.{HasMetadata, Pod}
+import io.fabric8.kubernetes.api.model.apps.Deployment
+import io.fabric8.kubernetes.api.model.networking.v1beta1.Ingress
+import io.fabric8.kubernetes.client.KubernetesClient
+import io.fabric8.kubernetes.client.dsl.Informable
+import io.fabric8.kubernetes.client.informers.{ResourceEventHandler, SharedIndexInformer}
+import io.fabric8.kubernetes.client.informers.cache.Cache
+
+import java.util.concurrent.TimeUnit
+import javax.annotation.concurrent.ThreadSafe
+import scala.collection.JavaConverters._
+import scala.util.{Failure, Success, Try}
+
+/**
+ * Shared informer cache of the flink-native-kubernetes resources.
+ *
+ * A single long-lived KubernetesClient keeps list-watching the Deployments,
+ * Pods and Ingresses labelled with "type=flink-native-kubernetes" across all
+ * namespaces, so that the hot lookups of the tracking watchers can be served
+ * from the local store instead of building a new client and issuing a LIST
+ * request on every call.
+ *
+ * The informers are started lazily on first access. When they can not be
+ * started (e.g. missing list/watch permission) or have not finished the initial
+ * sync yet, every accessor returns None and the caller should fall back to a
+ * direct request against the api-server.
+ */
+@ThreadSafe
+object KubernetesInformerCache extends Logger {
+
+  val FLINK_NATIVE_LABEL_KEY = "type"
+  val FLINK_NATIVE_LABEL_VALUE = "flink-native-kubernetes"
+
+  // resync period of the informers, 0 means never resync
+  private val RESYNC_PERIOD_MS = 0L
+  // interval before trying to start the informers again after a failure
+  private val RESTART_BACKOFF_MS = TimeUnit.SECONDS.toMillis(60)
+
+  @volatile private var client: KubernetesClient = _
+  @volatile private var deployments: SharedIndexInformer[Deployment] = _
+  @volatile private var pods: SharedIndexInformer[Pod] = _
+  @volatile private var ingresses: SharedIndexInformer[Ingress] = _
+  @volatile private var lastStartFailure = 0L
+
+  sys.addShutdownHook(close())
+
+  /**
+   * start the shared informers if they are not running yet.
+   *
+   * @return whether the informers are running.
+   */
+  def start(): Boolean = {
+    if (client != null) true else synchronized {
+      if (client != null) true
+      else if (System.currentTimeMillis - lastStartFailure < RESTART_BACKOFF_MS) false
+      else {
+        Try {
+          val k8sClient = KubernetesRetriever.newK8sClient()
+          Try {
+            deployments = inform(k8sClient.apps.deployments.inAnyNamespace
+              .withLabel(FLINK_NATIVE_LABEL_KEY, FLINK_NATIVE_LABEL_VALUE))
+            pods = inform(k8sClient.pods.inAnyNamespace
+              .withLabel(FLINK_NATIVE_LABEL_KEY, FLINK_NATIVE_LABEL_VALUE))
+            ingresses = inform(k8sClient.network.ingresses.inAnyNamespace
+              .withLabel(FLINK_NATIVE_LABEL_KEY, FLINK_NATIVE_LABEL_VALUE))
+          } match {
+            case Success(_) => client = k8sClient
+            case Failure(e) =>
+              stopInformers()
+              k8sClient.close()
+              throw e
+          }
+        } match {
+          case Success(_) =>
+            logInfo("[flink-k8s] KubernetesInformerCache started.")
+            true
+          case Failure(e) =>
+            lastStartFailure = System.currentTimeMillis
+            logWarn(s"[flink-k8s] KubernetesInformerCache fails to start, fallback to direct requests: ${e.getMessage}")
+            false
+        }
+      }
+    }
+  }
+
+  /**
+   * stop the shared informers and release the kubernetes client.
+   */
+  def close(): Unit = synchronized {
+    if (client != null) {
+      stopInformers()
+      Try(client.close())
+      client = null
+      logInfo("[flink-k8s] KubernetesInformerCache closed.")
+    }
+  }
+
+  /**
+   * whether the informers are connected to the kubernetes cluster.
+   */
+  def isWatching: Option[Boolean] = ready(deployments).map(_.isWatching)
+
+  /**
+   * get deployment from local cache.
+   *
+   * @return None when the cache is not available, Some(None) when the deployment does not exist.
+   */
+  def getDeployment(namespace: String, name: String): Option[Option[Deployment]] = {
+    ready(deployments).map(informer => Option(informer.getStore.getByKey(Cache.namespaceKeyFunc(namespace, name))))
+  }
+
+  /**
+   * get the pods which belong to the given deployment from local cache.
+   */
+  def getDeploymentPods(namespace: String, deploymentName: String): Option[List[Pod]] = {
+    for {
+      deployment <- getDeployment(namespace, deploymentName)
+      informer <- ready(pods)
+    } yield deployment match {
+      case None => List.empty[Pod]
+      case Some(deploy) =>
+        val selector = Option(deploy.getSpec.getSelector.getMatchLabels).map(_.asScala).getOrElse(Map.empty[String, String])
+        informer.getIndexer.byIndex(Cache.NAMESPACE_INDEX, namespace).asScala
+          .filter(pod => {
+            val labels = Option(pod.getMetadata.getLabels).map(_.asScala).getOrElse(Map.empty[String, String])
+            selector.forall { case (k, v) => labels.get(k).contains(v) }
+          }).toList
+    }
+  }
+
+  /**
+   * get ingress from local cache.
+   *
+   * @return None when the cache is not available, Some(None) when the ingress does not exist.
+   */
+  def getIngress(namespace: String, name: String): Option[Option[Ingress]] = {
+    ready(ingresses).map(informer => Option(informer.getStore.getByKey(Cache.namespaceKeyFunc(namespace, name))))
+  }
+
+  private[this] def ready[T <: HasMetadata](informer: => SharedIndexInformer[T]): Option[SharedIndexInformer[T]] = {
+    if (!start()) None else {
+      Option(informer).filter(_.hasSynced)
+    }
+  }
+
+  private[this] def inform[T <: HasMetadata](informable: Informable[T]): SharedIndexInformer[T] = {
+    informable.inform(new ResourceEventHandler[T] {
+      override def onAdd(obj: T): Unit = {}
+
+      override def onUpdate(oldObj: T, newObj: T): Unit = {}
+
+      override def onDelete(obj: T, deletedFinalStateUnknown: Boolean): Unit = {}
+    }, RESYNC_PERIOD_MS)
+  }
+
+  private[this] def stopInformers(): Unit = {
+    Seq(deployments, pods, ingresses).filter(_ != null).foreach(e => Try(e.stop()))
+    deployments = null
+    pods = null
+    ingresses = null
+  }
+
+}
@@ -103,12 +103,19 @@ object KubernetesRetriever extends Logger {
    * @param namespace deployment namespace
    */
   def isDeploymentExists(name: String, namespace: String): Boolean = {
+    KubernetesInformerCache.getDeployment(namespace, name) match {
+      case Some(deployment) => deployment.isDefined
+      case None => listDeploymentExists(name, namespace)
+    }
+  }
+
+  private[this] def listDeploymentExists(name: String, namespace: String): Boolean = {
     tryWithResource(KubernetesRetriever.newK8sClient()) {
       client =>
         client.apps()
           .deployments()
           .inNamespace(namespace)
-          .withLabel("type", "flink-native-kubernetes")
+          .withLabel(KubernetesInformerCache.FLINK_NATIVE_LABEL_KEY, KubernetesInformerCache.FLINK_NATIVE_LABEL_VALUE)
           .list()
           .getItems.asScala
           .exists(e => e.getMetadata.getName == name)
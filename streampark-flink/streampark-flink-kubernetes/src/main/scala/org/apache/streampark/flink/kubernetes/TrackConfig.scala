@@ -17,13 +17,18 @@
 
 package org.apache.streampark.flink.kubernetes
 
-import org.apache.streampark.common.conf.{InternalConfigHolder, K8sFlinkConfig}
+import org.apache.streampark.common.conf.{InternalConfigHolder, K8sFlinkConfig, Workspace}
+
+import scala.util.Try
 
 /**
  * @param jobStatusWatcherConf configuration for flink job status tracking process
  * @param metricWatcherConf    configuration for flink metric tracking process
+ * @param snapshotConf         configuration for the tracking state snapshot
  */
-case class FlinkTrackConfig(jobStatusWatcherConf: JobStatusWatcherConfig, metricWatcherConf: MetricWatcherConfig)
+case class FlinkTrackConfig(jobStatusWatcherConf: JobStatusWatcherConfig,
+                            metricWatcherConf: MetricWatcherConfig,
+                            snapshotConf: SnapshotConfig = SnapshotConfig.disabled)
 
 /**
  * configuration for FlinkMetricWatcher
@@ -39,10 +44,33 @@ case class MetricWatcherConfig(requestTimeoutSec: Long, requestIntervalSec: Long
  * @param requestTimeoutSec             run timeout of single tracking task
  * @param requestIntervalSec            interval seconds between two single tracking task
  * @param silentStateJobKeepTrackingSec retained tracking time for SILENT state flink tasks
+ * @param eventDriven                   whether to track job status driven by kubernetes watch events
+ * @param reconcileIntervalSec          interval seconds between two reconciliation task in event-driven mode
  */
 case class JobStatusWatcherConfig(requestTimeoutSec: Long,
                                   requestIntervalSec: Long,
-                                  silentStateJobKeepTrackingSec: Int)
+                                  silentStateJobKeepTrackingSec: Int,
+                                  eventDriven: Boolean = false,
+                                  reconcileIntervalSec: Long = 60) {
+
+  /**
+   * interval seconds between two polling task.
+   */
+  def pollingIntervalSec: Long = if (eventDriven) Math.max(reconcileIntervalSec, requestIntervalSec) else requestIntervalSec
+
+}
+
+/**
+ * configuration for FlinkTrackSnapshotter
+ *
+ * @param path        file path of the snapshot
+ * @param intervalSec interval seconds between two snapshots, the snapshot is disabled when less than or equal to 0
+ */
+case class SnapshotConfig(path: String, intervalSec: Long) {
+
+  def enabled: Boolean = intervalSec > 0 && path != null && path.nonEmpty
+
+}
 
 object FlinkTrackConfig {
   def defaultConf: FlinkTrackConfig = FlinkTrackConfig(
@@ -62,11 +90,20 @@ object FlinkTrackConfig {
     JobStatusWatcherConfig(
       InternalConfigHolder.get(K8sFlinkConfig.jobStatusTrackTaskTimeoutSec),
       InternalConfigHolder.get(K8sFlinkConfig.jobStatueTrackTaskIntervalSec),
-      InternalConfigHolder.get(K8sFlinkConfig.silentStateJobKeepTrackingSec)
+      InternalConfigHolder.get(K8sFlinkConfig.silentStateJobKeepTrackingSec),
+      InternalConfigHolder.get(K8sFlinkConfig.jobStatusTrackEventDriven),
+      InternalConfigHolder.get(K8sFlinkConfig.jobStatusTrackReconcileIntervalSec)
     ),
     MetricWatcherConfig(
       InternalConfigHolder.get(K8sFlinkConfig.metricTrackTaskTimeoutSec),
       InternalConfigHolder.get(K8sFlinkConfig.metricTrackTaskIntervalSec)
+    ),
+    SnapshotConfig(
+      Option(InternalConfigHolder.get[String](K8sFlinkConfig.trackSnapshotPath))
+        .filter(_.nonEmpty)
+        .orElse(Try(Workspace.FLINK_K8S_TRACKING_SNAPSHOT).toOption)
+        .orNull,
+      InternalConfigHolder.get(K8sFlinkConfig.trackSnapshotIntervalSec)
     )
   )
 
@@ -94,4 +131,6 @@ object MetricWatcherConfig {
     requestIntervalSec = 2)
 }
 
-
+object SnapshotConfig {
+  def disabled: SnapshotConfig = SnapshotConfig(path = null, intervalSec = 0)
+}
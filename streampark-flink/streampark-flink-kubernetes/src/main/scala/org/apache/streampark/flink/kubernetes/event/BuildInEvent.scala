@@ -17,6 +17,13 @@
 
 package org.apache.streampark.flink.kubernetes.event
 
+import org.apache.streampark.flink.kubernetes.model.TrackId
+
 trait BuildInEvent {
 
+  /**
+   * the tracking job this event belongs to.
+   */
+  def trackId: TrackId
+
 }
@@ -17,21 +17,24 @@
 
 package org.apache.streampark.flink.kubernetes.helper
 
-import com.google.common.base.Charsets
-import com.google.common.io.Files
 import org.apache.streampark.common.util.{Logger, SystemPropertyUtils}
 import org.apache.streampark.common.util.Utils.tryWithResource
-import org.apache.streampark.flink.kubernetes.KubernetesRetriever
+import org.apache.streampark.flink.kubernetes.{KubernetesInformerCache, KubernetesRetriever}
 import io.fabric8.kubernetes.api.model.Pod
 import io.fabric8.kubernetes.client.DefaultKubernetesClient
 
-import java.io.File
+import java.util.concurrent.CompletableFuture
 import scala.collection.JavaConversions._
 import scala.util.{Success, Try}
 
 object KubernetesDeploymentHelper extends Logger {
 
   private[this] def getPods(nameSpace: String, deploymentName: String): List[Pod] = {
+    KubernetesInformerCache.getDeploymentPods(nameSpace, deploymentName)
+      .getOrElse(listPods(nameSpace, deploymentName))
+  }
+
+  private[this] def listPods(nameSpace: String, deploymentName: String): List[Pod] = {
     tryWithResource(KubernetesRetriever.newK8sClient()) { client =>
       Try {
         client.pods.inNamespace(nameSpace)
@@ -72,36 +75,57 @@ object KubernetesDeploymentHelper extends Logger {
     }
   }
 
+  /**
+   * a watching informer proves the connection, otherwise probe the kubernetes client.
+   */
   def isTheK8sConnectionNormal(): Boolean = {
-    Try(new DefaultKubernetesClient) match {
-      case Success(client) =>
-        client.close()
-        true
-      case _ => false
+    KubernetesInformerCache.isWatching.filter(watching => watching).getOrElse {
+      Try(new DefaultKubernetesClient) match {
+        case Success(client) =>
+          client.close()
+          true
+        case _ => false
+      }
     }
   }
 
+  /**
+   * fetch the log of the deployment pods to the local file.
+   *
+   * @return the log file path
+   */
   def watchDeploymentLog(nameSpace: String, jobName: String, jobId: String): String = {
-    tryWithResource(KubernetesRetriever.newK8sClient()) { client =>
-      val path = KubernetesDeploymentHelper.getJobLog(jobId)
-      val file = new File(path)
-      val log = client.apps.deployments.inNamespace(nameSpace).withName(jobName).getLog
-      Files.asCharSink(file, Charsets.UTF_8).write(log)
-      path
-    }
+    KubernetesLogFetcher.fetch(nameSpace, getPodNames(nameSpace, jobName), getJobLog(jobId), terminated = false)
   }
 
+  /**
+   * fetch the log of the deployment pods to the local file on the log fetching executor.
+   */
+  def watchDeploymentLogAsync(nameSpace: String, jobName: String, jobId: String): CompletableFuture[String] = {
+    KubernetesLogFetcher.fetchAsync(nameSpace, getPodNames(nameSpace, jobName), getJobLog(jobId), terminated = false)
+  }
+
+  /**
+   * fetch the log of the terminated container of the deployment pod to the local file.
+   *
+   * @return the log file path, null if failed.
+   */
   def watchPodTerminatedLog(nameSpace: String, jobName: String, jobId: String): String = {
-    tryWithResource(KubernetesRetriever.newK8sClient()) { client =>
-      Try {
-        val podName = getPods(nameSpace, jobName).head.getMetadata.getName
-        val path = KubernetesDeploymentHelper.getJobErrorLog(jobId)
-        val file = new File(path)
-        val log = client.pods.inNamespace(nameSpace).withName(podName).terminated().withPrettyOutput.getLog
-        Files.asCharSink(file, Charsets.UTF_8).write(log)
-        path
-      }.getOrElse(null)
-    }(error => throw error)
+    Try {
+      KubernetesLogFetcher.fetch(nameSpace, getPodNames(nameSpace, jobName).take(1), getJobErrorLog(jobId), terminated = true)
+    }.getOrElse(null)
+  }
+
+  /**
+   * fetch the log of the terminated container of the deployment pod to the local file
+   * on the log fetching executor.
+   */
+  def watchPodTerminatedLogAsync(nameSpace: String, jobName: String, jobId: String): CompletableFuture[String] = {
+    KubernetesLogFetcher.fetchAsync(nameSpace, getPodNames(nameSpace, jobName).take(1), getJobErrorLog(jobId), terminated = true)
+  }
+
+  private[this] def getPodNames(nameSpace: String, deploymentName: String): List[String] = {
+    getPods(nameSpace, deploymentName).map(_.getMetadata.getName)
   }
 
   def deleteTaskConfigMap(nameSpace: String, deploymentName: String): Boolean = {
@@ -116,7 +140,7 @@ object KubernetesDeploymentHelper extends Logger {
     }
   }
 
-  private[kubernetes] def getJobLog(jobId: String): String = {
+  def getJobLog(jobId: String): String = {
     val tmpPath = SystemPropertyUtils.getTmpdir()
     s"$tmpPath/$jobId.log"
   }
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.kubernetes.helper
+
+import com.google.common.io.CountingOutputStream
+import io.fabric8.kubernetes.client.KubernetesClient
+import org.apache.streampark.common.conf.{InternalConfigHolder, K8sFlinkConfig}
+import org.apache.streampark.common.util.{Logger, ThreadUtils}
+import org.apache.streampark.common.util.Utils.tryWithResource
+import org.apache.streampark.flink.kubernetes.KubernetesRetriever
+
+import java.io.{BufferedOutputStream, Closeable, File, FileOutputStream, OutputStreamWriter, Reader, Writer}
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.charset.StandardCharsets
+import java.nio.file.{Files, StandardCopyOption, StandardOpenOption}
+import java.util.concurrent.{CompletableFuture, ConcurrentHashMap, LinkedBlockingQueue, RejectedExecutionException, ThreadPoolExecutor, TimeUnit}
+import java.util.function.{BiConsumer, Supplier, Function => JavaFunction}
+
+/**
+ * Fetch the logs of flink-k8s job pods to the local file.
+ *
+ * The logs are streamed from kubernetes to the file chunk by chunk, only the
+ * last [[K8sFlinkConfig.logMaxBytes]] bytes are kept, and optionally limited to the last
+ * [[K8sFlinkConfig.logTailLines]] lines, so that a huge log of a failed job
+ * would never be loaded into the console heap as a whole.
+ * The asynchronous fetches run on a small bounded executor, and the concurrent
+ * fetches of the same file share one running task.
+ */
+object KubernetesLogFetcher extends Logger {
+
+  private val BUFFER_SIZE = 8192
+
+  private val executor = new ThreadPoolExecutor(
+    2, 2, 60L, TimeUnit.SECONDS,
+    new LinkedBlockingQueue[Runnable](64),
+    ThreadUtils.threadFactory("streampark-k8s-log-fetcher"))
+
+  private val fetching = new ConcurrentHashMap[String, CompletableFuture[String]]()
+
+  def maxBytes: Long = InternalConfigHolder.get[Long](K8sFlinkConfig.logMaxBytes)
+
+  def tailLines: Int = InternalConfigHolder.get[Int](K8sFlinkConfig.logTailLines)
+
+  /**
+   * fetch the logs of the given pods to the file asynchronously.
+   *
+   * @param terminated fetch the logs of the previous terminated containers
+   * @return future of the log file path, it fails when too many fetches are queued.
+   */
+  def fetchAsync(nameSpace: String, podNames: => Seq[String], path: String, terminated: Boolean): CompletableFuture[String] = {
+    val future = fetching.computeIfAbsent(path, new JavaFunction[String, CompletableFuture[String]] {
+      override def apply(path: String): CompletableFuture[String] = {
+        try {
+          CompletableFuture.supplyAsync(new Supplier[String] {
+            override def get(): String = fetch(nameSpace, podNames, path, terminated)
+          }, executor)
+        } catch {
+          case e: RejectedExecutionException =>
+            logWarn(s"too many kubernetes log fetching tasks, skip fetching the log of $path")
+            val failed = new CompletableFuture[String]()
+            failed.completeExceptionally(e)
+            failed
+        }
+      }
+    })
+    future.whenComplete(new BiConsumer[String, Throwable] {
+      override def accept(t: String, u: Throwable): Unit = fetching.remove(path, future)
+    })
+    future
+  }
+
+  /**
+   * fetch the logs of the given pods to the file, the logs of multiple pods are
+   * appended one by one, and only the last maxBytes of the whole log are kept.
+   *
+   * @return the log file path
+   */
+  def fetch(nameSpace: String, podNames: Seq[String], path: String, terminated: Boolean): String = {
+    val tail = tailLines
+    tryWithResource(KubernetesRetriever.newK8sClient()) { client =>
+      val segments = new TailSegments(path, maxBytes)
+      try {
+        podNames.foreach(podName => {
+          tryWithResource(logReader(client, nameSpace, podName, terminated, tail))(segments.append)
+        })
+        segments.writeTo(new File(path))
+      } finally {
+        segments.close()
+      }
+      path
+    }
+  }
+
+  private[this] def logReader(client: KubernetesClient,
+                              nameSpace: String,
+                              podName: String,
+                              terminated: Boolean,
+                              tail: Int): Reader = {
+    val pod = client.pods.inNamespace(nameSpace).withName(podName)
+    if (terminated) {
+      val loggable = pod.terminated()
+      (if (tail > 0) loggable.tailingLines(tail) else loggable).withPrettyOutput.getLogReader
+    } else {
+      (if (tail > 0) pod.tailingLines(tail) else pod).getLogReader
+    }
+  }
+
+  /**
+   * Keep the tail of a log stream of unknown length within the limit bytes.
+   *
+   * The log is written to two rolling segment files of at most limit bytes each,
+   * when the current segment is full it becomes the previous one, so the disk usage
+   * is bounded by twice of the limit while streaming, and the last limit bytes of the
+   * log are always held by the two segments.
+   */
+  private[this] class TailSegments(path: String, limit: Long) extends Closeable {
+
+    private val previous = new File(s"$path.prev")
+
+    private val current = new File(s"$path.part")
+
+    private var rotated = false
+
+    private var counter: CountingOutputStream = _
+
+    private var writer: Writer = _
+
+    open()
+
+    private def open(): Unit = {
+      counter = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(current)))
+      writer = new OutputStreamWriter(counter, StandardCharsets.UTF_8)
+    }
+
+    def append(reader: Reader): Unit = {
+      val buffer = new Array[Char](BUFFER_SIZE)
+      var len = reader.read(buffer)
+      while (len != -1) {
+        writer.write(buffer, 0, len)
+        writer.flush()
+        if (counter.getCount >= limit) {
+          rotate()
+        }
+        len = reader.read(buffer)
+      }
+    }
+
+    private def rotate(): Unit = {
+      writer.close()
+      Files.move(current.toPath, previous.toPath, StandardCopyOption.REPLACE_EXISTING)
+      rotated = true
+      open()
+    }
+
+    /**
+     * write the last limit bytes of the log to the target file, the truncated head is
+     * cut at the line boundary and replaced by a truncation marker.
+     */
+    def writeTo(target: File): Unit = {
+      writer.close()
+      val temp = new File(s"$path.tmp")
+      if (!rotated) {
+        Files.move(current.toPath, temp.toPath, StandardCopyOption.REPLACE_EXISTING)
+      } else {
+        tryWithResource(FileChannel.open(temp.toPath,
+          StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) { out =>
+          out.write(ByteBuffer.wrap(s"... log truncated, only the last $limit bytes are kept ...\n".getBytes(StandardCharsets.UTF_8)))
+          tryWithResource(FileChannel.open(previous.toPath, StandardOpenOption.READ)) { prev =>
+            val from = nextLineStart(prev, math.max(0L, prev.size() + current.length() - limit))
+            transfer(prev, from, out)
+          }
+          tryWithResource(FileChannel.open(current.toPath, StandardOpenOption.READ))(transfer(_, 0L, out))
+        }
+      }
+      Files.move(temp.toPath, target.toPath, StandardCopyOption.REPLACE_EXISTING)
+    }
+
+    private def nextLineStart(channel: FileChannel, position: Long): Long = {
+      if (position == 0) return 0
+      val buffer = ByteBuffer.allocate(BUFFER_SIZE)
+      var pos = position
+      while (pos < channel.size()) {
+        buffer.clear()
+        val len = channel.read(buffer, pos)
+        val found = (0 until len).find(buffer.get(_) == '\n')
+        if (found.isDefined) return pos + found.get + 1
+        pos += len
+      }
+      pos
+    }
+
+    private def transfer(from: FileChannel, position: Long, to: FileChannel): Unit = {
+      var pos = position
+      while (pos < from.size()) {
+        pos += from.transferTo(pos, from.size() - pos, to)
+      }
+    }
+
+    override def close(): Unit = {
+      writer.close()
+      current.delete()
+      previous.delete()
+    }
+  }
+
+}
@@ -20,16 +20,15 @@ package org.apache.streampark.flink.kubernetes.watcher
 import org.apache.streampark.common.util.Logger
 import org.apache.streampark.flink.kubernetes.event.FlinkJobCheckpointChangeEvent
 import org.apache.streampark.flink.kubernetes.model.{CheckpointCV, ClusterKey, TrackId}
-import org.apache.streampark.flink.kubernetes.{ChangeEventBus, FlinkTrackController, KubernetesRetriever, MetricWatcherConfig}
-import org.apache.hc.client5.http.fluent.Request
-import org.apache.hc.core5.util.Timeout
+import org.apache.streampark.flink.kubernetes.{ChangeEventBus, FlinkRestClient, FlinkTrackController, MetricWatcherConfig}
 import org.json4s.JsonAST.JNothing
 import org.json4s.jackson.JsonMethods.parse
-import org.json4s.{DefaultFormats, JNull}
+import org.json4s.{DefaultFormats, JNull, JsonInput, StreamInput, StringInput}
 
-import java.nio.charset.StandardCharsets
-import java.util.concurrent.{Executors, ScheduledFuture, TimeUnit}
+import java.io.InputStream
+import java.util.concurrent.{ConcurrentHashMap, Executors, ScheduledFuture, TimeUnit}
 import javax.annotation.concurrent.ThreadSafe
+import scala.collection.JavaConverters._
 import scala.concurrent.duration.DurationLong
 import scala.concurrent.{Await, ExecutionContext, ExecutionContextExecutorService, Future}
 import scala.language.postfixOps
@@ -43,6 +42,12 @@ class FlinkCheckpointWatcher(conf: MetricWatcherConfig = MetricWatcherConfig.def
   private val trackTaskExecPool = Executors.newWorkStealingPool()
   private implicit val trackTaskExecutor: ExecutionContextExecutorService = ExecutionContext.fromExecutorService(trackTaskExecPool)
 
+  // upper bound of the checkpoint polling interval, so that a manually triggered savepoint would not be missed for too long
+  private val MAX_POLL_INTERVAL_MS = TimeUnit.MINUTES.toMillis(5)
+
+  // checkpoint polling schedule of each tracking job
+  private val pollSchedules = new ConcurrentHashMap[TrackId, CheckpointPollSchedule]()
+
   private val timerExec = Executors.newSingleThreadScheduledExecutor()
   private var timerSchedule: ScheduledFuture[_] = _
 
@@ -77,24 +82,33 @@ class FlinkCheckpointWatcher(conf: MetricWatcherConfig = MetricWatcherConfig.def
   override def doWatch(): Unit = {
     // get all legal tracking cluster key
     val trackIds: Set[TrackId] = Try(trackController.collectTracks()).filter(_.nonEmpty).getOrElse(return)
-    // retrieve flink metrics in thread pool
-    val futures: Set[Future[Option[CheckpointCV]]] =
-      trackIds.map(id => {
-        val future = Future(collect(id))
+    // drop the poll schedules of the untracked jobs
+    pollSchedules.keySet.retainAll(trackIds.asJava)
+    // only poll the jobs whose checkpoint interval has elapsed since the last poll
+    val now = System.currentTimeMillis
+    val pollingIds = trackIds.filter(id => Option(pollSchedules.get(id)).forall(_.nextPollTime <= now))
+    // retrieve flink checkpoints asynchronously, the job whose previous request
+    // is still running would be skipped in this tick.
+    pollingIds.foreach(id => {
+      watchIfIdle(id, conf.requestTimeoutSec, () => {
+        logError(s"[FlinkCheckpointWatcher] tracking flink-job checkpoint on kubernetes mode timeout," +
+          s" limitSeconds=${conf.requestTimeoutSec}," +
+          s" trackId=$id")
+      }) {
+        val future = collectAsync(id)
         future onComplete (_.getOrElse(None) match {
-          case Some(cp) => eventBus.postAsync(FlinkJobCheckpointChangeEvent(id, cp))
+          case Some(cp) =>
+            // only post the new or changed checkpoint
+            val latest = trackController.checkpoints.get(id)
+            if (latest == null || latest != cp) {
+              trackController.checkpoints.put(id, cp)
+              eventBus.postAsync(FlinkJobCheckpointChangeEvent(id, cp))
+            }
           case _ =>
         })
         future
-      })
-
-    // blocking until all future are completed or timeout is reached
-    Try(Await.ready(Future.sequence(futures), conf.requestTimeoutSec seconds))
-      .failed.map { _ =>
-      logError(s"[FlinkCheckpointWatcher] tracking flink-job checkpoint on kubernetes mode timeout," +
-        s" limitSeconds=${conf.requestTimeoutSec}," +
-        s" trackingClusterKeys=${trackIds.mkString(",")}")
-    }
+      }
+    })
   }
 
   /**
@@ -104,31 +118,78 @@ class FlinkCheckpointWatcher(conf: MetricWatcherConfig = MetricWatcherConfig.def
    *
    */
   def collect(trackId: TrackId): Option[CheckpointCV] = {
-    if (trackId.jobId != null) {
-      val flinkJmRestUrl = trackController.getClusterRestUrl(ClusterKey.of(trackId)).filter(_.nonEmpty).getOrElse(return None)
-      // call flink rest overview api
-      val checkpoint: Checkpoint = Try(
-        Checkpoint.as(
-          Request.get(s"$flinkJmRestUrl/jobs/${trackId.jobId}/checkpoints")
-            .connectTimeout(Timeout.ofSeconds(KubernetesRetriever.FLINK_REST_AWAIT_TIMEOUT_SEC))
-            .responseTimeout(Timeout.ofSeconds(KubernetesRetriever.FLINK_CLIENT_TIMEOUT_SEC))
-            .execute.returnContent.asString(StandardCharsets.UTF_8)
-        ) match {
-          case Some(c) => c
-          case _ => return None
-        }
-      ).getOrElse(return None)
-
-      val checkpointCV = CheckpointCV(
-        id = checkpoint.id,
-        externalPath = checkpoint.externalPath,
-        isSavepoint = checkpoint.isSavepoint,
-        checkpointType = checkpoint.checkpointType,
-        status = checkpoint.status,
-        triggerTimestamp = checkpoint.triggerTimestamp
-      )
-      Some(checkpointCV)
-    } else None
+    Try(Await.ready(collectAsync(trackId), conf.requestTimeoutSec seconds))
+      .toOption
+      .flatMap(_.value)
+      .flatMap(_.getOrElse(None))
+  }
+
+  private def collectAsync(trackId: TrackId): Future[Option[CheckpointCV]] = {
+    if (trackId.jobId == null) Future.successful(None) else {
+      Future(trackController.getClusterRestUrl(ClusterKey.of(trackId)).filter(_.nonEmpty)).flatMap {
+        case None => Future.successful(None)
+        case Some(flinkJmRestUrl) =>
+          val scheduleFuture = schedulePoll(trackId, flinkJmRestUrl)
+          // call flink rest checkpoints api
+          FlinkRestClient.get(s"$flinkJmRestUrl/jobs/${trackId.jobId}/checkpoints")(Checkpoint.as)
+            .map(_.map(checkpoint =>
+              CheckpointCV(
+                id = checkpoint.id,
+                externalPath = checkpoint.externalPath,
+                isSavepoint = checkpoint.isSavepoint,
+                checkpointType = checkpoint.checkpointType,
+                status = checkpoint.status,
+                triggerTimestamp = checkpoint.triggerTimestamp
+              )))
+            .zipWith(scheduleFuture)((checkpoint, _) => checkpoint)
+      }.recover { case _ => None }
+    }
+  }
+
+  /**
+   * Schedule the next checkpoint polling of the flink job according to its checkpoint
+   * interval, which is only requested once for each tracking job.
+   */
+  private def schedulePoll(trackId: TrackId, flinkJmRestUrl: String): Future[Unit] = {
+    val intervalFuture = Option(pollSchedules.get(trackId)).flatMap(_.checkpointInterval) match {
+      case Some(interval) => Future.successful(Some(interval))
+      case None =>
+        FlinkRestClient.get(s"$flinkJmRestUrl/jobs/${trackId.jobId}/checkpoints/config")(CheckpointConfig.as)
+          .map(_.map(_.interval))
+          .recover { case _ => None }
+    }
+    intervalFuture.map { interval =>
+      val minInterval = TimeUnit.SECONDS.toMillis(conf.requestIntervalSec)
+      val pollInterval = interval.map(e => math.min(math.max(e, minInterval), MAX_POLL_INTERVAL_MS)).getOrElse(minInterval)
+      pollSchedules.put(trackId, CheckpointPollSchedule(interval, System.currentTimeMillis + pollInterval))
+    }
+  }
+
+}
+
+/**
+ * checkpoint polling schedule of a flink job.
+ *
+ * @param checkpointInterval checkpoint interval of flink job in milliseconds, None when it's unknown
+ * @param nextPollTime       the earliest time of the next polling
+ */
+private[kubernetes] case class CheckpointPollSchedule(checkpointInterval: Option[Long], nextPollTime: Long)
+
+/**
+ * bean for response message of flink-rest/jobs/:jobid/checkpoints/config
+ */
+private[kubernetes] case class CheckpointConfig(interval: Long)
+
+object CheckpointConfig {
+
+  @transient
+  implicit lazy val formats: DefaultFormats.type = org.json4s.DefaultFormats
+
+  def as(json: InputStream): Option[CheckpointConfig] = {
+    Try(parse(new StreamInput(json))) match {
+      case Success(ok) => (ok \ "interval").extractOpt[Long].filter(_ > 0).map(CheckpointConfig(_))
+      case Failure(_) => None
+    }
   }
 
 }
@@ -146,7 +207,11 @@ object Checkpoint {
   @transient
   implicit lazy val formats: DefaultFormats.type = org.json4s.DefaultFormats
 
-  def as(json: String): Option[Checkpoint] = {
+  def as(json: String): Option[Checkpoint] = as(new StringInput(json))
+
+  def as(json: InputStream): Option[Checkpoint] = as(new StreamInput(json))
+
+  private def as(json: JsonInput): Option[Checkpoint] = {
     Try(parse(json)) match {
       case Success(ok) =>
         val completed = ok \ "latest" \ "completed"
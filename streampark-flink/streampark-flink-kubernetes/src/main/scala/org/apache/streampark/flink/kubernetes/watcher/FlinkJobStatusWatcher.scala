@@ -27,18 +27,16 @@ import org.apache.streampark.flink.kubernetes.enums.FlinkJobState
 import org.apache.streampark.flink.kubernetes.enums.FlinkK8sExecuteMode.{APPLICATION, SESSION}
 import org.apache.streampark.flink.kubernetes.event.FlinkJobStatusChangeEvent
 import org.apache.streampark.flink.kubernetes.model._
-import org.apache.streampark.flink.kubernetes.{ChangeEventBus, FlinkTrackController, IngressController, JobStatusWatcherConfig, KubernetesRetriever}
+import org.apache.streampark.flink.kubernetes.{ChangeEventBus, FlinkRestClient, FlinkTrackController, IngressController, JobStatusWatcherConfig, KubernetesRetriever}
 import org.apache.streampark.flink.kubernetes.helper.KubernetesDeploymentHelper
-import org.apache.hc.client5.http.fluent.Request
-import org.apache.hc.core5.util.Timeout
 import org.apache.streampark.common.conf.Workspace
-import org.json4s.{DefaultFormats, JNothing, JNull}
+import org.json4s.{DefaultFormats, JNothing, JNull, JsonInput, StreamInput, StringInput}
 import org.json4s.JsonAST.JArray
 import org.json4s.jackson.JsonMethods.parse
 
-import java.io.File
-import java.nio.charset.StandardCharsets
-import java.util.concurrent.{Executors, ScheduledFuture, TimeUnit}
+import java.io.{File, InputStream}
+import java.util.concurrent.{ConcurrentHashMap, Executors, ScheduledFuture, TimeUnit}
+import java.util.function.BiConsumer
 import javax.annotation.Nonnull
 import javax.annotation.concurrent.ThreadSafe
 import scala.concurrent.duration.DurationLong
@@ -62,14 +60,20 @@ class FlinkJobStatusWatcher(conf: JobStatusWatcherConfig = JobStatusWatcherConfi
   private implicit val trackTaskExecutor: ExecutionContextExecutorService = ExecutionContext.fromExecutorService(trackTaskExecPool)
 
   private val timerExec = Executors.newSingleThreadScheduledExecutor()
-  private var timerSchedule: ScheduledFuture[_] = _
+  @volatile private var timerSchedule: ScheduledFuture[_] = _
+
+  // debounce delay of the event-driven tracking requests
+  private val NOTIFY_DEBOUNCE_MS = 200L
+
+  // clusters (namespace, clusterId) that have a pending event-driven tracking request
+  private val pendingClusters = ConcurrentHashMap.newKeySet[(String, String)]()
 
   /**
    * stop watcher process
    */
   override def doStart(): Unit = {
-    timerSchedule = timerExec.scheduleAtFixedRate(() => doWatch(), 0, conf.requestIntervalSec, TimeUnit.SECONDS)
-    logInfo("[flink-k8s] FlinkJobStatusWatcher started.")
+    timerSchedule = timerExec.scheduleAtFixedRate(() => doWatch(), 0, conf.pollingIntervalSec, TimeUnit.SECONDS)
+    logInfo(s"[flink-k8s] FlinkJobStatusWatcher started, eventDriven=${conf.eventDriven}, pollingIntervalSec=${conf.pollingIntervalSec}.")
   }
 
   /**
@@ -78,6 +82,7 @@ class FlinkJobStatusWatcher(conf: JobStatusWatcherConfig = JobStatusWatcherConfi
   override def doStop(): Unit = {
     // interrupt all running threads
     timerSchedule.cancel(true)
+    timerSchedule = null
     logInfo("[flink-k8s] FlinkJobStatusWatcher stopped.")
   }
 
@@ -94,52 +99,82 @@ class FlinkJobStatusWatcher(conf: JobStatusWatcherConfig = JobStatusWatcherConfi
    * single flink job status tracking task
    */
   override def doWatch(): Unit = {
-    this.synchronized {
-      logInfo("[FlinkJobStatusWatcher]: Status monitoring process begins - " + Thread.currentThread().getName)
-      // get all legal tracking ids
-      val trackIds = Try(trackController.collectAllTrackIds()).filter(_.nonEmpty).getOrElse(return)
-
-      // retrieve flink job status in thread pool
-      val tracksFuture: Set[Future[Option[JobStatusCV]]] = trackIds.map { id =>
-
-        val future = Future {
-          id.executeMode match {
-            case SESSION => touchSessionJob(id)
-            case APPLICATION => touchApplicationJob(id)
-          }
-        }
+    logInfo("[FlinkJobStatusWatcher]: Status monitoring process begins - " + Thread.currentThread().getName)
+    // get all legal tracking ids
+    val trackIds = Try(trackController.collectAllTrackIds()).filter(_.nonEmpty).getOrElse(return)
+
+    // retrieve flink job status asynchronously, the remote cluster is requested only once
+    // per tick and the result is fanned out to all of its tracking ids as soon as it completes.
+    // A cluster whose previous request is still running would be skipped in this tick, so that
+    // a slow cluster would not delay the tracking of the others.
+    trackIds.groupBy(_.toClusterKey).foreach {
+      case (clusterKey, ids) =>
+        watchIfIdle(clusterKey, conf.requestTimeoutSec, () => {
+          logInfo(s"[FlinkJobStatusWatcher] tracking flink job status on kubernetes mode timeout," +
+            s" limitSeconds=${conf.requestTimeoutSec}," +
+            s" clusterKey=$clusterKey")
+        })(watchClusterJobs(clusterKey, ids))
+    }
+    logInfo("[FlinkJobStatusWatcher]: End of status monitoring process - " + Thread.currentThread().getName)
+  }
 
-        future onComplete (_.getOrElse(None) match {
-          case Some(jobState) =>
-            val trackId = id.copy(jobId = jobState.jobId)
-            val latest: JobStatusCV = trackController.jobStatuses.get(trackId)
-            if (latest == null || latest.jobState != jobState.jobState || latest.jobId != jobState.jobId) {
-              // put job status to cache
-              trackController.jobStatuses.put(trackId, jobState)
-              // set jobId to trackIds
-              trackController.trackIds.update(trackId)
-              eventBus.postSync(FlinkJobStatusChangeEvent(trackId, jobState))
-            }
-            if (FlinkJobState.isEndState(jobState.jobState)) {
-              // remove trackId from cache of job that needs to be untracked
-              trackController.unTracking(trackId)
-              if (trackId.executeMode == APPLICATION) {
-                trackController.endpoints.invalidate(trackId.toClusterKey)
-              }
-            }
-          case _ =>
-        })
-        future
-      }
+  /**
+   * Request the status of the tracking jobs belong to the given cluster, and update the result to cache.
+   */
+  private def watchClusterJobs(clusterKey: ClusterKey, ids: Set[TrackId]): Future[Map[TrackId, JobStatusCV]] = {
+    val future = clusterKey.executeMode match {
+      case SESSION => touchSessionJobsAsync(clusterKey, ids)
+      case APPLICATION =>
+        Future.sequence(ids.map(id => touchApplicationJobAsync(id).map(_.map(id -> _)))).map(_.flatten.toMap)
+    }
+    future onComplete (_.getOrElse(Map.empty[TrackId, JobStatusCV]).foreach {
+      case (id, jobState) => updateJobStatus(id, jobState)
+    })
+    future
+  }
+
+  /**
+   * Notify that the kubernetes resources of the flink cluster have changed, which
+   * triggers an immediate status tracking of the jobs in the cluster. Notifications
+   * of the same cluster within the debounce delay are merged into one request.
+   *
+   * This is the entry of the event-driven tracking mode, and it's safe to be
+   * called from the kubernetes watch threads.
+   */
+  def notifyClusterChanged(namespace: String, clusterId: String): Unit = {
+    if (timerSchedule != null && pendingClusters.add(namespace -> clusterId)) {
+      Try(timerExec.schedule(new Runnable {
+        override def run(): Unit = {
+          pendingClusters.remove(namespace -> clusterId)
+          Try(trackController.collectAllTrackIds())
+            .getOrElse(Set.empty[TrackId])
+            .filter(id => id.namespace == namespace && id.clusterId == clusterId)
+            .groupBy(_.toClusterKey)
+            .foreach { case (clusterKey, ids) => watchClusterJobs(clusterKey, ids) }
+        }
+      }, NOTIFY_DEBOUNCE_MS, TimeUnit.MILLISECONDS)).failed.foreach(_ => pendingClusters.remove(namespace -> clusterId))
+    }
+  }
 
-      // blocking until all future are completed or timeout is reached
-      Try(Await.ready(Future.sequence(tracksFuture), conf.requestTimeoutSec seconds))
-        .failed.map { _ =>
-        logInfo(s"[FlinkJobStatusWatcher] tracking flink job status on kubernetes mode timeout," +
-          s" limitSeconds=${conf.requestTimeoutSec}," +
-          s" trackIds=${trackIds.mkString(",")}")
+  /**
+   * Write the polled job status to cache and post the change event when the status changes.
+   */
+  private def updateJobStatus(id: TrackId, jobState: JobStatusCV): Unit = {
+    val trackId = id.copy(jobId = jobState.jobId)
+    val latest: JobStatusCV = trackController.jobStatuses.get(trackId)
+    if (latest == null || latest.jobState != jobState.jobState || latest.jobId != jobState.jobId) {
+      // put job status to cache
+      trackController.jobStatuses.put(trackId, jobState)
+      // set jobId to trackIds
+      trackController.trackIds.update(trackId)
+      eventBus.postSync(FlinkJobStatusChangeEvent(trackId, jobState))
+    }
+    if (FlinkJobState.isEndState(jobState.jobState)) {
+      // remove trackId from cache of job that needs to be untracked
+      trackController.unTracking(trackId)
+      if (trackId.executeMode == APPLICATION) {
+        trackController.invalidateClusterRestUrl(trackId.toClusterKey)
       }
-      logInfo("[FlinkJobStatusWatcher]: End of status monitoring process - " + Thread.currentThread().getName)
     }
   }
 
@@ -152,46 +187,35 @@ class FlinkJobStatusWatcher(conf: JobStatusWatcherConfig = JobStatusWatcherConfi
    * current cachePool result.
    */
   def touchSessionJob(@Nonnull trackId: TrackId): Option[JobStatusCV] = {
-    val pollEmitTime = System.currentTimeMillis
-    val clusterId = trackId.clusterId
-    val namespace = trackId.namespace
-    val appId = trackId.appId
-    val jobId = trackId.jobId
-
-    val rsMap = touchSessionAllJob(clusterId, namespace, appId).toMap
-    val id = TrackId.onSession(namespace, clusterId, appId, jobId)
-    val jobState = rsMap.get(id).filter(_.jobState != FlinkJobState.SILENT).getOrElse {
-      val preCache = trackController.jobStatuses.get(id)
-      val state = inferSilentOrLostFromPreCache(preCache)
-      val nonFirstSilent = state == FlinkJobState.SILENT && preCache != null && preCache.jobState == FlinkJobState.SILENT
-      if (nonFirstSilent) {
-        JobStatusCV(jobState = state, jobId = id.jobId, pollEmitTime = preCache.pollEmitTime, pollAckTime = preCache.pollAckTime)
-      } else {
-        JobStatusCV(jobState = state, jobId = id.jobId, pollEmitTime = pollEmitTime, pollAckTime = System.currentTimeMillis)
-      }
-    }
-
-    Some(jobState)
+    awaitResult(touchSessionJobsAsync(trackId.toClusterKey, Set(trackId))).flatMap(_.get(trackId))
   }
 
   /**
-   * Get all flink job status information from kubernetes-native-session cluster.
-   * The empty array will returned when the k8s-client or flink-cluster-client
-   * request fails.
-   *
-   * This method can be called directly from outside, without affecting the
-   * current cachePool result.
+   * Get flink status information of the given jobs from the same kubernetes-native-session
+   * cluster, the jobs overview of the cluster is requested only once for all of them.
+   * When the flink-cluster-client request fails, the job state would be LOST or SILENT.
    */
-  protected[kubernetes] def touchSessionAllJob(@Nonnull clusterId: String, @Nonnull namespace: String, @Nonnull appId: Long): Array[(TrackId, JobStatusCV)] = {
-    lazy val defaultResult = Array.empty[(TrackId, JobStatusCV)]
+  protected[kubernetes] def touchSessionJobsAsync(@Nonnull clusterKey: ClusterKey,
+                                                  @Nonnull trackIds: Set[TrackId]): Future[Map[TrackId, JobStatusCV]] = {
     val pollEmitTime = System.currentTimeMillis
-    val jobDetails = listJobsDetails(ClusterKey(SESSION, namespace, clusterId)).getOrElse(return defaultResult).jobs
-    if (jobDetails.isEmpty) {
-      defaultResult
-    } else {
-      jobDetails.map { d =>
-        TrackId.onSession(namespace, clusterId, appId, d.jid) -> d.toJobStatusCV(pollEmitTime, System.currentTimeMillis)
-      }
+    listJobsDetails(clusterKey).map { details =>
+      val jobDetails = details.map(_.jobs).getOrElse(Array.empty[JobDetail])
+      val pollAckTime = System.currentTimeMillis
+      val rsMap = jobDetails.map(d => d.jid -> d.toJobStatusCV(pollEmitTime, pollAckTime)).toMap
+
+      trackIds.map { id =>
+        val jobState = rsMap.get(id.jobId).filter(_.jobState != FlinkJobState.SILENT).getOrElse {
+          val preCache = trackController.jobStatuses.get(id)
+          val state = inferSilentOrLostFromPreCache(preCache)
+          val nonFirstSilent = state == FlinkJobState.SILENT && preCache != null && preCache.jobState == FlinkJobState.SILENT
+          if (nonFirstSilent) {
+            JobStatusCV(jobState = state, jobId = id.jobId, pollEmitTime = preCache.pollEmitTime, pollAckTime = preCache.pollAckTime)
+          } else {
+            JobStatusCV(jobState = state, jobId = id.jobId, pollEmitTime = pollEmitTime, pollAckTime = System.currentTimeMillis)
+          }
+        }
+        id -> jobState
+      }.toMap
     }
   }
 
@@ -204,51 +228,59 @@ class FlinkJobStatusWatcher(conf: JobStatusWatcherConfig = JobStatusWatcherConfi
    * current cachePool result.
    */
   def touchApplicationJob(@Nonnull trackId: TrackId): Option[JobStatusCV] = {
+    awaitResult(touchApplicationJobAsync(trackId)).flatten
+  }
+
+  /**
+   * blocking until the future is completed or timeout is reached, None when it fails.
+   */
+  private def awaitResult[T](future: Future[T]): Option[T] = {
+    Try(Await.ready(future, conf.requestTimeoutSec seconds)).toOption.flatMap(_.value).flatMap(_.toOption)
+  }
+
+  private def touchApplicationJobAsync(@Nonnull trackId: TrackId): Future[Option[JobStatusCV]] = {
     implicit val pollEmitTime: Long = System.currentTimeMillis
     val clusterId = trackId.clusterId
     val namespace = trackId.namespace
-    val jobDetails = listJobsDetails(ClusterKey(APPLICATION, namespace, clusterId))
-    if (jobDetails.isEmpty || jobDetails.get.jobs.isEmpty) {
-      inferApplicationFlinkJobStateFromK8sEvent(trackId)
-    } else {
-      Some(jobDetails.get.jobs.head.toJobStatusCV(pollEmitTime, System.currentTimeMillis))
+    listJobsDetails(ClusterKey(APPLICATION, namespace, clusterId)).map { jobDetails =>
+      if (jobDetails.isEmpty || jobDetails.get.jobs.isEmpty) {
+        inferApplicationFlinkJobStateFromK8sEvent(trackId)
+      } else {
+        Some(jobDetails.get.jobs.head.toJobStatusCV(pollEmitTime, System.currentTimeMillis))
+      }
     }
   }
 
   /**
    * list flink jobs details
    */
-  private def listJobsDetails(clusterKey: ClusterKey): Option[JobDetails] = {
+  private def listJobsDetails(clusterKey: ClusterKey): Future[Option[JobDetails]] = {
     // get flink rest api
-    Try {
-      val clusterRestUrl = trackController.getClusterRestUrl(clusterKey).filter(_.nonEmpty).getOrElse(return None)
+    Future(trackController.getClusterRestUrl(clusterKey).filter(_.nonEmpty)).flatMap {
       // list flink jobs from rest api
-      callJobsOverviewsApi(clusterRestUrl)
-    }.getOrElse {
-      logger.warn("Failed to visit remote flink jobs on kubernetes-native-mode cluster, and the retry access logic is performed.")
-      val clusterRestUrl = trackController.refreshClusterRestUrl(clusterKey).getOrElse(return None)
-      Try(callJobsOverviewsApi(clusterRestUrl)) match {
-        case Success(s) =>
-          logger.info("The retry is successful.")
-          s
-        case Failure(e) =>
-          logger.warn(s"The retry fetch failed, final status failed, errorStack=${e.getMessage}.")
-          None
-      }
+      case Some(clusterRestUrl) => callJobsOverviewsApi(clusterRestUrl)
+      case None => Future.successful(None)
+    }.recoverWith {
+      case _ =>
+        logger.warn("Failed to visit remote flink jobs on kubernetes-native-mode cluster, and the retry access logic is performed.")
+        Future(trackController.refreshClusterRestUrl(clusterKey)).flatMap {
+          case Some(clusterRestUrl) => callJobsOverviewsApi(clusterRestUrl)
+          case None => Future.successful(None)
+        }.andThen {
+          case Success(_) => logger.info("The retry is successful.")
+        }.recover {
+          case e =>
+            logger.warn(s"The retry fetch failed, final status failed, errorStack=${e.getMessage}.")
+            None
+        }
     }
   }
 
   /**
    * list flink jobs details from rest api
    */
-  private def callJobsOverviewsApi(restUrl: String): Option[JobDetails] = {
-    val jobDetails = JobDetails.as(
-      Request.get(s"$restUrl/jobs/overview")
-        .connectTimeout(Timeout.ofSeconds(KubernetesRetriever.FLINK_REST_AWAIT_TIMEOUT_SEC))
-        .responseTimeout(Timeout.ofSeconds(KubernetesRetriever.FLINK_CLIENT_TIMEOUT_SEC))
-        .execute.returnContent().asString(StandardCharsets.UTF_8)
-    )
-    jobDetails
+  private def callJobsOverviewsApi(restUrl: String): Future[Option[JobDetails]] = {
+    FlinkRestClient.get(s"$restUrl/jobs/overview")(JobDetails.as)
   }
 
   /**
@@ -275,9 +307,17 @@ class FlinkJobStatusWatcher(conf: JobStatusWatcherConfig = JobStatusWatcherConfi
             FlinkJobState.K8S_INITIALIZING
           } else if (isConnection) {
             logger.info("Enter the task failure deletion process.")
-            KubernetesDeploymentHelper.watchPodTerminatedLog(trackId.namespace, trackId.clusterId, trackId.jobId)
-            KubernetesDeploymentHelper.deleteTaskDeployment(trackId.namespace, trackId.clusterId)
-            IngressController.deleteIngress(trackId.namespace, trackId.clusterId)
+            // fetch the terminated log off the tracking thread, the deployment is deleted after that.
+            KubernetesDeploymentHelper.watchPodTerminatedLogAsync(trackId.namespace, trackId.clusterId, trackId.jobId)
+              .whenComplete(new BiConsumer[String, Throwable] {
+                override def accept(path: String, error: Throwable): Unit = {
+                  if (error != null) {
+                    logger.warn(s"Failed to fetch the terminated log of ${trackId.clusterId}: ${error.getMessage}")
+                  }
+                  KubernetesDeploymentHelper.deleteTaskDeployment(trackId.namespace, trackId.clusterId)
+                  IngressController.deleteIngress(trackId.namespace, trackId.clusterId)
+                }
+              })
             FlinkJobState.FAILED
           } else {
             inferSilentOrLostFromPreCache(latest)
@@ -383,7 +423,11 @@ private[kubernetes] object JobDetails {
   @transient
   implicit lazy val formats: DefaultFormats.type = org.json4s.DefaultFormats
 
-  def as(json: String): Option[JobDetails] = {
+  def as(json: String): Option[JobDetails] = as(new StringInput(json))
+
+  def as(json: InputStream): Option[JobDetails] = as(new StreamInput(json))
+
+  private def as(json: JsonInput): Option[JobDetails] = {
 
     Try(parse(json)) match {
       case Success(ok) =>
@@ -20,11 +20,14 @@ package org.apache.streampark.flink.kubernetes.watcher
 import org.apache.streampark.common.util.Logger
 import org.apache.streampark.flink.kubernetes.model.{K8sDeploymentEventCV, K8sEventKey}
 import org.apache.streampark.flink.kubernetes.{FlinkTrackController, KubernetesRetriever}
+import io.fabric8.kubernetes.api.model.{ConfigMap, Pod}
 import io.fabric8.kubernetes.api.model.apps.Deployment
-import io.fabric8.kubernetes.client.{KubernetesClient, Watcher}
-import org.apache.flink.kubernetes.kubeclient.resources.{CompKubernetesDeployment, CompatibleKubernetesWatcher}
+import io.fabric8.kubernetes.client.{KubernetesClient, Watch, Watcher}
+import org.apache.flink.kubernetes.kubeclient.resources.{CompKubernetesDeployment, CompatibleKubernetesWatcher, KubernetesConfigMap, KubernetesPod}
 
+import java.util.concurrent.ConcurrentHashMap
 import javax.annotation.concurrent.ThreadSafe
+import scala.collection.JavaConverters._
 import scala.util.Try
 
 /**
@@ -32,12 +35,23 @@ import scala.util.Try
  * Currently only flink-native-application mode events would be tracked.
  * The results of traced events would written into cachePool.
  *
+ * When the clusterChangedListener is given (event-driven tracking mode), the
+ * changes of the flink JobManager pods and the HA ConfigMaps would also be
+ * watched, and every relevant change of a flink cluster is notified to the
+ * listener with (namespace, clusterId).
+ *
  */
 @ThreadSafe
-class FlinkK8sEventWatcher(implicit trackController: FlinkTrackController) extends Logger with FlinkWatcher {
+class FlinkK8sEventWatcher(clusterChangedListener: Option[(String, String) => Unit] = None)
+                          (implicit trackController: FlinkTrackController) extends Logger with FlinkWatcher {
 
   private var k8sClient: KubernetesClient = _
 
+  private var watches: List[Watch] = Nil
+
+  // digest of the HA ConfigMap data (excluding checkpoint pointers) by (namespace, name)
+  private val haConfigMapDigests = new ConcurrentHashMap[(String, String), Integer]()
+
   /**
    * start watcher process
    */
@@ -54,6 +68,9 @@ class FlinkK8sEventWatcher(implicit trackController: FlinkTrackController) exten
    * stop watcher process
    */
   override def doStop(): Unit = {
+    watches.foreach(w => Try(w.close()))
+    watches = Nil
+    haConfigMapDigests.clear()
     k8sClient.close()
     k8sClient = null
     logInfo("[flink-k8s] FlinkK8sEventWatcher stopped.")
@@ -65,13 +82,33 @@ class FlinkK8sEventWatcher(implicit trackController: FlinkTrackController) exten
 
   override def doWatch(): Unit = {
     // watch k8s deployment events
-    k8sClient.apps().deployments()
+    watches ::= k8sClient.apps().deployments()
       .withLabel("type", "flink-native-kubernetes")
       .watch(new CompatibleKubernetesWatcher[Deployment, CompKubernetesDeployment] {
         override def eventReceived(action: Watcher.Action, event: Deployment): Unit = {
           handleDeploymentEvent(action, event)
         }
       })
+    if (clusterChangedListener.nonEmpty) {
+      // watch k8s jobmanager pod events
+      watches ::= k8sClient.pods()
+        .withLabel("type", "flink-native-kubernetes")
+        .withLabel("component", "jobmanager")
+        .watch(new CompatibleKubernetesWatcher[Pod, KubernetesPod] {
+          override def eventReceived(action: Watcher.Action, event: Pod): Unit = {
+            handlePodEvent(action, event)
+          }
+        })
+      // watch flink HA configmap events
+      watches ::= k8sClient.configMaps()
+        .withLabel("type", "flink-native-kubernetes")
+        .withLabel("configmap-type", "high-availability")
+        .watch(new CompatibleKubernetesWatcher[ConfigMap, KubernetesConfigMap] {
+          override def eventReceived(action: Watcher.Action, event: ConfigMap): Unit = {
+            handleHaConfigMapEvent(action, event)
+          }
+        })
+    }
   }
 
   private def handleDeploymentEvent(action: Watcher.Action, event: Deployment): Unit = {
@@ -84,6 +121,42 @@ class FlinkK8sEventWatcher(implicit trackController: FlinkTrackController) exten
       K8sEventKey(namespace, clusterId),
       K8sDeploymentEventCV(action, event, System.currentTimeMillis())
     )
+    // the cluster is (re)deployed or removed, its jm config may differ even if the rest url stays the same
+    if (action == Watcher.Action.ADDED || action == Watcher.Action.DELETED) {
+      trackController.jmConfigs.invalidate(namespace, clusterId)
+    }
+    notifyClusterChanged(namespace, clusterId)
+  }
+
+  private def handlePodEvent(action: Watcher.Action, event: Pod): Unit = {
+    // the pod is labelled with app=clusterId by flink native-k8s
+    Option(event.getMetadata.getLabels).flatMap(e => Option(e.get("app"))).foreach { clusterId =>
+      notifyClusterChanged(event.getMetadata.getNamespace, clusterId)
+    }
+  }
+
+  private def handleHaConfigMapEvent(action: Watcher.Action, event: ConfigMap): Unit = {
+    val namespace = event.getMetadata.getNamespace
+    val key = namespace -> event.getMetadata.getName
+    // the leader lease renewal only updates the annotations, and the checkpoint
+    // pointers change on every checkpoint, both of which are ignored here.
+    val changed = action match {
+      case Watcher.Action.DELETED =>
+        haConfigMapDigests.remove(key)
+        true
+      case _ =>
+        val digest = Option(event.getData).map(_.asScala.filterKeys(k => !k.startsWith("checkpointID-") && k != "counter").hashCode).getOrElse(0)
+        haConfigMapDigests.put(key, digest) != Integer.valueOf(digest)
+    }
+    if (changed) {
+      Option(event.getMetadata.getLabels).flatMap(e => Option(e.get("app"))).foreach { clusterId =>
+        notifyClusterChanged(namespace, clusterId)
+      }
+    }
+  }
+
+  private def notifyClusterChanged(namespace: String, clusterId: String): Unit = {
+    clusterChangedListener.foreach(listener => Try(listener(namespace, clusterId)))
   }
 
 }
@@ -20,14 +20,12 @@ package org.apache.streampark.flink.kubernetes.watcher
 import org.apache.streampark.common.util.Logger
 import org.apache.streampark.flink.kubernetes.event.FlinkClusterMetricChangeEvent
 import org.apache.streampark.flink.kubernetes.model.{ClusterKey, FlinkMetricCV, TrackId}
-import org.apache.streampark.flink.kubernetes.{ChangeEventBus, FlinkTrackController, KubernetesRetriever, MetricWatcherConfig}
+import org.apache.streampark.flink.kubernetes.{ChangeEventBus, FlinkRestClient, FlinkTrackController, MetricWatcherConfig}
 import org.apache.flink.configuration.{JobManagerOptions, MemorySize, TaskManagerOptions}
-import org.apache.hc.client5.http.fluent.Request
-import org.apache.hc.core5.util.Timeout
 import org.json4s.jackson.JsonMethods.parse
-import org.json4s.{DefaultFormats, JArray}
+import org.json4s.{DefaultFormats, JArray, JsonInput, StreamInput, StringInput}
 
-import java.nio.charset.StandardCharsets
+import java.io.InputStream
 import java.util.concurrent.{Executors, ScheduledFuture, TimeUnit}
 import javax.annotation.concurrent.ThreadSafe
 import scala.concurrent.duration.DurationLong
@@ -44,6 +42,9 @@ class FlinkMetricWatcher(conf: MetricWatcherConfig = MetricWatcherConfig.default
   private val trackTaskExecPool = Executors.newWorkStealingPool()
   private implicit val trackTaskExecutor: ExecutionContextExecutorService = ExecutionContext.fromExecutorService(trackTaskExecPool)
 
+  // jm config items that used to calculate the cluster metrics
+  private val TRACKED_JM_CONFIG_KEYS = Set(TaskManagerOptions.TOTAL_PROCESS_MEMORY.key, JobManagerOptions.TOTAL_PROCESS_MEMORY.key)
+
   private val timerExec = Executors.newSingleThreadScheduledExecutor()
   private var timerSchedule: ScheduledFuture[_] = _
 
@@ -78,32 +79,31 @@ class FlinkMetricWatcher(conf: MetricWatcherConfig = MetricWatcherConfig.default
   override def doWatch(): Unit = {
     // get all legal tracking cluster key
     val trackIds: Set[TrackId] = Try(trackController.collectTracks()).filter(_.nonEmpty).getOrElse(return)
-    // retrieve flink metrics in thread pool
-    val futures: Set[Future[Option[FlinkMetricCV]]] =
-      trackIds.map(id => {
-        val future = Future(collectMetrics(id))
-        future onComplete (_.getOrElse(None) match {
-          case Some(metric) =>
-            val clusterKey = id.toClusterKey
-            // update current flink cluster metrics on cache
-            trackController.flinkMetrics.put(clusterKey, metric)
-            val isMetricChanged = {
-              val preMetric = trackController.flinkMetrics.get(clusterKey)
-              preMetric == null || !preMetric.equalsPayload(metric)
-            }
-            if (isMetricChanged) {
-              eventBus.postAsync(FlinkClusterMetricChangeEvent(id, metric))
-            }
-          case _ =>
-        })
-        future
-      })
-    // blocking until all future are completed or timeout is reached
-    Try(Await.ready(Future.sequence(futures), conf.requestTimeoutSec seconds))
-      .failed.map { _ =>
-      logError(s"[FlinkMetricWatcher] tracking flink metrics on kubernetes mode timeout," +
-        s" limitSeconds=${conf.requestTimeoutSec}," +
-        s" trackingClusterKeys=${trackIds.mkString(",")}")
+    // retrieve flink metrics asynchronously, one request per cluster per tick, and the
+    // cluster whose previous request is still running would be skipped in this tick.
+    trackIds.groupBy(_.toClusterKey).foreach {
+      case (clusterKey, ids) =>
+        watchIfIdle(clusterKey, conf.requestTimeoutSec, () => {
+          logError(s"[FlinkMetricWatcher] tracking flink metrics on kubernetes mode timeout," +
+            s" limitSeconds=${conf.requestTimeoutSec}," +
+            s" clusterKey=$clusterKey")
+        }) {
+          val future = collectMetricsAsync(clusterKey)
+          future onComplete (_.getOrElse(None) match {
+            case Some(metric) =>
+              val isMetricChanged = {
+                val preMetric = trackController.flinkMetrics.get(clusterKey)
+                preMetric == null || !preMetric.equalsPayload(metric)
+              }
+              // update current flink cluster metrics on cache
+              trackController.flinkMetrics.put(clusterKey, metric)
+              if (isMetricChanged) {
+                ids.foreach(id => eventBus.postAsync(FlinkClusterMetricChangeEvent(id, metric)))
+              }
+            case _ =>
+          })
+          future
+        }
     }
   }
 
@@ -115,30 +115,54 @@ class FlinkMetricWatcher(conf: MetricWatcherConfig = MetricWatcherConfig.default
    * This method can be called directly from outside, without affecting the
    * current cachePool result.
    */
-  def collectMetrics(id: TrackId): Option[FlinkMetricCV] = {
+  def collectMetrics(id: TrackId): Option[FlinkMetricCV] = collectMetrics(ClusterKey.of(id))
+
+  /**
+   * Collect flink runtime metrics from the given kubernetes-native cluster.
+   */
+  def collectMetrics(clusterKey: ClusterKey): Option[FlinkMetricCV] = {
+    Try(Await.ready(collectMetricsAsync(clusterKey), conf.requestTimeoutSec seconds))
+      .toOption
+      .flatMap(_.value)
+      .flatMap(_.getOrElse(None))
+  }
+
+  private def collectMetricsAsync(clusterKey: ClusterKey): Future[Option[FlinkMetricCV]] = {
     // get flink rest api
-    val clusterKey: ClusterKey = ClusterKey.of(id)
-    val flinkJmRestUrl = trackController.getClusterRestUrl(clusterKey).filter(_.nonEmpty).getOrElse(return None)
-
-    // call flink rest overview api
-    val flinkOverview: FlinkRestOverview = FlinkRestOverview.as(
-      Request.get(s"$flinkJmRestUrl/overview")
-        .connectTimeout(Timeout.ofSeconds(KubernetesRetriever.FLINK_REST_AWAIT_TIMEOUT_SEC))
-        .responseTimeout(Timeout.ofSeconds(KubernetesRetriever.FLINK_CLIENT_TIMEOUT_SEC))
-        .execute.returnContent.asString(StandardCharsets.UTF_8)
-    ).getOrElse(return None)
-
-    // call flink rest jm config api
-    val flinkJmConfigs = Try(
-      FlinkRestJmConfigItem
-        .as(Request.get(s"$flinkJmRestUrl/jobmanager/config")
-          .connectTimeout(Timeout.ofSeconds(KubernetesRetriever.FLINK_REST_AWAIT_TIMEOUT_SEC))
-          .responseTimeout(Timeout.ofSeconds(KubernetesRetriever.FLINK_CLIENT_TIMEOUT_SEC))
-          .execute.returnContent.asString(StandardCharsets.UTF_8)
-        ).map(e => (e.key, e.value))
-        .toMap
-    ).getOrElse(return None)
+    Future(trackController.getClusterRestUrl(clusterKey).filter(_.nonEmpty)).flatMap {
+      case None => Future.successful(None)
+      case Some(flinkJmRestUrl) =>
+        // call flink rest overview api
+        val overviewFuture = FlinkRestClient.get(s"$flinkJmRestUrl/overview")(FlinkRestOverview.as)
+        // the jm config would not change during the lifetime of the cluster, so it's only requested
+        // once until the cluster is redeployed, a request fails, or the cached config expires.
+        val jmConfigsFuture = Option(trackController.jmConfigs.get(clusterKey)) match {
+          case Some(configs) => Future.successful(Some(configs))
+          case None =>
+            // call flink rest jm config api
+            FlinkRestClient.get(s"$flinkJmRestUrl/jobmanager/config")(FlinkRestJmConfigItem.as).map { items =>
+              val configs = items.filter(e => TRACKED_JM_CONFIG_KEYS.contains(e.key)).map(e => (e.key, e.value)).toMap
+              trackController.jmConfigs.put(clusterKey, configs)
+              Some(configs)
+            }.recover { case _ => None }
+        }
+        for {
+          overview <- overviewFuture.recover { case _ => None }
+          jmConfigs <- jmConfigsFuture
+        } yield {
+          if (overview.isEmpty) {
+            // the cluster may be restarting, request the jm config again once it's back
+            trackController.jmConfigs.invalidate(clusterKey)
+          }
+          for {
+            flinkOverview <- overview
+            flinkJmConfigs <- jmConfigs
+          } yield toMetricCV(flinkOverview, flinkJmConfigs)
+        }
+    }.recover { case _ => None }
+  }
 
+  private def toMetricCV(flinkOverview: FlinkRestOverview, flinkJmConfigs: Map[String, String]): FlinkMetricCV = {
     val ackTime = System.currentTimeMillis
     val flinkMetricCV = {
       val tmMemStr = flinkJmConfigs.getOrElse(TaskManagerOptions.TOTAL_PROCESS_MEMORY.key, "0b")
@@ -155,7 +179,7 @@ class FlinkMetricWatcher(conf: MetricWatcherConfig = MetricWatcherConfig.default
         failedJob = flinkOverview.jobsFailed,
         pollAckTime = ackTime)
     }
-    Some(flinkMetricCV)
+    flinkMetricCV
   }
 
 }
@@ -177,7 +201,11 @@ object FlinkRestOverview {
   @transient
   implicit lazy val formats: DefaultFormats.type = org.json4s.DefaultFormats
 
-  def as(json: String): Option[FlinkRestOverview] = {
+  def as(json: String): Option[FlinkRestOverview] = as(new StringInput(json))
+
+  def as(json: InputStream): Option[FlinkRestOverview] = as(new StreamInput(json))
+
+  private def as(json: JsonInput): Option[FlinkRestOverview] = {
     Try(parse(json)) match {
       case Success(ok) =>
         val overview = FlinkRestOverview(
@@ -207,7 +235,11 @@ private[kubernetes] object FlinkRestJmConfigItem {
   @transient
   implicit lazy val formats: DefaultFormats.type = org.json4s.DefaultFormats
 
-  def as(json: String): List[FlinkRestJmConfigItem] = {
+  def as(json: String): List[FlinkRestJmConfigItem] = as(new StringInput(json))
+
+  def as(json: InputStream): List[FlinkRestJmConfigItem] = as(new StreamInput(json))
+
+  private def as(json: JsonInput): List[FlinkRestJmConfigItem] = {
     Try(parse(json)) match {
       case Success(ok) =>
         ok match {
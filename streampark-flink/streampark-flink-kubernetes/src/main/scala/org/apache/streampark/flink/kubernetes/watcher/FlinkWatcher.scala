@@ -17,13 +17,18 @@
 
 package org.apache.streampark.flink.kubernetes.watcher
 
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.atomic.AtomicBoolean
+import scala.concurrent.{ExecutionContext, Future}
 import scala.language.implicitConversions
 
 trait FlinkWatcher extends AutoCloseable {
 
   private[this] val started: AtomicBoolean = new AtomicBoolean(false)
 
+  // keys of the running tracking requests, with the start time of the request
+  private[this] val inFlightRequests = new ConcurrentHashMap[Any, java.lang.Long]()
+
   /**
    * Start watcher process.
    * This method should be a thread-safe implementation of
@@ -70,6 +75,23 @@ trait FlinkWatcher extends AutoCloseable {
 
   def doWatch(): Unit
 
+  /**
+   * Send the async tracking request of the given key (such as a flink cluster) unless
+   * the previous request of the same key is still running, so that a slow remote cluster
+   * would not delay the tracking of the others. A running request that exceeds the
+   * timeout is abandoned, and the onTimeout callback is invoked.
+   */
+  protected def watchIfIdle[T](key: Any, timeoutSec: Long, onTimeout: () => Unit)
+                              (request: => Future[T])(implicit ec: ExecutionContext): Unit = {
+    val now = System.currentTimeMillis
+    val startTime = inFlightRequests.putIfAbsent(key, now)
+    if (startTime == null) {
+      Future(request).flatten.onComplete(_ => inFlightRequests.remove(key, now))
+    } else if (now - startTime > timeoutSec * 1000 && inFlightRequests.remove(key, startTime)) {
+      onTimeout()
+    }
+  }
+
   /**
    * Runnable streamline syntax
    */
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.kubernetes
+
+import org.apache.streampark.flink.kubernetes.enums.FlinkJobState
+import org.apache.streampark.flink.kubernetes.model.{CheckpointCV, ClusterKey, FlinkMetricCV, JobStatusCV, TrackId}
+import org.junit.jupiter.api.Assertions.{assertEquals, assertNull, assertTrue}
+import org.junit.jupiter.api.Test
+
+import java.io.File
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+
+class FlinkTrackSnapshotTest {
+
+  private val trackId = TrackId.onApplication("default", "flink-app", 100000L, "a0ed2a5fa1ff3b4e8b2f32b8ffcb2ae9")
+
+  @Test def snapshotRoundTrip(): Unit = {
+    val controller = new FlinkTrackController()
+    val clusterKey = trackId.toClusterKey
+    controller.endpoints.put(clusterKey, "http://10.0.0.1:8081")
+    controller.jmConfigs.put(clusterKey, Map("jobmanager.memory.process.size" -> "1600m"))
+    controller.flinkMetrics.put(clusterKey, FlinkMetricCV(totalTm = 2, totalSlot = 4, pollAckTime = 1L))
+    controller.trackIds.set(trackId)
+    controller.jobStatuses.put(trackId, JobStatusCV(FlinkJobState.RUNNING, trackId.jobId, pollEmitTime = 1L, pollAckTime = 2L))
+    controller.checkpoints.put(trackId, CheckpointCV(3L, "COMPLETED", "hdfs:///chk-3", isSavepoint = false, "CHECKPOINT", 4L))
+
+    val file = File.createTempFile("flink_k8s_tracking", ".snapshot")
+    FlinkTrackSnapshot.write(controller.snapshot(), file)
+    val snapshot = FlinkTrackSnapshot.read(file).get
+
+    val restored = new FlinkTrackController()
+    restored.restore(snapshot)
+    assertEquals("http://10.0.0.1:8081", restored.endpoints.get(clusterKey))
+    assertEquals("1600m", restored.jmConfigs.get(clusterKey)("jobmanager.memory.process.size"))
+    assertEquals(4, restored.flinkMetrics.get(clusterKey).totalSlot.intValue)
+
+    // the job state is only applied when the same job is tracked again
+    assertNull(restored.jobStatuses.get(trackId))
+    restored.restoreJob(trackId.copy(jobId = null))
+    assertEquals(FlinkJobState.RUNNING, restored.jobStatuses.get(trackId).jobState)
+    assertEquals(3L, restored.checkpoints.get(trackId).id)
+    file.delete()
+  }
+
+  @Test def skipIllegalEntries(): Unit = {
+    val now = System.currentTimeMillis
+    val json =
+      s"""
+         |{
+         |  "version": 1,
+         |  "time": $now,
+         |  "clusters": [
+         |    {"executeMode": "kubernetes-application", "namespace": "default", "clusterId": "a", "restUrl": "http://10.0.0.1:8081"},
+         |    {"executeMode": "unknown-mode", "namespace": "default", "clusterId": "b", "restUrl": "http://10.0.0.2:8081"},
+         |    {"executeMode": "kubernetes-session", "namespace": "default", "clusterId": "c", "restUrl": "10.0.0.3:8081"}
+         |  ],
+         |  "jobs": [
+         |    {"trackId": {"executeMode": "kubernetes-session", "namespace": "default", "clusterId": "c", "appId": 1},
+         |     "jobStatus": {"jobState": "RUNNING", "pollEmitTime": 1, "pollAckTime": 2}}
+         |  ]
+         |}
+         |""".stripMargin
+    val file = File.createTempFile("flink_k8s_tracking", ".snapshot")
+    Files.write(file.toPath, json.getBytes(StandardCharsets.UTF_8))
+    val snapshot = FlinkTrackSnapshot.read(file).get
+    assertEquals(List(ClusterKey(trackId.executeMode, "default", "a")), snapshot.clusters.map(_.clusterKey))
+    // session job without jobId is illegal
+    assertTrue(snapshot.jobs.isEmpty)
+
+    // out of date snapshot is discarded
+    Files.write(file.toPath, json.replace(s"$now", s"${now - FlinkTrackSnapshot.MAX_AGE_MS - 1}").getBytes(StandardCharsets.UTF_8))
+    assertTrue(FlinkTrackSnapshot.read(file).isEmpty)
+    file.delete()
+  }
+
+}
@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.packer
+
+import org.apache.streampark.common.conf.{CommonConfig, InternalConfigHolder, InternalOption}
+import org.apache.streampark.common.util.Logger
+
+import java.util.concurrent.atomic.{AtomicInteger, AtomicLong}
+import java.util.concurrent.{CompletableFuture, ConcurrentHashMap, ExecutionException, Semaphore}
+import java.util.function.{Function => JavaFunction}
+import java.util.{List => JavaList, Map => JavaMap}
+import scala.collection.JavaConverters._
+
+/**
+ * Heavy resources used by the build pipelines.
+ *
+ * @param concurrency option of the max number of the tasks using the resource at the same time
+ */
+sealed abstract class BuildResource(val name: String, val concurrency: InternalOption)
+
+object BuildResource {
+
+  case object PIPELINE extends BuildResource("pipeline", CommonConfig.BUILD_PIPELINE_CONCURRENCY)
+
+  case object MAVEN extends BuildResource("maven", CommonConfig.BUILD_MAVEN_CONCURRENCY)
+
+  case object SHADE extends BuildResource("shade", CommonConfig.BUILD_SHADE_CONCURRENCY)
+
+  case object DOCKER extends BuildResource("docker", CommonConfig.BUILD_DOCKER_CONCURRENCY)
+
+  val values: Seq[BuildResource] = Seq(PIPELINE, MAVEN, SHADE, DOCKER)
+
+}
+
+/**
+ * Status of the tasks of a build resource.
+ *
+ * @param coalesced number of the tasks which shared the result of an identical running task
+ */
+case class BuildResourceSnapshot(resource: String, permits: Int, running: Int, queued: Int, coalesced: Long)
+
+/**
+ * Time a build spent queued for the permits of the build resources, so that the timeout
+ * of a build only counts the time it is actually building.
+ */
+class BuildQueueClock {
+
+  private[this] val queuedNanos = new AtomicLong()
+
+  @volatile private[this] var queuedSince = 0L
+
+  private[packer] def pause(): Unit = queuedSince = System.nanoTime
+
+  private[packer] def resume(): Unit = {
+    queuedNanos.addAndGet(System.nanoTime - queuedSince)
+    queuedSince = 0L
+  }
+
+  /**
+   * the total time queued, including the current queuing.
+   */
+  def queued: Long = {
+    val since = queuedSince
+    queuedNanos.get + (if (since == 0L) 0L else System.nanoTime - since)
+  }
+
+}
+
+/**
+ * Scheduler of the heavy steps of the build pipelines.
+ *
+ * The tasks of a resource run with a bounded concurrency, the others wait in FIFO order,
+ * so that a mass of builds, like redeploying all jobs after an upgrade, queues instead of
+ * thrashing the console host. The identical tasks running at the same time, like resolving
+ * the same artifacts or pulling the same base image, are coalesced: only the first one runs,
+ * and the others wait for its result.
+ */
+object BuildScheduler extends Logger {
+
+  private[this] class Slot(val permits: Int) {
+    val semaphore = new Semaphore(permits, true)
+    val running = new AtomicInteger()
+    val queued = new AtomicInteger()
+    val coalesced = new AtomicLong()
+  }
+
+  private[this] val slots = new ConcurrentHashMap[BuildResource, Slot]()
+
+  private[this] class Inflight {
+    val started = new CompletableFuture[Unit]()
+    val result = new CompletableFuture[Any]()
+  }
+
+  private[this] val inflight = new ConcurrentHashMap[(BuildResource, String), Inflight]()
+
+  private[this] val clocks = new ThreadLocal[BuildQueueClock]()
+
+  private[this] def slotOf(resource: BuildResource): Slot = {
+    slots.computeIfAbsent(resource, new JavaFunction[BuildResource, Slot] {
+      override def apply(r: BuildResource): Slot = new Slot(Math.max(1, InternalConfigHolder.get[Int](r.concurrency)))
+    })
+  }
+
+  /**
+   * run the build on the current thread, the time it waits for the permits of the resources
+   * is recorded to the clock.
+   */
+  def withQueueClock[T](clock: BuildQueueClock)(build: => T): T = {
+    val previous = clocks.get()
+    clocks.set(clock)
+    try build finally {
+      clocks.set(previous)
+    }
+  }
+
+  private[this] def queuing[T](wait: => T): T = {
+    val clock = clocks.get()
+    if (clock == null) wait else {
+      clock.pause()
+      try wait finally {
+        clock.resume()
+      }
+    }
+  }
+
+  /**
+   * run the task when a permit of the resource is available.
+   */
+  @throws[Exception] def run[T](resource: BuildResource)(task: => T): T = acquireAndRun(resource, null)(task)
+
+  private[this] def acquireAndRun[T](resource: BuildResource, entry: Inflight)(task: => T): T = {
+    val slot = slotOf(resource)
+    val queued = slot.queued.incrementAndGet()
+    if (slot.semaphore.availablePermits() <= 0) {
+      logInfo(s"waiting for a ${resource.name} permit, running: ${slot.running.get}, queued: $queued")
+    }
+    try {
+      queuing(slot.semaphore.acquire())
+    } finally {
+      slot.queued.decrementAndGet()
+    }
+    if (entry != null) {
+      entry.started.complete(())
+    }
+    slot.running.incrementAndGet()
+    try {
+      task
+    } finally {
+      slot.running.decrementAndGet()
+      slot.semaphore.release()
+    }
+  }
+
+  /**
+   * run the task like [[run]], but if a task of the same resource and key is running or queued,
+   * wait for it and return its result (or throw its exception) instead of running this one.
+   */
+  @throws[Exception] def runCoalesced[T](resource: BuildResource, key: String)(task: => T): T = {
+    val entry = new Inflight
+    val inflightKey = resource -> key
+    inflight.putIfAbsent(inflightKey, entry) match {
+      case null =>
+        try {
+          val result = acquireAndRun(resource, entry)(task)
+          entry.result.complete(result)
+          result
+        } catch {
+          case e: Throwable =>
+            entry.started.complete(())
+            entry.result.completeExceptionally(e)
+            throw e
+        } finally {
+          inflight.remove(inflightKey, entry)
+        }
+      case running =>
+        slotOf(resource).coalesced.incrementAndGet()
+        logInfo(s"coalesced ${resource.name} task with the running one: $key")
+        try {
+          // waiting for the running one to get its permit is queuing, waiting for its result is building.
+          queuing(running.started.get())
+          running.result.get().asInstanceOf[T]
+        } catch {
+          case e: ExecutionException => throw e.getCause
+        }
+    }
+  }
+
+  def snapshot: Seq[BuildResourceSnapshot] = BuildResource.values.map { resource =>
+    val slot = slotOf(resource)
+    BuildResourceSnapshot(resource.name, slot.permits, slot.running.get, slot.queued.get, slot.coalesced.get)
+  }
+
+  /**
+   * snapshot as plain maps, which could be serialized to json by the console.
+   */
+  def snapshotAsJava: JavaList[JavaMap[String, Any]] = snapshot.map { s =>
+    Map[String, Any](
+      "resource" -> s.resource,
+      "permits" -> s.permits,
+      "running" -> s.running,
+      "queued" -> s.queued,
+      "coalesced" -> s.coalesced).asJava
+  }.asJava
+
+}
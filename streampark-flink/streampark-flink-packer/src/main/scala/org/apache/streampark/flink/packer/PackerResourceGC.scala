@@ -22,47 +22,97 @@ import org.apache.streampark.common.util.Logger
 import org.apache.commons.io.FileUtils
 
 import java.io.File
+import java.util.concurrent.TimeUnit
+import scala.collection.mutable
 import scala.util.Try
 
 /**
  * Garbage resource collector during packing.
+ *
+ * Each run is a small slice driven by the [[WorkspaceIndex]] instead of a walk of all the build
+ * workspaces: it measures and deletes at most [[SLICE_SIZE]] workspaces, the expired ones and then
+ * the least recently used ones while the workspaces exceed the size budget.
  */
 object PackerResourceGC extends Logger {
 
   val appWorkspacePath: String = Workspace.local.APP_WORKSPACE
 
+  /**
+   * max workspaces measured and max workspaces deleted by a run.
+   */
+  private[packer] val SLICE_SIZE = 16
+
+  /**
+   * the workspaces used within it are never evicted, so that a running build keeps its workspace.
+   */
+  private[packer] val MIN_IDLE_MS = TimeUnit.HOURS.toMillis(1)
+
   /**
    * Start a building legacy resources collection process.
    *
    * @param expiredHours Expected expiration time of building resources.
    */
-  def startGc(expiredHours: Integer): Unit = {
-    val appWorkspace = new File(appWorkspacePath)
-    if (!appWorkspace.exists()) return
-    val evictedBarrier = System.currentTimeMillis - expiredHours * 3600 * 1000
-
-    // find flink building path that should be evicted, which are based on pattern
-    // matching of filename.
-    val evictedFiles = appWorkspace.listFiles
-      .filter(_.isDirectory)
-      .filter(_.getName.contains("@"))
-      .flatMap(findLastModifiedOfSubFile)
-      .filter(_._2 < evictedBarrier)
-      .map(_._1)
+  def startGc(expiredHours: Integer): Unit = startGc(expiredHours, 0L)
 
-    if (evictedFiles.isEmpty) return
-    logInfo(s"Delete expired building resources, ${evictedFiles.mkString(", ")}")
-    evictedFiles.foreach(path => Try(FileUtils.deleteDirectory(path)))
+  /**
+   * Start a slice of building legacy resources collection.
+   *
+   * @param expiredHours Expected expiration time of building resources.
+   * @param maxBytes     Size budget of the building resources, unlimited if not positive.
+   */
+  def startGc(expiredHours: Integer, maxBytes: Long): Unit = {
+    if (new File(appWorkspacePath).isDirectory) {
+      gc(WorkspaceIndex.local, expiredHours, maxBytes)
+    }
   }
 
-  private def findLastModifiedOfSubFile(file: File): Array[(File, Long)] = {
-    val isApplicationMode = file.listFiles.map(_.getName).exists(_.contains(".jar"))
-    if (isApplicationMode) {
-      Array(file -> file.listFiles.map(_.lastModified).max)
-    } else {
-      file.listFiles.filter(_.isDirectory)
-        .map(subFile => subFile -> subFile.listFiles.map(_.lastModified).max)
+  /**
+   * @return keys of the evicted workspaces.
+   */
+  private[packer] def gc(index: WorkspaceIndex, expiredHours: Int, maxBytes: Long): Seq[String] = {
+    index.sync()
+    index.measure(SLICE_SIZE)
+
+    val now = System.currentTimeMillis
+    val expiredBarrier = now - TimeUnit.HOURS.toMillis(expiredHours.toLong)
+    val idleBarrier = now - MIN_IDLE_MS
+    val workspaces = index.snapshot.toSeq.sortBy(_._2.lastUsed)
+
+    // the hard-linked files are counted once, and released with the last workspace linking them.
+    val links = mutable.Map[String, Int]().withDefaultValue(0)
+    val linkedSizes = mutable.Map[String, Long]()
+    workspaces.foreach(_._2.linked.foreach { case (inode, size) =>
+      links(inode) += 1
+      linkedSizes(inode) = size
+    })
+    var totalSize = workspaces.map(_._2.ownedSize).sum + linkedSizes.values.sum
+
+    // expired ones and least recently used ones beyond the budget, both in lru order.
+    val evicted = workspaces
+      .filter(_._2.lastUsed < idleBarrier)
+      .filter { case (_, entry) =>
+        val evict = entry.lastUsed < expiredBarrier || (maxBytes > 0 && totalSize > maxBytes)
+        if (evict) {
+          totalSize -= entry.ownedSize
+          entry.linked.keys.foreach { inode =>
+            links(inode) -= 1
+            if (links(inode) == 0) totalSize -= linkedSizes(inode)
+          }
+        }
+        evict
+      }
+      .take(SLICE_SIZE)
+      .map(_._1)
+
+    if (evicted.nonEmpty) {
+      logInfo(s"Delete expired building resources, ${evicted.mkString(", ")}")
+      evicted.foreach { key =>
+        Try(FileUtils.deleteDirectory(index.fileOf(key)))
+        index.remove(key)
+      }
     }
+    index.persist()
+    evicted
   }
 
 }
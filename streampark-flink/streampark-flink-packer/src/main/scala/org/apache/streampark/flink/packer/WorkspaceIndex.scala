@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.packer
+
+import org.apache.streampark.common.conf.Workspace
+import org.apache.streampark.common.util.Logger
+
+import java.io.{File, IOException}
+import java.nio.charset.StandardCharsets
+import java.nio.file.attribute.BasicFileAttributes
+import java.nio.file.{FileVisitResult, Files, Path, SimpleFileVisitor, StandardCopyOption}
+import java.util.concurrent.ConcurrentHashMap
+import scala.collection.JavaConverters._
+import scala.util.Try
+
+/**
+ * @param size     bytes of the files owned by the build workspace only, -1 if not measured yet.
+ * @param lastUsed the last time a build ran in the workspace.
+ * @param linked   bytes of the hard-linked files of the workspace, keyed by their inode ("dev:ino"),
+ *                 the files shared by several workspaces are counted once across the index.
+ */
+case class WorkspaceEntry(size: Long, lastUsed: Long, linked: Map[String, Long] = Map.empty) {
+
+  def ownedSize: Long = size max 0L
+
+}
+
+/**
+ * Index of the build workspaces (the "appId/clusterId@namespace" directories) under the app workspace,
+ * keyed by their path relative to the root, with the size and the last use of each one, recorded as
+ * the builds and the submissions run. It is persisted into
+ * [[WorkspaceIndex.INDEX_FILE]] under the root, so that [[PackerResourceGC]] does not have to walk
+ * all the workspaces to find the ones to evict.
+ *
+ * The files hard-linked from elsewhere (e.g. the shaded jars shared with the fat-jar cache and the
+ * other workspaces) are recorded by their inode, so that a shared file is counted once across the
+ * index, and it is released only when the last workspace linking it is deleted.
+ */
+class WorkspaceIndex(val root: File) extends Logger {
+
+  private[this] val indexFile = new File(root, WorkspaceIndex.INDEX_FILE)
+
+  @volatile private[this] var discovered = false
+
+  private[this] lazy val entries: ConcurrentHashMap[String, WorkspaceEntry] = load()
+
+  /**
+   * mark the workspace as in use at the start of a build, so that it is not evicted during the build.
+   */
+  def touch(workspace: File): Unit = keyOf(workspace).foreach { key =>
+    entries.merge(key, WorkspaceEntry(-1, System.currentTimeMillis()),
+      new java.util.function.BiFunction[WorkspaceEntry, WorkspaceEntry, WorkspaceEntry] {
+        override def apply(old: WorkspaceEntry, touched: WorkspaceEntry): WorkspaceEntry = old.copy(lastUsed = touched.lastUsed)
+      })
+    persist()
+  }
+
+  /**
+   * record the size and the last use of the workspace after a build.
+   */
+  def record(workspace: File): Unit = keyOf(workspace).foreach { key =>
+    val (size, linked) = WorkspaceIndex.sizeOf(workspace)
+    entries.put(key, WorkspaceEntry(size, System.currentTimeMillis(), linked))
+    persist()
+  }
+
+  def get(key: String): Option[WorkspaceEntry] = Option(entries.get(key))
+
+  def snapshot: Map[String, WorkspaceEntry] = entries.asScala.toMap
+
+  /**
+   * align the index with the workspaces on disk: the removed workspaces are dropped. The first time
+   * without a persisted index, the directories of the root and of the app homes are listed once, the
+   * workspaces built before the index existed are added with the last modification of their directory
+   * and an unknown size, since then the builds keep the index up to date.
+   */
+  def sync(): Unit = {
+    val indexed = entries
+    if (!discovered) {
+      def listDirs(dir: File): Array[File] = Option(dir.listFiles).getOrElse(Array.empty[File]).filter(_.isDirectory)
+      listDirs(root).flatMap { dir =>
+        if (WorkspaceIndex.isBuildWorkspace(dir.getName)) Array(dir)
+        else listDirs(dir).filter(sub => WorkspaceIndex.isBuildWorkspace(sub.getName))
+      }.foreach(dir => keyOf(dir).foreach(key => indexed.putIfAbsent(key, WorkspaceEntry(-1, dir.lastModified))))
+      discovered = true
+    }
+    indexed.keySet.asScala.filterNot(key => fileOf(key).isDirectory).foreach(indexed.remove)
+  }
+
+  def fileOf(key: String): File = new File(root, key)
+
+  /**
+   * the path of the workspace relative to the root, none if it is not a build workspace under the root.
+   */
+  private[this] def keyOf(workspace: File): Option[String] = {
+    val rootPath = root.getAbsoluteFile.toPath.normalize()
+    val path = workspace.getAbsoluteFile.toPath.normalize()
+    if (path.startsWith(rootPath) && path != rootPath && WorkspaceIndex.isBuildWorkspace(path.getFileName.toString)) {
+      Some(rootPath.relativize(path).toString.replace(File.separatorChar, '/'))
+    } else None
+  }
+
+  /**
+   * measure the size of at most limit workspaces with an unknown size.
+   */
+  def measure(limit: Int): Unit = {
+    entries.asScala.filter(_._2.size < 0).take(limit).foreach { case (key, entry) =>
+      val (size, linked) = WorkspaceIndex.sizeOf(fileOf(key))
+      entries.replace(key, entry, entry.copy(size = size, linked = linked))
+    }
+  }
+
+  def remove(key: String): Unit = entries.remove(key)
+
+  /**
+   * write the index into a temp file and move it over the index file.
+   */
+  def persist(): Unit = synchronized {
+    if (root.isDirectory) {
+      Try {
+        val tmpFile = new File(root, s"${WorkspaceIndex.INDEX_FILE}.tmp")
+        val lines = (if (discovered) Seq(WorkspaceIndex.DISCOVERED_MARK) else Seq.empty) ++
+          entries.asScala.map { case (key, entry) =>
+            val linked = entry.linked.map { case (inode, size) => s"$inode:$size" }.mkString(",")
+            s"${entry.lastUsed}\t${entry.size}\t$key\t$linked"
+          }
+        Files.write(tmpFile.toPath, lines.asJava, StandardCharsets.UTF_8)
+        Try(Files.move(tmpFile.toPath, indexFile.toPath, StandardCopyOption.ATOMIC_MOVE))
+          .getOrElse(Files.move(tmpFile.toPath, indexFile.toPath, StandardCopyOption.REPLACE_EXISTING))
+      }.failed.foreach(e => logWarn(s"persist workspace index failed: ${e.getMessage}"))
+    }
+  }
+
+  private[this] def load(): ConcurrentHashMap[String, WorkspaceEntry] = {
+    val map = new ConcurrentHashMap[String, WorkspaceEntry]()
+    if (indexFile.isFile) {
+      Try(Files.readAllLines(indexFile.toPath, StandardCharsets.UTF_8).asScala).getOrElse(Seq.empty).foreach { line =>
+        line.split("\t", 4) match {
+          case Array(WorkspaceIndex.DISCOVERED_MARK) => discovered = true
+          case Array(lastUsed, size, key, linked) =>
+            Try(map.put(key, WorkspaceEntry(size.toLong, lastUsed.toLong, parseLinked(linked))))
+          case _ =>
+        }
+      }
+    }
+    map
+  }
+
+  private[this] def parseLinked(linked: String): Map[String, Long] = {
+    linked.split(",").filter(_.nonEmpty).map { link =>
+      val i = link.lastIndexOf(':')
+      link.substring(0, i) -> link.substring(i + 1).toLong
+    }.toMap
+  }
+
+}
+
+object WorkspaceIndex {
+
+  val INDEX_FILE = ".workspace-index"
+
+  /**
+   * the first line of the index file once the workspaces existing before the index have been discovered.
+   */
+  private val DISCOVERED_MARK = "#discovered"
+
+  lazy val local = new WorkspaceIndex(new File(Workspace.local.APP_WORKSPACE))
+
+  def isBuildWorkspace(name: String): Boolean = name.contains("@")
+
+  def touch(workspace: String): Unit = if (workspace != null) local.touch(new File(workspace))
+
+  def record(workspace: String): Unit = if (workspace != null) local.record(new File(workspace))
+
+  /**
+   * bytes of the regular files owned by the directory only, and the bytes of the hard-linked ones
+   * keyed by their inode.
+   */
+  private[packer] def sizeOf(dir: File): (Long, Map[String, Long]) = {
+    if (!dir.isDirectory) 0L -> Map.empty else {
+      var size = 0L
+      val linked = Map.newBuilder[String, Long]
+      Try(Files.walkFileTree(dir.toPath, new SimpleFileVisitor[Path] {
+        override def visitFile(file: Path, attrs: BasicFileAttributes): FileVisitResult = {
+          if (attrs.isRegularFile) {
+            inodeOf(file) match {
+              case Some(inode) => linked += inode -> attrs.size()
+              case None => size += attrs.size()
+            }
+          }
+          FileVisitResult.CONTINUE
+        }
+
+        override def visitFileFailed(file: Path, exc: IOException): FileVisitResult = FileVisitResult.CONTINUE
+      }))
+      size -> linked.result()
+    }
+  }
+
+  /**
+   * the inode of the file if it is hard-linked, none if it is not or the file system does not tell.
+   */
+  private[this] def inodeOf(file: Path): Option[String] = {
+    Try {
+      val attrs = Files.readAttributes(file, "unix:nlink,dev,ino")
+      if (attrs.get("nlink").asInstanceOf[Int] > 1) Some(s"${attrs.get("dev")}:${attrs.get("ino")}") else None
+    }.getOrElse(None)
+  }
+
+}
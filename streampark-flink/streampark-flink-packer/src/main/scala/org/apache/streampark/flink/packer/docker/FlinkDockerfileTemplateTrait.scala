@@ -18,6 +18,7 @@
 package org.apache.streampark.flink.packer.docker
 
 import org.apache.streampark.common.fs.LfsOperator
+import org.apache.streampark.flink.packer.docker.oci.{ImageLayer, LayerEntry}
 import org.apache.commons.io.FileUtils
 
 import java.io.File
@@ -54,6 +55,21 @@ trait FlinkDockerfileTemplateTrait {
    */
   def offerDockerfileContent: String
 
+  /**
+   * Offer layers of the image for the oci image builder, which have the same content as
+   * the COPY instructions of the dockerfile. the extra libs and the main jar are in separate
+   * layers, so the extra libs layer is reused when only the main jar changed.
+   */
+  def offerImageLayers: Seq[ImageLayer] = Seq(
+    ImageLayer("flink-lib", Seq(LayerEntry(new File(s"${workspace.toString}/$extraLibName"), s"$FLINK_HOME_PATH/lib"))),
+    ImageLayer("flink-usrlib", Seq(LayerEntry(new File(s"${workspace.toString}/$mainJarName"), s"$FLINK_HOME_PATH/usrlib/$mainJarName")))
+  )
+
+  /**
+   * Offer environment variables of the image for the oci image builder, same as the ENV instructions of the dockerfile.
+   */
+  def offerImageEnv: Map[String, String] = Map.empty
+
   /**
    * Startup flink main jar path inner Docker
    */
@@ -65,6 +81,7 @@ trait FlinkDockerfileTemplateTrait {
   val DEFAULT_DOCKER_FILE_NAME = "Dockerfile"
   protected val FLINK_LIB_PATH = "lib"
   protected val FLINK_HOME: String = "$FLINK_HOME"
+  protected val FLINK_HOME_PATH: String = "/opt/flink"
 
   /**
    * Dockerfile building workspace.
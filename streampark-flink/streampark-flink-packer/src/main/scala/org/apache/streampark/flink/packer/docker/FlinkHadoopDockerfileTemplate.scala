@@ -19,7 +19,9 @@ package org.apache.streampark.flink.packer.docker
 
 import org.apache.streampark.common.fs.LfsOperator
 import org.apache.streampark.common.util.HadoopConfigUtils
+import org.apache.streampark.flink.packer.docker.oci.{ImageLayer, LayerEntry}
 
+import java.io.File
 import java.nio.file.Paths
 import javax.annotation.Nullable
 
@@ -70,6 +72,22 @@ case class FlinkHadoopDockerfileTemplate(workspacePath: String,
     dockerfile
   }
 
+  override def offerImageLayers: Seq[ImageLayer] = {
+    val confEntries = Seq(
+      Option(hadoopConfDirPath).filter(_ => hadoopConfDir.nonEmpty).map(dir => LayerEntry(new File(dir), "/opt/hadoop-conf")),
+      Option(hiveConfDirPath).filter(_ => hiveConfDir.nonEmpty).map(dir => LayerEntry(new File(dir), "/opt/hive-conf"))
+    ).flatten
+    val confLayers = if (confEntries.isEmpty) Seq.empty else Seq(ImageLayer("hadoop-conf", confEntries))
+    confLayers ++ super.offerImageLayers
+  }
+
+  override def offerImageEnv: Map[String, String] = {
+    Seq(
+      if (hadoopConfDir.nonEmpty) Some("HADOOP_CONF_DIR" -> "/opt/hadoop-conf") else None,
+      if (hiveConfDir.nonEmpty) Some("HIVE_CONF_DIR" -> "/opt/hive-conf") else None
+    ).flatten.toMap
+  }
+
 }
 
 object FlinkHadoopDockerfileTemplate {
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.packer.docker.oci
+
+/**
+ * Reference of a docker image, like "flink:1.14", "docker.io/library/flink:1.14",
+ * "registry.example.com:5000/streampark/flink@sha256:..." or "flink:1.14@sha256:...".
+ *
+ * @param registry   host[:port] of the register
+ * @param repository repository name in the register
+ * @param reference  tag or digest of the image
+ */
+case class ImageReference(registry: String, repository: String, reference: String) {
+
+  def isDigest: Boolean = reference.startsWith("sha256:")
+
+  override def toString: String = {
+    val separator = if (isDigest) "@" else ":"
+    s"$registry/$repository$separator$reference"
+  }
+
+}
+
+object ImageReference {
+
+  val DOCKER_HUB_REGISTRY = "registry-1.docker.io"
+
+  private[this] val DOCKER_HUB_ALIASES = Set("docker.io", "index.docker.io", DOCKER_HUB_REGISTRY)
+
+  /**
+   * parse the image reference in the same way as the docker cli does.
+   */
+  def parse(image: String): ImageReference = {
+    require(image != null && image.trim.nonEmpty, "[StreamPark] image reference should not be empty")
+    val trimmed = image.trim
+    // the tag of "name:tag", which is not a port of the registry in "host:port/name".
+    def splitTag(named: String): (String, Option[String]) = {
+      val colon = named.lastIndexOf(':')
+      if (colon > named.lastIndexOf('/')) named.substring(0, colon) -> Some(named.substring(colon + 1))
+      else named -> None
+    }
+    val (name, reference) = trimmed.indexOf('@') match {
+      // like docker, the digest wins over the tag of "name:tag@sha256:..."
+      case i if i > 0 => splitTag(trimmed.substring(0, i))._1 -> trimmed.substring(i + 1)
+      case _ =>
+        val (named, tag) = splitTag(trimmed)
+        named -> tag.getOrElse("latest")
+    }
+    val slash = name.indexOf('/')
+    val first = if (slash > 0) name.substring(0, slash) else ""
+    val (registry, repository) = {
+      if (first.nonEmpty && (first.contains('.') || first.contains(':') || first == "localhost")) {
+        first -> name.substring(slash + 1)
+      } else {
+        DOCKER_HUB_REGISTRY -> name
+      }
+    }
+    val normalizedRegistry = if (DOCKER_HUB_ALIASES.contains(registry)) DOCKER_HUB_REGISTRY else registry
+    val normalizedRepository = {
+      if (normalizedRegistry == DOCKER_HUB_REGISTRY && !repository.contains('/')) s"library/$repository" else repository
+    }
+    require(normalizedRepository.nonEmpty && reference.nonEmpty, s"[StreamPark] invalid image reference: $image")
+    ImageReference(normalizedRegistry, normalizedRepository.toLowerCase, reference)
+  }
+
+}
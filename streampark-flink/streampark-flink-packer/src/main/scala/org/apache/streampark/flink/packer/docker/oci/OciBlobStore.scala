@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.packer.docker.oci
+
+import org.apache.commons.codec.binary.Hex
+import org.apache.commons.io.IOUtils
+import org.apache.commons.io.output.NullOutputStream
+
+import java.io.{BufferedOutputStream, File, FileInputStream, FileOutputStream, IOException, InputStream}
+import java.nio.file.{Files, StandardCopyOption}
+import java.security.{DigestInputStream, MessageDigest}
+import java.util.UUID
+import scala.util.Try
+
+object Digests {
+
+  def newDigest(): MessageDigest = MessageDigest.getInstance("SHA-256")
+
+  def of(digest: MessageDigest): String = s"sha256:${Hex.encodeHexString(digest.digest())}"
+
+  def sha256(bytes: Array[Byte]): String = of({
+    val digest = newDigest()
+    digest.update(bytes)
+    digest
+  })
+
+  def sha256(file: File): String = {
+    val in = new DigestInputStream(new FileInputStream(file), newDigest())
+    try {
+      IOUtils.copy(in, NullOutputStream.NULL_OUTPUT_STREAM)
+      of(in.getMessageDigest)
+    } finally {
+      in.close()
+    }
+  }
+
+  def hex(digest: String): String = {
+    require(digest.startsWith("sha256:"), s"[StreamPark] unsupported digest algorithm: $digest")
+    digest.stripPrefix("sha256:")
+  }
+
+}
+
+/**
+ * Local content-addressed store of the image blobs, which is laid out like the
+ * blobs directory of an OCI image layout: root/blobs/sha256/hex-of-digest.
+ *
+ * @param root root directory of the store
+ */
+class OciBlobStore(val root: File) {
+
+  private[this] val blobDir = new File(root, "blobs/sha256")
+
+  private[this] val tmpDir = new File(root, "tmp")
+
+  def blobFile(digest: String): File = new File(blobDir, Digests.hex(digest))
+
+  def contains(digest: String): Boolean = blobFile(digest).isFile
+
+  def newTempFile(): File = {
+    tmpDir.mkdirs()
+    new File(tmpDir, UUID.randomUUID().toString)
+  }
+
+  /**
+   * move the temp file into the store as the blob of the digest.
+   */
+  def put(tmpFile: File, digest: String): File = {
+    val target = blobFile(digest)
+    if (target.isFile) {
+      tmpFile.delete()
+    } else {
+      blobDir.mkdirs()
+      Try(Files.move(tmpFile.toPath, target.toPath, StandardCopyOption.ATOMIC_MOVE))
+        .getOrElse(Files.move(tmpFile.toPath, target.toPath, StandardCopyOption.REPLACE_EXISTING))
+    }
+    target
+  }
+
+  def put(bytes: Array[Byte]): String = {
+    val digest = Digests.sha256(bytes)
+    if (!contains(digest)) {
+      val tmp = newTempFile()
+      Files.write(tmp.toPath, bytes)
+      put(tmp, digest)
+    }
+    digest
+  }
+
+  /**
+   * make sure the blob is in the store, it is copied from the source and verified when it's missing.
+   */
+  @throws[IOException] def ensure(digest: String)(source: => InputStream): File = {
+    if (!contains(digest)) {
+      val tmp = newTempFile()
+      val in = new DigestInputStream(source, Digests.newDigest())
+      try {
+        val out = new BufferedOutputStream(new FileOutputStream(tmp))
+        try IOUtils.copyLarge(in, out) finally out.close()
+        val actual = Digests.of(in.getMessageDigest)
+        if (actual != digest) {
+          throw new IOException(s"[StreamPark] digest mismatch of blob $digest, actual: $actual")
+        }
+        put(tmp, digest)
+      } finally {
+        in.close()
+        tmp.delete()
+      }
+    }
+    blobFile(digest)
+  }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.packer.docker.oci
+
+import org.json4s.JsonAST.{JArray, JInt, JObject, JString, JValue}
+import org.json4s.jackson.JsonMethods.{compact, parse, render}
+import org.json4s.{DefaultFormats, Formats}
+
+import java.io.InputStream
+import java.nio.charset.StandardCharsets
+
+object MediaType {
+  val OCI_INDEX = "application/vnd.oci.image.index.v1+json"
+  val OCI_MANIFEST = "application/vnd.oci.image.manifest.v1+json"
+  val OCI_CONFIG = "application/vnd.oci.image.config.v1+json"
+  val OCI_LAYER = "application/vnd.oci.image.layer.v1.tar+gzip"
+  val DOCKER_MANIFEST_LIST = "application/vnd.docker.distribution.manifest.list.v2+json"
+  val DOCKER_MANIFEST = "application/vnd.docker.distribution.manifest.v2+json"
+  val DOCKER_CONFIG = "application/vnd.docker.container.image.v1+json"
+  val DOCKER_LAYER = "application/vnd.docker.image.rootfs.diff.tar.gzip"
+
+  val MANIFESTS: Seq[String] = Seq(OCI_MANIFEST, DOCKER_MANIFEST, OCI_INDEX, DOCKER_MANIFEST_LIST)
+
+  def isIndex(mediaType: String): Boolean = mediaType == OCI_INDEX || mediaType == DOCKER_MANIFEST_LIST
+
+  /**
+   * media types of the config and layers of an image with the given manifest media type.
+   */
+  def configOf(manifestType: String): String = if (manifestType == DOCKER_MANIFEST) DOCKER_CONFIG else OCI_CONFIG
+
+  def layerOf(manifestType: String): String = if (manifestType == DOCKER_MANIFEST) DOCKER_LAYER else OCI_LAYER
+}
+
+/**
+ * Content descriptor of a blob, see https://github.com/opencontainers/image-spec/blob/main/descriptor.md
+ */
+case class OciDescriptor(mediaType: String, digest: String, size: Long) {
+
+  def toJson: JObject = JObject("mediaType" -> JString(mediaType), "digest" -> JString(digest), "size" -> JInt(size))
+
+}
+
+object OciDescriptor {
+
+  private[this] implicit val formats: Formats = DefaultFormats
+
+  def fromJson(json: JValue): OciDescriptor = {
+    OciDescriptor((json \ "mediaType").extract[String], (json \ "digest").extract[String], (json \ "size").extract[Long])
+  }
+
+}
+
+/**
+ * Manifest of a single platform image, the docker v2 schema2 manifest has the same structure.
+ */
+case class OciManifest(mediaType: String, config: OciDescriptor, layers: Seq[OciDescriptor]) {
+
+  /**
+   * serialized manifest, the field order is stable so that the same image always has the same digest.
+   */
+  lazy val bytes: Array[Byte] = {
+    val json = JObject(
+      "schemaVersion" -> JInt(2),
+      "mediaType" -> JString(mediaType),
+      "config" -> config.toJson,
+      "layers" -> JArray(layers.map(_.toJson).toList))
+    compact(render(json)).getBytes(StandardCharsets.UTF_8)
+  }
+
+  lazy val descriptor: OciDescriptor = OciDescriptor(mediaType, Digests.sha256(bytes), bytes.length)
+
+}
+
+object OciManifest {
+
+  private[this] implicit val formats: Formats = DefaultFormats
+
+  def fromJson(mediaType: String, json: JValue): OciManifest = {
+    val manifestType = (json \ "mediaType").extractOpt[String].getOrElse(mediaType)
+    OciManifest(
+      manifestType,
+      OciDescriptor.fromJson(json \ "config"),
+      (json \ "layers").children.map(OciDescriptor.fromJson))
+  }
+
+  /**
+   * pick the manifest of the platform like "linux/amd64" from an image index.
+   */
+  def selectPlatform(index: JValue, platform: String): OciDescriptor = {
+    val (os, arch) = platform.split("/") match {
+      case Array(o, a, _*) => o -> a
+      case _ => throw new IllegalArgumentException(s"[StreamPark] invalid image platform: $platform")
+    }
+    (index \ "manifests").children
+      .find(m => (m \ "platform" \ "os").extractOpt[String].contains(os) && (m \ "platform" \ "architecture").extractOpt[String].contains(arch))
+      .map(OciDescriptor.fromJson)
+      .getOrElse(throw new IllegalArgumentException(s"[StreamPark] no $platform image in the image index"))
+  }
+
+}
+
+/**
+ * Source of the base image.
+ */
+trait OciImageSource {
+
+  def manifest: OciManifest
+
+  /**
+   * raw bytes of the image config, the digest of which is the config digest of the manifest.
+   */
+  def configBytes: Array[Byte]
+
+  def config: JValue = parse(new String(configBytes, StandardCharsets.UTF_8))
+
+  def openBlob(digest: String): InputStream
+
+  /**
+   * the register and repository of the base image, blobs of it can be mounted
+   * into another repository of the same register without uploading.
+   */
+  def reference: Option[ImageReference] = None
+
+}
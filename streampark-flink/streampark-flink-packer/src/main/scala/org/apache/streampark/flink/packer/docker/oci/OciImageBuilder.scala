@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.packer.docker.oci
+
+import org.apache.streampark.common.util.Logger
+import org.json4s.JsonAST.{JArray, JNothing, JObject, JString, JValue}
+import org.json4s.jackson.JsonMethods.{compact, render}
+import org.json4s.{DefaultFormats, Formats}
+
+import java.nio.charset.StandardCharsets
+
+/**
+ * Image built by the [[OciImageBuilder]], the blobs of the base image stay in the base image
+ * source until they are needed, the config and the new layers are in the blob store.
+ */
+case class OciImage(manifest: OciManifest, base: OciImageSource, layers: Seq[BuiltLayer])
+
+/**
+ * Builds images on top of a base image without a docker daemon.
+ *
+ * The image config is derived from the base image config with the given env, the new
+ * layers and a zero creation time, so the same base image and the same layer content
+ * always produce the same image digest.
+ */
+class OciImageBuilder(store: OciBlobStore) extends Logger {
+
+  private[this] implicit val formats: Formats = DefaultFormats
+
+  private[this] val EPOCH = JString("1970-01-01T00:00:00Z")
+
+  def build(base: OciImageSource, layers: Seq[ImageLayer], env: Map[String, String]): OciImage = {
+    val baseManifest = base.manifest
+    val builtLayers = layers.map(OciLayerBuilder.build(_, store))
+    val configBytes = {
+      val config = updateField(base.config, "created")(_ => EPOCH)
+      val withEnv = updateField(config, "config")(updateField(_, "Env") { current =>
+        val overridden = env.keySet
+        val kept = current.children.map(_.extract[String]).filter(e => !overridden.contains(e.takeWhile(_ != '=')))
+        JArray((kept ++ env.toSeq.sortBy(_._1).map { case (k, v) => s"$k=$v" }).map(JString(_)))
+      })
+      val withRootfs = updateField(withEnv, "rootfs")(updateField(_, "diff_ids") { current =>
+        JArray(current.children ++ builtLayers.map(l => JString(l.diffId)))
+      })
+      val withHistory = updateField(withRootfs, "history") { current =>
+        JArray(current.children ++ builtLayers.map(l => JObject("created" -> EPOCH, "created_by" -> JString(s"streampark: ${l.name}"))))
+      }
+      compact(render(withHistory)).getBytes(StandardCharsets.UTF_8)
+    }
+    val configDigest = store.put(configBytes)
+    val layerType = MediaType.layerOf(baseManifest.mediaType)
+    val manifest = OciManifest(
+      baseManifest.mediaType,
+      OciDescriptor(MediaType.configOf(baseManifest.mediaType), configDigest, configBytes.length),
+      baseManifest.layers ++ builtLayers.map(l => OciDescriptor(layerType, l.digest, l.size)))
+    store.put(manifest.bytes)
+    logInfo(s"built image ${manifest.descriptor.digest} with ${builtLayers.size} layers on top of ${baseManifest.descriptor.digest}")
+    OciImage(manifest, base, builtLayers)
+  }
+
+  /**
+   * open the blob of the image, from the blob store or from the base image.
+   */
+  def blob(image: OciImage, digest: String): java.io.File = store.ensure(digest)(image.base.openBlob(digest))
+
+  private[this] def updateField(json: JValue, name: String)(func: JValue => JValue): JValue = json match {
+    case JObject(fields) if fields.exists(_._1 == name) =>
+      JObject(fields.map {
+        case (n, v) if n == name => n -> func(v)
+        case field => field
+      })
+    case JObject(fields) => JObject(fields :+ (name -> func(JNothing)))
+    case _ => JObject(name -> func(JNothing))
+  }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.packer.docker.oci
+
+import org.apache.commons.io.FileUtils
+import org.json4s.JsonAST.{JArray, JInt, JObject, JString, JValue}
+import org.json4s.jackson.JsonMethods.{compact, parse, render}
+import org.json4s.{DefaultFormats, Formats}
+
+import java.io.{File, FileInputStream, InputStream}
+import java.nio.charset.StandardCharsets
+import java.nio.file.{Files, StandardCopyOption}
+
+/**
+ * Image layout directory, see https://github.com/opencontainers/image-spec/blob/main/image-layout.md
+ *
+ * The images are tagged by the "org.opencontainers.image.ref.name" annotation in index.json,
+ * the layout can be loaded by the tools like skopeo, crane or containerd.
+ */
+class OciImageLayout(val dir: File) {
+
+  private[this] implicit val formats: Formats = DefaultFormats
+
+  private[this] val REF_NAME = "org.opencontainers.image.ref.name"
+
+  private[this] val indexFile = new File(dir, "index.json")
+
+  def blobFile(digest: String): File = new File(dir, s"blobs/sha256/${Digests.hex(digest)}")
+
+  /**
+   * write the image into the layout with the tag, the blobs that already exist in the layout are skipped.
+   */
+  def write(image: OciImage, builder: OciImageBuilder, tag: String): Unit = {
+    FileUtils.forceMkdir(new File(dir, "blobs/sha256"))
+    (image.manifest.layers :+ image.manifest.config).filter(d => !blobFile(d.digest).isFile).foreach { descriptor =>
+      Files.copy(builder.blob(image, descriptor.digest).toPath, blobFile(descriptor.digest).toPath, StandardCopyOption.REPLACE_EXISTING)
+    }
+    Files.write(blobFile(image.manifest.descriptor.digest).toPath, image.manifest.bytes)
+    FileUtils.write(new File(dir, "oci-layout"), """{"imageLayoutVersion":"1.0.0"}""", StandardCharsets.UTF_8)
+    val others = readIndex.filter(m => !(m \ "annotations" \ REF_NAME).extractOpt[String].contains(tag))
+    val manifest = JObject(image.manifest.descriptor.toJson.obj :+ ("annotations" -> JObject(REF_NAME -> JString(tag))))
+    val index = JObject(
+      "schemaVersion" -> JInt(2),
+      "manifests" -> JArray(others :+ manifest))
+    FileUtils.write(indexFile, compact(render(index)), StandardCharsets.UTF_8)
+  }
+
+  /**
+   * read the image of the tag as a base image, the image is picked by the platform if it's a multi-platform image.
+   */
+  def source(tag: String, platform: String = "linux/amd64"): OciImageSource = {
+    val layout = this
+    val descriptor = readIndex
+      .find(m => (m \ "annotations" \ REF_NAME).extractOpt[String].contains(tag))
+      .map(OciDescriptor.fromJson)
+      .getOrElse(throw new IllegalArgumentException(s"[StreamPark] image $tag not found in the image layout $dir"))
+    new OciImageSource {
+      override lazy val manifest: OciManifest = {
+        val json = parse(new String(Files.readAllBytes(blobFile(descriptor.digest).toPath), StandardCharsets.UTF_8))
+        if (MediaType.isIndex(descriptor.mediaType)) {
+          val selected = OciManifest.selectPlatform(json, platform)
+          OciManifest.fromJson(selected.mediaType, parse(new String(Files.readAllBytes(blobFile(selected.digest).toPath), StandardCharsets.UTF_8)))
+        } else {
+          OciManifest.fromJson(descriptor.mediaType, json)
+        }
+      }
+
+      override lazy val configBytes: Array[Byte] = Files.readAllBytes(blobFile(manifest.config.digest).toPath)
+
+      override def openBlob(digest: String): InputStream = new FileInputStream(layout.blobFile(digest))
+    }
+  }
+
+  private[this] def readIndex: List[JValue] = {
+    if (!indexFile.isFile) List.empty else {
+      (parse(FileUtils.readFileToString(indexFile, StandardCharsets.UTF_8)) \ "manifests").children
+    }
+  }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.packer.docker.oci
+
+import org.apache.commons.compress.archivers.tar.{TarArchiveEntry, TarArchiveOutputStream}
+import org.apache.commons.io.{FileUtils, IOUtils}
+import org.apache.streampark.common.util.Logger
+
+import java.io.{BufferedOutputStream, File, FileInputStream, FileOutputStream}
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.security.DigestOutputStream
+import java.util.zip.GZIPOutputStream
+import scala.util.Try
+
+/**
+ * A file or directory copied into the image.
+ *
+ * @param source local file or directory
+ * @param target absolute path in the image, the content of a directory is copied into it
+ */
+case class LayerEntry(source: File, target: String)
+
+/**
+ * Content of an image layer, like a COPY instruction of the dockerfile.
+ */
+case class ImageLayer(name: String, entries: Seq[LayerEntry])
+
+/**
+ * @param digest digest of the compressed layer blob
+ * @param diffId digest of the uncompressed layer tar
+ */
+case class BuiltLayer(name: String, digest: String, size: Long, diffId: String)
+
+/**
+ * Builds reproducible image layers: the tar entries are sorted by path, and all of
+ * them are owned by root with fixed mode and zero mtime. So the same files always
+ * produce the same layer digest, and the layer is reused from the store without
+ * compressing it again.
+ */
+object OciLayerBuilder extends Logger {
+
+  /**
+   * bump it when the layout of the layer tar changes.
+   */
+  private[this] val VERSION = "1"
+
+  def build(layer: ImageLayer, store: OciBlobStore): BuiltLayer = {
+    val files = layer.entries.flatMap(expand).sortBy(_._1)
+    val key = {
+      val content = files.map {
+        case (path, Some(file)) => s"$path|${Digests.sha256(file)}"
+        case (path, None) => path
+      }
+      Digests.hex(Digests.sha256((VERSION +: content).mkString("\n").getBytes(StandardCharsets.UTF_8)))
+    }
+    val indexFile = new File(store.root, s"layers/$key")
+    readIndex(indexFile).filter(l => store.contains(l.digest)).map(_.copy(name = layer.name)) match {
+      case Some(built) =>
+        logInfo(s"reuse image layer ${layer.name}: ${built.digest}")
+        built
+      case None =>
+        val built = writeLayer(layer.name, files, store)
+        FileUtils.write(indexFile, s"${built.digest} ${built.diffId} ${built.size}", StandardCharsets.UTF_8)
+        logInfo(s"built image layer ${layer.name}: ${built.digest}, size: ${built.size}")
+        built
+    }
+  }
+
+  /**
+   * expand the entry to (path in tar, file), directories have no file. the target directory of
+   * a directory entry itself is not in the tar, so it keeps its owner when it exists in the base image.
+   */
+  private[this] def expand(entry: LayerEntry): Seq[(String, Option[File])] = expand(entry, root = true)
+
+  private[this] def expand(entry: LayerEntry, root: Boolean): Seq[(String, Option[File])] = {
+    val target = entry.target.stripPrefix("/").stripSuffix("/")
+    if (entry.source.isDirectory) {
+      val children = Option(entry.source.listFiles).getOrElse(Array.empty[File]).toSeq
+        .flatMap(child => expand(LayerEntry(child, s"$target/${child.getName}"), root = false))
+      if (root) children else (s"$target/" -> None) +: children
+    } else if (entry.source.isFile) {
+      Seq(target -> Some(entry.source))
+    } else {
+      Seq.empty
+    }
+  }
+
+  private[this] def readIndex(indexFile: File): Option[BuiltLayer] = {
+    Try(FileUtils.readFileToString(indexFile, StandardCharsets.UTF_8).trim.split(" ")).toOption.collect {
+      case Array(digest, diffId, size) => BuiltLayer("", digest, size.toLong, diffId)
+    }
+  }
+
+  private[this] def writeLayer(name: String, files: Seq[(String, Option[File])], store: OciBlobStore): BuiltLayer = {
+    val tmp = store.newTempFile()
+    try {
+      val blobOut = new DigestOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)), Digests.newDigest())
+      val tarOut = new DigestOutputStream(new GZIPOutputStream(blobOut, 65536), Digests.newDigest())
+      val tar = new TarArchiveOutputStream(tarOut)
+      try {
+        tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX)
+        tar.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX)
+        files.foreach { case (path, file) =>
+          val entry = new TarArchiveEntry(path)
+          entry.setModTime(0L)
+          entry.setIds(0, 0)
+          entry.setNames("", "")
+          file match {
+            case Some(f) =>
+              entry.setMode(TarArchiveEntry.DEFAULT_FILE_MODE)
+              entry.setSize(f.length)
+              tar.putArchiveEntry(entry)
+              val in = new FileInputStream(f)
+              try IOUtils.copyLarge(in, tar) finally in.close()
+            case None =>
+              entry.setMode(TarArchiveEntry.DEFAULT_DIR_MODE)
+              tar.putArchiveEntry(entry)
+          }
+          tar.closeArchiveEntry()
+        }
+        tar.finish()
+      } finally {
+        tar.close()
+      }
+      val digest = Digests.of(blobOut.getMessageDigest)
+      val diffId = Digests.of(tarOut.getMessageDigest)
+      val size = Files.size(tmp.toPath)
+      store.put(tmp, digest)
+      BuiltLayer(name, digest, size, diffId)
+    } finally {
+      tmp.delete()
+    }
+  }
+
+}
@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.packer.docker.oci
+
+import org.apache.http.HttpHeaders
+import org.apache.http.client.methods.{CloseableHttpResponse, HttpGet, HttpHead, HttpPost, HttpPut, HttpRequestBase}
+import org.apache.http.client.utils.URIBuilder
+import org.apache.http.entity.{ByteArrayEntity, ContentType, FileEntity}
+import org.apache.http.impl.client.{CloseableHttpClient, HttpClients}
+import org.apache.http.util.EntityUtils
+import org.apache.streampark.common.conf.{CommonConfig, InternalConfigHolder}
+import org.apache.streampark.common.util.Logger
+import org.json4s.jackson.JsonMethods.parse
+import org.json4s.{DefaultFormats, Formats}
+
+import java.io.{File, FilterInputStream, IOException, InputStream}
+import java.net.URLEncoder
+import java.nio.charset.StandardCharsets
+import java.util.Base64
+import java.util.concurrent.ConcurrentHashMap
+import javax.annotation.Nullable
+
+/**
+ * Client of the docker register HTTP API v2, see https://docs.docker.com/registry/spec/api/
+ *
+ * It supports the anonymous, basic and bearer token authentication, and
+ * only talks to the register by plain http for the insecure registers.
+ */
+class OciRegistryClient(val registry: String,
+                        @Nullable username: String,
+                        @Nullable password: String) extends AutoCloseable with Logger {
+
+  private[this] implicit val formats: Formats = DefaultFormats
+
+  private[this] val httpClient: CloseableHttpClient = HttpClients.custom().disableRedirectHandling().build()
+
+  private[this] val baseUrl: String = {
+    val host = registry.takeWhile(_ != ':')
+    val insecure = host == "localhost" || host == "127.0.0.1" ||
+      InternalConfigHolder.get[String](CommonConfig.DOCKER_OCI_INSECURE_REGISTERS).split(",").map(_.trim).contains(registry)
+    s"${if (insecure) "http" else "https"}://$registry"
+  }
+
+  /**
+   * Authorization header values keyed by the requested scopes.
+   */
+  private[this] val authorizations = new ConcurrentHashMap[String, String]()
+
+  private[this] val hasCredential = username != null && username.nonEmpty
+
+  /**
+   * push the image to the repository of this register. the blobs which exist in the repository are
+   * skipped, the blobs of a base image in the same register are mounted, only the others are uploaded.
+   */
+  def push(image: OciImage, builder: OciImageBuilder, target: ImageReference): Unit = {
+    require(target.registry == registry, s"[StreamPark] image $target is not in the register $registry")
+    val mountFrom = image.base.reference
+      .filter(base => base.registry == registry && base.repository != target.repository)
+      .map(_.repository)
+      .orNull
+    (image.manifest.layers :+ image.manifest.config).foreach { descriptor =>
+      if (blobExists(target.repository, descriptor.digest)) {
+        logInfo(s"blob ${descriptor.digest} already exists in $target")
+      } else {
+        val mounted = pushBlob(target.repository, descriptor.digest, mountFrom)(builder.blob(image, descriptor.digest))
+        logInfo(s"${if (mounted) "mounted" else "uploaded"} blob ${descriptor.digest} to $target, size: ${descriptor.size}")
+      }
+    }
+    putManifest(target.repository, target.reference, image.manifest)
+    logInfo(s"pushed image $target, digest: ${image.manifest.descriptor.digest}")
+  }
+
+  /**
+   * get the manifest of the image, the manifest of the platform is picked if it's a multi-platform image.
+   */
+  def getManifest(repository: String, reference: String, platform: String): OciManifest = {
+    val (mediaType, bytes) = getManifestBytes(repository, reference)
+    val json = parse(new String(bytes, StandardCharsets.UTF_8))
+    if (MediaType.isIndex(mediaType)) {
+      val selected = OciManifest.selectPlatform(json, platform)
+      val (selectedType, selectedBytes) = getManifestBytes(repository, selected.digest)
+      OciManifest.fromJson(selectedType, parse(new String(selectedBytes, StandardCharsets.UTF_8)))
+    } else {
+      OciManifest.fromJson(mediaType, json)
+    }
+  }
+
+  private[this] def getManifestBytes(repository: String, reference: String): (String, Array[Byte]) = {
+    val response = execute(pullScope(repository)) { () =>
+      val get = new HttpGet(s"$baseUrl/v2/$repository/manifests/$reference")
+      get.setHeader(HttpHeaders.ACCEPT, MediaType.MANIFESTS.mkString(", "))
+      get
+    }
+    try {
+      checkStatus(response, s"get manifest of $repository:$reference", 200)
+      val mediaType = Option(response.getEntity.getContentType).map(_.getValue.takeWhile(_ != ';').trim).getOrElse(MediaType.DOCKER_MANIFEST)
+      mediaType -> EntityUtils.toByteArray(response.getEntity)
+    } finally {
+      response.close()
+    }
+  }
+
+  /**
+   * open the content stream of the blob, the caller should close it.
+   */
+  def getBlob(repository: String, digest: String): InputStream = {
+    val response = execute(pullScope(repository))(() => new HttpGet(s"$baseUrl/v2/$repository/blobs/$digest"))
+    response.getStatusLine.getStatusCode match {
+      case 307 | 302 | 301 | 303 =>
+        // the blob is served by another storage, which doesn't accept the register authorization.
+        val location = response.getFirstHeader(HttpHeaders.LOCATION).getValue
+        response.close()
+        val redirected = httpClient.execute(new HttpGet(location))
+        checkStatus(redirected, s"get blob $digest of $repository", 200)
+        responseStream(redirected)
+      case _ =>
+        checkStatus(response, s"get blob $digest of $repository", 200)
+        responseStream(response)
+    }
+  }
+
+  def blobExists(repository: String, digest: String): Boolean = {
+    val response = execute(pushScope(repository))(() => new HttpHead(s"$baseUrl/v2/$repository/blobs/$digest"))
+    try {
+      response.getStatusLine.getStatusCode match {
+        case 404 => false
+        case _ =>
+          checkStatus(response, s"check blob $digest of $repository", 200)
+          true
+      }
+    } finally {
+      response.close()
+    }
+  }
+
+  /**
+   * upload the blob, or mount it from the repository of the same register when it's given.
+   *
+   * @return true if the blob is mounted.
+   */
+  def pushBlob(repository: String, digest: String, @Nullable mountFrom: String)(file: => File): Boolean = {
+    val scopes = pushScope(repository) ++ Option(mountFrom).map(pullScope).getOrElse(Seq.empty)
+    val response = execute(scopes) { () =>
+      val uri = new URIBuilder(s"$baseUrl/v2/$repository/blobs/uploads/")
+      if (mountFrom != null) {
+        uri.addParameter("mount", digest).addParameter("from", mountFrom)
+      }
+      new HttpPost(uri.build())
+    }
+    val location = try {
+      response.getStatusLine.getStatusCode match {
+        case 201 => None
+        case _ =>
+          checkStatus(response, s"start uploading blob $digest to $repository", 202)
+          Some(response.getFirstHeader(HttpHeaders.LOCATION).getValue)
+      }
+    } finally {
+      response.close()
+    }
+    location.foreach { loc =>
+      val absolute = if (loc.startsWith("http://") || loc.startsWith("https://")) loc else s"$baseUrl$loc"
+      val separator = if (absolute.contains("?")) "&" else "?"
+      val uploadUrl = s"$absolute${separator}digest=${URLEncoder.encode(digest, "UTF-8")}"
+      val blob = file
+      val put = execute(scopes) { () =>
+        val request = new HttpPut(uploadUrl)
+        request.setEntity(new FileEntity(blob, ContentType.APPLICATION_OCTET_STREAM))
+        request
+      }
+      try checkStatus(put, s"upload blob $digest to $repository", 201) finally put.close()
+    }
+    location.isEmpty
+  }
+
+  def putManifest(repository: String, reference: String, manifest: OciManifest): Unit = {
+    val response = execute(pushScope(repository)) { () =>
+      val put = new HttpPut(s"$baseUrl/v2/$repository/manifests/$reference")
+      put.setEntity(new ByteArrayEntity(manifest.bytes, ContentType.create(manifest.mediaType)))
+      put
+    }
+    try checkStatus(response, s"put manifest of $repository:$reference", 201) finally response.close()
+  }
+
+  private[this] def pullScope(repository: String): Seq[String] = Seq(s"repository:$repository:pull")
+
+  private[this] def pushScope(repository: String): Seq[String] = Seq(s"repository:$repository:pull,push")
+
+  /**
+   * execute the request, and authenticate by the challenge of the register when it's unauthorized.
+   */
+  private[this] def execute(scopes: Seq[String])(newRequest: () => HttpRequestBase): CloseableHttpResponse = {
+    val key = scopes.sorted.mkString(" ")
+    def run(authorization: Option[String]): CloseableHttpResponse = {
+      val request = newRequest()
+      authorization.foreach(request.setHeader(HttpHeaders.AUTHORIZATION, _))
+      httpClient.execute(request)
+    }
+    val response = run(Option(authorizations.get(key)))
+    if (response.getStatusLine.getStatusCode != 401) response else {
+      val challenge = Option(response.getFirstHeader(HttpHeaders.WWW_AUTHENTICATE)).map(_.getValue).getOrElse("")
+      response.close()
+      val authorization = authenticate(challenge, scopes)
+      authorizations.put(key, authorization)
+      run(Some(authorization))
+    }
+  }
+
+  private[this] def authenticate(challenge: String, scopes: Seq[String]): String = {
+    lazy val basic = s"Basic ${Base64.getEncoder.encodeToString(s"$username:$password".getBytes(StandardCharsets.UTF_8))}"
+    challenge.takeWhile(_ != ' ').toLowerCase match {
+      case "bearer" =>
+        val params = "(\\w+)=\"([^\"]*)\"".r.findAllMatchIn(challenge).map(m => m.group(1) -> m.group(2)).toMap
+        val uri = new URIBuilder(params.getOrElse("realm", throw new IOException(s"[StreamPark] invalid challenge of register $registry: $challenge")))
+        params.get("service").foreach(uri.addParameter("service", _))
+        (scopes ++ params.get("scope")).distinct.foreach(uri.addParameter("scope", _))
+        val get = new HttpGet(uri.build())
+        if (hasCredential) {
+          get.setHeader(HttpHeaders.AUTHORIZATION, basic)
+        }
+        val response = httpClient.execute(get)
+        try {
+          checkStatus(response, s"get token of register $registry", 200)
+          val json = parse(EntityUtils.toString(response.getEntity, StandardCharsets.UTF_8))
+          val token = (json \ "token").extractOpt[String].orElse((json \ "access_token").extractOpt[String])
+            .getOrElse(throw new IOException(s"[StreamPark] no token in the response of register $registry"))
+          s"Bearer $token"
+        } finally {
+          response.close()
+        }
+      case "basic" if hasCredential => basic
+      case _ => throw new IOException(s"[StreamPark] unauthorized to the register $registry, challenge: $challenge")
+    }
+  }
+
+  private[this] def checkStatus(response: CloseableHttpResponse, action: String, expected: Int): Unit = {
+    val status = response.getStatusLine.getStatusCode
+    if (status != expected && status / 100 != 2) {
+      val body = Option(response.getEntity).map(EntityUtils.toString).getOrElse("")
+      response.close()
+      throw new IOException(s"[StreamPark] failed to $action on register $registry, status: $status, response: $body")
+    }
+  }
+
+  private[this] def responseStream(response: CloseableHttpResponse): InputStream = {
+    new FilterInputStream(response.getEntity.getContent) {
+      override def close(): Unit = {
+        try super.close() finally response.close()
+      }
+    }
+  }
+
+  override def close(): Unit = httpClient.close()
+
+}
+
+/**
+ * Base image in a docker register.
+ */
+class RegistryImageSource(client: OciRegistryClient, image: ImageReference, platform: String) extends OciImageSource {
+
+  override lazy val manifest: OciManifest = client.getManifest(image.repository, image.reference, platform)
+
+  override lazy val configBytes: Array[Byte] = {
+    val in = client.getBlob(image.repository, manifest.config.digest)
+    try org.apache.commons.io.IOUtils.toByteArray(in) finally in.close()
+  }
+
+  override def openBlob(digest: String): InputStream = client.getBlob(image.repository, digest)
+
+  override def reference: Option[ImageReference] = Some(image)
+
+}
@@ -25,9 +25,9 @@ case class Artifact(groupId: String, artifactId: String, version: String) {
   def eq(artifact: AetherArtifact): Boolean = {
     artifact.getGroupId match {
       case g if g == groupId =>
-        artifact.getArtifactId match {
+        artifactId match {
           case "*" => true
-          case a => a == artifactId
+          case a => a == artifact.getArtifactId
         }
       case _ => false
     }
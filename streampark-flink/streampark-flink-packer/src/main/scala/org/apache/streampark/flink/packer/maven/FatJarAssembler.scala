@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.packer.maven
+
+import org.apache.commons.compress.archivers.zip.{ZipArchiveEntry, ZipArchiveOutputStream, ZipFile, ZipMethod}
+import org.apache.commons.compress.utils.IOUtils
+import org.apache.maven.plugins.shade.resource.{ManifestResourceTransformer, ReproducibleResourceTransformer, ResourceTransformer}
+import org.apache.streampark.common.util.Logger
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream, File, IOException, InputStream}
+import java.util.jar.{JarFile, JarOutputStream}
+import java.util.zip.ZipInputStream
+import java.util.{Collections, List => JavaList}
+import scala.collection.JavaConversions._
+import scala.collection.mutable
+
+/**
+ * Fat-jar assembler which copies the compressed bytes of the entries of the input
+ * jars into the output jar as they are, instead of inflating and deflating every
+ * entry again like the maven-shade DefaultShader does. Without relocations and
+ * filters the result is equivalent to the output of the DefaultShader:
+ *
+ *  - the first occurrence of an entry wins, directory entries are regenerated;
+ *  - META-INF/INDEX.LIST and module-info.class are dropped;
+ *  - resources claimed by a ResourceTransformer are merged by that transformer;
+ *  - the transformed MANIFEST.MF is written as the first entry.
+ */
+private[maven] object FatJarAssembler extends Logger {
+
+  private[this] val noRelocators: JavaList[org.apache.maven.plugins.shade.relocation.Relocator] = Collections.emptyList()
+
+  @throws[IOException] def assemble(jars: Iterable[File], transformers: Seq[ResourceTransformer], outJar: File): Unit = {
+    val out = new ZipArchiveOutputStream(outJar)
+    try {
+      val written = mutable.HashSet[String]()
+      val manifestTransformer = transformers.collectFirst { case t: ManifestResourceTransformer => t }
+      // the manifest must be the first entry of the jar, so it is resolved before any other entry.
+      manifestTransformer.foreach { transformer =>
+        jars.iterator.map(jar => readManifest(jar, transformer)).find(identity)
+        writeTransformed(out, transformer, written)
+      }
+      jars.foreach(jar => copyEntries(jar, out, transformers, manifestTransformer.isDefined, written))
+      transformers.filter(t => !manifestTransformer.contains(t) && t.hasTransformedResource)
+        .foreach(writeTransformed(out, _, written))
+      out.finish()
+    } finally {
+      out.close()
+    }
+  }
+
+  private[this] def readManifest(jar: File, transformer: ResourceTransformer): Boolean = {
+    val zip = new ZipFile(jar)
+    try {
+      Option(zip.getEntry(JarFile.MANIFEST_NAME)) match {
+        case Some(entry) =>
+          processResource(transformer, entry, zip.getInputStream(entry))
+          true
+        case _ => false
+      }
+    } finally {
+      zip.close()
+    }
+  }
+
+  private[this] def copyEntries(jar: File,
+                                out: ZipArchiveOutputStream,
+                                transformers: Seq[ResourceTransformer],
+                                skipManifest: Boolean,
+                                written: mutable.HashSet[String]): Unit = {
+    val zip = new ZipFile(jar)
+    try {
+      zip.getEntriesInPhysicalOrder.foreach { entry =>
+        val name = entry.getName
+        if (!entry.isDirectory && !isExcluded(name) && !(skipManifest && name == JarFile.MANIFEST_NAME)) {
+          transformers.find(_.canTransformResource(name)) match {
+            case Some(transformer) => processResource(transformer, entry, zip.getInputStream(entry))
+            case _ if written.contains(name) => logDebug(s"skip duplicate entry $name in ${jar.getName}")
+            case _ =>
+              addParentDirectories(out, name, written)
+              copyRawEntry(zip, entry, out)
+              written += name
+          }
+        }
+      }
+    } finally {
+      zip.close()
+    }
+  }
+
+  private[this] def isExcluded(name: String): Boolean = {
+    name == "META-INF/INDEX.LIST" || name == "module-info.class"
+  }
+
+  private[this] def processResource(transformer: ResourceTransformer, entry: ZipArchiveEntry, in: InputStream): Unit = {
+    try {
+      transformer match {
+        case t: ReproducibleResourceTransformer => t.processResource(entry.getName, in, noRelocators, entry.getTime)
+        case t => t.processResource(entry.getName, in, noRelocators)
+      }
+    } finally {
+      in.close()
+    }
+  }
+
+  private[this] def copyRawEntry(zip: ZipFile, entry: ZipArchiveEntry, out: ZipArchiveOutputStream): Unit = {
+    ZipMethod.getMethodByCode(entry.getMethod) match {
+      case ZipMethod.STORED | ZipMethod.DEFLATED =>
+      case method => throw new IOException(s"unsupported compression method $method of entry ${entry.getName}")
+    }
+    val copied = new ZipArchiveEntry(entry.getName)
+    copied.setMethod(entry.getMethod)
+    copied.setCrc(entry.getCrc)
+    copied.setSize(entry.getSize)
+    copied.setCompressedSize(entry.getCompressedSize)
+    copied.setTime(entry.getTime)
+    val in = zip.getRawInputStream(entry)
+    try {
+      out.addRawArchiveEntry(copied, in)
+    } finally {
+      in.close()
+    }
+  }
+
+  private[this] def addParentDirectories(out: ZipArchiveOutputStream, name: String, written: mutable.HashSet[String]): Unit = {
+    var index = name.indexOf('/')
+    while (index > 0) {
+      val dir = name.substring(0, index + 1)
+      if (written.add(dir)) {
+        out.putArchiveEntry(new ZipArchiveEntry(dir))
+        out.closeArchiveEntry()
+      }
+      index = name.indexOf('/', index + 1)
+    }
+  }
+
+  /**
+   * ResourceTransformer can only write into a JarOutputStream, so its output is
+   * buffered in memory and copied into the target jar afterwards.
+   */
+  private[this] def writeTransformed(out: ZipArchiveOutputStream, transformer: ResourceTransformer, written: mutable.HashSet[String]): Unit = {
+    if (transformer.hasTransformedResource) {
+      val buffer = new ByteArrayOutputStream()
+      val jos = new JarOutputStream(buffer)
+      transformer.modifyOutputStream(jos)
+      jos.finish()
+      val in = new ZipInputStream(new ByteArrayInputStream(buffer.toByteArray))
+      try {
+        Iterator.continually(in.getNextEntry).takeWhile(_ != null)
+          .filter(e => !e.isDirectory && !written.contains(e.getName))
+          .foreach { entry =>
+            addParentDirectories(out, entry.getName, written)
+            val target = new ZipArchiveEntry(entry.getName)
+            if (entry.getTime != -1) {
+              target.setTime(entry.getTime)
+            }
+            out.putArchiveEntry(target)
+            IOUtils.copy(in, out)
+            out.closeArchiveEntry()
+            written += entry.getName
+          }
+      } finally {
+        in.close()
+      }
+    }
+  }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.packer.maven
+
+import org.apache.commons.codec.digest.DigestUtils
+import org.apache.streampark.common.conf.Workspace
+import org.apache.streampark.common.util.Logger
+import org.apache.streampark.flink.packer.{BuildResource, BuildScheduler}
+
+import java.io.{File, FileInputStream, IOException, RandomAccessFile}
+import java.nio.file.{Files, StandardCopyOption}
+import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
+import scala.util.Try
+
+/**
+ * Content-addressed cache of the fat-jars built by [[MavenTool]].
+ *
+ * The cache key is the digest of the content of all the input jars (in assembly order)
+ * together with the main class, so the same set of dependencies is assembled only once,
+ * no matter from which path they come from. The fat-jar is hard-linked into the target path,
+ * so the identical fat-jars of the build workspaces share the same blocks on disk, it is copied
+ * with FileChannel.transferTo when the link is not possible (e.g. across file systems).
+ */
+private[maven] object FatJarCache extends Logger {
+
+  /**
+   * bump it when the output of the assembly changes, it invalidates all the cached fat-jars.
+   */
+  private[this] val VERSION = "1"
+
+  private[this] val MAX_CACHED_JARS = 16
+
+  private[this] val MAX_DIGEST_ENTRIES = 4096
+
+  private[this] lazy val cacheDir = new File(Workspace.FAT_JAR_CACHE_LOCAL_PATH)
+
+  /**
+   * content digests of the input jars, keyed by path, length and lastModified.
+   */
+  private[this] val digests = new ConcurrentHashMap[String, String]()
+
+  /**
+   * Get the fat-jar of the given input jars from cache, or build it with the
+   * builder and put it into cache, then copy it to the outJar.
+   *
+   * @param jars    input jars, in assembly order
+   * @param builder assemble the fat-jar into the given file
+   */
+  @throws[IOException] def getOrBuild(jars: Iterable[File], mainClass: String, outJar: File)(builder: File => Unit): File = {
+    if (!ensureCacheDir()) {
+      Files.deleteIfExists(outJar.toPath)
+      BuildScheduler.run(BuildResource.SHADE)(builder(outJar))
+    } else {
+      val key = buildKey(jars, mainClass)
+      val cachedJar = new File(cacheDir, s"$key.jar")
+      if (cachedJar.isFile) {
+        logInfo(s"fat-jar cache hit: ${cachedJar.getName}")
+        cachedJar.setLastModified(System.currentTimeMillis())
+      } else {
+        // the same fat-jar building by other builds at the same time is built only once.
+        BuildScheduler.runCoalesced(BuildResource.SHADE, key) {
+          if (!cachedJar.isFile) {
+            val tmpJar = new File(cacheDir, s"${cachedJar.getName}.${UUID.randomUUID()}.tmp")
+            try {
+              builder(tmpJar)
+              moveAtomically(tmpJar, cachedJar)
+            } finally {
+              tmpJar.delete()
+            }
+            evict()
+          }
+        }
+      }
+      linkOrCopy(cachedJar, outJar)
+    }
+    outJar
+  }
+
+  private[this] def ensureCacheDir(): Boolean = {
+    Try(cacheDir.isDirectory || cacheDir.mkdirs()).getOrElse(false) && cacheDir.canWrite
+  }
+
+  private[maven] def buildKey(jars: Iterable[File], mainClass: String): String = {
+    val key = new StringBuilder(s"$VERSION|${Option(mainClass).getOrElse("")}")
+    jars.foreach(jar => key.append('|').append(digest(jar)))
+    DigestUtils.sha256Hex(key.toString)
+  }
+
+  private[this] def digest(jar: File): String = {
+    val id = s"${jar.getAbsolutePath}|${jar.length}|${jar.lastModified}"
+    Option(digests.get(id)).getOrElse {
+      if (digests.size >= MAX_DIGEST_ENTRIES) {
+        digests.clear()
+      }
+      val in = new FileInputStream(jar)
+      val value = try DigestUtils.sha256Hex(in) finally in.close()
+      digests.put(id, value)
+      value
+    }
+  }
+
+  private[this] def moveAtomically(source: File, target: File): Unit = {
+    Try(Files.move(source.toPath, target.toPath, StandardCopyOption.ATOMIC_MOVE))
+      .getOrElse(Files.move(source.toPath, target.toPath, StandardCopyOption.REPLACE_EXISTING))
+  }
+
+  private[this] def linkOrCopy(source: File, target: File): Unit = {
+    // never write into the target in place, it may be a link of a cached fat-jar.
+    Files.deleteIfExists(target.toPath)
+    Try(Files.createLink(target.toPath, source.toPath)).failed.foreach { e =>
+      logDebug(s"hard-link cached fat-jar failed, fallback to copy: ${e.getMessage}")
+      copy(source, target)
+    }
+  }
+
+  private[this] def copy(source: File, target: File): Unit = {
+    val in = new RandomAccessFile(source, "r").getChannel
+    try {
+      val out = new RandomAccessFile(target, "rw").getChannel
+      try {
+        out.truncate(0)
+        val size = in.size()
+        var position = 0L
+        while (position < size) {
+          position += in.transferTo(position, size - position, out)
+        }
+      } finally {
+        out.close()
+      }
+    } finally {
+      in.close()
+    }
+  }
+
+  /**
+   * keep the most recently used fat-jars only.
+   */
+  private[this] def evict(): Unit = {
+    Option(cacheDir.listFiles).getOrElse(Array.empty[File])
+      .filter(f => f.isFile && f.getName.endsWith(".jar"))
+      .sortBy(-_.lastModified)
+      .drop(MAX_CACHED_JARS)
+      .foreach { jar =>
+        logInfo(s"evict cached fat-jar: ${jar.getName}")
+        jar.delete()
+      }
+  }
+
+}
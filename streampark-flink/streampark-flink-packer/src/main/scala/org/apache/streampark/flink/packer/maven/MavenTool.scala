@@ -18,16 +18,17 @@
 package org.apache.streampark.flink.packer.maven
 
 import com.google.common.collect.Lists
-import org.apache.streampark.common.conf.CommonConfig.{MAVEN_AUTH_PASSWORD, MAVEN_AUTH_USER, MAVEN_REMOTE_URL}
+import org.apache.streampark.common.conf.CommonConfig.{MAVEN_AUTH_PASSWORD, MAVEN_AUTH_USER, MAVEN_REMOTE_URL, MAVEN_RESOLVE_PARALLELISM}
 import org.apache.streampark.common.conf.{InternalConfigHolder, Workspace}
-import org.apache.streampark.common.util.{Logger, Utils}
+import org.apache.streampark.common.util.{Logger, ThreadUtils, Utils}
+import org.apache.streampark.flink.packer.{BuildResource, BuildScheduler}
 import org.apache.maven.plugins.shade.resource.{ManifestResourceTransformer, ResourceTransformer, ServicesResourceTransformer}
 import org.apache.maven.plugins.shade.{DefaultShader, ShadeRequest}
 import org.apache.maven.repository.internal.MavenRepositorySystemUtils
 import org.codehaus.plexus.logging.console.ConsoleLogger
 import org.codehaus.plexus.logging.{Logger => PlexusLog}
 import org.eclipse.aether.{RepositorySystem, RepositorySystemSession}
-import org.eclipse.aether.artifact.DefaultArtifact
+import org.eclipse.aether.artifact.{DefaultArtifact, Artifact => AetherArtifact}
 import org.eclipse.aether.connector.basic.BasicRepositoryConnectorFactory
 import org.eclipse.aether.repository.{LocalRepository, RemoteRepository}
 import org.eclipse.aether.resolution.{ArtifactDescriptorRequest, ArtifactRequest}
@@ -39,8 +40,10 @@ import org.eclipse.aether.util.repository.AuthenticationBuilder
 
 import java.io.File
 import java.util
+import java.util.concurrent.{Callable, ExecutionException, LinkedBlockingQueue, ThreadPoolExecutor, TimeUnit}
 import javax.annotation.{Nonnull, Nullable}
 import scala.collection.JavaConversions._
+import scala.collection.mutable
 import scala.collection.mutable.ArrayBuffer
 import scala.util.Try
 
@@ -49,6 +52,26 @@ object MavenTool extends Logger {
 
   private[this] lazy val plexusLog = new ConsoleLogger(PlexusLog.LEVEL_INFO, "streampark-maven")
 
+  /**
+   * the repository system and session are thread-safe and expensive to create, so they are shared.
+   */
+  private[this] lazy val mavenEndpoint: (RepositorySystem, RepositorySystemSession) = getMavenEndpoint()
+
+  /**
+   * bounded pool for reading artifact descriptors and downloading artifacts,
+   * the caller runs the task itself when the pool is saturated.
+   */
+  private[this] lazy val resolveExecutor = {
+    val parallelism = Math.max(1, InternalConfigHolder.get[Int](MAVEN_RESOLVE_PARALLELISM))
+    val executor = new ThreadPoolExecutor(
+      parallelism, parallelism, 60L, TimeUnit.SECONDS,
+      new LinkedBlockingQueue[Runnable](256),
+      ThreadUtils.threadFactory("streampark-maven-resolver"),
+      new ThreadPoolExecutor.CallerRunsPolicy)
+    executor.allowCoreThreadTimeOut(true)
+    executor
+  }
+
   private[this] val excludeArtifact = List(
     Artifact.of("org.apache.flink:force-shading:*"),
     Artifact.of("com.google.code.findbugs:jsr305:*"),
@@ -93,30 +116,47 @@ object MavenTool extends Logger {
         case _ =>
       }
     logInfo(s"start shaded fat-jar: ${jarLibs.mkString(",")}")
-    // shade jars
+    // the same set of jars is assembled only once, see FatJarCache
+    FatJarCache.getOrBuild(jarSet, mainClass, uberJar) { target =>
+      Try(FatJarAssembler.assemble(jarSet, newTransformers(mainClass), target)).recover {
+        case e: Exception =>
+          logWarn(s"assemble fat-jar by raw copy failed, fallback to maven-shade: ${e.getMessage}")
+          target.delete()
+          shadeJars(jarSet, mainClass, target)
+      }.get
+    }
+    logInfo(s"finish build fat-jar: ${uberJar.getAbsolutePath}")
+    uberJar
+  }
+
+  /**
+   * ResourceTransformer is stateful, create new ones for every assembly.
+   */
+  private[this] def newTransformers(@Nullable mainClass: String): List[ResourceTransformer] = {
+    val transformer = ArrayBuffer[ResourceTransformer]()
+    // ref https://ci.apache.org/projects/flink/flink-docs-master/docs/connectors/table/overview/#transform-table-connectorformat-resources
+    transformer += new ServicesResourceTransformer()
+    if (mainClass != null) {
+      val manifest = new ManifestResourceTransformer()
+      manifest.setMainClass(mainClass)
+      transformer += manifest
+    }
+    transformer.toList
+  }
+
+  private[this] def shadeJars(jarSet: util.Set[File], @Nullable mainClass: String, uberJar: File): Unit = {
     val shadeRequest = {
       val req = new ShadeRequest
       req.setJars(jarSet)
       req.setUberJar(uberJar)
       req.setFilters(Lists.newArrayList())
-
-      val transformer = ArrayBuffer[ResourceTransformer]()
-      // ref https://ci.apache.org/projects/flink/flink-docs-master/docs/connectors/table/overview/#transform-table-connectorformat-resources
-      transformer += new ServicesResourceTransformer()
-      if (mainClass != null) {
-        val manifest = new ManifestResourceTransformer()
-        manifest.setMainClass(mainClass)
-        transformer += manifest
-      }
-      req.setResourceTransformers(transformer.toList)
+      req.setResourceTransformers(newTransformers(mainClass))
       req.setRelocators(Lists.newArrayList())
       req
     }
     val shader = new DefaultShader()
     shader.enableLogging(plexusLog)
     shader.shade(shadeRequest)
-    logInfo(s"finish build fat-jar: ${uberJar.getAbsolutePath}")
-    uberJar
   }
 
   /**
@@ -143,36 +183,94 @@ object MavenTool extends Logger {
    * ConfigConst.MAVEN_LOCAL_DIR if necessary. notes: Only compile scope
    * dependencies will be resolved.
    *
+   * The transitive dependencies are collected level by level, the artifact
+   * descriptors of the same level are read in parallel, and so are the downloads.
+   * The result is kept in [[ResolutionIndex]], resolving the same artifacts again
+   * from the same repositories returns the indexed jars directly.
+   *
    * @param mavenArtifacts collection of maven artifacts
    * @return jar File Object of resolved artifacts
    */
   @throws[Exception] def resolveArtifacts(mavenArtifacts: Set[Artifact]): Set[File] = {
     if (mavenArtifacts == null) Set.empty[File]; else {
-      val (repoSystem, session) = getMavenEndpoint()
-      val artifacts = mavenArtifacts.map(e => new DefaultArtifact(e.groupId, e.artifactId, "jar", e.version))
-      logInfo(s"start resolving dependencies: ${artifacts.mkString}")
-
+      val artifacts = mavenArtifacts.map(e => new DefaultArtifact(e.groupId, e.artifactId, "jar", e.version): AetherArtifact)
       val remoteRepos = getRemoteRepos()
+      ResolutionIndex.get(artifacts, remoteRepos) match {
+        case Some(files) =>
+          logInfo(s"resolved dependencies from index: ${artifacts.mkString}")
+          files
+        case None =>
+          // the same artifacts resolving by other builds at the same time are resolved only once.
+          BuildScheduler.runCoalesced(BuildResource.MAVEN, ResolutionIndex.key(artifacts, remoteRepos)) {
+            logInfo(s"start resolving dependencies: ${artifacts.mkString}")
+            val mergedArtifacts = collectDependencies(artifacts, remoteRepos)
+            logInfo(s"resolved dependencies: ${mergedArtifacts.mkString}")
+            // download artifacts
+            val (repoSystem, session) = mavenEndpoint
+            val files = parallel(mergedArtifacts) { artifact =>
+              repoSystem.resolveArtifact(session, new ArtifactRequest(artifact, remoteRepos, null)).getArtifact.getFile
+            }.toSet
+            ResolutionIndex.put(artifacts, remoteRepos, files)
+            files
+          }
+      }
+    }
+  }
+
+  /**
+   * collect the compile scope dependencies of the artifacts transitively.
+   * like maven, the nearest version of an artifact wins, optional dependencies
+   * are ignored and the exclusions of a dependency apply to all its descendants.
+   */
+  private[this] def collectDependencies(artifacts: Set[AetherArtifact], remoteRepos: List[RemoteRepository]): Seq[AetherArtifact] = {
+    val (repoSystem, session) = mavenEndpoint
+    val collected = mutable.LinkedHashMap[String, AetherArtifact]()
+    artifacts.foreach(artifact => collected += versionlessKey(artifact) -> artifact)
+    var level = artifacts.toSeq.map(_ -> Set.empty[(String, String)])
+    while (level.nonEmpty) {
       // read relevant artifact descriptor info
-      // plz don't simplify the following lambda syntax to maintain the readability of the code.
-      val resolvedArtifacts = artifacts
-        .map(artifact => new ArtifactDescriptorRequest(artifact, remoteRepos, null))
-        .map(artDescReq => repoSystem.readArtifactDescriptor(session, artDescReq))
-        .flatMap(_.getDependencies)
-        .filter(_.getScope == "compile")
-        .filter(x => !excludeArtifact.exists(_.eq(x.getArtifact))
-        ).map(_.getArtifact)
-
-      val mergedArtifacts = artifacts ++ resolvedArtifacts
-      logInfo(s"resolved dependencies: ${mergedArtifacts.mkString}")
-
-      // download artifacts
-      val artReqs = mergedArtifacts.map(artifact => new ArtifactRequest(artifact, remoteRepos, null))
-      repoSystem.resolveArtifacts(session, artReqs)
-        .map(_.getArtifact.getFile).toSet
+      val descriptors = parallel(level) { case (artifact, exclusions) =>
+        repoSystem.readArtifactDescriptor(session, new ArtifactDescriptorRequest(artifact, remoteRepos, null)) -> exclusions
+      }
+      val next = ArrayBuffer[(AetherArtifact, Set[(String, String)])]()
+      descriptors.foreach { case (descriptor, exclusions) =>
+        descriptor.getDependencies
+          .filter(dep => dep.getScope == "compile" && !dep.isOptional)
+          .filter(dep => !excludeArtifact.exists(_.eq(dep.getArtifact)))
+          .filter(dep => !exclusions.exists { case (g, a) => matches(g, dep.getArtifact.getGroupId) && matches(a, dep.getArtifact.getArtifactId) })
+          .foreach { dep =>
+            val key = versionlessKey(dep.getArtifact)
+            if (!collected.contains(key)) {
+              collected += key -> dep.getArtifact
+              next += dep.getArtifact -> (exclusions ++ dep.getExclusions.map(e => e.getGroupId -> e.getArtifactId))
+            }
+          }
+      }
+      level = next
     }
+    collected.values.toSeq
   }
 
+  private[this] def versionlessKey(artifact: AetherArtifact): String =
+    s"${artifact.getGroupId}:${artifact.getArtifactId}:${artifact.getExtension}:${artifact.getClassifier}"
+
+  private[this] def matches(pattern: String, value: String): Boolean = pattern == "*" || pattern == value
+
+  /**
+   * run the function on every element in the resolver pool, and wait for all results.
+   */
+  private[this] def parallel[T, R](elements: Seq[T])(func: T => R): Seq[R] = {
+    val futures = elements.map { element =>
+      resolveExecutor.submit(new Callable[R] {
+        override def call(): R = func(element)
+      })
+    }
+    futures.map { future =>
+      try future.get() catch {
+        case e: ExecutionException => throw e.getCause
+      }
+    }
+  }
 
   /**
    * create composite maven endpoint
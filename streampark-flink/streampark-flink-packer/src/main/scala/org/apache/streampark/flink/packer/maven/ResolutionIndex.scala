@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.packer.maven
+
+import org.apache.commons.codec.digest.DigestUtils
+import org.apache.commons.io.FileUtils
+import org.apache.streampark.common.conf.Workspace
+import org.apache.streampark.common.util.Logger
+import org.eclipse.aether.artifact.{Artifact => AetherArtifact}
+import org.eclipse.aether.repository.RemoteRepository
+
+import java.io.File
+import java.nio.charset.StandardCharsets
+import java.nio.file.{Files, StandardCopyOption}
+import java.util.UUID
+import scala.collection.JavaConversions._
+import scala.util.Try
+
+/**
+ * Persistent index from the requested maven artifacts and the remote repositories
+ * to the jar files resolved for them, so that resolving the same set of artifacts
+ * again doesn't need to read any artifact descriptor.
+ *
+ * Each entry is a plain text file named by the digest of the request, which lists
+ * the absolute paths of the resolved jars line by line. An entry is ignored once any
+ * of the jars is gone from the local repository. SNAPSHOT and version ranges are
+ * never indexed, since they may resolve to other jars later.
+ */
+private[maven] object ResolutionIndex extends Logger {
+
+  /**
+   * bump it when the resolution logic changes, it invalidates all the index entries.
+   */
+  private[this] val VERSION = "1"
+
+  private[this] lazy val indexDir = new File(Workspace.MAVEN_RESOLUTION_INDEX_PATH)
+
+  def get(artifacts: Set[AetherArtifact], remoteRepos: List[RemoteRepository]): Option[Set[File]] = {
+    if (!indexable(artifacts)) None else {
+      val entry = entryFile(artifacts, remoteRepos)
+      Try(FileUtils.readLines(entry, StandardCharsets.UTF_8)).toOption
+        .map(_.filter(_.nonEmpty).map(new File(_)).toSet)
+        .filter(_.forall(_.isFile))
+    }
+  }
+
+  def put(artifacts: Set[AetherArtifact], remoteRepos: List[RemoteRepository], files: Set[File]): Unit = {
+    if (indexable(artifacts) && !files.exists(_.getName.contains("SNAPSHOT"))) {
+      val entry = entryFile(artifacts, remoteRepos)
+      val tmp = new File(indexDir, s"${entry.getName}.${UUID.randomUUID()}.tmp")
+      Try {
+        FileUtils.forceMkdir(indexDir)
+        FileUtils.writeLines(tmp, StandardCharsets.UTF_8.name(), files.map(_.getAbsolutePath).toSeq.sorted)
+        Try(Files.move(tmp.toPath, entry.toPath, StandardCopyOption.ATOMIC_MOVE))
+          .getOrElse(Files.move(tmp.toPath, entry.toPath, StandardCopyOption.REPLACE_EXISTING))
+      }.failed.foreach { e =>
+        logWarn(s"failed to write the maven resolution index ${entry.getName}: ${e.getMessage}")
+        tmp.delete()
+      }
+    }
+  }
+
+  private[this] def indexable(artifacts: Set[AetherArtifact]): Boolean = {
+    artifacts.forall(a => !a.isSnapshot && !a.getVersion.exists(c => c == '[' || c == '(' || c == ','))
+  }
+
+  private[this] def entryFile(artifacts: Set[AetherArtifact], remoteRepos: List[RemoteRepository]): File = {
+    new File(indexDir, key(artifacts, remoteRepos))
+  }
+
+  /**
+   * digest of the requested artifacts and the remote repositories.
+   */
+  def key(artifacts: Set[AetherArtifact], remoteRepos: List[RemoteRepository]): String = {
+    val gavs = artifacts.map(_.toString).toSeq.sorted
+    val repos = remoteRepos.map { repo =>
+      val user = Option(repo.getAuthentication).map(_.toString).getOrElse("")
+      s"${repo.getId}@${repo.getUrl}#$user"
+    }.sorted
+    DigestUtils.sha256Hex((VERSION +: (gavs ++ repos)).mkString("|"))
+  }
+
+}
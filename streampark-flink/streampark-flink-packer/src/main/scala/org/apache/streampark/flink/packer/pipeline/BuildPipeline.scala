@@ -18,9 +18,10 @@
 package org.apache.streampark.flink.packer.pipeline
 
 import org.apache.streampark.common.util.{Logger, ThreadUtils}
+import org.apache.streampark.flink.packer.{BuildQueueClock, BuildResource, BuildScheduler}
 import org.apache.streampark.flink.packer.pipeline.BuildPipeline.executor
 
-import java.util.concurrent.{Callable, LinkedBlockingQueue, ThreadPoolExecutor, TimeUnit}
+import java.util.concurrent.{Callable, Future, LinkedBlockingQueue, ThreadPoolExecutor, TimeUnit, TimeoutException}
 import scala.collection.JavaConverters._
 import scala.collection.mutable
 import scala.concurrent.{ExecutionContext, ExecutionContextExecutorService}
@@ -153,13 +154,18 @@ trait BuildPipeline extends BuildPipelineProcess with BuildPipelineExpose with L
    * Launch the building pipeline.
    */
   override def launch(): BuildResult = {
-    pipeStatus = PipelineStatus.running
     Try {
-      watcher.onStart(snapshot)
-      logInfo(s"building pipeline is launching, params=${offerBuildParam.toString}")
-      executor.submit(new Callable[BuildResult] {
-        override def call(): BuildResult = buildProcess()
-      }).get(5, TimeUnit.MINUTES)
+      // the pipeline keeps pending until it gets a pipeline permit.
+      BuildScheduler.run(BuildResource.PIPELINE) {
+        pipeStatus = PipelineStatus.running
+        watcher.onStart(snapshot)
+        logInfo(s"building pipeline is launching, params=${offerBuildParam.toString}")
+        val clock = new BuildQueueClock
+        val future = executor.submit(new Callable[BuildResult] {
+          override def call(): BuildResult = BuildScheduler.withQueueClock(clock)(buildProcess())
+        })
+        awaitBuild(future, clock)
+      }
     } match {
       case Success(result) =>
         pipeStatus = PipelineStatus.success
@@ -177,6 +183,27 @@ trait BuildPipeline extends BuildPipelineProcess with BuildPipelineExpose with L
     }
   }
 
+  /**
+   * wait for the build process, the timeout only counts the time of building, the time queued
+   * for the permits of the build resources is excluded.
+   */
+  private[this] def awaitBuild(future: Future[BuildResult], clock: BuildQueueClock): BuildResult = {
+    val startTime = System.nanoTime
+    var result: Option[BuildResult] = None
+    while (result.isEmpty) {
+      val remaining = startTime + BuildPipeline.BUILD_TIMEOUT_NANOS + clock.queued - System.nanoTime
+      if (remaining <= 0) {
+        throw new TimeoutException(s"building pipeline timeout after ${TimeUnit.NANOSECONDS.toMinutes(BuildPipeline.BUILD_TIMEOUT_NANOS)} minutes")
+      }
+      try {
+        result = Some(future.get(remaining, TimeUnit.NANOSECONDS))
+      } catch {
+        case _: TimeoutException =>
+      }
+    }
+    result.get
+  }
+
   override def getPipeStatus: PipelineStatus = pipeStatus
 
   override def getError: PipeError = error.copy()
@@ -211,6 +238,8 @@ trait BuildPipeline extends BuildPipelineProcess with BuildPipelineExpose with L
 
 object BuildPipeline {
 
+  private val BUILD_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(5)
+
   val execPool = new ThreadPoolExecutor(
     Runtime.getRuntime.availableProcessors * 2,
     300,
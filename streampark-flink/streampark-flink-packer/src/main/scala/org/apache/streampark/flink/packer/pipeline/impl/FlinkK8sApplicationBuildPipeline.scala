@@ -20,11 +20,14 @@ package org.apache.streampark.flink.packer.pipeline.impl
 import com.github.dockerjava.api.command.PushImageCmd
 import com.github.dockerjava.core.command.{HackBuildImageCmd, HackPullImageCmd, HackPushImageCmd}
 import com.google.common.collect.Sets
+import org.apache.streampark.common.conf.{CommonConfig, InternalConfigHolder, Workspace}
 import org.apache.streampark.common.enums.DevelopmentMode
 import org.apache.streampark.common.fs.LfsOperator
 import org.apache.streampark.common.util.ThreadUtils
 import org.apache.streampark.flink.kubernetes.{IngressController, PodTemplateTool}
+import org.apache.streampark.flink.packer.{BuildResource, BuildScheduler, WorkspaceIndex}
 import org.apache.streampark.flink.packer.docker._
+import org.apache.streampark.flink.packer.docker.oci.{ImageReference, OciBlobStore, OciImageBuilder, OciRegistryClient, RegistryImageSource}
 import org.apache.streampark.flink.packer.maven.MavenTool
 import org.apache.streampark.flink.packer.pipeline.BuildPipeline.executor
 import org.apache.streampark.flink.packer.pipeline._
@@ -62,6 +65,7 @@ class FlinkK8sApplicationBuildPipeline(request: FlinkK8sApplicationBuildRequest)
     execStep(1) {
       val buildWorkspace = s"${request.workspace}/${request.clusterId}@${request.k8sNamespace}"
       LfsOperator.mkCleanDirs(buildWorkspace)
+      WorkspaceIndex.touch(buildWorkspace)
       logInfo(s"recreate building workspace: $buildWorkspace")
       buildWorkspace
     }.getOrElse(throw getError.exception)
@@ -126,68 +130,11 @@ class FlinkK8sApplicationBuildPipeline(request: FlinkK8sApplicationBuildRequest)
       compileTag(expectedImageTag, dockerConf.registerAddress, dockerConf.imageNamespace)
     }
 
-    // Step-5: pull flink base image
-    execStep(5) {
-      usingDockerClient {
-        dockerClient =>
-          val pullImageCmd = {
-            // when the register address prefix is explicitly identified on base image tag,
-            // the user's pre-saved docker register auth info would be used.
-            if (dockerConf.registerAddress != null && !baseImageTag.startsWith(dockerConf.registerAddress)) {
-              dockerClient.pullImageCmd(baseImageTag)
-            } else {
-              dockerClient.pullImageCmd(baseImageTag).withAuthConfig(dockerConf.toAuthConf)
-            }
-          }
-          val pullCmdCallback = pullImageCmd.asInstanceOf[HackPullImageCmd]
-            .start(watchDockerPullProcess {
-              pullRsp =>
-                dockerProcess.pull.update(pullRsp)
-                Future(dockerProcessWatcher.onDockerPullProgressChange(dockerProcess.pull.snapshot))
-            })
-          pullCmdCallback.awaitCompletion
-          logInfo(s"already pulled docker image from remote register, imageTag=$baseImageTag")
-      }(err => throw new Exception(s"pull docker image failed, imageTag=$baseImageTag", err))
-    }.getOrElse(throw getError.exception)
-
-    // Step-6: build flink image
-    execStep(6) {
-      usingDockerClient {
-        dockerClient =>
-          val buildImageCmd = dockerClient.buildImageCmd()
-            .withBaseDirectory(new File(buildWorkspace))
-            .withDockerfile(dockerfile)
-            .withTags(Sets.newHashSet(pushImageTag))
-
-          val buildCmdCallback = buildImageCmd.asInstanceOf[HackBuildImageCmd]
-            .start(watchDockerBuildStep {
-              buildStep =>
-                dockerProcess.build.update(buildStep)
-                Future(dockerProcessWatcher.onDockerBuildProgressChange(dockerProcess.build.snapshot))
-            })
-          val imageId = buildCmdCallback.awaitImageId
-          logInfo(s"built docker image, imageId=$imageId, imageTag=$pushImageTag")
-      }(err => throw new Exception(s"build docker image failed. tag=$pushImageTag", err))
-    }.getOrElse(throw getError.exception)
-
-    // Step-7: push flink image
-    execStep(7) {
-      usingDockerClient {
-        dockerClient =>
-          val pushCmd: PushImageCmd = dockerClient
-            .pushImageCmd(pushImageTag)
-            .withAuthConfig(dockerConf.toAuthConf)
-
-          val pushCmdCallback = pushCmd.asInstanceOf[HackPushImageCmd]
-            .start(watchDockerPushProcess {
-              pushRsp =>
-                dockerProcess.push.update(pushRsp)
-                Future(dockerProcessWatcher.onDockerPushProgressChange(dockerProcess.push.snapshot))
-            })
-          pushCmdCallback.awaitCompletion
-          logInfo(s"already pushed docker image, imageTag=$pushImageTag")
-      }(err => throw new Exception(s"push docker image failed. tag=$pushImageTag", err))
-    }.getOrElse(throw getError.exception)
+    if (InternalConfigHolder.get[String](CommonConfig.DOCKER_IMAGE_BUILDER).equalsIgnoreCase("oci")) {
+      buildOciImage(dockerFileTemplate, baseImageTag, pushImageTag)
+    } else {
+      buildDockerImage(buildWorkspace, dockerfile, baseImageTag, pushImageTag)
+    }
 
     // Step-8:  init build workspace of ingress
     val ingressOutputPath = request.ingressTemplate match {
@@ -202,10 +149,138 @@ class FlinkK8sApplicationBuildPipeline(request: FlinkK8sApplicationBuildRequest)
         }.getOrElse(throw getError.exception)
     }
 
+    WorkspaceIndex.record(buildWorkspace)
     DockerImageBuildResponse(buildWorkspace, pushImageTag, podTemplatePaths, dockerFileTemplate.innerMainJarPath)
   }
 
 
+  /**
+   * Step 5-7: pull the base image, build and push the flink image by the docker daemon.
+   */
+  private[this] def buildDockerImage(buildWorkspace: String, dockerfile: File, baseImageTag: String, pushImageTag: String): Unit = {
+    val dockerConf = request.dockerConfig
+
+    // Step-5: pull flink base image
+    execStep(5) {
+      BuildScheduler.runCoalesced(BuildResource.DOCKER, s"pull:$baseImageTag") {
+        usingDockerClient {
+          dockerClient =>
+            val pullImageCmd = {
+              // when the register address prefix is explicitly identified on base image tag,
+              // the user's pre-saved docker register auth info would be used.
+              if (dockerConf.registerAddress != null && !baseImageTag.startsWith(dockerConf.registerAddress)) {
+                dockerClient.pullImageCmd(baseImageTag)
+              } else {
+                dockerClient.pullImageCmd(baseImageTag).withAuthConfig(dockerConf.toAuthConf)
+              }
+            }
+            val pullCmdCallback = pullImageCmd.asInstanceOf[HackPullImageCmd]
+              .start(watchDockerPullProcess {
+                pullRsp =>
+                  dockerProcess.pull.update(pullRsp)
+                  Future(dockerProcessWatcher.onDockerPullProgressChange(dockerProcess.pull.snapshot))
+              })
+            pullCmdCallback.awaitCompletion
+            logInfo(s"already pulled docker image from remote register, imageTag=$baseImageTag")
+        }(err => throw new Exception(s"pull docker image failed, imageTag=$baseImageTag", err))
+      }
+    }.getOrElse(throw getError.exception)
+
+    // Step-6: build flink image
+    execStep(6) {
+      BuildScheduler.run(BuildResource.DOCKER) {
+        usingDockerClient {
+          dockerClient =>
+            val buildImageCmd = dockerClient.buildImageCmd()
+              .withBaseDirectory(new File(buildWorkspace))
+              .withDockerfile(dockerfile)
+              .withTags(Sets.newHashSet(pushImageTag))
+
+            val buildCmdCallback = buildImageCmd.asInstanceOf[HackBuildImageCmd]
+              .start(watchDockerBuildStep {
+                buildStep =>
+                  dockerProcess.build.update(buildStep)
+                  Future(dockerProcessWatcher.onDockerBuildProgressChange(dockerProcess.build.snapshot))
+              })
+            val imageId = buildCmdCallback.awaitImageId
+            logInfo(s"built docker image, imageId=$imageId, imageTag=$pushImageTag")
+        }(err => throw new Exception(s"build docker image failed. tag=$pushImageTag", err))
+      }
+    }.getOrElse(throw getError.exception)
+
+    // Step-7: push flink image
+    execStep(7) {
+      BuildScheduler.run(BuildResource.DOCKER) {
+        usingDockerClient {
+          dockerClient =>
+            val pushCmd: PushImageCmd = dockerClient
+              .pushImageCmd(pushImageTag)
+              .withAuthConfig(dockerConf.toAuthConf)
+
+            val pushCmdCallback = pushCmd.asInstanceOf[HackPushImageCmd]
+              .start(watchDockerPushProcess {
+                pushRsp =>
+                  dockerProcess.push.update(pushRsp)
+                  Future(dockerProcessWatcher.onDockerPushProgressChange(dockerProcess.push.snapshot))
+              })
+            pushCmdCallback.awaitCompletion
+            logInfo(s"already pushed docker image, imageTag=$pushImageTag")
+        }(err => throw new Exception(s"push docker image failed. tag=$pushImageTag", err))
+      }
+    }.getOrElse(throw getError.exception)
+  }
+
+  /**
+   * Step 5-7: build and push the flink image without the docker daemon. the base image is not
+   * pulled, only its manifest and config are fetched, the image layers are built locally and
+   * only the blobs missing in the register are pushed.
+   */
+  private[this] def buildOciImage(dockerFileTemplate: FlinkDockerfileTemplateTrait, baseImageTag: String, pushImageTag: String): Unit = {
+    val dockerConf = request.dockerConfig
+    val baseImage = ImageReference.parse(baseImageTag)
+    val pushImage = ImageReference.parse(pushImageTag)
+    // same as the docker daemon, the user's register auth info is used for the base image
+    // only when its tag is prefixed with the register address.
+    val baseClient = {
+      if (dockerConf.registerAddress != null && !baseImageTag.startsWith(dockerConf.registerAddress)) {
+        new OciRegistryClient(baseImage.registry, null, null)
+      } else {
+        new OciRegistryClient(baseImage.registry, dockerConf.registerUsername, dockerConf.registerPassword)
+      }
+    }
+    val pushClient = new OciRegistryClient(pushImage.registry, dockerConf.registerUsername, dockerConf.registerPassword)
+    val builder = new OciImageBuilder(new OciBlobStore(new File(Workspace.OCI_BLOB_LOCAL_PATH)))
+    try {
+      // Step-5: resolve flink base image
+      val baseSource =
+        execStep(5) {
+          val source = new RegistryImageSource(baseClient, baseImage, InternalConfigHolder.get[String](CommonConfig.DOCKER_OCI_PLATFORM))
+          BuildScheduler.run(BuildResource.DOCKER)(source.manifest)
+          logInfo(s"resolved base image $baseImageTag, digest=${source.manifest.descriptor.digest}")
+          source
+        }.getOrElse(throw getError.exception)
+
+      // Step-6: build flink image
+      val image =
+        execStep(6) {
+          val image = BuildScheduler.run(BuildResource.SHADE) {
+            builder.build(baseSource, dockerFileTemplate.offerImageLayers, dockerFileTemplate.offerImageEnv)
+          }
+          logInfo(s"built oci image, digest=${image.manifest.descriptor.digest}, imageTag=$pushImageTag")
+          image
+        }.getOrElse(throw getError.exception)
+
+      // Step-7: push flink image
+      execStep(7) {
+        BuildScheduler.run(BuildResource.DOCKER)(pushClient.push(image, builder, pushImage))
+        logInfo(s"already pushed oci image, imageTag=$pushImageTag")
+      }.getOrElse(throw getError.exception)
+    } finally {
+      baseClient.close()
+      pushClient.close()
+    }
+  }
+
   /**
    * compile image tag with namespace and remote address.
    */
@@ -20,6 +20,7 @@ package org.apache.streampark.flink.packer.pipeline.impl
 import org.apache.streampark.common.fs.LfsOperator
 import org.apache.streampark.common.util.DateUtils
 import org.apache.streampark.common.util.DateUtils.fullCompact
+import org.apache.streampark.flink.packer.WorkspaceIndex
 import org.apache.streampark.flink.packer.maven.MavenTool
 import org.apache.streampark.flink.packer.pipeline._
 
@@ -44,6 +45,7 @@ class FlinkK8sSessionBuildPipeline(request: FlinkK8sSessionBuildRequest) extends
     execStep(1) {
       val buildWorkspace = s"${request.workspace}/${request.clusterId}@${request.k8sNamespace}"
       LfsOperator.mkCleanDirs(buildWorkspace)
+      WorkspaceIndex.touch(buildWorkspace)
       logInfo(s"recreate building workspace: $buildWorkspace")
       buildWorkspace
     }.getOrElse(throw getError.exception)
@@ -57,6 +59,7 @@ class FlinkK8sSessionBuildPipeline(request: FlinkK8sSessionBuildRequest) extends
       output
     }.getOrElse(throw getError.exception)
 
+    WorkspaceIndex.record(buildWorkspace)
     ShadedBuildResponse(buildWorkspace, shadedJar.getAbsolutePath)
   }
 }
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.packer
+
+import org.scalatest.matchers.must.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.{Callable, CountDownLatch, Executors, TimeUnit}
+import scala.collection.JavaConverters._
+
+class BuildSchedulerSpec extends AnyWordSpec with Matchers {
+
+  private def submitAll[T](n: Int)(task: Int => T): Seq[T] = {
+    val pool = Executors.newFixedThreadPool(n)
+    try {
+      val futures = (0 until n).map(i => pool.submit(new Callable[T] {
+        override def call(): T = task(i)
+      }))
+      futures.map(_.get(30, TimeUnit.SECONDS))
+    } finally {
+      pool.shutdownNow()
+    }
+  }
+
+  "BuildScheduler" when {
+    "run tasks of a resource" should {
+      "not exceed the concurrency of the resource" in {
+        val permits = BuildScheduler.snapshot.find(_.resource == BuildResource.DOCKER.name).get.permits
+        val running = new AtomicInteger()
+        val maxRunning = new AtomicInteger()
+        submitAll(permits * 3) { _ =>
+          BuildScheduler.run(BuildResource.DOCKER) {
+            val current = running.incrementAndGet()
+            maxRunning.accumulateAndGet(current, Math.max(_, _))
+            Thread.sleep(50)
+            running.decrementAndGet()
+          }
+        }
+        maxRunning.get must be <= permits
+        BuildScheduler.snapshot.find(_.resource == BuildResource.DOCKER.name).get.running mustBe 0
+      }
+    }
+
+    "run identical tasks at the same time" should {
+      "run only one of them and share its result" in {
+        val executed = new AtomicInteger()
+        val started = new CountDownLatch(1)
+        val results = submitAll(4) { i =>
+          if (i > 0) started.await()
+          BuildScheduler.runCoalesced(BuildResource.MAVEN, "same-key") {
+            started.countDown()
+            Thread.sleep(500)
+            executed.incrementAndGet()
+          }
+        }
+        executed.get mustBe 1
+        results.toSet mustBe Set(1)
+      }
+
+      "rethrow the exception of the running one" in {
+        val started = new CountDownLatch(1)
+        val errors = submitAll(3) { i =>
+          if (i > 0) started.await()
+          try {
+            BuildScheduler.runCoalesced(BuildResource.MAVEN, "failed-key") {
+              started.countDown()
+              Thread.sleep(500)
+              throw new IllegalStateException("boom")
+            }
+            None
+          } catch {
+            case e: IllegalStateException => Some(e.getMessage)
+          }
+        }
+        errors mustBe Seq.fill(3)(Some("boom"))
+      }
+    }
+
+    "run tasks with a queue clock" should {
+      "record only the time waiting for the permits" in {
+        val permits = BuildScheduler.snapshot.find(_.resource == BuildResource.SHADE.name).get.permits
+        val holding = new CountDownLatch(permits)
+        val clock = new BuildQueueClock
+        submitAll(permits + 1) { i =>
+          if (i < permits) {
+            BuildScheduler.run(BuildResource.SHADE) {
+              holding.countDown()
+              Thread.sleep(500)
+            }
+          } else {
+            holding.await()
+            BuildScheduler.withQueueClock(clock) {
+              BuildScheduler.run(BuildResource.SHADE)(Thread.sleep(500))
+            }
+          }
+        }
+        TimeUnit.NANOSECONDS.toMillis(clock.queued) must be >= 300L
+        TimeUnit.NANOSECONDS.toMillis(clock.queued) must be < 1000L
+      }
+    }
+
+    "take a snapshot" should {
+      "contain all the resources" in {
+        BuildScheduler.snapshotAsJava.asScala.map(_.get("resource")) mustBe BuildResource.values.map(_.name)
+      }
+    }
+  }
+
+}
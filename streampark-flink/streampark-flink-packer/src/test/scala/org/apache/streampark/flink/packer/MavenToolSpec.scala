@@ -64,6 +64,15 @@ class MavenToolSpec extends AnyWordSpec with BeforeAndAfterAll with Matchers {
         assert(jarEquals(new JarFile(fatJarPath), new JarFile(path("jars/commons-dbutils-1.7.jar")), "org/apache/commons/dbutils/DbUtils.class"))
         assert(jarEquals(new JarFile(fatJarPath), new JarFile(path("jars/commons-logging-1.2.jar")), "org/apache/commons/logging/Log.class"))
       }
+      "with the same jarlibs again" in {
+        val jarLibs = Set(path("jars/commons-cli-1.4.jar"), path("jars/commons-dbutils-1.7.jar"))
+        val fatJar1 = MavenTool.buildFatJar("org.apache.commons.cli.Main", jarLibs, outputDir.concat("fat-4.jar"))
+        val fatJar2 = MavenTool.buildFatJar("org.apache.commons.cli.Main", jarLibs, outputDir.concat("fat-5.jar"))
+        fatJar2.exists() mustBe true
+        FileUtils.contentEquals(fatJar1, fatJar2) mustBe true
+        new JarFile(fatJar2).getManifest.getMainAttributes.getValue("Main-Class") mustBe "org.apache.commons.cli.Main"
+        assert(jarEquals(new JarFile(fatJar2), new JarFile(path("jars/commons-dbutils-1.7.jar")), "org/apache/commons/dbutils/DbUtils.class"))
+      }
       "with jarlibs and maven artifacts" in {
         val fatJarPath = outputDir.concat("fat-3.jar")
         val fatJar = MavenTool.buildFatJar(
@@ -108,6 +117,18 @@ class MavenToolSpec extends AnyWordSpec with BeforeAndAfterAll with Matchers {
         jars.map(_.getName).sameElements(expectJars) mustBe true
         FileUtils.deleteDirectory(new File(outputDir))
       }
+      "with transitive dependencies" in {
+        val artifacts = Set(Artifact.of("org.apache.httpcomponents:httpclient:4.5.13"))
+        val jars = MavenTool.resolveArtifacts(artifacts)
+        val expectJars = Set(
+          "httpclient-4.5.13.jar",
+          "httpcore-4.4.13.jar",
+          "commons-logging-1.2.jar",
+          "commons-codec-1.11.jar")
+        jars.map(_.getName) mustBe expectJars
+        // resolved from the resolution index
+        MavenTool.resolveArtifacts(artifacts) mustBe jars
+      }
 
     }
   }
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.packer
+
+import org.apache.commons.io.FileUtils
+import org.apache.streampark.flink.packer.docker.oci._
+import org.json4s.jackson.JsonMethods.parse
+import org.json4s.{DefaultFormats, Formats}
+import org.scalatest.BeforeAndAfterAll
+import org.scalatest.matchers.must.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import java.io.{ByteArrayInputStream, File, InputStream}
+import java.nio.charset.StandardCharsets
+
+class OciImageBuilderSpec extends AnyWordSpec with BeforeAndAfterAll with Matchers {
+
+  private implicit val formats: Formats = DefaultFormats
+
+  val outputDir = new File("OciImageBuilderSpec-output/")
+
+  lazy val store = new OciBlobStore(new File(outputDir, "store"))
+
+  lazy val builder = new OciImageBuilder(store)
+
+  lazy val baseImage: OciImageSource = new OciImageSource {
+    override val configBytes: Array[Byte] =
+      """{"architecture":"amd64","os":"linux","config":{"Env":["PATH=/usr/bin","FLINK_HOME=/opt/flink"]},
+        |"rootfs":{"type":"layers","diff_ids":[]},"history":[]}""".stripMargin.getBytes(StandardCharsets.UTF_8)
+
+    override val manifest: OciManifest = OciManifest(
+      MediaType.OCI_MANIFEST,
+      OciDescriptor(MediaType.OCI_CONFIG, Digests.sha256(configBytes), configBytes.length),
+      Seq.empty)
+
+    override def openBlob(digest: String): InputStream = {
+      require(digest == manifest.config.digest)
+      new ByteArrayInputStream(configBytes)
+    }
+  }
+
+  override protected def beforeAll(): Unit = {
+    FileUtils.deleteDirectory(outputDir)
+    FileUtils.forceMkdir(outputDir)
+    FileUtils.write(new File(outputDir, "lib/connector.jar"), "connector", StandardCharsets.UTF_8)
+    FileUtils.write(new File(outputDir, "lib/format.jar"), "format", StandardCharsets.UTF_8)
+    FileUtils.write(new File(outputDir, "job.jar"), "job-v1", StandardCharsets.UTF_8)
+  }
+
+  override protected def afterAll(): Unit = {
+    FileUtils.deleteDirectory(outputDir)
+  }
+
+  def layers: Seq[ImageLayer] = Seq(
+    ImageLayer("flink-lib", Seq(LayerEntry(new File(outputDir, "lib"), "/opt/flink/lib"))),
+    ImageLayer("flink-usrlib", Seq(LayerEntry(new File(outputDir, "job.jar"), "/opt/flink/usrlib/job.jar"))))
+
+  "OciImageBuilder" when {
+    "build image" should {
+      "be reproducible" in {
+        val image1 = builder.build(baseImage, layers, Map("HADOOP_CONF_DIR" -> "/opt/hadoop-conf"))
+        val image2 = builder.build(baseImage, layers, Map("HADOOP_CONF_DIR" -> "/opt/hadoop-conf"))
+        image1.manifest.layers.size mustBe 2
+        image2.manifest.descriptor mustBe image1.manifest.descriptor
+      }
+      "derive the config from the base image" in {
+        val image = builder.build(baseImage, layers, Map("HADOOP_CONF_DIR" -> "/opt/hadoop-conf", "PATH" -> "/bin"))
+        val config = parse(FileUtils.readFileToString(builder.blob(image, image.manifest.config.digest), StandardCharsets.UTF_8))
+        (config \ "config" \ "Env").extract[Seq[String]] mustBe Seq("FLINK_HOME=/opt/flink", "HADOOP_CONF_DIR=/opt/hadoop-conf", "PATH=/bin")
+        (config \ "rootfs" \ "diff_ids").extract[Seq[String]] mustBe image.layers.map(_.diffId)
+        (config \ "history").children.size mustBe 2
+      }
+      "only rebuild the changed layer" in {
+        val image1 = builder.build(baseImage, layers, Map.empty)
+        FileUtils.write(new File(outputDir, "job.jar"), "job-v2", StandardCharsets.UTF_8)
+        val image2 = builder.build(baseImage, layers, Map.empty)
+        image2.manifest.layers.head mustBe image1.manifest.layers.head
+        image2.manifest.layers.last mustNot be(image1.manifest.layers.last)
+      }
+    }
+
+    "write image layout" should {
+      "read back the same image" in {
+        val layout = new OciImageLayout(new File(outputDir, "layout"))
+        val image = builder.build(baseImage, layers, Map.empty)
+        layout.write(image, builder, "v1")
+        layout.write(image, builder, "v2")
+        new File(layout.dir, "oci-layout").exists() mustBe true
+        (image.manifest.layers :+ image.manifest.config).forall(d => layout.blobFile(d.digest).length == d.size) mustBe true
+        val source = layout.source("v1")
+        source.manifest mustBe image.manifest
+        source.manifest.descriptor mustBe image.manifest.descriptor
+        // the layout image can be used as the base image
+        val derived = builder.build(source, layers.take(1), Map.empty)
+        derived.manifest.layers.size mustBe 3
+      }
+    }
+  }
+
+  "ImageReference" should {
+    "parse docker hub images" in {
+      ImageReference.parse("flink:1.14") mustBe ImageReference("registry-1.docker.io", "library/flink", "1.14")
+      ImageReference.parse("docker.io/apache/flink") mustBe ImageReference("registry-1.docker.io", "apache/flink", "latest")
+    }
+    "parse private register images" in {
+      ImageReference.parse("localhost:5000/streampark/flink") mustBe ImageReference("localhost:5000", "streampark/flink", "latest")
+      ImageReference.parse("hub.example.com/flink@sha256:abc") mustBe ImageReference("hub.example.com", "flink", "sha256:abc")
+    }
+    "parse images with both tag and digest" in {
+      ImageReference.parse("flink:1.14@sha256:abc") mustBe ImageReference("registry-1.docker.io", "library/flink", "sha256:abc")
+      ImageReference.parse("localhost:5000/streampark/flink:1.14@sha256:abc") mustBe ImageReference("localhost:5000", "streampark/flink", "sha256:abc")
+    }
+  }
+
+}
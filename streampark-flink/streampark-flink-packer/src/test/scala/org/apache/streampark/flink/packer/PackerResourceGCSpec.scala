@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.packer
+
+import org.apache.commons.io.FileUtils
+import org.scalatest.BeforeAndAfterEach
+import org.scalatest.matchers.must.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import java.io.File
+import java.nio.file.Files
+import java.util.concurrent.TimeUnit
+
+class PackerResourceGCSpec extends AnyWordSpec with Matchers with BeforeAndAfterEach {
+
+  private var root: File = _
+
+  override def beforeEach(): Unit = root = Files.createTempDirectory("packer-gc").toFile
+
+  override def afterEach(): Unit = FileUtils.deleteQuietly(root)
+
+  private def workspace(key: String, bytes: Int, hoursAgo: Long = 0): File = {
+    val dir = new File(root, key)
+    dir.mkdirs()
+    Files.write(new File(dir, "job.jar").toPath, new Array[Byte](bytes))
+    dir.setLastModified(System.currentTimeMillis - TimeUnit.HOURS.toMillis(hoursAgo))
+    dir
+  }
+
+  "WorkspaceIndex" when {
+    "record a workspace" should {
+      "measure its size apart from the hard-linked files" in {
+        val index = new WorkspaceIndex(root)
+        val dir = workspace("1/cluster@ns", 1000)
+        val shared = new File(root, "shared.jar")
+        Files.write(shared.toPath, new Array[Byte](5000))
+        Files.createLink(new File(dir, "shared.jar").toPath, shared.toPath)
+        index.record(dir)
+        index.get("1/cluster@ns").map(_.size) mustBe Some(1000L)
+        index.get("1/cluster@ns").map(_.linked.values.toSeq) mustBe Some(Seq(5000L))
+      }
+
+      "ignore the directories out of the root" in {
+        val index = new WorkspaceIndex(root)
+        index.record(new File(root.getParentFile, "other@ns"))
+        index.record(new File(root, "1"))
+        index.snapshot mustBe empty
+      }
+    }
+
+    "sync with the disk" should {
+      "discover the existing workspaces once and drop the removed ones" in {
+        workspace("1/a@ns", 100)
+        workspace("b@ns", 100)
+        workspace("2/lib", 100)
+        val index = new WorkspaceIndex(root)
+        index.sync()
+        index.snapshot.keySet mustBe Set("1/a@ns", "b@ns")
+
+        FileUtils.deleteDirectory(new File(root, "b@ns"))
+        workspace("3/c@ns", 100)
+        index.sync()
+        index.snapshot.keySet mustBe Set("1/a@ns")
+      }
+
+      "reload the persisted index" in {
+        val index = new WorkspaceIndex(root)
+        index.record(workspace("1/a@ns", 100))
+        workspace("2/b@ns", 100)
+        index.sync()
+        index.persist()
+
+        val reloaded = new WorkspaceIndex(root)
+        reloaded.sync()
+        reloaded.snapshot mustBe index.snapshot
+      }
+    }
+  }
+
+  "PackerResourceGC" when {
+    "collect the build workspaces" should {
+      "evict the expired ones and the least recently used ones beyond the budget" in {
+        workspace("1/a@ns", 3000, hoursAgo = 240)
+        workspace("2/b@ns", 2000, hoursAgo = 5)
+        workspace("3/c@ns", 1000, hoursAgo = 2)
+        val index = new WorkspaceIndex(root)
+        index.sync()
+        index.record(workspace("4/d@ns", 500))
+
+        PackerResourceGC.gc(index, expiredHours = 120, maxBytes = 2500) mustBe Seq("1/a@ns", "2/b@ns")
+        new File(root, "1/a@ns").exists() mustBe false
+        new File(root, "2/b@ns").exists() mustBe false
+        index.snapshot.keySet mustBe Set("3/c@ns", "4/d@ns")
+      }
+
+      "release the shared files with the last workspace linking them" in {
+        val shared = new File(root, "shared.jar")
+        Files.write(shared.toPath, new Array[Byte](5000))
+        Seq("1/a@ns" -> 4L, "2/b@ns" -> 3L).foreach { case (key, hoursAgo) =>
+          val dir = workspace(key, 100, hoursAgo)
+          Files.createLink(new File(dir, "shared.jar").toPath, shared.toPath)
+          dir.setLastModified(System.currentTimeMillis - TimeUnit.HOURS.toMillis(hoursAgo))
+        }
+        workspace("3/c@ns", 100, hoursAgo = 2)
+        val index = new WorkspaceIndex(root)
+
+        // 300 owned bytes and the shared 5000 bytes counted once.
+        PackerResourceGC.gc(index, expiredHours = 120, maxBytes = 5300) mustBe empty
+        PackerResourceGC.gc(index, expiredHours = 120, maxBytes = 5250) mustBe Seq("1/a@ns")
+        PackerResourceGC.gc(index, expiredHours = 120, maxBytes = 5000) mustBe Seq("2/b@ns")
+      }
+
+      "never evict the recently used ones" in {
+        val index = new WorkspaceIndex(root)
+        index.record(workspace("1/a@ns", 3000))
+        PackerResourceGC.gc(index, expiredHours = 0, maxBytes = 1) mustBe empty
+      }
+
+      "delete a slice of the workspaces each run" in {
+        (1 to PackerResourceGC.SLICE_SIZE + 4).foreach(i => workspace(s"$i/a@ns", 10, hoursAgo = 240))
+        val index = new WorkspaceIndex(root)
+        PackerResourceGC.gc(index, expiredHours = 120, maxBytes = 0).size mustBe PackerResourceGC.SLICE_SIZE
+        PackerResourceGC.gc(index, expiredHours = 120, maxBytes = 0).size mustBe 4
+      }
+    }
+  }
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.proxy.benchmark;
+
+import org.apache.streampark.flink.proxy.ChildFirstClassLoader;
+
+import org.apache.flink.configuration.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.regex.Pattern;
+
+/**
+ * Loading classes through one shims classloader from many threads, like the concurrent sql verifications
+ * and submissions of the console. The classloader loads flink-core child-first, the jmh classes are only
+ * in the parent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+public class ChildFirstClassLoaderBenchmark {
+
+    private static final int THREADS = 8;
+
+    private static final Pattern FLINK_RESOURCE_PATTERN = Pattern.compile("flink-(.*)-1.14(.*).jar");
+
+    private File childJar;
+
+    private URL[] childUrls;
+
+    /** classes in the urls of the classloader. */
+    private String[] childClasses;
+
+    /** classes only in the parent classloader. */
+    private String[] parentClasses;
+
+    /** classes always loaded from the parent classloader. */
+    private final String[] parentFirstClasses = {
+        "java.lang.String", "java.util.HashMap", "java.util.concurrent.ConcurrentHashMap",
+        "org.slf4j.Logger", "org.slf4j.LoggerFactory", "javax.xml.parsers.DocumentBuilder"
+    };
+
+    private ChildFirstClassLoader classLoader;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int index;
+
+        int next(int size) {
+            index = index + 1 == size ? 0 : index + 1;
+            return index;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        // the benchmark jar is shaded, so the flink classes are copied to the jar of the classloader.
+        File benchmarkJar = new File(Configuration.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        childJar = File.createTempFile("benchmark-flink-core", ".jar");
+        String[] flinkClasses = copyClasses(benchmarkJar, "org/apache/flink/", childJar, Integer.MAX_VALUE);
+        childUrls = new URL[] {childJar.toURI().toURL()};
+        classLoader = newClassLoader();
+        // some flink classes could not be loaded on the newer jdks, they are skipped.
+        List<String> loadable = new ArrayList<>(2000);
+        for (int i = 0; i < flinkClasses.length && loadable.size() < 2000; i++) {
+            try {
+                classLoader.loadClass(flinkClasses[i]);
+                loadable.add(flinkClasses[i]);
+            } catch (ClassNotFoundException | LinkageError ignored) {
+                // not loadable
+            }
+        }
+        childClasses = loadable.toArray(new String[0]);
+        parentClasses = copyClasses(benchmarkJar, "org/openjdk/jmh/", null, 500);
+        for (String name : parentClasses) {
+            classLoader.loadClass(name);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        classLoader.close();
+        Files.deleteIfExists(childJar.toPath());
+    }
+
+    @Benchmark
+    public Class<?> loadLoadedClass(Cursor cursor) throws ClassNotFoundException {
+        return classLoader.loadClass(childClasses[cursor.next(childClasses.length)]);
+    }
+
+    @Benchmark
+    public Class<?> loadParentClass(Cursor cursor) throws ClassNotFoundException {
+        return classLoader.loadClass(parentClasses[cursor.next(parentClasses.length)]);
+    }
+
+    @Benchmark
+    public Class<?> loadParentFirstClass(Cursor cursor) throws ClassNotFoundException {
+        return classLoader.loadClass(parentFirstClasses[cursor.next(parentFirstClasses.length)]);
+    }
+
+    /**
+     * define all the child classes by a new classloader from the threads at the same time.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Threads(1)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public void loadColdClasses(Blackhole blackhole) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try (ChildFirstClassLoader coldClassLoader = newClassLoader()) {
+            List<Future<?>> futures = new ArrayList<>(THREADS);
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < childClasses.length; i++) {
+                        String name = childClasses[(i + offset * childClasses.length / THREADS) % childClasses.length];
+                        blackhole.consume(coldClassLoader.loadClass(name));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ChildFirstClassLoader newClassLoader() {
+        return new ChildFirstClassLoader(childUrls, getClass().getClassLoader(), FLINK_RESOURCE_PATTERN);
+    }
+
+    /**
+     * names of the classes under the package of the jar, and copy them to the target jar if it's not null.
+     */
+    private static String[] copyClasses(File jar, String packagePath, File target, int limit) throws IOException {
+        List<String> classes = new ArrayList<>();
+        try (JarFile jarFile = new JarFile(jar);
+            JarOutputStream out = target == null ? null : new JarOutputStream(new FileOutputStream(target))) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (!name.startsWith(packagePath) || !name.endsWith(".class") || name.contains("-info")) {
+                    continue;
+                }
+                if (classes.size() < limit) {
+                    classes.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+                }
+                if (out != null) {
+                    out.putNextEntry(new JarEntry(name));
+                    try (InputStream in = jarFile.getInputStream(entry)) {
+                        byte[] buffer = new byte[8192];
+                        for (int n = in.read(buffer); n > 0; n = in.read(buffer)) {
+                            out.write(buffer, 0, n);
+                        }
+                    }
+                    out.closeEntry();
+                }
+            }
+        }
+        return classes.toArray(new String[0]);
+    }
+
+}
@@ -20,9 +20,11 @@ package org.apache.streampark.flink.proxy
 import java.io.{File, IOException}
 import java.net.{URL, URLClassLoader}
 import java.util
-import java.util.function.Consumer
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.{Consumer, Function => JavaFunc}
 import java.util.regex.Pattern
-import scala.util.Try
+import scala.util.{Failure, Success, Try}
 
 /**
  * A variant of the URLClassLoader that first loads from the URLs and only after that from the
@@ -37,7 +39,7 @@ class ChildFirstClassLoader(urls: Array[URL],
                             parent: ClassLoader,
                             flinkResourcePattern: Pattern,
                             classLoadingExceptionHandler: Consumer[Throwable]
-                           ) extends URLClassLoader(urls, parent) {
+                           ) extends URLClassLoader(ChildFirstClassLoader.ensureParallelCapable(urls), parent) {
 
   ClassLoader.registerAsParallelCapable()
 
@@ -51,21 +53,62 @@ class ChildFirstClassLoader(urls: Array[URL],
 
   private val JAR_PROTOCOL = "jar"
 
-  private val PARENT_FIRST_PATTERNS = List(
-    "java.",
-    "javax.xml",
-    "org.slf4j",
-    "org.apache.log4j",
-    "org.apache.logging",
-    "org.apache.commons.logging",
-    "ch.qos.logback",
-    "org.xml",
-    "org.w3c",
-    "org.apache.hadoop"
-  )
+  /**
+   * the classes not found in the urls of this classloader, which are always loaded from the parent.
+   * the urls never change, so the names are cached without expiration, up to the max size.
+   */
+  private val missingClasses = ConcurrentHashMap.newKeySet[String]()
+
+  private val definedClassCount = new AtomicInteger()
+
+  /**
+   * number of the classes defined by this classloader.
+   */
+  def definedClasses: Int = definedClassCount.get()
+
+  private val bridges = new ConcurrentHashMap[ClassLoader, ClassLoaderBridge]()
+
+  /**
+   * bridge to pass objects between the outer classloader and this one, it is cached here
+   * to live and die with this classloader.
+   */
+  def bridge(outer: ClassLoader): ClassLoaderBridge = {
+    bridges.computeIfAbsent(outer, new JavaFunc[ClassLoader, ClassLoaderBridge] {
+      override def apply(o: ClassLoader): ClassLoaderBridge = new ClassLoaderBridge(o, ChildFirstClassLoader.this)
+    })
+  }
+
+  /**
+   * run the close hooks of the bridges without closing this classloader, so that the resources
+   * held by its objects, like the threads of the pooled clients, are released.
+   */
+  def releaseResources(): Unit = {
+    bridges.values().forEach(new Consumer[ClassLoaderBridge] {
+      override def accept(bridge: ClassLoaderBridge): Unit = bridge.runCloseHooks()
+    })
+  }
+
+  override def close(): Unit = {
+    bridges.values().forEach(new Consumer[ClassLoaderBridge] {
+      override def accept(bridge: ClassLoaderBridge): Unit = bridge.close()
+    })
+    bridges.clear()
+    super.close()
+  }
+
+  @throws[ClassNotFoundException] override def findClass(name: String): Class[_] = {
+    val clazz = super.findClass(name)
+    definedClassCount.incrementAndGet()
+    clazz
+  }
 
   @throws[ClassNotFoundException] override def loadClass(name: String, resolve: Boolean): Class[_] = {
-    try this.synchronized {
+    // the loaded classes are returned without locking
+    val loaded = findLoadedClass(name)
+    if (loaded != null && !resolve) {
+      return loaded
+    }
+    try getClassLoadingLock(name).synchronized {
       return this.loadClassWithoutExceptionHandling(name, resolve)
     } catch {
       case e: Throwable =>
@@ -138,12 +181,22 @@ class ChildFirstClassLoader(urls: Array[URL],
     super.findLoadedClass(name) match {
       case null =>
         // check whether the class should go parent-first
-        for (parentFirstPattern <- PARENT_FIRST_PATTERNS) {
-          if (name.startsWith(parentFirstPattern)) {
-            return super.loadClass(name, resolve)
-          }
+        if (ChildFirstClassLoader.PARENT_FIRST_PATTERNS.matches(name) || missingClasses.contains(name)) {
+          return super.loadClass(name, resolve)
+        }
+        Try(findClass(name)) match {
+          case Success(c) =>
+            if (resolve) {
+              resolveClass(c)
+            }
+            c
+          case Failure(_: ClassNotFoundException) =>
+            if (missingClasses.size() < ChildFirstClassLoader.MAX_MISSING_CLASSES) {
+              missingClasses.add(name)
+            }
+            super.loadClass(name, resolve)
+          case Failure(_) => super.loadClass(name, resolve)
         }
-        Try(findClass(name)).getOrElse(super.loadClass(name, resolve))
       case c =>
         if (resolve) {
           resolveClass(c)
@@ -153,3 +206,69 @@ class ChildFirstClassLoader(urls: Array[URL],
   }
 
 }
+
+object ChildFirstClassLoader {
+
+  private val PARENT_FIRST_PATTERNS = new PrefixTrie(
+    "java.",
+    "javax.xml",
+    "org.slf4j",
+    "org.apache.log4j",
+    "org.apache.logging",
+    "org.apache.commons.logging",
+    "ch.qos.logback",
+    "org.xml",
+    "org.w3c",
+    "org.apache.hadoop"
+  )
+
+  private val MAX_MISSING_CLASSES = 100000
+
+  // a classloader is parallel capable only if its class is registered before its super constructor
+  // runs, and only the code of ChildFirstClassLoader itself could register the class. so an instance
+  // is created when this object is initialized, whose constructor registers the class.
+  new ChildFirstClassLoader(Array.empty[URL], null, null).close()
+
+  /**
+   * evaluated before the super constructor, which makes sure that this object has been initialized.
+   */
+  private def ensureParallelCapable(urls: Array[URL]): Array[URL] = urls
+
+}
+
+/**
+ * Match the strings against a set of prefixes in one pass over the string.
+ */
+private[proxy] class PrefixTrie(prefixes: String*) {
+
+  private[this] class Node {
+    val children = new util.HashMap[Character, Node]()
+    var terminal = false
+  }
+
+  private[this] val root = new Node
+
+  prefixes.foreach { prefix =>
+    var node = root
+    prefix.foreach { c =>
+      var child = node.children.get(c)
+      if (child == null) {
+        child = new Node
+        node.children.put(c, child)
+      }
+      node = child
+    }
+    node.terminal = true
+  }
+
+  def matches(str: String): Boolean = {
+    var node = root
+    var i = 0
+    while (node != null && !node.terminal && i < str.length) {
+      node = node.children.get(str.charAt(i))
+      i += 1
+    }
+    node != null && node.terminal
+  }
+
+}
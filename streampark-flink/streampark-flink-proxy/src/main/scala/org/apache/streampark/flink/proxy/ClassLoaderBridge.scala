@@ -0,0 +1,355 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.proxy
+
+import org.apache.streampark.common.util.Logger
+
+import java.lang.reflect.{Constructor, Field, Method, Modifier}
+import java.util.concurrent.ConcurrentHashMap
+import java.util.function.{BiConsumer, Function => JavaFunc}
+import java.util.{IdentityHashMap => JavaIdentityMap}
+import scala.collection.mutable.ListBuffer
+import scala.util.{Failure, Success, Try}
+
+/**
+ * Pass objects between an outer classloader and an inner (shims) classloader, which load the
+ * same classes separately.
+ *
+ * The object graph is copied field by field into the classes of the other classloader with the
+ * same semantics as java serialization (the transient fields are left default, the constructors
+ * are not run), but without encoding it to bytes. The immutable jdk objects (strings, boxed
+ * primitives, files...) and the enums shared by both classloaders are passed by reference.
+ * The objects could not be copied in this way (e.g. lambdas, jdk internals, classes with custom
+ * serialization) fall back to java serialization.
+ *
+ * The resolved classes, fields and methods are cached, so the bridge should live as long as the
+ * inner classloader, see [[ChildFirstClassLoader.bridge]].
+ */
+class ClassLoaderBridge(val outer: ClassLoader, val inner: ClassLoader) extends Logger {
+
+  private[this] val toInner = new ObjectTransfer(inner)
+
+  private[this] val toOuter = new ObjectTransfer(outer)
+
+  private[this] val methods = new ConcurrentHashMap[String, Method]()
+
+  private[this] val closeHooks = new ConcurrentHashMap[String, Runnable]()
+
+  /**
+   * copy the object of the outer classloader into the inner classloader.
+   */
+  def into[T](obj: AnyRef): T = toInner.transfer(obj).asInstanceOf[T]
+
+  /**
+   * copy the object of the inner classloader back into the outer classloader.
+   */
+  def outOf[T](obj: AnyRef): T = toOuter.transfer(obj).asInstanceOf[T]
+
+  /**
+   * the accessible method of the inner classloader, resolved only once.
+   */
+  def method(className: String, methodName: String, paramClassNames: String*): Method = {
+    val key = (className +: methodName +: paramClassNames).mkString("#")
+    methods.computeIfAbsent(key, new JavaFunc[String, Method] {
+      override def apply(k: String): Method = {
+        val paramClasses = paramClassNames.map(Class.forName(_, false, inner))
+        val method = Class.forName(className, false, inner).getDeclaredMethod(methodName, paramClasses: _*)
+        method.setAccessible(true)
+        method
+      }
+    })
+  }
+
+  /**
+   * register a hook to release the resources held by the objects of the inner classloader, the hooks
+   * run before the inner classloader is closed, a hook with the same name is registered only once.
+   */
+  def registerCloseHook(name: String, hook: Runnable): Unit = closeHooks.putIfAbsent(name, hook)
+
+  /**
+   * run the close hooks and keep them, so that the resources are released again if they are created later.
+   */
+  def runCloseHooks(): Unit = {
+    closeHooks.forEach(new BiConsumer[String, Runnable] {
+      override def accept(name: String, hook: Runnable): Unit = {
+        Try(hook.run()).failed.foreach(e => logWarn(s"close hook $name of the classloader bridge failed: ${e.getMessage}"))
+      }
+    })
+  }
+
+  def close(): Unit = {
+    runCloseHooks()
+    closeHooks.clear()
+  }
+
+}
+
+private[proxy] object ObjectTransfer {
+
+  private val SHARED_CLASSES: Set[Class[_]] = Set(
+    classOf[java.lang.String], classOf[java.lang.Boolean], classOf[java.lang.Character],
+    classOf[java.lang.Byte], classOf[java.lang.Short], classOf[java.lang.Integer],
+    classOf[java.lang.Long], classOf[java.lang.Float], classOf[java.lang.Double],
+    classOf[java.math.BigInteger], classOf[java.math.BigDecimal], classOf[java.io.File],
+    classOf[java.net.URL], classOf[java.net.URI], classOf[java.util.UUID],
+    classOf[java.util.regex.Pattern], classOf[java.util.Locale], classOf[java.nio.charset.Charset]
+  )
+
+  /**
+   * the classes with custom serialization methods, which only avoid deep recursion and
+   * whose fields hold all of their state.
+   */
+  private val FIELD_COPY_SAFE_CLASSES: Set[String] = Set("scala.collection.immutable.$colon$colon")
+
+  /**
+   * the jdk collections copied element by element, the others (e.g. a TreeMap with its comparator, the
+   * unmodifiable and synchronized views) keep state beyond their elements and fall back to java serialization.
+   */
+  private val COPYABLE_MAP_CLASSES: Set[Class[_]] = Set(classOf[java.util.HashMap[_, _]], classOf[java.util.LinkedHashMap[_, _]])
+
+  private val COPYABLE_COLLECTION_CLASSES: Set[Class[_]] = Set(
+    classOf[java.util.ArrayList[_]], classOf[java.util.HashSet[_]], classOf[java.util.LinkedHashSet[_]]
+  )
+
+  /**
+   * the access order flag of LinkedHashMap, None if java.util is not open to reflection,
+   * then a LinkedHashMap is always transferred by java serialization.
+   */
+  private lazy val accessOrderField: Option[Field] = Try {
+    val field = classOf[java.util.LinkedHashMap[_, _]].getDeclaredField("accessOrder")
+    field.setAccessible(true)
+    field
+  }.toOption
+
+  private def isAccessOrdered(map: AnyRef): Boolean = map match {
+    case linked: java.util.LinkedHashMap[_, _] => accessOrderField.forall(_.getBoolean(linked))
+    case _ => false
+  }
+
+  private val SERIALIZATION_METHODS = Set("readObject", "writeObject", "readResolve", "writeReplace", "readObjectNoData")
+
+  /**
+   * ReflectionFactory of jdk.unsupported creates the same constructors as java serialization,
+   * it is resolved by reflection since it is not a public api.
+   */
+  private lazy val (reflectionFactory, newConstructorForSerialization) = {
+    val factoryClass = Class.forName("sun.reflect.ReflectionFactory")
+    val factory = factoryClass.getMethod("getReflectionFactory").invoke(null)
+    val method = factoryClass.getMethod("newConstructorForSerialization", classOf[Class[_]], classOf[Constructor[_]])
+    factory -> method
+  }
+
+  private def serializationConstructor(clazz: Class[_], superConstructor: Constructor[_]): Constructor[_] = {
+    newConstructorForSerialization.invoke(reflectionFactory, clazz, superConstructor).asInstanceOf[Constructor[_]]
+  }
+
+  private def isJdkClass(clazz: Class[_]): Boolean = {
+    clazz.getClassLoader == null || clazz.getName.startsWith("java.") || clazz.getName.startsWith("javax.")
+  }
+
+}
+
+/**
+ * copy the object graphs into the classes of the target classloader.
+ */
+private[proxy] class ObjectTransfer(target: ClassLoader) extends Logger {
+
+  import ObjectTransfer._
+
+  private[this] sealed trait Plan
+
+  private[this] case object SharedPlan extends Plan
+
+  private[this] case class UnsupportedPlan(reason: String) extends Plan
+
+  private[this] case class EnumPlan(enumClass: Class[_]) extends Plan
+
+  private[this] case class ModulePlan(module: AnyRef) extends Plan
+
+  private[this] case class ArrayPlan(componentType: Class[_]) extends Plan
+
+  private[this] case class MapPlan(constructor: Constructor[_]) extends Plan
+
+  private[this] case class CollectionPlan(constructor: Constructor[_]) extends Plan
+
+  private[this] case class ObjectPlan(constructor: Constructor[_], fields: Array[(Field, Field)]) extends Plan
+
+  private[this] class UnsupportedTransferException(reason: String) extends RuntimeException(reason, null, false, false)
+
+  private[this] val plans = new ConcurrentHashMap[Class[_], Plan]()
+
+  def transfer(obj: AnyRef): AnyRef = {
+    Try(copy(obj, new JavaIdentityMap[AnyRef, AnyRef]())) match {
+      case Success(copied) => copied
+      case Failure(e: UnsupportedTransferException) =>
+        logDebug(s"fallback to java serialization, ${e.getMessage}")
+        FlinkShimsProxy.getObject[AnyRef](target, obj)
+      case Failure(e) => throw e
+    }
+  }
+
+  private[this] def planOf(clazz: Class[_]): Plan = {
+    plans.computeIfAbsent(clazz, new JavaFunc[Class[_], Plan] {
+      override def apply(c: Class[_]): Plan = Try(resolvePlan(c)).getOrElse(UnsupportedPlan(s"failed to resolve ${c.getName}"))
+    })
+  }
+
+  private[this] def copy(obj: AnyRef, copied: JavaIdentityMap[AnyRef, AnyRef]): AnyRef = {
+    if (obj == null) return null
+    val done = copied.get(obj)
+    if (done != null) return done
+    planOf(obj.getClass) match {
+      case SharedPlan => obj
+      case UnsupportedPlan(reason) => throw new UnsupportedTransferException(reason)
+      case EnumPlan(enumClass) => enumValue(enumClass, obj.asInstanceOf[Enum[_]].name())
+      case ModulePlan(module) => module
+      case ArrayPlan(componentType) =>
+        val length = java.lang.reflect.Array.getLength(obj)
+        if (componentType.isPrimitive) {
+          val array = java.lang.reflect.Array.newInstance(componentType, length)
+          System.arraycopy(obj, 0, array, 0, length)
+          copied.put(obj, array)
+          array
+        } else {
+          val source = obj.asInstanceOf[Array[AnyRef]]
+          val array = java.lang.reflect.Array.newInstance(componentType, length).asInstanceOf[Array[AnyRef]]
+          copied.put(obj, array)
+          for (i <- 0 until length) {
+            array(i) = copy(source(i), copied)
+          }
+          array
+        }
+      case MapPlan(_) if isAccessOrdered(obj) => throw new UnsupportedTransferException(s"access ordered ${obj.getClass.getName}")
+      case MapPlan(constructor) =>
+        val map = constructor.newInstance().asInstanceOf[java.util.Map[AnyRef, AnyRef]]
+        copied.put(obj, map)
+        val it = obj.asInstanceOf[java.util.Map[AnyRef, AnyRef]].entrySet().iterator()
+        while (it.hasNext) {
+          val entry = it.next()
+          map.put(copy(entry.getKey, copied), copy(entry.getValue, copied))
+        }
+        map
+      case CollectionPlan(constructor) =>
+        val collection = constructor.newInstance().asInstanceOf[java.util.Collection[AnyRef]]
+        copied.put(obj, collection)
+        val it = obj.asInstanceOf[java.util.Collection[AnyRef]].iterator()
+        while (it.hasNext) {
+          collection.add(copy(it.next(), copied))
+        }
+        collection
+      case ObjectPlan(constructor, fields) =>
+        val instance = constructor.newInstance().asInstanceOf[AnyRef]
+        copied.put(obj, instance)
+        fields.foreach {
+          case (from, to) =>
+            if (from.getType.isPrimitive) {
+              to.set(instance, from.get(obj))
+            } else {
+              to.set(instance, copy(from.get(obj), copied))
+            }
+        }
+        instance
+    }
+  }
+
+  private[this] def enumValue(enumClass: Class[_], name: String): AnyRef = {
+    enumClass.getEnumConstants.find(_.asInstanceOf[Enum[_]].name() == name)
+      .getOrElse(throw new UnsupportedTransferException(s"no enum constant ${enumClass.getName}.$name"))
+      .asInstanceOf[AnyRef]
+  }
+
+  private[this] def resolvePlan(clazz: Class[_]): Plan = {
+    if (SHARED_CLASSES.contains(clazz)) return SharedPlan
+
+    val enumClass = if (clazz.isEnum) clazz else if (clazz.getSuperclass != null && clazz.getSuperclass.isEnum) clazz.getSuperclass else null
+    if (enumClass != null) {
+      val targetEnum = Class.forName(enumClass.getName, false, target)
+      return if (targetEnum eq enumClass) SharedPlan else EnumPlan(targetEnum)
+    }
+
+    if (clazz.isArray) {
+      val componentType = clazz.getComponentType
+      return if (componentType.isPrimitive) ArrayPlan(componentType) else {
+        ArrayPlan(Class.forName(componentType.getName, false, target))
+      }
+    }
+
+    if (isJdkClass(clazz)) {
+      return clazz match {
+        case c if COPYABLE_MAP_CLASSES.contains(c) => MapPlan(c.getConstructor())
+        case c if COPYABLE_COLLECTION_CLASSES.contains(c) => CollectionPlan(c.getConstructor())
+        case _ => UnsupportedPlan(s"jdk class ${clazz.getName}")
+      }
+    }
+
+    if (clazz.isSynthetic || clazz.getName.contains("$$Lambda")) {
+      return UnsupportedPlan(s"synthetic class ${clazz.getName}")
+    }
+    val targetClass = Class.forName(clazz.getName, false, target)
+
+    // scala objects
+    val module = Try(targetClass.getDeclaredField("MODULE$")).toOption.filter(f => Modifier.isStatic(f.getModifiers))
+    if (module.isDefined) {
+      module.get.setAccessible(true)
+      return ModulePlan(module.get.get(null))
+    }
+
+    if (!classOf[java.io.Serializable].isAssignableFrom(targetClass)) {
+      return UnsupportedPlan(s"not serializable class ${clazz.getName}")
+    }
+
+    // the classes with custom serialization, except the ones which are safe to copy fields
+    val serializableHierarchy = hierarchy(targetClass).filter(classOf[java.io.Serializable].isAssignableFrom(_))
+    if (!FIELD_COPY_SAFE_CLASSES.contains(clazz.getName) &&
+      serializableHierarchy.exists(_.getDeclaredMethods.exists(m => SERIALIZATION_METHODS.contains(m.getName)))) {
+      return UnsupportedPlan(s"custom serialization of ${clazz.getName}")
+    }
+
+    // java serialization runs the no-arg constructor of the first non-serializable superclass only.
+    val nonSerializableSuper = hierarchy(targetClass).find(c => !classOf[java.io.Serializable].isAssignableFrom(c)).getOrElse(classOf[Object])
+    val constructor = serializationConstructor(targetClass, nonSerializableSuper.getDeclaredConstructor())
+
+    val sourceFields = serializableFields(clazz)
+    val targetFields = serializableFields(targetClass)
+    if (sourceFields.map(fieldKey) != targetFields.map(fieldKey)) {
+      return UnsupportedPlan(s"fields mismatched of ${clazz.getName}")
+    }
+    (sourceFields ++ targetFields).foreach(_.setAccessible(true))
+    ObjectPlan(constructor, sourceFields.zip(targetFields).toArray)
+  }
+
+  private[this] def hierarchy(clazz: Class[_]): List[Class[_]] = {
+    val classes = ListBuffer[Class[_]]()
+    var c = clazz
+    while (c != null && c != classOf[Object]) {
+      classes += c
+      c = c.getSuperclass
+    }
+    classes.toList
+  }
+
+  private[this] def serializableFields(clazz: Class[_]): List[Field] = {
+    hierarchy(clazz)
+      .filter(classOf[java.io.Serializable].isAssignableFrom(_))
+      .flatMap(_.getDeclaredFields)
+      .filter(f => !Modifier.isStatic(f.getModifiers) && !Modifier.isTransient(f.getModifiers))
+  }
+
+  private[this] def fieldKey(field: Field): String = s"${field.getDeclaringClass.getName}.${field.getName}:${field.getType.getName}"
+
+}
@@ -18,15 +18,19 @@
 package org.apache.streampark.flink.proxy
 
 import org.apache.streampark.common.domain.FlinkVersion
-import org.apache.streampark.common.util.{ClassLoaderUtils, Logger, Utils}
+import org.apache.streampark.common.util.{ClassLoaderUtils, Logger, ThreadUtils, Utils}
 import java.io.{ByteArrayInputStream, ByteArrayOutputStream, File, ObjectOutputStream}
+import java.lang.management.ManagementFactory
 import java.net.URL
+import java.util.concurrent.{Executors, TimeUnit}
 import java.util.function.{Function => JavaFunc}
 import java.util.regex.Pattern
+import java.util.{List => JavaList, Map => JavaMap}
 
-import org.apache.streampark.common.conf.ConfigConst
+import org.apache.streampark.common.conf.{CommonConfig, ConfigConst, InternalConfigHolder}
 
-import scala.collection.mutable.{ListBuffer, Map => MutableMap}
+import scala.collection.JavaConverters._
+import scala.collection.mutable.ListBuffer
 
 object FlinkShimsProxy extends Logger {
 
@@ -40,9 +44,25 @@ object FlinkShimsProxy extends Logger {
     Pattern.CASE_INSENSITIVE | Pattern.DOTALL
   )
 
-  private[this] val SHIMS_CLASS_LOADER_CACHE = MutableMap[String, ClassLoader]()
+  private[this] def cacheMaxSize: Int = InternalConfigHolder.get[Int](CommonConfig.SHIMS_CLASSLOADER_MAX_SIZE)
 
-  private[this] val VERIFY_SQL_CLASS_LOADER_CACHE = MutableMap[String, ClassLoader]()
+  private[this] def cacheIdleTimeoutMs: Long =
+    TimeUnit.MINUTES.toMillis(InternalConfigHolder.get[Int](CommonConfig.SHIMS_CLASSLOADER_IDLE_TIMEOUT_MIN).toLong)
+
+  private[this] val SHIMS_CLASS_LOADER_CACHE = new ShimsClassLoaderCache("shims", cacheMaxSize, cacheIdleTimeoutMs)
+
+  private[this] val VERIFY_SQL_CLASS_LOADER_CACHE = new ShimsClassLoaderCache("verify-sql", cacheMaxSize, cacheIdleTimeoutMs)
+
+  private[this] val evictExecutor = {
+    val executor = Executors.newSingleThreadScheduledExecutor(ThreadUtils.threadFactory("streampark-shims-classloader-evictor"))
+    executor.scheduleWithFixedDelay(new Runnable {
+      override def run(): Unit = {
+        SHIMS_CLASS_LOADER_CACHE.evict()
+        VERIFY_SQL_CLASS_LOADER_CACHE.evict()
+      }
+    }, 1, 1, TimeUnit.MINUTES)
+    executor
+  }
 
   private[this] def getFlinkShimsResourcePattern(flinkLargeVersion: String) =
     Pattern.compile(
@@ -64,8 +84,9 @@ object FlinkShimsProxy extends Logger {
    * @return
    */
   def proxy[T](flinkVersion: FlinkVersion, func: ClassLoader => T): T = {
-    val shimsClassLoader = getFlinkShimsClassLoader(flinkVersion)
-    ClassLoaderUtils.runAsClassLoader[T](shimsClassLoader, () => func(shimsClassLoader))
+    SHIMS_CLASS_LOADER_CACHE.using(cacheKey(flinkVersion))(buildFlinkShimsClassLoader(flinkVersion)) {
+      shimsClassLoader => ClassLoaderUtils.runAsClassLoader[T](shimsClassLoader, () => func(shimsClassLoader))
+    }
   }
 
   /**
@@ -77,35 +98,38 @@ object FlinkShimsProxy extends Logger {
    * @return
    */
   def proxy[T](flinkVersion: FlinkVersion, func: JavaFunc[ClassLoader, T]): T = {
-    val shimsClassLoader = getFlinkShimsClassLoader(flinkVersion)
-    ClassLoaderUtils.runAsClassLoader[T](shimsClassLoader, () => func(shimsClassLoader))
+    proxy[T](flinkVersion, (shimsClassLoader: ClassLoader) => func(shimsClassLoader))
   }
 
+  /**
+   * the classloaders are cached by the flink version and its FLINK_HOME, the same version
+   * may be registered with the different FLINK_HOMEs.
+   */
+  private[this] def cacheKey(flinkVersion: FlinkVersion): String = s"${flinkVersion.fullVersion}@${flinkVersion.flinkHome}"
+
   // flink 1.12 1.13~1.14 1.15 1.16 parseSql class exist in different dependencies,
   // need to load all flink-table dependencies compatible with different versions
-  def getVerifySqlLibClassLoader(flinkVersion: FlinkVersion): ClassLoader = {
+  private[this] def buildVerifySqlLibClassLoader(flinkVersion: FlinkVersion): ClassLoader = {
     logInfo(s"add verify sql lib,flink version: $flinkVersion")
-    VERIFY_SQL_CLASS_LOADER_CACHE.getOrElseUpdate(s"${flinkVersion.fullVersion}", {
-      val getFlinkTable: File => Boolean = _.getName.startsWith("flink-table")
-      // 1) flink/lib/flink-table*
-      val libTableURL = getFlinkHomeLib(flinkVersion.flinkHome, "lib", getFlinkTable)
-
-      // 2) After version 1.15 need add flink/opt/flink-table*
-      val optTableURL = getFlinkHomeLib(flinkVersion.flinkHome, "opt", getFlinkTable)
-      val shimsUrls = ListBuffer[URL](libTableURL ++ optTableURL: _*)
-
-      // 3) add only streampark shims jar
-      addShimsUrls(flinkVersion, file => {
-        if (file != null && file.getName.startsWith("streampark-flink-shims")) {
-          shimsUrls += file.toURI.toURL
-        }
-      })
-      new ChildFirstClassLoader(
-        shimsUrls.toArray,
-        Thread.currentThread().getContextClassLoader,
-        getFlinkShimsResourcePattern(flinkVersion.majorVersion)
-      )
+    val getFlinkTable: File => Boolean = _.getName.startsWith("flink-table")
+    // 1) flink/lib/flink-table*
+    val libTableURL = getFlinkHomeLib(flinkVersion.flinkHome, "lib", getFlinkTable)
+
+    // 2) After version 1.15 need add flink/opt/flink-table*
+    val optTableURL = getFlinkHomeLib(flinkVersion.flinkHome, "opt", getFlinkTable)
+    val shimsUrls = ListBuffer[URL](libTableURL ++ optTableURL: _*)
+
+    // 3) add only streampark shims jar
+    addShimsUrls(flinkVersion, file => {
+      if (file != null && file.getName.startsWith("streampark-flink-shims")) {
+        shimsUrls += file.toURI.toURL
+      }
     })
+    new ChildFirstClassLoader(
+      shimsUrls.toArray,
+      Thread.currentThread().getContextClassLoader,
+      getFlinkShimsResourcePattern(flinkVersion.majorVersion)
+    )
   }
 
   def addShimsUrls(flinkVersion: FlinkVersion, addShimUrl: File => Unit): Unit = {
@@ -150,31 +174,52 @@ object FlinkShimsProxy extends Logger {
    * @return
    */
   def proxyVerifySql[T](flinkVersion: FlinkVersion, func: JavaFunc[ClassLoader, T]): T = {
-    val shimsClassLoader = getVerifySqlLibClassLoader(flinkVersion)
-    ClassLoaderUtils.runAsClassLoader[T](shimsClassLoader, () => func(shimsClassLoader))
+    VERIFY_SQL_CLASS_LOADER_CACHE.using(cacheKey(flinkVersion))(buildVerifySqlLibClassLoader(flinkVersion)) {
+      shimsClassLoader => ClassLoaderUtils.runAsClassLoader[T](shimsClassLoader, () => func(shimsClassLoader))
+    }
   }
 
-  private[this] def getFlinkShimsClassLoader(flinkVersion: FlinkVersion): ClassLoader = {
+  private[this] def buildFlinkShimsClassLoader(flinkVersion: FlinkVersion): ClassLoader = {
     logInfo(s"add flink shims urls classloader,flink version: $flinkVersion")
 
-    SHIMS_CLASS_LOADER_CACHE.getOrElseUpdate(s"${flinkVersion.fullVersion}", {
-      // 1) flink/lib
-      val libURL = getFlinkHomeLib(flinkVersion.flinkHome, "lib", !_.getName.startsWith("log4j"))
-      val shimsUrls = ListBuffer[URL](libURL: _*)
-
-      // 2) add all shims jar
-      addShimsUrls(flinkVersion, file => {
-        if (file != null) {
-          shimsUrls += file.toURI.toURL
-        }
-      })
+    // 1) flink/lib
+    val libURL = getFlinkHomeLib(flinkVersion.flinkHome, "lib", !_.getName.startsWith("log4j"))
+    val shimsUrls = ListBuffer[URL](libURL: _*)
 
-      new ChildFirstClassLoader(
-        shimsUrls.toArray,
-        Thread.currentThread().getContextClassLoader,
-        getFlinkShimsResourcePattern(flinkVersion.majorVersion)
-      )
+    // 2) add all shims jar
+    addShimsUrls(flinkVersion, file => {
+      if (file != null) {
+        shimsUrls += file.toURI.toURL
+      }
     })
+
+    new ChildFirstClassLoader(
+      shimsUrls.toArray,
+      Thread.currentThread().getContextClassLoader,
+      getFlinkShimsResourcePattern(flinkVersion.majorVersion)
+    )
+  }
+
+  /**
+   * status of the cached classloaders, with the metaspace estimated by the share of the classes
+   * they defined in all the loaded classes, since the jvm doesn't report metaspace per classloader.
+   */
+  def classLoaderMetrics: JavaList[JavaMap[String, Any]] = {
+    val metaspaceUsed = ManagementFactory.getMemoryPoolMXBeans.asScala
+      .find(_.getName == "Metaspace")
+      .map(_.getUsage.getUsed)
+      .getOrElse(0L)
+    val loadedClasses = Math.max(1L, ManagementFactory.getClassLoadingMXBean.getLoadedClassCount.toLong)
+    (SHIMS_CLASS_LOADER_CACHE.status ++ VERIFY_SQL_CLASS_LOADER_CACHE.status).map { status =>
+      Map[String, Any](
+        "cache" -> status.cache,
+        "version" -> status.key.split("@").head,
+        "flinkHome" -> status.key.substring(status.key.indexOf("@") + 1),
+        "refs" -> status.refs,
+        "classes" -> status.classes,
+        "idleMs" -> status.idleMs,
+        "metaspaceBytes" -> Math.max(0L, metaspaceUsed * status.classes / loadedClasses)).asJava
+    }.asJava
   }
 
   private[this] def getFlinkHomeLib(flinkHome: String, childDir: String, filterFun: File => Boolean): List[URL] = {
@@ -183,6 +228,14 @@ object FlinkShimsProxy extends Logger {
     file.listFiles.filter(filterFun).map(_.toURI.toURL).toList
   }
 
+  /**
+   * bridge to pass objects between the outer classloader and the shims classloader.
+   */
+  def bridge(outer: ClassLoader, shimsClassLoader: ClassLoader): ClassLoaderBridge = shimsClassLoader match {
+    case loader: ChildFirstClassLoader => loader.bridge(outer)
+    case other => new ClassLoaderBridge(outer, other)
+  }
+
   @throws[Exception]
   def getObject[T](loader: ClassLoader, obj: Object): T = {
     val arrayOutputStream = new ByteArrayOutputStream
@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.proxy
+
+import org.apache.streampark.common.util.Logger
+
+import java.io.Closeable
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.{Function => JavaFunc}
+import scala.collection.JavaConverters._
+import scala.util.Try
+
+/**
+ * Status of a cached classloader.
+ *
+ * @param refs    number of the callers using the classloader now
+ * @param classes number of the classes defined by the classloader, -1 if unknown
+ * @param idleMs  millis since the classloader was used last time
+ */
+case class ShimsClassLoaderStatus(cache: String, key: String, refs: Int, classes: Int, idleMs: Long)
+
+/**
+ * Reference-counted cache of the flink shims classloaders.
+ *
+ * A classloader of a key is built only once even if it is requested by many threads at the same
+ * time. The classloaders not used by anyone are closed after they have been idle for a while, or
+ * when there are more classloaders than the max size, so that the classloaders of the retired
+ * flink versions don't pin their metaspace forever. The classloaders in use are never closed,
+ * the max size may be exceeded while they are running.
+ *
+ * The objects created in a classloader may outlive the call that created them, like the threads
+ * of the pooled flink clients, and they fail with NoClassDefFoundError once the classloader is
+ * closed. So a classloader is not closed as long as any live thread was created by its classes
+ * or runs with it as the context classloader (the threads started in a call inherit it). The close
+ * hooks of its [[ClassLoaderBridge]]s are run first to release such resources (e.g. the pooled
+ * flink clients and their threads), and the classloader is closed by a later eviction once those
+ * threads are gone. The hooks run again before the classloader is closed, so the components owning
+ * the other resources, like the static caches of the libraries in the classloader, release them there.
+ *
+ * @param name          name of the cache
+ * @param maxSize       max number of the cached classloaders
+ * @param idleTimeoutMs classloaders idle longer than it would be closed
+ */
+class ShimsClassLoaderCache(val name: String, maxSize: => Int, idleTimeoutMs: => Long) extends Logger {
+
+  private[this] class Entry(val key: String, build: => ClassLoader) {
+
+    /**
+     * >= 0: number of the users, -1: retired, it could not be used any more.
+     */
+    val refs = new AtomicInteger()
+
+    @volatile var lastAccess: Long = System.currentTimeMillis()
+
+    @volatile private[this] var instance: ClassLoader = _
+
+    /**
+     * whether the resources of the classloader have been released since it was used last time.
+     */
+    @volatile private[this] var released: Boolean = false
+
+    def loader: ClassLoader = {
+      if (instance == null) {
+        this.synchronized {
+          if (instance == null) {
+            instance = build
+          }
+        }
+      }
+      instance
+    }
+
+    def retain(): Boolean = {
+      var current = refs.get()
+      while (current >= 0) {
+        if (refs.compareAndSet(current, current + 1)) {
+          lastAccess = System.currentTimeMillis()
+          released = false
+          return true
+        }
+        current = refs.get()
+      }
+      false
+    }
+
+    def release(): Unit = {
+      lastAccess = System.currentTimeMillis()
+      refs.decrementAndGet()
+    }
+
+    def retire(): Boolean = refs.compareAndSet(0, -1)
+
+    def close(): Unit = this.synchronized {
+      instance match {
+        case closeable: Closeable =>
+          Try(closeable.close()).failed.foreach(e => logWarn(s"failed to close shims classloader of $key: ${e.getMessage}"))
+        case _ =>
+      }
+      instance = null
+    }
+
+    /**
+     * release the resources held by the objects of the idle classloader once, see [[ChildFirstClassLoader.releaseResources]].
+     */
+    def releaseResources(): Unit = this.synchronized {
+      if (!released) {
+        released = true
+        instance match {
+          case loader: ChildFirstClassLoader =>
+            Try(loader.releaseResources()).failed.foreach(e => logWarn(s"failed to release the resources of shims classloader of $key: ${e.getMessage}"))
+          case _ =>
+        }
+      }
+    }
+
+    def usedBy(liveThreads: Set[ClassLoader]): Boolean = {
+      val current = instance
+      current != null && liveThreads.contains(current)
+    }
+
+    def definedClasses: Int = instance match {
+      case loader: ChildFirstClassLoader => loader.definedClasses
+      case _ => -1
+    }
+  }
+
+  private[this] val entries = new ConcurrentHashMap[String, Entry]()
+
+  /**
+   * run the function with the classloader of the key, the classloader is built by `build`
+   * when it is not cached, and is kept open until the function returns.
+   */
+  def using[T](key: String)(build: => ClassLoader)(func: ClassLoader => T): T = {
+    val entry = acquire(key, build)
+    try {
+      func(entry.loader)
+    } finally {
+      entry.release()
+      if (entries.size() > maxSize) {
+        evict()
+      }
+    }
+  }
+
+  private[this] def acquire(key: String, build: => ClassLoader): Entry = {
+    var entry: Entry = null
+    while (entry == null) {
+      val cached = entries.computeIfAbsent(key, new JavaFunc[String, Entry] {
+        override def apply(k: String): Entry = new Entry(k, build)
+      })
+      if (cached.retain()) {
+        entry = cached
+      } else {
+        // retired by the eviction just now.
+        entries.remove(key, cached)
+      }
+    }
+    entry
+  }
+
+  /**
+   * close the classloaders idle for too long, and the least recently used idle ones beyond the max size,
+   * the ones still used by live threads are kept.
+   */
+  def evict(): Unit = {
+    val now = System.currentTimeMillis()
+    val timeout = idleTimeoutMs
+    var overflow = entries.size() - maxSize
+    val idle = entries.values().asScala.toList
+      .filter(entry => entry.refs.get == 0 && (overflow > 0 || now - entry.lastAccess > timeout))
+      .sortBy(_.lastAccess)
+    lazy val liveThreads = liveThreadClassLoaders
+    idle.foreach { entry =>
+      if (entry.usedBy(liveThreads)) {
+        // the threads of the pooled clients are stopped by the close hooks, the classloader is closed by a later eviction
+        if (entry.refs.get == 0) {
+          entry.releaseResources()
+        }
+        logDebug(s"shims classloader is still used by live threads, cache: $name, key: ${entry.key}")
+      } else if ((overflow > 0 || now - entry.lastAccess > timeout) && entry.retire()) {
+        entries.remove(entry.key, entry)
+        entry.close()
+        overflow -= 1
+        logInfo(s"closed idle shims classloader, cache: $name, key: ${entry.key}")
+      }
+    }
+  }
+
+  /**
+   * the classloaders of the classes and the context classloaders of all the live threads.
+   */
+  private[this] def liveThreadClassLoaders: Set[ClassLoader] = {
+    Thread.getAllStackTraces.keySet.asScala
+      .filter(_.isAlive)
+      .flatMap(thread => Seq(thread.getContextClassLoader, thread.getClass.getClassLoader))
+      .filter(_ != null)
+      .toSet
+  }
+
+  def status: Seq[ShimsClassLoaderStatus] = {
+    val now = System.currentTimeMillis()
+    entries.values().asScala.toList.map { entry =>
+      ShimsClassLoaderStatus(name, entry.key, Math.max(entry.refs.get, 0), entry.definedClasses, now - entry.lastAccess)
+    }
+  }
+
+}
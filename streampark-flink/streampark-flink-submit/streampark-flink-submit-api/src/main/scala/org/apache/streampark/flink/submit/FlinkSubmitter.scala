@@ -17,6 +17,7 @@
 
 package org.apache.streampark.flink.submit
 
+import org.apache.streampark.common.domain.FlinkVersion
 import org.apache.streampark.common.util.{Logger, Utils}
 import org.apache.streampark.flink.proxy.FlinkShimsProxy
 import org.apache.streampark.flink.submit.bean._
@@ -47,49 +48,45 @@ object FlinkSubmitter extends Logger {
 
   private[this] val SHUTDOWN_REQUEST_CLASS_NAME = "org.apache.streampark.flink.submit.bean.ShutDownRequest"
 
+  private[this] val WARM_UP_REQUEST_CLASS_NAME = "org.apache.streampark.flink.submit.bean.WarmUpRequest"
+
   def submit(submitRequest: SubmitRequest): SubmitResponse = {
-    FlinkShimsProxy.proxy(submitRequest.flinkVersion, (classLoader: ClassLoader) => {
-      val submitClass = classLoader.loadClass(FLINK_SUBMIT_CLASS_NAME)
-      val requestClass = classLoader.loadClass(SUBMIT_REQUEST_CLASS_NAME)
-      val method = submitClass.getDeclaredMethod("submit", requestClass)
-      method.setAccessible(true)
-      val obj = method.invoke(null, FlinkShimsProxy.getObject(classLoader, submitRequest))
-      FlinkShimsProxy.getObject[SubmitResponse](this.getClass.getClassLoader, obj)
-    })
+    invoke[SubmitResponse](submitRequest.flinkVersion, "submit", SUBMIT_REQUEST_CLASS_NAME, submitRequest)
   }
 
   def cancel(stopRequest: CancelRequest): CancelResponse = {
-    FlinkShimsProxy.proxy(stopRequest.flinkVersion, (classLoader: ClassLoader) => {
-      val submitClass = classLoader.loadClass(FLINK_SUBMIT_CLASS_NAME)
-      val requestClass = classLoader.loadClass(CANCEL_REQUEST_CLASS_NAME)
-      val method = submitClass.getDeclaredMethod("cancel", requestClass)
-      method.setAccessible(true)
-      val obj = method.invoke(null, FlinkShimsProxy.getObject(classLoader, stopRequest))
-      if (obj == null) null; else {
-        FlinkShimsProxy.getObject[CancelResponse](this.getClass.getClassLoader, obj)
-      }
-    })
+    invoke[CancelResponse](stopRequest.flinkVersion, "cancel", CANCEL_REQUEST_CLASS_NAME, stopRequest)
   }
 
   def deploy(deployRequest: DeployRequest): DeployResponse = {
-    FlinkShimsProxy.proxy(deployRequest.flinkVersion, (classLoader: ClassLoader) => {
-      val submitClass = classLoader.loadClass(FLINK_SUBMIT_CLASS_NAME)
-      val requestClass = classLoader.loadClass(DEPLOY_REQUEST_CLASS_NAME)
-      val method = submitClass.getDeclaredMethod("deploy", requestClass)
-      method.setAccessible(true)
-      val obj = method.invoke(null, FlinkShimsProxy.getObject(classLoader, deployRequest))
-      FlinkShimsProxy.getObject[DeployResponse](this.getClass.getClassLoader, obj)
-    })
+    invoke[DeployResponse](deployRequest.flinkVersion, "deploy", DEPLOY_REQUEST_CLASS_NAME, deployRequest)
   }
 
   def shutdown(shutDownRequest: ShutDownRequest): ShutDownResponse = {
-    FlinkShimsProxy.proxy(shutDownRequest.flinkVersion, (classLoader: ClassLoader) => {
-      val submitClass = classLoader.loadClass(FLINK_SUBMIT_CLASS_NAME)
-      val requestClass = classLoader.loadClass(SHUTDOWN_REQUEST_CLASS_NAME)
-      val method = submitClass.getDeclaredMethod("shutdown", requestClass)
-      method.setAccessible(true)
-      val obj = method.invoke(null, FlinkShimsProxy.getObject(classLoader, shutDownRequest))
-      FlinkShimsProxy.getObject[ShutDownResponse](this.getClass.getClassLoader, obj)
+    invoke[ShutDownResponse](shutDownRequest.flinkVersion, "shutdown", SHUTDOWN_REQUEST_CLASS_NAME, shutDownRequest)
+  }
+
+  /**
+   * preload the shims classloader of the flink version and warm up the flink clients in it.
+   */
+  def warmUp(warmUpRequest: WarmUpRequest): WarmUpResponse = {
+    invoke[WarmUpResponse](warmUpRequest.flinkVersion, "warmUp", WARM_UP_REQUEST_CLASS_NAME, warmUpRequest)
+  }
+
+  /**
+   * invoke the method of FlinkSubmit in the shims classloader, the request and the response are
+   * passed across the classloaders by the bridge of the shims classloader.
+   */
+  private[this] def invoke[T](flinkVersion: FlinkVersion, methodName: String, requestClassName: String, request: AnyRef): T = {
+    FlinkShimsProxy.proxy(flinkVersion, (classLoader: ClassLoader) => {
+      val bridge = FlinkShimsProxy.bridge(this.getClass.getClassLoader, classLoader)
+      // the pooled clients of the shims classloader are closed together with it
+      bridge.registerCloseHook(FLINK_SUBMIT_CLASS_NAME, new Runnable {
+        override def run(): Unit = bridge.method(FLINK_SUBMIT_CLASS_NAME, "close").invoke(null)
+      })
+      val method = bridge.method(FLINK_SUBMIT_CLASS_NAME, methodName, requestClassName)
+      val obj = method.invoke(null, bridge.into[AnyRef](request))
+      if (obj == null) null.asInstanceOf[T] else bridge.outOf[T](obj)
     })
   }
 
@@ -20,6 +20,7 @@ package org.apache.streampark.flink.submit
 import org.apache.streampark.common.enums.ExecutionMode
 import org.apache.streampark.flink.submit.bean._
 import org.apache.streampark.flink.submit.impl._
+import org.apache.streampark.flink.submit.tool.{ClusterClientPool, FlinkWarmUpHelper}
 
 object FlinkSubmit {
 
@@ -64,4 +65,11 @@ object FlinkSubmit {
       case _ => throw new UnsupportedOperationException(s"Unsupported ${shutDownRequest.executionMode} Submit ")
     }
   }
+
+  def warmUp(warmUpRequest: WarmUpRequest): WarmUpResponse = FlinkWarmUpHelper.warmUp(warmUpRequest)
+
+  /**
+   * release the resources held by the clients, called before the shims classloader is closed.
+   */
+  def close(): Unit = ClusterClientPool.close()
 }
@@ -20,7 +20,7 @@ package org.apache.streampark.flink.submit.impl
 import org.apache.streampark.common.util.Utils
 import org.apache.streampark.flink.submit.`trait`.FlinkSubmitTrait
 import org.apache.streampark.flink.submit.bean.{CancelRequest, CancelResponse, SubmitRequest, SubmitResponse}
-import org.apache.streampark.flink.submit.tool.FlinkSessionSubmitHelper
+import org.apache.streampark.flink.submit.tool.{ClusterClientPool, FlinkSessionSubmitHelper}
 import org.apache.flink.api.common.JobID
 import org.apache.flink.client.deployment.{DefaultClusterClientServiceLoader, StandaloneClusterDescriptor, StandaloneClusterId}
 import org.apache.flink.client.program.{ClusterClient, PackagedProgram}
@@ -60,21 +60,17 @@ object RemoteSubmit extends FlinkSubmitTrait {
          |------------------------------------------------------------------
          |""".stripMargin)
 
-    val standAloneDescriptor = getStandAloneClusterDescriptor(flinkConfig)
-    var client: ClusterClient[StandaloneClusterId] = null
     try {
-      client = standAloneDescriptor._2.retrieve(standAloneDescriptor._1).getClusterClient
-      val jobID = JobID.fromHexString(cancelRequest.jobId)
-      val actionResult = super.cancelJob(cancelRequest, jobID, client)
-      CancelResponse(actionResult)
+      ClusterClientPool.using(flinkConfig)(retrieveClusterClient(flinkConfig)) { client =>
+        val jobID = JobID.fromHexString(cancelRequest.jobId)
+        val actionResult = super.cancelJob(cancelRequest, jobID, client)
+        CancelResponse(actionResult)
+      }
     } catch {
       case e: Exception =>
         logError(s"stop flink standalone job fail")
         e.printStackTrace()
         throw e
-    } finally {
-      if (client != null) client.close()
-      if (standAloneDescriptor != null) standAloneDescriptor._2.close()
     }
   }
 
@@ -84,17 +80,12 @@ object RemoteSubmit extends FlinkSubmitTrait {
   // noinspection DuplicatedCode
   @throws[Exception] def restApiSubmit(submitRequest: SubmitRequest, flinkConfig: Configuration, fatJar: File): SubmitResponse = {
     // retrieve standalone session cluster and submit flink job on session mode
-    var clusterDescriptor: StandaloneClusterDescriptor = null;
-    var client: ClusterClient[StandaloneClusterId] = null
     Try {
-      val standAloneDescriptor = getStandAloneClusterDescriptor(flinkConfig)
-      val yarnClusterId: StandaloneClusterId = standAloneDescriptor._1
-      clusterDescriptor = standAloneDescriptor._2
-
-      client = clusterDescriptor.retrieve(yarnClusterId).getClusterClient
-      val jobId = FlinkSessionSubmitHelper.submitViaRestApi(client.getWebInterfaceURL, fatJar, flinkConfig)
-      logInfo(s"${submitRequest.executionMode} mode submit by restApi, WebInterfaceURL ${client.getWebInterfaceURL}, jobId: $jobId")
-      SubmitResponse(null, flinkConfig.toMap, jobId)
+      ClusterClientPool.using(flinkConfig)(retrieveClusterClient(flinkConfig)) { client =>
+        val jobId = FlinkSessionSubmitHelper.submitViaRestApi(client.getWebInterfaceURL, fatJar, flinkConfig)
+        logInfo(s"${submitRequest.executionMode} mode submit by restApi, WebInterfaceURL ${client.getWebInterfaceURL}, jobId: $jobId")
+        SubmitResponse(null, flinkConfig.toMap, jobId)
+      }
     } match {
       case Success(s) => s
       case Failure(e) =>
@@ -107,21 +98,17 @@ object RemoteSubmit extends FlinkSubmitTrait {
    * Submit flink session job with building JobGraph via Standalone ClusterClient api.
    */
   @throws[Exception] def jobGraphSubmit(submitRequest: SubmitRequest, flinkConfig: Configuration, jarFile: File): SubmitResponse = {
-    var clusterDescriptor: StandaloneClusterDescriptor = null;
     var packageProgram: PackagedProgram = null
-    var client: ClusterClient[StandaloneClusterId] = null
     try {
-      val standAloneDescriptor = getStandAloneClusterDescriptor(flinkConfig)
-      clusterDescriptor = standAloneDescriptor._2
       // build JobGraph
       val packageProgramJobGraph = super.getJobGraph(flinkConfig, submitRequest, jarFile)
       packageProgram = packageProgramJobGraph._1
       val jobGraph = packageProgramJobGraph._2
-      client = clusterDescriptor.retrieve(standAloneDescriptor._1).getClusterClient
-      val jobId = client.submitJob(jobGraph).get().toString
-      logInfo(s"${submitRequest.executionMode} mode submit by jobGraph, WebInterfaceURL ${client.getWebInterfaceURL}, jobId: $jobId")
-      val result = SubmitResponse(null, flinkConfig.toMap, jobId)
-      result
+      ClusterClientPool.using(flinkConfig)(retrieveClusterClient(flinkConfig)) { client =>
+        val jobId = client.submitJob(jobGraph).get().toString
+        logInfo(s"${submitRequest.executionMode} mode submit by jobGraph, WebInterfaceURL ${client.getWebInterfaceURL}, jobId: $jobId")
+        SubmitResponse(null, flinkConfig.toMap, jobId)
+      }
     } catch {
       case e: Exception =>
         logError(s"${submitRequest.executionMode} mode submit by jobGraph fail.")
@@ -131,7 +118,6 @@ object RemoteSubmit extends FlinkSubmitTrait {
       if (submitRequest.safePackageProgram) {
         Utils.close(packageProgram)
       }
-      Utils.close(client, clusterDescriptor)
     }
   }
 
@@ -148,4 +134,19 @@ object RemoteSubmit extends FlinkSubmitTrait {
     (standaloneClusterId, standaloneClusterDescriptor)
   }
 
+  /**
+   * retrieve the client of the standalone cluster, the descriptor is closed together with the client.
+   *
+   * @param flinkConfig
+   */
+  private[this] def retrieveClusterClient(flinkConfig: Configuration): (ClusterClient[_], AutoCloseable) = {
+    val standAloneDescriptor = getStandAloneClusterDescriptor(flinkConfig)
+    Try(standAloneDescriptor._2.retrieve(standAloneDescriptor._1).getClusterClient) match {
+      case Success(client) => (client, standAloneDescriptor._2)
+      case Failure(e) =>
+        Utils.close(standAloneDescriptor._2)
+        throw e
+    }
+  }
+
 }
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.submit.tool
+
+import org.apache.streampark.common.util.{Logger, Utils}
+import org.apache.flink.client.program.ClusterClient
+import org.apache.flink.configuration.{Configuration, RestOptions}
+
+import java.util.concurrent.{ConcurrentHashMap, ConcurrentLinkedDeque, TimeUnit}
+import java.util.function.{Function => JavaFunction}
+import scala.collection.JavaConversions._
+
+/**
+ * Pool of the cluster clients of the remote session clusters.
+ *
+ * A RestClusterClient owns its netty event loops and its retry executor, creating and closing them
+ * costs much more than the requests sent by the client, so the clients are kept and reused by the
+ * following submissions and cancellations of the same cluster. A client is closed instead of being
+ * returned when the action using it failed, the idle clients are closed after [[IDLE_TIMEOUT_MS]], and
+ * all of them are closed by [[close]] once the shims classloader of the clients is idle.
+ */
+object ClusterClientPool extends Logger {
+
+  private[this] val MAX_IDLE_PER_CLUSTER = 2
+
+  private[this] val IDLE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(5)
+
+  private[this] class PooledClient(val client: ClusterClient[_], val descriptor: AutoCloseable) {
+    @volatile var lastUsed: Long = System.currentTimeMillis()
+
+    def close(): Unit = Utils.close(client, descriptor)(e => logWarn(s"[cluster-client-pool] close client failed: ${e.getMessage}"))
+  }
+
+  private[this] val idleClients = new ConcurrentHashMap[String, ConcurrentLinkedDeque[PooledClient]]()
+
+  /**
+   * the clients are shared by the configurations with the same rest endpoint and the same rest and ssl options,
+   * the key holds the sorted options themselves, it may contain secrets and must not be logged.
+   */
+  private[tool] def key(flinkConfig: Configuration): String = {
+    val address = s"${flinkConfig.getString(RestOptions.ADDRESS)}:${flinkConfig.getInteger(RestOptions.PORT)}"
+    val options = flinkConfig.toMap
+      .filterKeys(k => k.startsWith("rest.") || k.startsWith("security.ssl."))
+      .toSeq
+      .sorted
+      .mkString(",")
+    s"$address@$options"
+  }
+
+  /**
+   * Run the action with a pooled client of the cluster, a new client is created by the given function
+   * when there is no idle client.
+   *
+   * @param create create the client and the cluster descriptor owning it.
+   */
+  def using[T](flinkConfig: Configuration)(create: => (ClusterClient[_], AutoCloseable))(action: ClusterClient[_] => T): T = {
+    evictIdle()
+    val clusterKey = key(flinkConfig)
+    val pooled = Option(idleClients.get(clusterKey)).flatMap(deque => Option(deque.pollFirst())).getOrElse {
+      val (client, descriptor) = create
+      logInfo(s"[cluster-client-pool] create client of ${client.getWebInterfaceURL}")
+      new PooledClient(client, descriptor)
+    }
+    val result = try {
+      action(pooled.client)
+    } catch {
+      case e: Throwable =>
+        pooled.close()
+        throw e
+    }
+    giveBack(clusterKey, pooled)
+    result
+  }
+
+  private[this] def giveBack(clusterKey: String, pooled: PooledClient): Unit = {
+    pooled.lastUsed = System.currentTimeMillis()
+    val deque = idleClients.computeIfAbsent(clusterKey, new JavaFunction[String, ConcurrentLinkedDeque[PooledClient]] {
+      override def apply(k: String): ConcurrentLinkedDeque[PooledClient] = new ConcurrentLinkedDeque[PooledClient]()
+    })
+    deque.offerFirst(pooled)
+    while (deque.size() > MAX_IDLE_PER_CLUSTER) {
+      Option(deque.pollLast()).foreach(_.close())
+    }
+  }
+
+  private[this] def evictIdle(): Unit = {
+    val deadline = System.currentTimeMillis() - IDLE_TIMEOUT_MS
+    idleClients.values().foreach(deque => {
+      deque.filter(_.lastUsed < deadline).foreach(pooled => {
+        if (deque.remove(pooled)) {
+          pooled.close()
+        }
+      })
+    })
+  }
+
+  /**
+   * close all the idle clients, called before the classloader of the clients is closed.
+   */
+  def close(): Unit = {
+    idleClients.values().foreach(deque => {
+      Iterator.continually(deque.pollFirst()).takeWhile(_ != null).foreach(_.close())
+    })
+    idleClients.clear()
+  }
+
+}
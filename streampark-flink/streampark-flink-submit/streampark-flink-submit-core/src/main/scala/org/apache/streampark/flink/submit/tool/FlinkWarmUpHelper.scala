@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.submit.tool
+
+import org.apache.streampark.common.util.Logger
+import org.apache.streampark.flink.submit.bean.{WarmUpRequest, WarmUpResponse}
+import org.apache.flink.client.cli.CliFrontend
+import org.apache.flink.client.deployment.ClusterClientFactory
+import org.apache.flink.configuration.{Configuration, GlobalConfiguration}
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment
+import org.apache.flink.streaming.api.functions.sink.DiscardingSink
+import org.apache.flink.streaming.api.graph.StreamingJobGraphGenerator
+
+import java.util.{LinkedHashMap => JavaLinkedMap, ServiceLoader}
+import scala.collection.JavaConversions._
+import scala.util.{Failure, Success, Try}
+
+/**
+ * Warm up the flink clients of a flink version, so that the first submission after a restart
+ * or after a flink home is registered does not pay the classloading and the static initialization
+ * of the client side of flink.
+ */
+object FlinkWarmUpHelper extends Logger {
+
+  /**
+   * the classes used by the submissions which are not touched by the steps of the warm up,
+   * missing classes (e.g. the yarn or kubernetes clients without their dependencies) are ignored.
+   */
+  private[this] val CLIENT_CLASSES = Seq(
+    "org.apache.flink.client.program.PackagedProgram",
+    "org.apache.flink.client.program.PackagedProgramUtils",
+    "org.apache.flink.client.program.rest.RestClusterClient",
+    "org.apache.flink.client.deployment.StandaloneClusterDescriptor",
+    "org.apache.flink.runtime.rest.RestClient",
+    "org.apache.flink.yarn.YarnClusterDescriptor",
+    "org.apache.flink.kubernetes.KubernetesClusterDescriptor"
+  )
+
+  /**
+   * Run the steps of the warm up one by one, a failed step does not stop the following ones.
+   *
+   * @return the cost in millis of each step, -1 if the step failed.
+   */
+  def warmUp(warmUpRequest: WarmUpRequest): WarmUpResponse = {
+    val flinkHome = warmUpRequest.flinkVersion.flinkHome
+    val confDir = s"$flinkHome/conf"
+    val stepCosts = new JavaLinkedMap[String, java.lang.Long]()
+
+    def step(name: String)(func: => Unit): Unit = {
+      val start = System.currentTimeMillis()
+      Try(func) match {
+        case Success(_) => stepCosts.put(name, System.currentTimeMillis() - start)
+        case Failure(e) =>
+          stepCosts.put(name, -1L)
+          logWarn(s"[flink-warm-up] step $name failed, flinkHome: $flinkHome, error: ${e.getMessage}")
+      }
+    }
+
+    var flinkConfig = new Configuration()
+    step("configuration") {
+      flinkConfig = GlobalConfiguration.loadConfiguration(confDir)
+    }
+    step("command-lines") {
+      CliFrontend.loadCustomCommandLines(flinkConfig, confDir)
+    }
+    step("client-factories") {
+      ServiceLoader.load(classOf[ClusterClientFactory[_]], getClass.getClassLoader)
+        .iterator()
+        .foreach(factory => Try(factory.isCompatibleWith(flinkConfig)))
+    }
+    step("client-classes") {
+      CLIENT_CLASSES.foreach(className => Try(Class.forName(className, true, getClass.getClassLoader)))
+    }
+    step("job-graph") {
+      // a dry-run plan, it goes through the stream graph and the job graph generation without any executor
+      val env = new StreamExecutionEnvironment(new Configuration())
+      env.fromSequence(0, 1).addSink(new DiscardingSink[java.lang.Long]())
+      StreamingJobGraphGenerator.createJobGraph(env.getStreamGraph)
+    }
+    WarmUpResponse(stepCosts)
+  }
+
+}
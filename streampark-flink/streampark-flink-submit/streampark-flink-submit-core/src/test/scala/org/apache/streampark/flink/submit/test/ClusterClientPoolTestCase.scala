@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.streampark.flink.submit.test
+
+import org.apache.flink.client.program.ClusterClient
+import org.apache.flink.configuration.{Configuration, RestOptions}
+import org.apache.streampark.flink.submit.tool.ClusterClientPool
+import org.junit.jupiter.api.{AfterEach, Assertions, Test}
+
+import java.lang.reflect.{InvocationHandler, Method, Proxy}
+import java.util.concurrent.atomic.AtomicInteger
+
+class ClusterClientPoolTestCase {
+
+  private val created = new AtomicInteger()
+
+  private val closed = new AtomicInteger()
+
+  private def newClient(): (ClusterClient[_], AutoCloseable) = {
+    created.incrementAndGet()
+    val client = Proxy.newProxyInstance(getClass.getClassLoader, Array(classOf[ClusterClient[_]]), new InvocationHandler {
+      override def invoke(proxy: Any, method: Method, args: Array[AnyRef]): AnyRef = method.getName match {
+        case "close" => closed.incrementAndGet(); null
+        case "hashCode" => Int.box(System.identityHashCode(proxy))
+        case "equals" => Boolean.box(proxy == args(0))
+        case _ => null
+      }
+    }).asInstanceOf[ClusterClient[_]]
+    (client, null)
+  }
+
+  private def config(port: Int): Configuration = {
+    val conf = new Configuration()
+    conf.setString(RestOptions.ADDRESS, "localhost")
+    conf.setInteger(RestOptions.PORT, port)
+    conf
+  }
+
+  @AfterEach def closePool(): Unit = ClusterClientPool.close()
+
+  @Test def reuseClientOfSameCluster(): Unit = {
+    val first = ClusterClientPool.using(config(8081))(newClient())(identity)
+    val second = ClusterClientPool.using(config(8081))(newClient())(identity)
+    Assertions.assertSame(first, second)
+    Assertions.assertEquals(1, created.get())
+
+    ClusterClientPool.using(config(8082))(newClient())(identity)
+    Assertions.assertEquals(2, created.get())
+    Assertions.assertEquals(0, closed.get())
+  }
+
+  @Test def closeClientOfFailedAction(): Unit = {
+    Assertions.assertThrows(classOf[IllegalStateException], () => {
+      ClusterClientPool.using(config(8081))(newClient())(_ => throw new IllegalStateException("failed"))
+    })
+    Assertions.assertEquals(1, closed.get())
+    ClusterClientPool.using(config(8081))(newClient())(identity)
+    Assertions.assertEquals(2, created.get())
+  }
+
+  @Test def closeIdleClients(): Unit = {
+    ClusterClientPool.using(config(8081))(newClient())(identity)
+    ClusterClientPool.using(config(8082))(newClient())(identity)
+    ClusterClientPool.close()
+    Assertions.assertEquals(2, closed.get())
+  }
+
+}